@@ -1,7 +1,7 @@
 import { Component, OnInit, inject } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { RouterModule, ActivatedRoute, Router } from '@angular/router';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 
 interface ApplicationListItem {
   id: number;
@@ -74,9 +74,15 @@ interface ApplicationListItem {
                   </tbody>
                 </table>
                 
-                <div *ngIf="applications.length === 0" class="text-center py-4">
+                <div *ngIf="applications.length === 0 && !loading" class="text-center py-4">
                   <p class="text-muted">Aucune candidature trouvée</p>
                 </div>
+                
+                <div *ngIf="nextCursor" class="text-center py-3">
+                  <button class="btn btn-outline-secondary btn-sm" [disabled]="loading" (click)="loadMore()">
+                    {{ loading ? 'Chargement...' : 'Charger plus' }}
+                  </button>
+                </div>
               </div>
             </div>
           </div>
@@ -95,8 +101,13 @@ interface ApplicationListItem {
   `]
 })
 export class ApplicationsListComponent implements OnInit {
+  // Taille des pages demandées ; la suite est lue avec le curseur renvoyé dans X-Next-Cursor
+  private static readonly PAGE_SIZE = 50;
+
   applications: ApplicationListItem[] = [];
   status: string | null = null;
+  nextCursor: string | null = null;
+  loading = false;
   
   private route = inject(ActivatedRoute);
   private router = inject(Router);
@@ -121,6 +132,18 @@ export class ApplicationsListComponent implements OnInit {
   }
 
   loadApplications(): void {
+    this.applications = [];
+    this.nextCursor = null;
+    this.loadPage();
+  }
+
+  loadMore(): void {
+    if (this.nextCursor && !this.loading) {
+      this.loadPage(this.nextCursor);
+    }
+  }
+
+  private loadPage(cursor?: string): void {
     const token = localStorage.getItem('token');
     const headers = { 'Authorization': `Bearer ${token}` };
     
@@ -131,12 +154,24 @@ export class ApplicationsListComponent implements OnInit {
       url += `/status/${this.status}`;
     }
     
-    this.http.get<ApplicationListItem[]>(url, { headers })
+    let params = new HttpParams().set('limit', ApplicationsListComponent.PAGE_SIZE);
+    if (cursor) {
+      params = params.set('cursor', cursor);
+    }
+    
+    this.loading = true;
+    this.http.get<ApplicationListItem[]>(url, { headers, params, observe: 'response' })
       .subscribe({
-        next: (apps) => {
-          this.applications = apps;
+        next: (response) => {
+          this.applications = [...this.applications, ...(response.body ?? [])];
+          // Absent sur la dernière page
+          this.nextCursor = response.headers.get('X-Next-Cursor');
+          this.loading = false;
         },
-        error: (err) => console.error('Erreur chargement candidatures', err)
+        error: (err) => {
+          this.loading = false;
+          console.error('Erreur chargement candidatures', err);
+        }
       });
   }
 
@@ -44,9 +44,19 @@ interface Application {
   receivedAt: string;
   status: string;
   aiScore?: number;
-  aiAnalysis?: string;
   viewedByRecruiter?: boolean;
   viewedAt?: string;
+  scores?: ApplicationScores; // Absent tant que l'analyse n'est pas terminée
+}
+
+// Sous-scores de l'analyse IA (ApplicationDTO.ScoresDTO) ; le rapport complet est sur la fiche candidature
+interface ApplicationScores {
+  pdf: number;
+  linkedin?: number;
+  github?: number;
+  candidateInfo?: number;
+  experienceYears?: number;
+  aiSuspected?: boolean;
 }
 
 @Component({
@@ -189,7 +199,10 @@ export class JobOfferDetailComponent implements OnInit {
     return 'bg-danger';
   }
 
-  getScoreBreakdown(totalScore: number): string {
+  getScoreBreakdown(totalScore: number, scores?: ApplicationScores): string {
+    if (scores) {
+      return `Détail de la note:\n• Documents PDF: ${scores.pdf}/8\n• Profil LinkedIn: ${scores.linkedin ?? 0}/6\n• Profil GitHub: ${scores.github ?? 0}/4\n• Informations candidat: ${scores.candidateInfo ?? 0}/2\n\nTotal: ${totalScore}/20`;
+    }
     // Simulation de la décomposition du score basée sur les critères d'évaluation
     const technical = Math.min(8, Math.round(totalScore * 0.4)); // 40% pour les compétences techniques (max 8)
     const experience = Math.min(6, Math.round(totalScore * 0.3)); // 30% pour l'expérience (max 6)
@@ -199,6 +212,20 @@ export class JobOfferDetailComponent implements OnInit {
     return `Détail de la note:\n• Compétences techniques: ${technical}/8\n• Expérience: ${experience}/6\n• Formation: ${education}/3\n• Motivation: ${motivation}/3\n\nTotal: ${totalScore}/20`;
   }
 
+  getAnalysisSummary(app: Application, fallback: string): string {
+    if (!app.scores) {
+      return fallback;
+    }
+    const summary = [`Score IA: ${app.aiScore ?? 0}/20`];
+    if (app.scores.experienceYears != null) {
+      summary.push(`Expérience: ${app.scores.experienceYears} an(s)`);
+    }
+    if (app.scores.aiSuspected) {
+      summary.push('⚠️ Contenu suspect (IA détectée)');
+    }
+    return summary.join('\n');
+  }
+
   copyApplicationLink(): void {
     if (this.jobOffer) {
       const link = `http://localhost:4200${this.jobOffer.applicationUrl}`;
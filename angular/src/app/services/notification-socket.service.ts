@@ -0,0 +1,123 @@
+import { Injectable, inject } from '@angular/core';
+import { Client, IMessage, StompSubscription } from '@stomp/stompjs';
+import { BehaviorSubject, Observable } from 'rxjs';
+import { AuthService } from './auth.service';
+
+// Non-lus d'une offre, tels que renvoyés par /app/notifications/unread
+export interface UnreadNotification {
+  jobOfferId: number;
+  jobOfferTitle: string;
+  unreadCount: number;
+  latestApplicationDate: string | null;
+  singleApplicationId?: number;
+}
+
+// Message poussé sur /user/queue/notifications et /topic/notifications (RecruiterNotification)
+export interface RecruiterNotification {
+  type: 'APPLICATION_RECEIVED' | 'ANALYSIS_COMPLETED' | 'UNREAD_DELTA' | 'UNREAD_RESET' | 'CANDIDATE_MATCHES';
+  jobOfferId: number | null;
+  applicationId: number | null;
+  unreadDelta: number | null;
+  occurredAt: string;
+}
+
+/**
+ * Canal STOMP des notifications recruteur : état initial des non-lus à la connexion, puis
+ * variations poussées par le serveur. Une variation qui ne peut pas être appliquée
+ * localement (offre inconnue, lien direct à recalculer) déclenche une resynchronisation.
+ */
+@Injectable({
+  providedIn: 'root'
+})
+export class NotificationSocketService {
+  private readonly brokerUrl = 'ws://localhost:8080/api/ws';
+  private readonly heartbeatMs = 10000;
+
+  private authService = inject(AuthService);
+  private client?: Client;
+  private resyncSubscription?: StompSubscription;
+  private unreadSubject = new BehaviorSubject<UnreadNotification[]>([]);
+
+  readonly unread$: Observable<UnreadNotification[]> = this.unreadSubject.asObservable();
+
+  connect(): void {
+    if (this.client?.active) {
+      return;
+    }
+    this.client = new Client({
+      brokerURL: this.brokerUrl,
+      heartbeatIncoming: this.heartbeatMs,
+      heartbeatOutgoing: this.heartbeatMs,
+      reconnectDelay: 5000,
+      // Jeton relu à chaque (re)connexion
+      beforeConnect: (client) => {
+        client.connectHeaders = { Authorization: `Bearer ${this.authService.getToken()}` };
+      },
+      onConnect: () => {
+        this.client?.subscribe('/user/queue/notifications', (message) => this.onNotification(message));
+        this.client?.subscribe('/topic/notifications', (message) => this.onNotification(message));
+        this.resync();
+      },
+      onStompError: (frame) => {
+        console.error('Erreur STOMP', frame.headers['message']);
+      }
+    });
+    this.client.activate();
+  }
+
+  disconnect(): void {
+    this.resyncSubscription = undefined;
+    this.client?.deactivate();
+    this.client = undefined;
+    this.unreadSubject.next([]);
+  }
+
+  private resync(): void {
+    if (!this.client?.connected || this.resyncSubscription) {
+      return;
+    }
+    // Réponse unique du serveur (@SubscribeMapping) à cet abonnement
+    this.resyncSubscription = this.client.subscribe('/app/notifications/unread', (message) => {
+      this.resyncSubscription?.unsubscribe();
+      this.resyncSubscription = undefined;
+      this.unreadSubject.next(JSON.parse(message.body));
+    });
+  }
+
+  private onNotification(message: IMessage): void {
+    const notification: RecruiterNotification = JSON.parse(message.body);
+    const unread = this.unreadSubject.value;
+
+    if (notification.type === 'UNREAD_RESET') {
+      this.unreadSubject.next(
+        notification.jobOfferId === null ? [] : unread.filter((offer) => offer.jobOfferId !== notification.jobOfferId)
+      );
+      return;
+    }
+    if (notification.type !== 'UNREAD_DELTA' || notification.unreadDelta === null) {
+      return;
+    }
+
+    const offer = unread.find((candidate) => candidate.jobOfferId === notification.jobOfferId);
+    const unreadCount = (offer?.unreadCount ?? 0) + notification.unreadDelta;
+    if (!offer || unreadCount === 1) {
+      // Titre de l'offre ou lien direct vers l'unique candidature inconnus ici
+      this.resync();
+      return;
+    }
+    const updated = unread
+      .map((current) =>
+        current === offer
+          ? {
+              ...current,
+              unreadCount,
+              singleApplicationId: undefined,
+              latestApplicationDate: notification.unreadDelta! > 0 ? notification.occurredAt : current.latestApplicationDate
+            }
+          : current
+      )
+      .filter((current) => current.unreadCount > 0)
+      .sort((a, b) => (b.latestApplicationDate ?? '').localeCompare(a.latestApplicationDate ?? ''));
+    this.unreadSubject.next(updated);
+  }
+}
@@ -12,8 +12,9 @@ import { ChatMsgComponent } from './chat-msg/chat-msg.component';
 import { AuthService, User } from 'src/app/services/auth.service';
 import { Router, RouterModule } from '@angular/router';
 import { ApplicationService } from 'src/app/services/application.service';
+import { NotificationSocketService } from 'src/app/services/notification-socket.service';
 import { OnInit, OnDestroy } from '@angular/core';
-import { interval, Subscription } from 'rxjs';
+import { Subscription } from 'rxjs';
 
 @Component({
   selector: 'app-nav-right',
@@ -45,6 +46,7 @@ export class NavRightComponent implements OnInit, OnDestroy {
   private authService = inject(AuthService);
   private router = inject(Router);
   private applicationService = inject(ApplicationService);
+  private notificationSocket = inject(NotificationSocketService);
 
   // constructor
   constructor() {
@@ -54,17 +56,19 @@ export class NavRightComponent implements OnInit, OnDestroy {
   }
 
   ngOnInit() {
-    this.loadNotifications();
-    // Actualiser les notifications toutes les 30 secondes
-    this.notificationSubscription = interval(30000).subscribe(() => {
-      this.loadNotifications();
+    // Non-lus poussés par le serveur (STOMP) : plus d'interrogation périodique
+    this.notificationSubscription = this.notificationSocket.unread$.subscribe((notifications) => {
+      this.notifications = notifications;
+      this.totalUnreadCount = notifications.reduce((sum: number, notif: any) => sum + notif.unreadCount, 0);
     });
+    this.notificationSocket.connect();
   }
 
   ngOnDestroy() {
     if (this.notificationSubscription) {
       this.notificationSubscription.unsubscribe();
     }
+    this.notificationSocket.disconnect();
   }
 
   get displayName(): string {
@@ -76,25 +80,11 @@ export class NavRightComponent implements OnInit, OnDestroy {
 
   // public method
   logout(): void {
+    this.notificationSocket.disconnect();
     this.authService.logout();
     this.router.navigate(['/login']);
   }
 
-  loadNotifications() {
-    console.log('Chargement des notifications...');
-    this.applicationService.getUnreadNotifications().subscribe({
-      next: (notifications) => {
-        console.log('Notifications reçues:', notifications);
-        this.notifications = notifications;
-        this.totalUnreadCount = notifications.reduce((sum: number, notif: any) => sum + notif.unreadCount, 0);
-        console.log('Total non lues:', this.totalUnreadCount);
-      },
-      error: (err) => {
-        console.error('Erreur lors du chargement des notifications', err);
-      }
-    });
-  }
-
   getTimeAgo(date: string): string {
     const now = new Date();
     const notifDate = new Date(date);
@@ -109,11 +99,9 @@ export class NavRightComponent implements OnInit, OnDestroy {
     return `${diffDays}j`;
   }
 
+  // Les compteurs remis à zéro arrivent par le canal STOMP (UNREAD_RESET)
   markAllAsRead() {
     this.applicationService.markAllNotificationsAsRead().subscribe({
-      next: () => {
-        this.loadNotifications();
-      },
       error: (err) => {
         console.error('Erreur lors du marquage des notifications', err);
       }
@@ -132,10 +120,6 @@ export class NavRightComponent implements OnInit, OnDestroy {
 
   markJobOfferAsRead(jobOfferId: number) {
     this.applicationService.markJobOfferNotificationsAsRead(jobOfferId).subscribe({
-      next: () => {
-        // Recharger les notifications après marquage
-        setTimeout(() => this.loadNotifications(), 100);
-      },
       error: (err) => {
         console.error('Erreur lors du marquage des notifications de l\'offre', err);
       }
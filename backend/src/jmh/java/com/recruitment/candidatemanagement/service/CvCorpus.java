@@ -0,0 +1,180 @@
+package com.recruitment.candidatemanagement.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Corpus de CV synthétiques pour les benchmarks, généré pendant le build (profil bench) :
+ * <ul>
+ *   <li>small : une demi-page, quelques compétences ;</li>
+ *   <li>typical : trois pages d'expériences, de formation et de compétences ;</li>
+ *   <li>pathological : des centaines de pages, lignes très longues, nombres en rafale
+ *       et formules suspectes répétées (pire cas pour les expressions régulières et l'extraction).</li>
+ * </ul>
+ * Chaque CV existe en texte (.txt), en PDF (.pdf) et avec un message de candidature (.letter.txt).
+ */
+public final class CvCorpus {
+
+    public static final String[] SIZES = {"small", "typical", "pathological"};
+
+    private static final String[] SKILLS = {
+        "java", "spring", "python", "docker", "kubernetes", "react", "angular", "postgresql",
+        "git", "maven", "microservices", "rest", "agile", "scrum", "communication", "leadership"
+    };
+    private static final String[] ROLES = {"Développeur", "Ingénieur", "Analyste", "Developer", "Engineer"};
+    private static final String[] PHRASES = {
+        "fort de mes compétences", "grâce à mon expertise", "je serais ravi de contribuer",
+        "n'hésitez pas à me contacter", "je reste à votre disposition"
+    };
+
+    private CvCorpus() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : directory().toString());
+        Files.createDirectories(dir);
+        for (String size : SIZES) {
+            List<String> lines = generate(size);
+            Files.write(dir.resolve(size + ".txt"), lines, StandardCharsets.UTF_8);
+            Files.writeString(dir.resolve(size + ".letter.txt"), letter(size), StandardCharsets.UTF_8);
+            writePdf(dir.resolve(size + ".pdf"), lines);
+        }
+        System.out.println("Corpus de benchmark généré dans " + dir.toAbsolutePath());
+    }
+
+    public static Path directory() {
+        return Paths.get(System.getProperty("bench.corpus", "target/bench-corpus"));
+    }
+
+    public static String readText(String size) {
+        return read(size + ".txt");
+    }
+
+    public static String readLetter(String size) {
+        return read(size + ".letter.txt");
+    }
+
+    public static byte[] readPdf(String size) {
+        try {
+            return Files.readAllBytes(directory().resolve(size + ".pdf"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corpus absent : lancer mvn -P bench", e);
+        }
+    }
+
+    private static String read(String file) {
+        try {
+            return Files.readString(directory().resolve(file), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corpus absent : lancer mvn -P bench", e);
+        }
+    }
+
+    static List<String> generate(String size) {
+        Random random = new Random(size.hashCode());
+        List<String> lines = new ArrayList<>();
+        lines.add("Jean Dupont - " + ROLES[random.nextInt(ROLES.length)] + " logiciel");
+        lines.add("jean.dupont@example.com - 06 12 34 56 78 - Lyon");
+        switch (size) {
+            case "small" -> {
+                lines.add("3 ans d'expérience en développement web");
+                addSkills(lines, random, 6);
+                lines.add("Formation : Licence informatique, IUT de Lyon");
+            }
+            case "typical" -> {
+                lines.add("Profil : 7 ans d'expérience, spécialisé backend et cloud");
+                for (int job = 0; job < 6; job++) {
+                    lines.add("");
+                    lines.add((2018 + job) + " - " + (2019 + job) + " : " + ROLES[random.nextInt(ROLES.length)]
+                        + " chez Entreprise " + (char) ('A' + job));
+                    for (int task = 0; task < 8; task++) {
+                        lines.add("- Conception et maintenance de services " + SKILLS[random.nextInt(SKILLS.length)]
+                            + " pour " + (10 + random.nextInt(90)) + " utilisateurs internes");
+                    }
+                }
+                addSkills(lines, random, SKILLS.length);
+                lines.add("Formation : Master informatique, école d'ingénieur");
+                lines.add("Certification : AWS, Scrum Master");
+            }
+            default -> {
+                // Pire cas : volume, nombres sans fin, quasi-correspondances de l'expression d'expérience
+                for (int page = 0; page < 400; page++) {
+                    for (int line = 0; line < 50; line++) {
+                        StringBuilder text = new StringBuilder();
+                        text.append(2020 + random.nextInt(5)).append(' ');
+                        for (int word = 0; word < 12; word++) {
+                            text.append(random.nextInt(100000)).append(random.nextBoolean() ? " ans " : " an ");
+                            text.append(SKILLS[random.nextInt(SKILLS.length)]).append(' ');
+                        }
+                        text.append(PHRASES[random.nextInt(PHRASES.length)]);
+                        lines.add(text.toString());
+                    }
+                }
+                StringBuilder longLine = new StringBuilder();
+                while (longLine.length() < 200_000) {
+                    longLine.append(random.nextInt(10)).append(" years exp");
+                }
+                lines.add(longLine.toString());
+            }
+        }
+        return lines;
+    }
+
+    static String letter(String size) {
+        StringBuilder letter = new StringBuilder("Madame, Monsieur,\n\nJe souhaite postuler à ce poste. ");
+        int repeat = switch (size) {
+            case "small" -> 1;
+            case "typical" -> 4;
+            default -> 200;
+        };
+        for (int i = 0; i < repeat; i++) {
+            letter.append("Je suis ravi de postuler : grâce à mon expertise approfondie, ")
+                  .append("mes compétences me permettent de contribuer rapidement. ");
+        }
+        letter.append("\nN'hésitez pas à me contacter, je reste à votre disposition.\n");
+        return letter.toString();
+    }
+
+    private static void addSkills(List<String> lines, Random random, int count) {
+        StringBuilder skills = new StringBuilder("Compétences : ");
+        for (int i = 0; i < count; i++) {
+            skills.append(SKILLS[random.nextInt(SKILLS.length)]).append(", ");
+        }
+        lines.add(skills.toString());
+    }
+
+    private static void writePdf(Path file, List<String> lines) throws IOException {
+        int linesPerPage = 50;
+        try (PDDocument document = new PDDocument()) {
+            for (int start = 0; start < lines.size(); start += linesPerPage) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 9);
+                    content.setLeading(12);
+                    content.newLineAtOffset(40, 750);
+                    for (String line : lines.subList(start, Math.min(start + linesPerPage, lines.size()))) {
+                        // Les lignes géantes débordent de la page : seul compte le texte extrait
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traitement d'un PDF déposé : extraction seule (Tika) et pipeline complet
+ * (empreinte, écriture et extraction en une lecture), tel qu'exécuté à l'upload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionBenchmark {
+
+    @Param({"small", "typical", "pathological"})
+    public String cv;
+
+    private TeeUploadPipeline pipeline;
+    private byte[] pdf;
+    private Path destination;
+
+    @Setup
+    public void load() throws IOException {
+        pipeline = new TeeUploadPipeline(new AppProperties());
+        pdf = CvCorpus.readPdf(cv);
+        destination = Files.createTempFile("bench-upload", ".pdf");
+    }
+
+    @TearDown
+    public void cleanUp() throws IOException {
+        pipeline.shutdown();
+        Files.deleteIfExists(destination);
+    }
+
+    @Benchmark
+    public String extractText() throws IOException {
+        return pipeline.extractText(new ByteArrayInputStream(pdf));
+    }
+
+    @Benchmark
+    public TeeUploadPipeline.Result upload() throws IOException {
+        return pipeline.process(new ByteArrayInputStream(pdf), destination);
+    }
+}
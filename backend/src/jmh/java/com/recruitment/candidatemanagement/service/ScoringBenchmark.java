@@ -0,0 +1,69 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemins chauds du scoring sur texte déjà extrait (débit et, avec -prof gc, allocation par opération).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoringBenchmark {
+
+    private static final String JOB_REQUIREMENTS =
+        "Développeur Java Spring confirmé, Docker, Kubernetes, PostgreSQL, méthodes agiles";
+
+    @Param({"small", "typical", "pathological"})
+    public String cv;
+
+    private PdfAnalysisService pdfAnalysisService;
+    private String text;
+    private Set<String> keywords;
+    private String letter;
+
+    @Setup
+    public void load() {
+        pdfAnalysisService = new PdfAnalysisService(new AppProperties());
+        // Texte tel que stocké à l'upload (normalisé en minuscules)
+        text = ExtractedTextStore.normalize(CvCorpus.readText(cv));
+        keywords = PdfAnalysisService.findKeywords(text);
+        letter = CvCorpus.readLetter(cv);
+    }
+
+    @Benchmark
+    public PdfAnalysisService.PdfAnalysisResult analyzeText() {
+        return pdfAnalysisService.analyzeText(text, JOB_REQUIREMENTS);
+    }
+
+    @Benchmark
+    public int extractExperienceYears() {
+        return PdfAnalysisService.extractExperienceYears(text);
+    }
+
+    @Benchmark
+    public boolean detectAiContent() {
+        return pdfAnalysisService.detectAiContent(keywords);
+    }
+
+    @Benchmark
+    public boolean detectAiInMessage() {
+        return AIAnalysisService.detectAiInMessage(letter);
+    }
+}
@@ -0,0 +1,31 @@
+package com.recruitment.candidatemanagement.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class AnalysisExecutorConfig {
+
+    // Pool des étapes d'analyse (PDF, LinkedIn, GitHub, message) exécutées en parallèle.
+    // File bornée : au-delà, l'analyse échoue (RejectedExecutionException) et son job est retenté
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService analysisStageExecutor(AppProperties appProperties) {
+        AppProperties.Ai.Stages stages = appProperties.getAi().getStages();
+        int poolSize = stages.getPoolSize();
+        AtomicInteger threadIndex = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(stages.getQueueCapacity()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "analysis-stage-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -13,10 +13,33 @@ public class AppProperties {
     private Email email = new Email();
     private Ai ai = new Ai();
     private Jwt jwt = new Jwt();
+    private Github github = new Github();
+    private Stats stats = new Stats();
+    private Analytics analytics = new Analytics();
+    private Notifications notifications = new Notifications();
+    private ViewMarkers viewMarkers = new ViewMarkers();
+    private Search search = new Search();
+    private Facets facets = new Facets();
+    private Autocomplete autocomplete = new Autocomplete();
+    private Matching matching = new Matching();
     
     @Data
     public static class FileStorage {
         private String uploadDir = "./uploads";
+        private long blobSweepIntervalMs = 3600000; // Rattrapage des blobs libérés non supprimés
+        private int downloadMetadataCacheSize = 10000;
+        private int ingestPoolSize = 8; // Documents ingérés simultanément hors transaction
+        private int ingestQueueCapacity = 32; // Au-delà, le dépôt est refusé (503)
+        private long ingestTimeoutMs = 60000; // Attente maximale de l'ingestion d'un dépôt
+        private Pipeline pipeline = new Pipeline();
+        
+        @Data
+        public static class Pipeline {
+            private int chunkSize = 65536;
+            private int queueChunks = 16; // Blocs en attente par consommateur avant de ralentir la lecture
+            private int maxConcurrentUploads = 8; // Trois threads par upload : 3 x ce nombre au plus
+            private long acquireTimeoutMs = 30000; // Attente d'une place avant de refuser l'upload
+        }
     }
     
     @Data
@@ -27,12 +50,132 @@ public class AppProperties {
     @Data
     public static class Ai {
         private Scoring scoring = new Scoring();
+        private TextCache textCache = new TextCache();
+        private Executor executor = new Executor();
+        private Worker worker = new Worker();
+        private Stages stages = new Stages();
+        private Pdf pdf = new Pdf();
         
         @Data
         public static class Scoring {
             private boolean enabled = true;
             private boolean mockMode = true;
         }
+        
+        @Data
+        public static class Executor {
+            private int poolSize = 4;
+            private int queueCapacity = 500; // Analyses en attente avant back-pressure
+            private long retryAfterSeconds = 30;
+            private long mockDelayMs = 2000; // Délai simulé en mode mock
+        }
+        
+        @Data
+        public static class Worker {
+            private boolean enabled = true; // false : l'instance enregistre les jobs sans les exécuter
+            private long pollIntervalMs = 2000;
+            private long leaseMs = 300000; // Au-delà, un job RUNNING peut être repris par un autre worker
+            private long leaseRenewIntervalMs = 60000;
+            private int maxAttempts = 5; // Ensuite le job passe en DEAD
+            private long backoffBaseMs = 30000; // Doublé à chaque tentative
+            private long backoffMaxMs = 3600000;
+            private long drainTimeoutMs = 30000; // Attente des analyses en cours à l'arrêt
+        }
+        
+        @Data
+        public static class Stages {
+            private int poolSize = 8; // Threads pour les étapes et documents en parallèle
+            private int queueCapacity = 200; // Étapes en attente avant de refuser l'analyse
+            private long pdfTimeoutMs = 20000;
+            private long documentTimeoutMs = 15000;
+            private long linkedinTimeoutMs = 5000;
+            private long githubTimeoutMs = 10000;
+            private long candidateInfoTimeoutMs = 2000;
+        }
+        
+        @Data
+        public static class Pdf {
+            private int maxPages = 50; // Pages extraites au plus par document
+            private long maxChars = 200000; // Caractères extraits au plus par document
+        }
+        
+        @Data
+        public static class TextCache {
+            private int maxEntries = 500; // Textes extraits gardés en mémoire
+        }
+    }
+    
+    @Data
+    public static class Github {
+        private String apiUrl = "https://api.github.com";
+        private int cacheMaxEntries = 1000;
+        private long cacheTtlMs = 3600000; // Profil considéré frais pendant 1 heure
+        private long staleWhileRevalidateMs = 86400000; // Servi périmé pendant 24 h, le temps de revalider
+        private long connectTimeoutMs = 2000;
+        private long requestTimeoutMs = 5000;
+        private int maxConcurrentCalls = 8; // Bulkhead : appels sortants simultanés
+        private long bulkheadWaitMs = 200;
+        private int maxRepoPages = 5; // 100 repositories par page
+        private int circuitFailureThreshold = 5;
+        private long circuitOpenMs = 30000;
+    }
+    
+    @Data
+    public static class Stats {
+        private long reconcileIntervalMs = 300000; // Compteurs en mémoire recalculés depuis la base
+        private int dailyRetentionDays = 90;
+        private long catalogTtlMs = 30000; // Nombre de candidats et d'offres
+    }
+    
+    @Data
+    public static class Analytics {
+        private long rollupIntervalMs = 600000; // Recalcul des derniers jours
+        private int rollupRecentDays = 14; // Jours recalculés à chaque passage (consultations tardives)
+        private long backfillIntervalMs = 5000;
+        private int rebuildChunkDays = 31; // Jours recalculés par transaction
+        private int maxRangeDays = 1096;
+    }
+    
+    @Data
+    public static class Notifications {
+        private long heartbeatMs = 10000; // Heartbeats STOMP dans chaque sens
+        private long unreadRefreshMs = 60000; // Relecture des compteurs de non-lus
+    }
+    
+    @Data
+    public static class ViewMarkers {
+        private long flushIntervalMs = 2000; // Consultations écrites en base au plus tard après ce délai
+        private int batchSize = 200; // Écriture anticipée au-delà de ce nombre en attente
+    }
+    
+    @Data
+    public static class Search {
+        private String indexDir = "./search-index";
+        private long commitIntervalMs = 10000; // Modifications de l'index rendues durables
+        private int maxPageSize = 100;
+        private int maxResults = 10000; // Profondeur maximale de pagination
+    }
+    
+    @Data
+    public static class Facets {
+        private long reloadIntervalMs = 3600000; // Relecture complète de l'index des facettes candidats
+        private int maxPageSize = 100;
+        private int locationFacetLimit = 20; // Localisations les plus fréquentes renvoyées
+    }
+    
+    @Data
+    public static class Autocomplete {
+        private int maxResults = 50;
+        private int minPrefixLength = 1; // Saisie plus courte : aucune suggestion
+    }
+    
+    @Data
+    public static class Matching {
+        private int candidatePoolSize = 200; // Candidats issus de l'index inversé, notés exactement
+        private int maxQueryTerms = 64; // Termes de l'offre les plus discriminants interrogés
+        private int maxResults = 100;
+        private long cacheTtlMs = 3600000; // Rapprochement d'une offre gardé 1 heure
+        private int cacheMaxEntries = 200; // Offres dont le rapprochement est gardé en mémoire
     }
     
     @Data
@@ -0,0 +1,95 @@
+package com.recruitment.candidatemanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesures du pool de connexions Hikari : attente pour obtenir une connexion, durée
+ * d'utilisation et délais dépassés, en plus de l'état instantané du pool.
+ * Branché sur la DataSource au démarrage, sans dépendre d'Actuator.
+ */
+@Component
+public class ConnectionPoolMetrics implements BeanPostProcessor, MetricsTrackerFactory {
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final LongAdder usages = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+    private final AtomicLong maxUsageMillis = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+
+    private volatile String poolName;
+    private volatile PoolStats poolStats;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource
+                && dataSource.getMetricsTrackerFactory() == null && dataSource.getMetricRegistry() == null) {
+            dataSource.setMetricsTrackerFactory(this);
+        }
+        return bean;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquisitions.increment();
+                acquireNanos.add(elapsedAcquiredNanos);
+                maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usages.increment();
+                usageMillis.add(elapsedBorrowedMillis);
+                maxUsageMillis.accumulateAndGet(elapsedBorrowedMillis, Math::max);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    public PoolSnapshot snapshot() {
+        PoolStats stats = poolStats;
+        long acquired = acquisitions.sum();
+        long used = usages.sum();
+        return new PoolSnapshot(
+            poolName,
+            stats != null ? stats.getActiveConnections() : 0,
+            stats != null ? stats.getIdleConnections() : 0,
+            stats != null ? stats.getMaxConnections() : 0,
+            stats != null ? stats.getPendingThreads() : 0,
+            acquired,
+            acquired > 0 ? TimeUnit.NANOSECONDS.toMicros(acquireNanos.sum()) / acquired : 0,
+            TimeUnit.NANOSECONDS.toMicros(maxAcquireNanos.get()),
+            used > 0 ? usageMillis.sum() / used : 0,
+            maxUsageMillis.get(),
+            timeouts.sum()
+        );
+    }
+
+    /**
+     * pendingThreads : threads en attente d'une connexion à cet instant.
+     */
+    public record PoolSnapshot(String poolName, int activeConnections, int idleConnections, int maxConnections,
+                               int pendingThreads, long acquisitions, long averageAcquireMicros,
+                               long maxAcquireMicros, long averageUsageMillis, long maxUsageMillis,
+                               long timeouts) {
+    }
+}
@@ -24,6 +24,9 @@ public class CorsConfig {
         // Autoriser tous les headers
         configuration.setAllowedHeaders(Arrays.asList("*"));
         
+        // Curseur de pagination et délai de nouvelle tentative lisibles par le client
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor", "Retry-After"));
+        
         // Autoriser les credentials
         configuration.setAllowCredentials(true);
         
@@ -0,0 +1,31 @@
+package com.recruitment.candidatemanagement.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class DocumentIngestConfig {
+
+    // Pool d'ingestion des documents déposés (écriture, empreinte, extraction), hors transaction.
+    // File bornée : un dépôt de plus est refusé (RejectedExecutionException) plutôt que mis en attente
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService documentIngestExecutor(AppProperties appProperties) {
+        AppProperties.FileStorage config = appProperties.getFileStorage();
+        int poolSize = config.getIngestPoolSize();
+        AtomicInteger threadIndex = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(config.getIngestQueueCapacity()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "document-ingest-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,57 @@
+package com.recruitment.candidatemanagement.config;
+
+import com.recruitment.candidatemanagement.security.StompAuthenticationInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * Canal STOMP des notifications recruteur : connexion sur /api/ws, abonnement à
+ * /user/queue/notifications et /topic/notifications, état initial des non-lus via
+ * /app/notifications/unread (à la connexion et à chaque resynchronisation).
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final StompAuthenticationInterceptor stompAuthenticationInterceptor;
+    private final AppProperties appProperties;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOrigins("http://localhost:4200");
+    }
+
+    // Heartbeats : les onglets fermés sans déconnexion sont détectés et libérés.
+    // Bean du contexte : initialisé par Spring et arrêté à sa fermeture ; exclu de l'injection
+    // par type pour que les tâches @Scheduled ne le prennent pas pour leur ordonnanceur
+    @Bean(destroyMethod = "shutdown", autowireCandidate = false)
+    public ThreadPoolTaskScheduler webSocketHeartbeatScheduler() {
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setPoolSize(1);
+        heartbeatScheduler.setThreadNamePrefix("ws-heartbeat-");
+        return heartbeatScheduler;
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        long heartbeat = appProperties.getNotifications().getHeartbeatMs();
+        registry.enableSimpleBroker("/queue", "/topic")
+            .setHeartbeatValue(new long[] {heartbeat, heartbeat})
+            .setTaskScheduler(webSocketHeartbeatScheduler());
+        registry.setApplicationDestinationPrefixes("/app");
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthenticationInterceptor);
+    }
+}
@@ -0,0 +1,63 @@
+package com.recruitment.candidatemanagement.controller;
+
+import com.recruitment.candidatemanagement.dto.FunnelStats;
+import com.recruitment.candidatemanagement.service.ApplicationRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entonnoir de recrutement sur une période, lu dans les agrégats journaliers
+ * (dates au format 2026-01-31, bornes incluses).
+ */
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+public class AnalyticsController {
+
+    private final ApplicationRollupService rollupService;
+
+    @GetMapping("/funnel/daily")
+    public ResponseEntity<List<FunnelStats>> getDailyFunnel(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long jobOfferId) {
+        try {
+            return ResponseEntity.ok(rollupService.getDailyFunnel(from, to, jobOfferId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/funnel/job-offers")
+    public ResponseEntity<List<FunnelStats>> getJobOfferFunnel(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(rollupService.getJobOfferFunnel(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Recalcul explicite, par exemple après une correction faite directement en base (administrateurs)
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> rebuildRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            rollupService.checkRange(from, to);
+            return ResponseEntity.ok(Map.of("rows", rollupService.rebuild(from, to)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -2,20 +2,26 @@ package com.recruitment.candidatemanagement.controller;
 
 import com.recruitment.candidatemanagement.dto.ApplicationDTO;
 import com.recruitment.candidatemanagement.dto.ApplicationDetailDTO;
+import com.recruitment.candidatemanagement.dto.ApplicationListItem;
+import com.recruitment.candidatemanagement.dto.CursorPage;
 import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.service.AnalysisDispatcher;
 import com.recruitment.candidatemanagement.service.ApplicationService;
+import com.recruitment.candidatemanagement.service.ApplicationStatsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
-import com.recruitment.candidatemanagement.entity.ApplicationDocument;
-import com.recruitment.candidatemanagement.repository.ApplicationDocumentRepository;
+import com.recruitment.candidatemanagement.service.DocumentDownloadService;
+import com.recruitment.candidatemanagement.service.WebSubmissionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.IOException;
+import java.security.Principal;
 import java.util.List;
 import java.util.Map;
 
@@ -26,25 +32,46 @@ import java.util.Map;
 public class ApplicationController {
     
     private final ApplicationService applicationService;
-    private final ApplicationDocumentRepository applicationDocumentRepository;
+    private final AnalysisDispatcher analysisDispatcher;
+    private final DocumentDownloadService documentDownloadService;
+    private final WebSubmissionService webSubmissionService;
+    private final ApplicationStatsService applicationStatsService;
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int INGEST_RETRY_AFTER_SECONDS = 30;
+    
+    // Critères de tri exposés -> propriétés de ApplicationScore
+    private static final Map<String, String> SCORE_SORT_PROPERTIES = Map.of(
+        "total", "totalScore",
+        "pdf", "pdfScore",
+        "linkedin", "linkedinScore",
+        "github", "githubScore",
+        "candidateInfo", "candidateInfoScore",
+        "experience", "experienceYears"
+    );
+    
+    // Listes paginées : ?cursor=<X-Next-Cursor de la page précédente>&limit=50 (200 max)
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAllApplications() {
-        List<Application> applications = applicationService.getAllApplications();
-        List<Map<String, Object>> result = applications.stream()
-            .map(this::mapToListItem)
-            .collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(result);
+    public ResponseEntity<List<ApplicationListItem>> getAllApplications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return toPageResponse(applicationService.getApplicationPage(null, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Map<String, Object>>> getApplicationsByStatus(
-            @PathVariable Application.ApplicationStatus status) {
-        List<Application> applications = applicationService.getApplicationsByStatus(status);
-        List<Map<String, Object>> result = applications.stream()
-            .map(this::mapToListItem)
-            .collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(result);
+    public ResponseEntity<List<ApplicationListItem>> getApplicationsByStatus(
+            @PathVariable Application.ApplicationStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return toPageResponse(applicationService.getApplicationPage(status, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/{id}")
@@ -62,13 +89,16 @@ public class ApplicationController {
     
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getApplicationStats() {
+        // Candidatures non archivées par statut, servies depuis la mémoire
+        ApplicationStatsService.ApplicationStats applications = applicationStatsService.getStats();
+        Map<Application.ApplicationStatus, Long> active = applications.activeByStatus();
         Map<String, Object> stats = Map.of(
-            "total", applicationService.getApplicationsCount(),
-            "today", applicationService.getTodaysApplicationsCount(),
-            "validated", applicationService.getApplicationsByStatus(Application.ApplicationStatus.VALIDATED).size(),
-            "ambiguous", applicationService.getApplicationsByStatus(Application.ApplicationStatus.AMBIGUOUS).size(),
-            "rejected", applicationService.getApplicationsByStatus(Application.ApplicationStatus.REJECTED).size(),
-            "pending", applicationService.getApplicationsByStatus(Application.ApplicationStatus.PENDING).size()
+            "total", applications.total(),
+            "today", applications.today(),
+            "validated", active.get(Application.ApplicationStatus.VALIDATED),
+            "ambiguous", active.get(Application.ApplicationStatus.AMBIGUOUS),
+            "rejected", active.get(Application.ApplicationStatus.REJECTED),
+            "pending", active.get(Application.ApplicationStatus.PENDING)
         );
         return ResponseEntity.ok(stats);
     }
@@ -112,13 +142,66 @@ public class ApplicationController {
         return ResponseEntity.ok(applications);
     }
     
+    /**
+     * Candidatures analysées d'une offre, filtrées et triées par sous-score
+     * (sortBy : total, pdf, linkedin, github, candidateInfo, experience).
+     */
+    @GetMapping("/job-offer/{jobOfferId}/ranked")
+    public ResponseEntity<List<ApplicationDTO>> getRankedApplicationsByJobOffer(
+            @PathVariable Long jobOfferId,
+            @RequestParam(defaultValue = "total") String sortBy,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) Integer minPdf,
+            @RequestParam(required = false) Integer minLinkedin,
+            @RequestParam(required = false) Integer minGithub,
+            @RequestParam(required = false) Integer minCandidateInfo,
+            @RequestParam(required = false) Integer minExperience,
+            @RequestParam(required = false) Boolean aiSuspected,
+            @RequestParam(required = false) String skill) {
+        String property = SCORE_SORT_PROPERTIES.get(sortBy);
+        if (property == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Sort sort = Sort.by("asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC, property)
+            .and(Sort.by(Sort.Direction.ASC, "applicationId"));
+        ApplicationService.ScoreFilter filter = new ApplicationService.ScoreFilter(
+            minPdf, minLinkedin, minGithub, minCandidateInfo, minExperience, aiSuspected,
+            skill != null ? skill.toLowerCase() : null);
+        return ResponseEntity.ok(applicationService.searchApplicationsByScores(jobOfferId, filter, sort));
+    }
+    
+    /**
+     * Meilleures candidatures analysées d'une offre (aiScore décroissant, puis ordre d'arrivée) :
+     * ?status=&archived=false&limit=20, page suivante avec ?cursor=<X-Next-Cursor>.
+     */
+    @GetMapping("/job-offer/{jobOfferId}/shortlist")
+    public ResponseEntity<List<ApplicationListItem>> getShortlist(
+            @PathVariable Long jobOfferId,
+            @RequestParam(required = false) Application.ApplicationStatus status,
+            @RequestParam(defaultValue = "false") boolean archived,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return toPageResponse(applicationService.getShortlist(jobOfferId, status, archived, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @PostMapping("/job-offer/{jobOfferId}/rescore")
+    public ResponseEntity<Map<String, Integer>> rescoreJobOffer(@PathVariable Long jobOfferId) {
+        return ResponseEntity.ok(applicationService.rescoreJobOffer(jobOfferId));
+    }
+    
     @GetMapping("/archived")
-    public ResponseEntity<List<Map<String, Object>>> getArchivedApplications() {
-        List<Application> applications = applicationService.getArchivedApplications();
-        List<Map<String, Object>> result = applications.stream()
-            .map(this::mapToListItem)
-            .collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(result);
+    public ResponseEntity<List<ApplicationListItem>> getArchivedApplications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return toPageResponse(applicationService.getArchivedApplicationPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/job-offer/{jobOfferId}/validated")
@@ -146,11 +229,22 @@ public class ApplicationController {
             @RequestParam("cv") MultipartFile cv,
             @RequestParam(value = "coverLetter", required = false) MultipartFile coverLetter) {
         try {
-            Application application = applicationService.createWebApplication(
+            ApplicationService.WebSubmission submission = webSubmissionService.submit(
                 jobOfferId, firstName, lastName, email, phone, 
                 linkedinUrl, githubUrl, currentPosition, currentCompany, location, 
                 message, cv, coverLetter);
-            return ResponseEntity.ok(application);
+            if (!submission.analysisScheduled()) {
+                // File d'analyse saturée : candidature enregistrée, analyse différée
+                return ResponseEntity.accepted()
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(analysisDispatcher.getRetryAfterSeconds()))
+                    .body(submission.application());
+            }
+            return ResponseEntity.ok(submission.application());
+        } catch (WebSubmissionService.IngestUnavailableException e) {
+            // Pool d'ingestion saturé : rien n'a été conservé, le dépôt peut être renvoyé
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(INGEST_RETRY_AFTER_SECONDS))
+                .build();
         } catch (RuntimeException e) {
             if (e.getMessage().contains("n'est plus disponible")) {
                 return ResponseEntity.status(410).build(); // 410 Gone - Offre expirée
@@ -162,28 +256,12 @@ public class ApplicationController {
     }
     
     @GetMapping("/documents/{documentId}/download")
-    public ResponseEntity<Resource> downloadDocument(
+    public void downloadDocument(
             @PathVariable Long documentId,
-            @RequestParam(required = false) String token) {
-        try {
-            ApplicationDocument document = applicationDocumentRepository.findById(documentId)
-                .orElseThrow(() -> new RuntimeException("Document non trouvé"));
-            
-            Path filePath = Paths.get(document.getFilePath());
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists() && resource.isReadable()) {
-                String disposition = "view".equals(token) ? "inline" : "attachment";
-                return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename=\"" + document.getFileName() + "\"")
-                    .header(HttpHeaders.CONTENT_TYPE, document.getContentType())
-                    .body(resource);
-            } else {
-                throw new RuntimeException("Fichier non trouvé ou non lisible");
-            }
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+            @RequestParam(required = false) String token,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        documentDownloadService.serve(documentId, "view".equals(token), request, response);
     }
     
     @PostMapping("/{id}/validate")
@@ -234,8 +312,8 @@ public class ApplicationController {
     }
     
     @PostMapping("/notifications/mark-all-read")
-    public ResponseEntity<Void> markAllNotificationsAsRead() {
-        applicationService.markAllNotificationsAsRead();
+    public ResponseEntity<Void> markAllNotificationsAsRead(Principal principal) {
+        applicationService.markAllNotificationsAsRead(principal.getName());
         return ResponseEntity.ok().build();
     }
     
@@ -245,24 +323,12 @@ public class ApplicationController {
         return ResponseEntity.ok().build();
     }
     
-    private Map<String, Object> mapToListItem(Application app) {
-        Map<String, Object> item = new java.util.HashMap<>();
-        item.put("id", app.getId());
-        item.put("receivedAt", app.getReceivedAt());
-        item.put("status", app.getStatus());
-        item.put("aiScore", app.getAiScore());
-        item.put("emailSubject", app.getEmailSubject());
-        
-        Map<String, Object> candidate = new java.util.HashMap<>();
-        if (app.getCandidate() != null) {
-            candidate.put("firstName", app.getCandidate().getFirstName());
-            candidate.put("lastName", app.getCandidate().getLastName());
-            candidate.put("email", app.getCandidate().getEmail());
-            candidate.put("phone", app.getCandidate().getPhone());
+    static <T> ResponseEntity<List<T>> toPageResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
         }
-        item.put("candidate", candidate);
-        
-        return item;
+        return response.body(page.items());
     }
     
     private Map<String, Object> mapToValidatedCandidate(Application app) {
@@ -1,12 +1,22 @@
 package com.recruitment.candidatemanagement.controller;
 
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.dto.CandidateFacetPage;
+import com.recruitment.candidatemanagement.dto.CandidateSuggestion;
 import com.recruitment.candidatemanagement.entity.Candidate;
 import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import com.recruitment.candidatemanagement.service.CandidateFacetIndex;
+import com.recruitment.candidatemanagement.service.CandidateNameIndex;
+import com.recruitment.candidatemanagement.service.CandidateService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/candidates")
@@ -15,6 +25,10 @@ import java.util.List;
 public class CandidateController {
     
     private final CandidateRepository candidateRepository;
+    private final CandidateService candidateService;
+    private final CandidateFacetIndex candidateFacetIndex;
+    private final CandidateNameIndex candidateNameIndex;
+    private final AppProperties appProperties;
     
     @GetMapping
     public ResponseEntity<List<Candidate>> getAllCandidates() {
@@ -28,11 +42,27 @@ public class CandidateController {
             .orElse(ResponseEntity.notFound().build());
     }
     
+    // Début du prénom, du nom ou de l'email, accents et casse ignorés
     @GetMapping("/search")
     public ResponseEntity<List<Candidate>> searchCandidates(@RequestParam String name) {
-        List<Candidate> candidates = candidateRepository
-            .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(name, name);
-        return ResponseEntity.ok(candidates);
+        List<Long> ids = candidateNameIndex.suggest(name, appProperties.getAutocomplete().getMaxResults()).stream()
+            .map(CandidateSuggestion::id)
+            .toList();
+        Map<Long, Candidate> candidates = candidateRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Candidate::getId, Function.identity()));
+        return ResponseEntity.ok(ids.stream().map(candidates::get).filter(Objects::nonNull).toList());
+    }
+    
+    // Suggestions de la zone de recherche, à chaque frappe : servies sans requête en base
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<CandidateSuggestion>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(candidateNameIndex.suggest(q, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/by-skill")
@@ -40,6 +70,27 @@ public class CandidateController {
         return ResponseEntity.ok(candidateRepository.findBySkill(skill));
     }
     
+    /**
+     * Recherche à facettes : skills (toutes requises), anySkills (au moins une), minExperience,
+     * maxExperience, locations (l'une d'elles) ; page suivante avec before=nextBefore.
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<CandidateFacetPage> searchByFacets(
+            @RequestParam(required = false) List<String> skills,
+            @RequestParam(required = false) List<String> anySkills,
+            @RequestParam(required = false) Integer minExperience,
+            @RequestParam(required = false) Integer maxExperience,
+            @RequestParam(required = false) List<String> locations,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(candidateFacetIndex.search(
+                skills, anySkills, minExperience, maxExperience, locations, before, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/by-location")
     public ResponseEntity<List<Candidate>> getCandidatesByLocation(@RequestParam String location) {
         return ResponseEntity.ok(candidateRepository.findByLocation(location));
@@ -49,20 +100,8 @@ public class CandidateController {
     public ResponseEntity<Candidate> updateCandidate(
             @PathVariable Long id, 
             @RequestBody Candidate candidateDetails) {
-        return candidateRepository.findById(id)
-            .map(candidate -> {
-                candidate.setFirstName(candidateDetails.getFirstName());
-                candidate.setLastName(candidateDetails.getLastName());
-                candidate.setPhone(candidateDetails.getPhone());
-                candidate.setLinkedinProfile(candidateDetails.getLinkedinProfile());
-                candidate.setCurrentPosition(candidateDetails.getCurrentPosition());
-                candidate.setCurrentCompany(candidateDetails.getCurrentCompany());
-                candidate.setLocation(candidateDetails.getLocation());
-                candidate.setYearsExperience(candidateDetails.getYearsExperience());
-                candidate.setSkills(candidateDetails.getSkills());
-                
-                return ResponseEntity.ok(candidateRepository.save(candidate));
-            })
+        return candidateService.updateCandidate(id, candidateDetails)
+            .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
@@ -1,16 +1,16 @@
 package com.recruitment.candidatemanagement.controller;
 
+import com.recruitment.candidatemanagement.config.ConnectionPoolMetrics;
+import com.recruitment.candidatemanagement.dto.ApplicationListItem;
 import com.recruitment.candidatemanagement.entity.Application;
-import com.recruitment.candidatemanagement.entity.JobOffer;
-import com.recruitment.candidatemanagement.repository.ApplicationRepository;
-import com.recruitment.candidatemanagement.repository.CandidateRepository;
-import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import com.recruitment.candidatemanagement.service.AnalysisDispatcher;
 import com.recruitment.candidatemanagement.service.ApplicationService;
+import com.recruitment.candidatemanagement.service.ApplicationStatsService;
+import com.recruitment.candidatemanagement.service.TeeUploadPipeline;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,58 +22,67 @@ import java.util.Map;
 public class DashboardController {
     
     private final ApplicationService applicationService;
-    private final ApplicationRepository applicationRepository;
-    private final JobOfferRepository jobOfferRepository;
-    private final CandidateRepository candidateRepository;
+    private final ApplicationStatsService applicationStatsService;
+    private final AnalysisDispatcher analysisDispatcher;
+    private final TeeUploadPipeline uploadPipeline;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
     
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
         Map<String, Object> stats = new HashMap<>();
+        // Compteurs tenus en mémoire : aucune requête pour les candidatures
+        ApplicationStatsService.ApplicationStats applications = applicationStatsService.getStats();
+        ApplicationStatsService.CatalogCounts catalog = applicationStatsService.getCatalogCounts();
         
         // Statistiques générales
-        stats.put("totalApplications", applicationRepository.count());
-        stats.put("totalCandidates", candidateRepository.count());
-        stats.put("totalJobOffers", jobOfferRepository.count());
-        stats.put("activeJobOffers", jobOfferRepository.countByStatus(JobOffer.JobStatus.PUBLISHED));
+        stats.put("totalApplications", applications.total());
+        stats.put("totalCandidates", catalog.candidates());
+        stats.put("totalJobOffers", catalog.jobOffers());
+        stats.put("activeJobOffers", catalog.publishedJobOffers());
         
         // Candidatures par statut
-        stats.put("validatedApplications", 
-            applicationRepository.countByStatus(Application.ApplicationStatus.VALIDATED));
-        stats.put("ambiguousApplications", 
-            applicationRepository.countByStatus(Application.ApplicationStatus.AMBIGUOUS));
-        stats.put("rejectedApplications", 
-            applicationRepository.countByStatus(Application.ApplicationStatus.REJECTED));
-        stats.put("pendingApplications", 
-            applicationRepository.countByStatus(Application.ApplicationStatus.PENDING));
+        stats.put("validatedApplications", applications.byStatus().get(Application.ApplicationStatus.VALIDATED));
+        stats.put("ambiguousApplications", applications.byStatus().get(Application.ApplicationStatus.AMBIGUOUS));
+        stats.put("rejectedApplications", applications.byStatus().get(Application.ApplicationStatus.REJECTED));
+        stats.put("pendingApplications", applications.byStatus().get(Application.ApplicationStatus.PENDING));
         
         // Candidatures du jour
-        LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        stats.put("todayApplications", applicationRepository.countTodaysApplications(startOfDay));
+        stats.put("todayApplications", applications.today());
         
         return ResponseEntity.ok(stats);
     }
     
+    @GetMapping("/analysis-queue")
+    public ResponseEntity<AnalysisDispatcher.QueueStats> getAnalysisQueueStats() {
+        return ResponseEntity.ok(analysisDispatcher.getStats());
+    }
+    
+    @GetMapping("/upload-pipeline")
+    public ResponseEntity<TeeUploadPipeline.PipelineStats> getUploadPipelineStats() {
+        return ResponseEntity.ok(uploadPipeline.getStats());
+    }
+    
+    @GetMapping("/db-pool")
+    public ResponseEntity<ConnectionPoolMetrics.PoolSnapshot> getDatabasePoolStats() {
+        return ResponseEntity.ok(connectionPoolMetrics.snapshot());
+    }
+    
     @GetMapping("/recent-applications")
-    public ResponseEntity<List<Application>> getRecentApplications(@RequestParam(defaultValue = "10") int limit) {
-        List<Application> applications = applicationService.getAllApplications();
-        
-        // Limiter les résultats
-        List<Application> recent = applications.stream()
-            .sorted((a, b) -> b.getReceivedAt().compareTo(a.getReceivedAt()))
-            .limit(limit)
-            .toList();
-        
-        return ResponseEntity.ok(recent);
+    public ResponseEntity<List<ApplicationListItem>> getRecentApplications(@RequestParam(defaultValue = "10") int limit) {
+        // Première page de la liste triée par date : seules les lignes affichées sont lues
+        return ResponseEntity.ok(applicationService.getApplicationPage(null, null, limit).items());
     }
     
     @GetMapping("/applications-by-status")
-    public ResponseEntity<Map<String, List<Application>>> getApplicationsByStatus() {
-        Map<String, List<Application>> result = new HashMap<>();
+    public ResponseEntity<Map<String, List<ApplicationListItem>>> getApplicationsByStatus(
+            @RequestParam(required = false) Integer limit) {
+        Map<String, List<ApplicationListItem>> result = new HashMap<>();
         
-        result.put("validated", applicationRepository.findByStatus(Application.ApplicationStatus.VALIDATED));
-        result.put("ambiguous", applicationRepository.findByStatus(Application.ApplicationStatus.AMBIGUOUS));
-        result.put("rejected", applicationRepository.findByStatus(Application.ApplicationStatus.REJECTED));
-        result.put("pending", applicationRepository.findByStatus(Application.ApplicationStatus.PENDING));
+        // Les plus récentes de chaque statut ; la suite via /applications/status/{status}
+        result.put("validated", applicationService.getApplicationPage(Application.ApplicationStatus.VALIDATED, null, limit).items());
+        result.put("ambiguous", applicationService.getApplicationPage(Application.ApplicationStatus.AMBIGUOUS, null, limit).items());
+        result.put("rejected", applicationService.getApplicationPage(Application.ApplicationStatus.REJECTED, null, limit).items());
+        result.put("pending", applicationService.getApplicationPage(Application.ApplicationStatus.PENDING, null, limit).items());
         
         return ResponseEntity.ok(result);
     }
@@ -1,15 +1,20 @@
 package com.recruitment.candidatemanagement.controller;
 
+import com.recruitment.candidatemanagement.config.AppProperties;
 import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.dto.CandidateMatches;
 import com.recruitment.candidatemanagement.dto.JobOfferDTO;
+import com.recruitment.candidatemanagement.dto.SearchPage;
+import com.recruitment.candidatemanagement.service.ApplicationStatsService;
+import com.recruitment.candidatemanagement.service.CandidateMatchingService;
 import com.recruitment.candidatemanagement.service.JobOfferService;
+import com.recruitment.candidatemanagement.service.SearchIndexService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/job-offers")
@@ -18,18 +23,14 @@ import java.util.stream.Collectors;
 public class JobOfferController {
     
     private final JobOfferService jobOfferService;
+    private final ApplicationStatsService applicationStatsService;
+    private final SearchIndexService searchIndexService;
+    private final CandidateMatchingService candidateMatchingService;
+    private final AppProperties appProperties;
     
     @GetMapping
     public ResponseEntity<List<JobOfferDTO>> getAllJobOffers() {
-        List<JobOfferDTO> jobOffers = jobOfferService.getAllJobOffers()
-            .stream()
-            .map(jobOffer -> {
-                JobOfferDTO dto = JobOfferDTO.fromEntity(jobOffer);
-                dto.setApplicationsCount(jobOfferService.getApplicationsCount(jobOffer.getId()));
-                return dto;
-            })
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(jobOffers);
+        return ResponseEntity.ok(jobOfferService.getJobOfferListing());
     }
     
     @GetMapping("/active")
@@ -44,7 +45,7 @@ public class JobOfferController {
             return jobOfferService.getJobOfferById(longId)
                 .map(jobOffer -> {
                     JobOfferDTO dto = JobOfferDTO.fromEntity(jobOffer);
-                    dto.setApplicationsCount(jobOfferService.getApplicationsCount(jobOffer.getId()));
+                    dto.setApplicationsCount(applicationStatsService.getJobOfferApplicationsCount(jobOffer.getId()));
                     return dto;
                 })
                 .map(ResponseEntity::ok)
@@ -67,7 +68,7 @@ public class JobOfferController {
         }
         
         JobOfferDTO dto = JobOfferDTO.fromEntity(jobOffer);
-        dto.setApplicationsCount(jobOfferService.getApplicationsCount(jobOffer.getId()));
+        dto.setApplicationsCount(applicationStatsService.getJobOfferApplicationsCount(jobOffer.getId()));
         return ResponseEntity.ok(dto);
     }
     
@@ -109,14 +110,35 @@ public class JobOfferController {
         }
     }
     
+    // Candidats existants les plus proches de l'offre (calculés à la publication)
+    @GetMapping("/{id}/matches")
+    public ResponseEntity<CandidateMatches> getCandidateMatches(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return candidateMatchingService.getMatches(id, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteJobOffer(@PathVariable Long id) {
         jobOfferService.deleteJobOffer(id);
         return ResponseEntity.ok().build();
     }
     
+    // Première page de l'index plein texte ; pagination et scores via /search/job-offers
     @GetMapping("/search")
     public ResponseEntity<List<JobOffer>> searchJobOffers(@RequestParam String keyword) {
-        return ResponseEntity.ok(jobOfferService.searchJobOffers(keyword));
+        try {
+            SearchPage<JobOffer> page = searchIndexService.searchJobOffers(
+                keyword, 0, appProperties.getSearch().getMaxPageSize());
+            return ResponseEntity.ok(page.hits().stream().map(SearchPage.Hit::item).toList());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 }
\ No newline at end of file
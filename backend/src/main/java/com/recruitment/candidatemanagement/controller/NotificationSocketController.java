@@ -0,0 +1,26 @@
+package com.recruitment.candidatemanagement.controller;
+
+import com.recruitment.candidatemanagement.service.ApplicationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+@Controller
+@RequiredArgsConstructor
+public class NotificationSocketController {
+
+    private final ApplicationService applicationService;
+
+    /**
+     * Non-lus par offre, renvoyés au seul abonné : seule lecture en base du canal,
+     * faite à la connexion puis à chaque resynchronisation (nouvel abonnement).
+     */
+    @SubscribeMapping("/notifications/unread")
+    public List<Map<String, Object>> getUnreadNotifications(Principal principal) {
+        return applicationService.getUnreadNotifications(principal.getName());
+    }
+}
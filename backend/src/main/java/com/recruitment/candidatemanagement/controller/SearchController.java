@@ -0,0 +1,54 @@
+package com.recruitment.candidatemanagement.controller;
+
+import com.recruitment.candidatemanagement.dto.SearchPage;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.service.SearchIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Recherche plein texte classée par pertinence. Syntaxe de q : mots tous requis,
+ * "expression exacte", préfixe* , -exclusion, a | b.
+ */
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+public class SearchController {
+
+    private final SearchIndexService searchIndexService;
+
+    @GetMapping("/job-offers")
+    public ResponseEntity<SearchPage<JobOffer>> searchJobOffers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(searchIndexService.searchJobOffers(q, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Profil et texte des CV déposés
+    @GetMapping("/candidates")
+    public ResponseEntity<SearchPage<Candidate>> searchCandidates(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(searchIndexService.searchCandidates(q, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Reconstruction complète en arrière-plan, par exemple après une modification faite directement en base
+    @PostMapping("/reindex")
+    public ResponseEntity<Void> reindex() {
+        searchIndexService.rebuild();
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.recruitment.candidatemanagement.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position dans une liste triée par (receivedAt, id) décroissants : la page suivante
+ * commence strictement après cette candidature. Transmis au client sous forme opaque.
+ * Un receivedAt null désigne une candidature sans date, listée après toutes les autres.
+ */
+public record ApplicationCursor(LocalDateTime receivedAt, Long id) {
+
+    // Avant toute candidature : première page
+    public static final ApplicationCursor FIRST = new ApplicationCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public static ApplicationCursor after(ApplicationListItem item) {
+        return new ApplicationCursor(item.receivedAt(), item.id());
+    }
+
+    public String encode() {
+        String raw = (receivedAt != null ? receivedAt : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur reçu du client ; {@link #FIRST} si absent.
+     */
+    public static ApplicationCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            String receivedAt = raw.substring(0, separator);
+            return new ApplicationCursor(receivedAt.isEmpty() ? null : LocalDateTime.parse(receivedAt),
+                                         Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.recruitment.candidatemanagement.dto;
 
 import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.ApplicationScore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -19,6 +20,24 @@ public class ApplicationDTO {
     private String aiAnalysis;
     private Boolean viewedByRecruiter;
     private LocalDateTime viewedAt;
+    private ScoresDTO scores; // Null tant que l'analyse n'est pas terminée
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ScoresDTO {
+        private Integer pdf;
+        private Integer linkedin;
+        private Integer github;
+        private Integer candidateInfo;
+        private Integer experienceYears;
+        private Boolean aiSuspected;
+        
+        public static ScoresDTO fromEntity(ApplicationScore score) {
+            return new ScoresDTO(score.getPdfScore(), score.getLinkedinScore(), score.getGithubScore(),
+                                 score.getCandidateInfoScore(), score.getExperienceYears(), score.getAiSuspected());
+        }
+    }
     
     @Data
     @NoArgsConstructor
@@ -37,7 +56,7 @@ public class ApplicationDTO {
         dto.setReceivedAt(application.getReceivedAt());
         dto.setStatus(application.getStatus());
         dto.setAiScore(application.getAiScore());
-        dto.setAiAnalysis(application.getAiAnalysis());
+        // aiAnalysis non renseigné : le rapport n'est servi que par la fiche détaillée
         dto.setViewedByRecruiter(application.getViewedByRecruiter());
         dto.setViewedAt(application.getViewedAt());
         
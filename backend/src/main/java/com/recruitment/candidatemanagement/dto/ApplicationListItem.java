@@ -0,0 +1,23 @@
+package com.recruitment.candidatemanagement.dto;
+
+import com.recruitment.candidatemanagement.entity.Application;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ligne des listes de candidatures : seules les colonnes affichées sont lues
+ * (projection JPQL, sans charger les entités).
+ */
+public record ApplicationListItem(Long id, LocalDateTime receivedAt, Application.ApplicationStatus status,
+                                  Integer aiScore, String emailSubject, CandidateSummary candidate) {
+
+    // Constructeur utilisé par les requêtes "SELECT new"
+    public ApplicationListItem(Long id, LocalDateTime receivedAt, Application.ApplicationStatus status,
+                               Integer aiScore, String emailSubject,
+                               String firstName, String lastName, String email, String phone) {
+        this(id, receivedAt, status, aiScore, emailSubject, new CandidateSummary(firstName, lastName, email, phone));
+    }
+
+    public record CandidateSummary(String firstName, String lastName, String email, String phone) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.recruitment.candidatemanagement.dto;
+
+import com.recruitment.candidatemanagement.entity.Candidate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Candidats correspondant aux filtres, du plus récent au plus ancien, avec le nombre de
+ * candidats par valeur de chaque facette parmi les résultats.
+ *
+ * @param nextBefore valeur de {@code before} pour la page suivante, null sur la dernière page
+ */
+public record CandidateFacetPage(long total, List<Candidate> candidates, Long nextBefore, Facets facets) {
+
+    public record Facets(Map<String, Integer> skills, Map<String, Integer> experience,
+                         Map<String, Integer> locations) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.recruitment.candidatemanagement.dto;
+
+import com.recruitment.candidatemanagement.entity.Candidate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Candidats existants les plus proches d'une offre, du plus proche au moins proche.
+ */
+public record CandidateMatches(Long jobOfferId, LocalDateTime computedAt, List<Match> matches) {
+
+    /**
+     * @param score         similarité cosinus (0 à 1) entre les vecteurs TF-IDF de l'offre et du candidat
+     * @param matchedSkills compétences demandées par l'offre présentes dans le profil
+     */
+    public record Match(Candidate candidate, double score, Set<String> matchedSkills) {
+    }
+}
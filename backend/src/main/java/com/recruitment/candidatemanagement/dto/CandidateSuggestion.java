@@ -0,0 +1,14 @@
+package com.recruitment.candidatemanagement.dto;
+
+import com.recruitment.candidatemanagement.entity.Candidate;
+
+/**
+ * Candidat proposé par l'autocomplétion : de quoi afficher la suggestion et ouvrir la fiche.
+ */
+public record CandidateSuggestion(Long id, String firstName, String lastName, String email) {
+
+    public static CandidateSuggestion fromEntity(Candidate candidate) {
+        return new CandidateSuggestion(candidate.getId(), candidate.getFirstName(),
+            candidate.getLastName(), candidate.getEmail());
+    }
+}
@@ -0,0 +1,9 @@
+package com.recruitment.candidatemanagement.dto;
+
+import java.util.List;
+
+/**
+ * Page d'une liste paginée par curseur ; nextCursor est null sur la dernière page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+}
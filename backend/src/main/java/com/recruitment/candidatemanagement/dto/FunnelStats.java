@@ -0,0 +1,34 @@
+package com.recruitment.candidatemanagement.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Entonnoir de recrutement sur une période, par jour (day renseigné) ou par offre
+ * (jobOfferId renseigné), calculé depuis les agrégats journaliers.
+ */
+public record FunnelStats(LocalDate day, Long jobOfferId, long received, long validated, long ambiguous,
+                          long rejected, long archived, Double averageAiScore, Double averageHoursToFirstView) {
+
+    // Constructeur utilisé par les requêtes "SELECT new" groupées par jour
+    public FunnelStats(LocalDate day, Long received, Long validated, Long ambiguous, Long rejected, Long archived,
+                       Long scored, Long scoreSum, Long viewed, Long viewDelaySeconds) {
+        this(day, null, received, validated, ambiguous, rejected, archived,
+            average(scoreSum, scored), hours(viewDelaySeconds, viewed));
+    }
+
+    // Constructeur utilisé par les requêtes "SELECT new" groupées par offre
+    public FunnelStats(Long jobOfferId, Long received, Long validated, Long ambiguous, Long rejected, Long archived,
+                       Long scored, Long scoreSum, Long viewed, Long viewDelaySeconds) {
+        this(null, jobOfferId, received, validated, ambiguous, rejected, archived,
+            average(scoreSum, scored), hours(viewDelaySeconds, viewed));
+    }
+
+    private static Double average(Long sum, Long count) {
+        return count == null || count == 0 ? null : (double) sum / count;
+    }
+
+    private static Double hours(Long seconds, Long count) {
+        Double average = average(seconds, count);
+        return average == null ? null : average / 3600;
+    }
+}
@@ -0,0 +1,45 @@
+package com.recruitment.candidatemanagement.dto;
+
+import com.recruitment.candidatemanagement.entity.Application;
+
+import java.time.LocalDateTime;
+
+/**
+ * Message poussé aux recruteurs sur /user/queue/notifications (ou /topic/notifications
+ * pour les offres sans auteur). Les champs non pertinents pour le type sont null.
+ */
+public record RecruiterNotification(Type type, Long jobOfferId, Long applicationId,
+                                    Application.ApplicationStatus status, Integer aiScore,
+                                    Integer unreadDelta, LocalDateTime occurredAt) {
+
+    public enum Type {
+        APPLICATION_RECEIVED,
+        ANALYSIS_COMPLETED,
+        UNREAD_DELTA,  // unreadDelta à ajouter au compteur de l'offre
+        UNREAD_RESET,  // Compteur de l'offre remis à zéro
+        CANDIDATE_MATCHES // Candidats existants rapprochés de l'offre publiée : GET /api/job-offers/{id}/matches
+    }
+
+    public static RecruiterNotification applicationReceived(Long jobOfferId, Long applicationId) {
+        return new RecruiterNotification(Type.APPLICATION_RECEIVED, jobOfferId, applicationId,
+            null, null, null, LocalDateTime.now());
+    }
+
+    public static RecruiterNotification analysisCompleted(Long jobOfferId, Long applicationId,
+                                                          Application.ApplicationStatus status, Integer aiScore) {
+        return new RecruiterNotification(Type.ANALYSIS_COMPLETED, jobOfferId, applicationId,
+            status, aiScore, null, LocalDateTime.now());
+    }
+
+    public static RecruiterNotification unreadDelta(Long jobOfferId, int delta) {
+        return new RecruiterNotification(Type.UNREAD_DELTA, jobOfferId, null, null, null, delta, LocalDateTime.now());
+    }
+
+    public static RecruiterNotification candidateMatches(Long jobOfferId) {
+        return new RecruiterNotification(Type.CANDIDATE_MATCHES, jobOfferId, null, null, null, null, LocalDateTime.now());
+    }
+
+    public static RecruiterNotification unreadReset(Long jobOfferId) {
+        return new RecruiterNotification(Type.UNREAD_RESET, jobOfferId, null, null, null, null, LocalDateTime.now());
+    }
+}
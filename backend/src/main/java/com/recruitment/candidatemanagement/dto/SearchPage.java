@@ -0,0 +1,12 @@
+package com.recruitment.candidatemanagement.dto;
+
+import java.util.List;
+
+/**
+ * Page de résultats d'une recherche plein texte, du plus pertinent au moins pertinent.
+ */
+public record SearchPage<T>(List<Hit<T>> hits, long total, int page, int size) {
+
+    public record Hit<T>(T item, float score) {
+    }
+}
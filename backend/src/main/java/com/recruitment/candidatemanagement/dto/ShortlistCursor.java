@@ -0,0 +1,40 @@
+package com.recruitment.candidatemanagement.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position dans une short-list triée par aiScore décroissant puis id croissant : la page
+ * suivante commence strictement après cette candidature. Transmis au client sous forme opaque.
+ */
+public record ShortlistCursor(Integer aiScore, Long id) {
+
+    // Avant toute candidature : première page
+    public static final ShortlistCursor FIRST = new ShortlistCursor(Integer.MAX_VALUE, 0L);
+
+    public static ShortlistCursor after(ApplicationListItem item) {
+        return new ShortlistCursor(item.aiScore(), item.id());
+    }
+
+    public String encode() {
+        String raw = aiScore + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur reçu du client ; {@link #FIRST} si absent.
+     */
+    public static ShortlistCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new ShortlistCursor(Integer.parseInt(raw.substring(0, separator)),
+                                       Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide", e);
+        }
+    }
+}
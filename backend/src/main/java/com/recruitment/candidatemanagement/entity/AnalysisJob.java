@@ -0,0 +1,78 @@
+package com.recruitment.candidatemanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Analyse IA à exécuter, persistée avec la candidature pour survivre aux redémarrages.
+ * Une seule ligne par candidature : une nouvelle demande remet la ligne en file.
+ */
+@Entity
+@Table(name = "analysis_jobs", indexes = {
+    @Index(name = "idx_analysis_job_claim", columnList = "status, priority, available_at"),
+    @Index(name = "idx_analysis_job_lease", columnList = "status, lease_expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalysisJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "application_id", nullable = false, unique = true)
+    private Long applicationId;
+    
+    @Column(nullable = false)
+    private Integer priority; // Ordinal de AnalysisDispatcher.Priority : plus petit = plus urgent
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobStatus status = JobStatus.QUEUED;
+    
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt; // Pas avant cette date (backoff entre deux tentatives)
+    
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+    
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        if (availableAt == null) {
+            availableAt = createdAt;
+        }
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public enum JobStatus {
+        QUEUED,  // En attente d'un worker
+        RUNNING, // Réservée par un worker jusqu'à lease_expires_at
+        DONE,
+        DEAD     // Abandonnée après le nombre maximal de tentatives
+    }
+}
@@ -5,11 +5,21 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "applications")
+@Table(name = "applications", indexes = {
+    // Pagination par curseur des listes (tri receivedAt, id)
+    @Index(name = "idx_application_received", columnList = "received_at, id"),
+    @Index(name = "idx_application_status_received", columnList = "status, received_at, id"),
+    // Short-list d'une offre (tri aiScore décroissant, id croissant), lue dans l'ordre de l'index
+    @Index(name = "idx_application_offer_score", columnList = "job_offer_id, ai_score DESC, id"),
+    @Index(name = "idx_application_offer_status_score", columnList = "job_offer_id, status, ai_score DESC, id")
+})
+// UPDATE limité aux colonnes modifiées : n'écrase pas une consultation enregistrée par ViewMarkerBuffer
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,7 +55,8 @@ public class Application {
     private Integer aiScore; // Score sur 20
     
     @Column(name = "ai_analysis", columnDefinition = "TEXT")
-    private String aiAnalysis;
+    @JsonIgnore
+    private String aiAnalysis; // Rapport texte des analyses antérieures à application_scores
     
     @Column(name = "recruiter_notes", columnDefinition = "TEXT")
     private String recruiterNotes;
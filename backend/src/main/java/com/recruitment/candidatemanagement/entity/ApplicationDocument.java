@@ -7,7 +7,9 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "application_documents")
+@Table(name = "application_documents", indexes = {
+    @Index(name = "idx_document_content_hash", columnList = "content_hash")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,6 +40,9 @@ public class ApplicationDocument {
     @Enumerated(EnumType.STRING)
     private DocumentType documentType;
     
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // SHA-256 du contenu du fichier
+    
     @Column(name = "extracted_text", columnDefinition = "TEXT")
     private String extractedText;
     
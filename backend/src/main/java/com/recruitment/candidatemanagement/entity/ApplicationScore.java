@@ -0,0 +1,172 @@
+package com.recruitment.candidatemanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Détail structuré de l'analyse IA d'une candidature (une ligne par candidature).
+ * Les sous-scores sont indexés par offre pour filtrer et trier en SQL ;
+ * le rapport texte est reconstruit à la demande par AnalysisReportRenderer.
+ */
+@Entity
+@Table(name = "application_scores", indexes = {
+    @Index(name = "idx_score_offer_total", columnList = "job_offer_id, total_score"),
+    @Index(name = "idx_score_offer_pdf", columnList = "job_offer_id, pdf_score"),
+    @Index(name = "idx_score_offer_linkedin", columnList = "job_offer_id, linkedin_score"),
+    @Index(name = "idx_score_offer_github", columnList = "job_offer_id, github_score"),
+    @Index(name = "idx_score_offer_candidate_info", columnList = "job_offer_id, candidate_info_score"),
+    @Index(name = "idx_score_offer_experience", columnList = "job_offer_id, experience_years")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApplicationScore {
+    
+    @Id
+    @Column(name = "application_id")
+    private Long applicationId;
+    
+    @Column(name = "job_offer_id", nullable = false)
+    private Long jobOfferId;
+    
+    @Column(name = "total_score")
+    private Integer totalScore; // Sur 20, identique à applications.ai_score
+    
+    @Column(name = "pdf_score")
+    private Integer pdfScore; // Sur 8
+    
+    @Column(name = "linkedin_score")
+    private Integer linkedinScore; // Sur 6
+    
+    @Column(name = "github_score")
+    private Integer githubScore; // Sur 4
+    
+    @Column(name = "candidate_info_score")
+    private Integer candidateInfoScore; // Sur 2
+    
+    @Column(name = "experience_years")
+    private Integer experienceYears;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "education_level")
+    private EducationLevel educationLevel;
+    
+    @Column(name = "ai_suspected")
+    private Boolean aiSuspected = false; // Document ou message probablement généré par IA
+    
+    @ElementCollection
+    @CollectionTable(name = "application_score_skills",
+                     joinColumns = @JoinColumn(name = "application_id"),
+                     indexes = @Index(name = "idx_score_skill", columnList = "skill"))
+    @Column(name = "skill", length = 100)
+    private Set<String> foundSkills = new LinkedHashSet<>();
+    
+    @ElementCollection
+    @CollectionTable(name = "application_score_documents",
+                     joinColumns = @JoinColumn(name = "application_id"))
+    @OrderColumn(name = "position")
+    private List<DocumentScore> documents = new ArrayList<>();
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "pdf_outcome")
+    private StageOutcome pdfOutcome;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "linkedin_outcome")
+    private StageOutcome linkedinOutcome;
+    
+    @Column(name = "linkedin_title")
+    private String linkedinTitle;
+    
+    @Column(name = "linkedin_skill_count")
+    private Integer linkedinSkillCount;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "github_outcome")
+    private StageOutcome githubOutcome;
+    
+    @Column(name = "github_public_repos")
+    private Integer githubPublicRepos;
+    
+    @Column(name = "github_stars")
+    private Integer githubStars;
+    
+    @Column(name = "github_languages", length = 500)
+    private String githubLanguages; // Séparés par des virgules
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "candidate_info_outcome")
+    private StageOutcome candidateInfoOutcome;
+    
+    @Column(name = "message_authentic")
+    private Boolean messageAuthentic;
+    
+    @Column(name = "message_personalized")
+    private Boolean messagePersonalized;
+    
+    @Column(name = "mock_mode")
+    private Boolean mockMode = false;
+    
+    @Column(name = "analyzed_at")
+    private LocalDateTime analyzedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        analyzedAt = LocalDateTime.now();
+    }
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DocumentScore {
+        
+        @Enumerated(EnumType.STRING)
+        @Column(name = "document_type")
+        private ApplicationDocument.DocumentType documentType;
+        
+        @Enumerated(EnumType.STRING)
+        @Column(name = "outcome")
+        private StageOutcome outcome;
+        
+        @Column(name = "skill_count")
+        private Integer skillCount;
+        
+        @Column(name = "experience_years")
+        private Integer experienceYears;
+        
+        @Column(name = "ai_suspected")
+        private Boolean aiSuspected;
+        
+        @Column(name = "relevant_experience")
+        private Boolean relevantExperience;
+    }
+    
+    public enum StageOutcome {
+        OK,
+        MISSING,   // Aucune donnée fournie (pas de profil, pas de message...)
+        TIMED_OUT,
+        FAILED
+    }
+    
+    public enum EducationLevel {
+        OTHER, TWO_YEAR_DEGREE, BACHELOR, MASTER, DOCTORATE;
+        
+        // Correspond au barème de PdfAnalysisService.calculateEducationScore
+        public static EducationLevel fromEducationScore(int educationScore) {
+            if (educationScore >= 8) return DOCTORATE;
+            if (educationScore >= 6) return MASTER;
+            if (educationScore >= 4) return BACHELOR;
+            if (educationScore >= 3) return TWO_YEAR_DEGREE;
+            return OTHER;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.recruitment.candidatemanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Agrégat des candidatures reçues un jour donné pour une offre (statut et archivage actuels).
+ * Les moyennes sont conservées sous forme de sommes pour pouvoir cumuler plusieurs lignes.
+ */
+@Entity
+@Table(name = "daily_application_rollups", indexes = {
+    @Index(name = "idx_rollup_job_offer_day", columnList = "job_offer_id, rollup_day")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyApplicationRollup {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private Long received;
+
+    @Column(nullable = false)
+    private Long validated;
+
+    @Column(nullable = false)
+    private Long ambiguous;
+
+    @Column(nullable = false)
+    private Long rejected;
+
+    @Column(nullable = false)
+    private Long archived;
+
+    @Column(nullable = false)
+    private Long scored; // Candidatures ayant un score IA
+
+    @Column(name = "score_sum", nullable = false)
+    private Long scoreSum;
+
+    @Column(nullable = false)
+    private Long viewed; // Candidatures consultées par un recruteur
+
+    @Column(name = "view_delay_seconds", nullable = false)
+    private Long viewDelaySeconds; // Somme des délais entre réception et première consultation
+
+    @Column(name = "refreshed_at")
+    private LocalDateTime refreshedAt;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "rollup_day", nullable = false)
+        private LocalDate day;
+
+        @Column(name = "job_offer_id", nullable = false)
+        private Long jobOfferId;
+    }
+}
@@ -0,0 +1,36 @@
+package com.recruitment.candidatemanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Candidatures non lues d'une offre. Marquer l'offre comme lue avance le filigrane, puis
+ * marque vues ses candidatures dont l'identifiant ne le dépasse pas : celles reçues
+ * entre-temps restent non lues.
+ */
+@Entity
+@Table(name = "job_offer_unread_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobOfferUnreadCounter {
+
+    @Id
+    @Column(name = "job_offer_id")
+    private Long jobOfferId;
+
+    @Column(name = "unread_count", nullable = false)
+    private Integer unreadCount;
+
+    @Column(name = "latest_received_at")
+    private LocalDateTime latestReceivedAt;
+
+    @Column(name = "latest_application_id", nullable = false)
+    private Long latestApplicationId;
+
+    @Column(name = "read_watermark", nullable = false)
+    private Long readWatermark; // Identifiant de candidature jusqu'auquel tout est lu
+}
@@ -0,0 +1,27 @@
+package com.recruitment.candidatemanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Avancement du calcul de l'historique des agrégats journaliers (une seule ligne),
+ * conservé pour reprendre au même jour après un redémarrage.
+ */
+@Entity
+@Table(name = "rollup_backfill")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupBackfill {
+
+    public static final Long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "backfill_before", nullable = false)
+    private LocalDate backfillBefore; // Jour (exclu) avant lequel l'historique reste à calculer
+}
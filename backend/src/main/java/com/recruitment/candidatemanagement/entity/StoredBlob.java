@@ -0,0 +1,43 @@
+package com.recruitment.candidatemanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Fichier stocké une seule fois par contenu (empreinte SHA-256), partagé par tous les
+ * documents identiques. Le fichier est supprimé quand plus aucun document ne le référence.
+ */
+@Entity
+@Table(name = "stored_blobs", indexes = {
+    @Index(name = "idx_stored_blob_released", columnList = "ref_count, released_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredBlob {
+    
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
+    @Column(name = "storage_path", nullable = false)
+    private String storagePath; // Relatif au dossier des blobs : ab/cd/<empreinte>
+    
+    @Column(nullable = false)
+    private Long size;
+    
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+    
+    @Column(name = "extracted_text", columnDefinition = "TEXT")
+    private String extractedText;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "released_at")
+    private LocalDateTime releasedAt; // Dernière référence retirée, en attente de suppression
+}
@@ -0,0 +1,74 @@
+package com.recruitment.candidatemanagement.repository;
+
+import com.recruitment.candidatemanagement.entity.AnalysisJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AnalysisJobRepository extends JpaRepository<AnalysisJob, Long> {
+    
+    Optional<AnalysisJob> findByApplicationId(Long applicationId);
+    
+    long countByStatus(AnalysisJob.JobStatus status);
+    
+    /**
+     * Verrouille les prochains jobs disponibles (ou dont le bail a expiré) sans attendre
+     * ceux déjà verrouillés par un autre worker. À appeler dans une transaction.
+     * <p>
+     * SKIP LOCKED demande MariaDB 10.6+ (ou MySQL 8, PostgreSQL) ; LIMIT n'est pas standard
+     * (FETCH FIRST ailleurs). Les tests l'exécutent sur H2 en mode MariaDB.
+     */
+    @Query(value = "SELECT * FROM analysis_jobs " +
+           "WHERE (status = 'QUEUED' AND available_at <= :now) " +
+           "OR (status = 'RUNNING' AND lease_expires_at < :now) " +
+           "ORDER BY priority, available_at, id " +
+           "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<AnalysisJob> lockNextAvailable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    @Modifying
+    @Query("UPDATE AnalysisJob j SET j.leaseExpiresAt = :expiresAt " +
+           "WHERE j.id IN :ids AND j.leaseOwner = :owner AND j.status = 'RUNNING'")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Modifying
+    @Query("UPDATE AnalysisJob j SET j.status = 'QUEUED', j.leaseOwner = NULL, j.leaseExpiresAt = NULL, " +
+           "j.attempts = j.attempts - 1 " +
+           "WHERE j.id IN :ids AND j.leaseOwner = :owner AND j.status = 'RUNNING'")
+    int releaseLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+    
+    /**
+     * Supprime les jobs des candidatures d'une offre, avant la suppression de celles-ci
+     * (la table n'a pas de clé étrangère vers applications).
+     */
+    @Modifying
+    @Query("DELETE FROM AnalysisJob j WHERE j.applicationId IN " +
+           "(SELECT a.id FROM Application a WHERE a.jobOffer.id = :jobOfferId)")
+    int deleteByJobOfferId(@Param("jobOfferId") Long jobOfferId);
+    
+    @Modifying
+    @Query("DELETE FROM AnalysisJob j WHERE j.applicationId = :applicationId")
+    int deleteByApplicationId(@Param("applicationId") Long applicationId);
+    
+    /**
+     * Crée un job pour les candidatures PENDING qui n'en ont pas (données antérieures à la file).
+     * SQL standard : si une autre instance insère les mêmes jobs au même moment, la contrainte
+     * unique sur application_id fait échouer l'une des deux requêtes, qui n'a rien à ajouter.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO analysis_jobs " +
+           "(application_id, priority, status, attempts, available_at, created_at, updated_at) " +
+           "SELECT a.id, :priority, 'QUEUED', 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+           "FROM applications a " +
+           "WHERE a.status = 'PENDING' " +
+           "AND NOT EXISTS (SELECT 1 FROM analysis_jobs j WHERE j.application_id = a.id)", nativeQuery = true)
+    int enqueueOrphanPendingApplications(@Param("priority") int priority);
+}
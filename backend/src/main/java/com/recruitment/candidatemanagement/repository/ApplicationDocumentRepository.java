@@ -2,12 +2,22 @@ package com.recruitment.candidatemanagement.repository;
 
 import com.recruitment.candidatemanagement.entity.ApplicationDocument;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ApplicationDocumentRepository extends JpaRepository<ApplicationDocument, Long> {
     List<ApplicationDocument> findByApplicationId(Long applicationId);
     List<ApplicationDocument> findByDocumentType(String documentType);
+    Optional<ApplicationDocument> findFirstByContentHashAndExtractedTextIsNotNull(String contentHash);
+    List<ApplicationDocument> findByApplicationJobOfferId(Long jobOfferId);
+    
+    // Documents de toutes les candidatures de ces candidats (index de recherche)
+    @Query("SELECT d FROM ApplicationDocument d JOIN FETCH d.application a WHERE a.candidate.id IN :candidateIds")
+    List<ApplicationDocument> findByCandidateIds(@Param("candidateIds") Collection<Long> candidateIds);
 }
\ No newline at end of file
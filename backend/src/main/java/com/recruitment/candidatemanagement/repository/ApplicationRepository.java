@@ -1,12 +1,19 @@
 package com.recruitment.candidatemanagement.repository;
 
+import com.recruitment.candidatemanagement.dto.ApplicationListItem;
 import com.recruitment.candidatemanagement.entity.Application;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,24 +22,81 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
     
     List<Application> findByStatus(Application.ApplicationStatus status);
     
+    @Query("SELECT a.id FROM Application a WHERE a.status = :status ORDER BY a.receivedAt")
+    List<Long> findIdsByStatus(@Param("status") Application.ApplicationStatus status, Pageable pageable);
+    
+    @Query("SELECT a.id FROM Application a WHERE a.jobOffer.id = :jobOfferId " +
+           "AND (a.archived IS NULL OR a.archived = false)")
+    List<Long> findActiveIdsByJobOfferId(@Param("jobOfferId") Long jobOfferId);
+    
     List<Application> findByJobOfferId(Long jobOfferId);
     
-    @Query(value = "SELECT a.id, a.received_at, a.status, a.ai_score, a.ai_analysis, " +
+    @Query("SELECT DISTINCT a.candidate.id FROM Application a WHERE a.id IN :ids")
+    List<Long> findCandidateIds(@Param("ids") Collection<Long> ids);
+    
+    long countByJobOfferId(Long jobOfferId);
+    
+    /**
+     * Nombre de candidatures de chaque offre, en une seule requête.
+     */
+    @Query("SELECT a.jobOffer.id AS jobOfferId, COUNT(a) AS applications FROM Application a " +
+           "WHERE a.jobOffer.id IN :jobOfferIds GROUP BY a.jobOffer.id")
+    List<JobOfferApplicationCount> countByJobOfferIds(@Param("jobOfferIds") Collection<Long> jobOfferIds);
+    
+    interface JobOfferApplicationCount {
+        Long getJobOfferId();
+        Long getApplications();
+    }
+    
+    // Requêtes de réconciliation des compteurs tenus en mémoire (ApplicationStatsService)
+    
+    @Query("SELECT a.jobOffer.id AS jobOfferId, COUNT(a) AS applications FROM Application a GROUP BY a.jobOffer.id")
+    List<JobOfferApplicationCount> countGroupedByJobOffer();
+    
+    @Query("SELECT a.status AS status, COALESCE(a.archived, false) AS archived, COUNT(a) AS applications " +
+           "FROM Application a GROUP BY a.status, COALESCE(a.archived, false)")
+    List<StatusCount> countGroupedByStatus();
+    
+    @Query("SELECT CAST(a.receivedAt AS LocalDate) AS day, COUNT(a) AS applications FROM Application a " +
+           "WHERE a.receivedAt >= :since GROUP BY CAST(a.receivedAt AS LocalDate)")
+    List<DailyCount> countGroupedByDaySince(@Param("since") LocalDateTime since);
+    
+    interface StatusCount {
+        Application.ApplicationStatus getStatus();
+        Boolean getArchived();
+        Long getApplications();
+    }
+    
+    interface DailyCount {
+        LocalDate getDay();
+        Long getApplications();
+    }
+    
+    @Query("SELECT a FROM Application a LEFT JOIN FETCH a.candidate WHERE a.id IN :ids")
+    List<Application> findByIdInWithCandidates(@Param("ids") java.util.Collection<Long> ids);
+    
+    @Query(value = "SELECT a.id, a.received_at, a.status, a.ai_score, " +
            "c.first_name, c.last_name, c.email, c.phone, c.linkedin_profile, " +
-           "a.viewed_by_recruiter, a.viewed_at " +
+           "a.viewed_by_recruiter, a.viewed_at, " +
+           "s.pdf_score, s.linkedin_score, s.github_score, s.candidate_info_score, s.experience_years, s.ai_suspected " +
            "FROM applications a JOIN candidates c ON a.candidate_id = c.id " +
+           "LEFT JOIN application_scores s ON s.application_id = a.id " +
            "WHERE a.job_offer_id = :jobOfferId AND (a.archived IS NULL OR a.archived = false)", nativeQuery = true)
     List<Object[]> findApplicationsWithCandidateByJobOfferId(@Param("jobOfferId") Long jobOfferId);
     
-    @Query(value = "SELECT a.id, a.received_at, a.status, a.ai_score, a.ai_analysis, " +
+    @Query(value = "SELECT a.id, a.received_at, a.status, a.ai_score, " +
            "c.first_name, c.last_name, c.email, c.phone, c.linkedin_profile, " +
-           "a.viewed_by_recruiter, a.viewed_at " +
+           "a.viewed_by_recruiter, a.viewed_at, " +
+           "s.pdf_score, s.linkedin_score, s.github_score, s.candidate_info_score, s.experience_years, s.ai_suspected " +
            "FROM applications a JOIN candidates c ON a.candidate_id = c.id " +
+           "LEFT JOIN application_scores s ON s.application_id = a.id " +
            "WHERE a.job_offer_id = :jobOfferId", nativeQuery = true)
     List<Object[]> findAllApplicationsWithCandidateByJobOfferId(@Param("jobOfferId") Long jobOfferId);
     
     List<Application> findByCandidateId(Long candidateId);
     
+    long countByCandidateId(Long candidateId);
+    
     @Query("SELECT a FROM Application a WHERE a.receivedAt BETWEEN :startDate AND :endDate")
     List<Application> findByDateRange(@Param("startDate") LocalDateTime startDate, 
                                     @Param("endDate") LocalDateTime endDate);
@@ -49,6 +113,9 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
     @Query("SELECT COUNT(a) FROM Application a WHERE a.receivedAt >= :date")
     long countTodaysApplications(@Param("date") LocalDateTime date);
     
+    @Query("SELECT MIN(a.receivedAt) FROM Application a")
+    Optional<LocalDateTime> findOldestReceivedAt();
+    
     @Query("SELECT a FROM Application a " +
            "LEFT JOIN FETCH a.candidate " +
            "LEFT JOIN FETCH a.jobOffer " +
@@ -56,11 +123,62 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
            "WHERE a.id = :id")
     Optional<Application> findByIdWithDetails(@Param("id") Long id);
     
-    @Query("SELECT a FROM Application a " +
-           "LEFT JOIN FETCH a.candidate " +
-           "WHERE a.archived IS NULL OR a.archived = false " +
-           "ORDER BY a.receivedAt DESC")
-    List<Application> findAllWithCandidates();
+    // Candidatures encore non vues, verrouillées le temps d'enregistrer leur consultation
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Application a WHERE a.id IN :ids " +
+           "AND (a.viewedByRecruiter IS NULL OR a.viewedByRecruiter = false) ORDER BY a.id")
+    List<Application> findNotViewedForUpdate(@Param("ids") Collection<Long> ids);
+    
+    // Listes paginées par curseur (receivedAt, id), du plus récent au plus ancien
+    String LIST_ITEM = "SELECT new com.recruitment.candidatemanagement.dto.ApplicationListItem(" +
+           "a.id, a.receivedAt, a.status, a.aiScore, a.emailSubject, " +
+           "c.firstName, c.lastName, c.email, c.phone) " +
+           "FROM Application a LEFT JOIN a.candidate c ";
+    String BEFORE_CURSOR = "(a.receivedAt < :receivedAt OR (a.receivedAt = :receivedAt AND a.id < :id)) ";
+    String NEWEST_FIRST = "ORDER BY a.receivedAt DESC, a.id DESC";
+    
+    @Query(LIST_ITEM + "WHERE (a.archived IS NULL OR a.archived = false) AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<ApplicationListItem> findActivePage(@Param("receivedAt") LocalDateTime receivedAt,
+                                             @Param("id") Long id, Limit limit);
+    
+    @Query(LIST_ITEM + "WHERE a.status = :status AND (a.archived IS NULL OR a.archived = false) AND " +
+           BEFORE_CURSOR + NEWEST_FIRST)
+    List<ApplicationListItem> findActivePageByStatus(@Param("status") Application.ApplicationStatus status,
+                                                     @Param("receivedAt") LocalDateTime receivedAt,
+                                                     @Param("id") Long id, Limit limit);
+    
+    @Query(LIST_ITEM + "WHERE a.archived = true AND " + BEFORE_CURSOR + NEWEST_FIRST)
+    List<ApplicationListItem> findArchivedPage(@Param("receivedAt") LocalDateTime receivedAt,
+                                               @Param("id") Long id, Limit limit);
+    
+    // Candidatures sans date de réception (écrites hors de l'application) : à la suite des autres, par id décroissant
+    String UNDATED_BEFORE_CURSOR = "a.receivedAt IS NULL AND a.id < :id ";
+    String UNDATED_NEWEST_FIRST = "ORDER BY a.id DESC";
+    
+    @Query(LIST_ITEM + "WHERE (a.archived IS NULL OR a.archived = false) AND " + UNDATED_BEFORE_CURSOR + UNDATED_NEWEST_FIRST)
+    List<ApplicationListItem> findActiveUndatedPage(@Param("id") Long id, Limit limit);
+    
+    @Query(LIST_ITEM + "WHERE a.status = :status AND (a.archived IS NULL OR a.archived = false) AND " +
+           UNDATED_BEFORE_CURSOR + UNDATED_NEWEST_FIRST)
+    List<ApplicationListItem> findActiveUndatedPageByStatus(@Param("status") Application.ApplicationStatus status,
+                                                            @Param("id") Long id, Limit limit);
+    
+    @Query(LIST_ITEM + "WHERE a.archived = true AND " + UNDATED_BEFORE_CURSOR + UNDATED_NEWEST_FIRST)
+    List<ApplicationListItem> findArchivedUndatedPage(@Param("id") Long id, Limit limit);
+    
+    /**
+     * Candidatures analysées d'une offre, de la mieux notée à la moins bien notée (à score égal,
+     * la plus ancienne d'abord), après le curseur (aiScore, id). status null : tous les statuts.
+     */
+    @Query(LIST_ITEM + "WHERE a.jobOffer.id = :jobOfferId AND a.aiScore IS NOT NULL " +
+           "AND (:status IS NULL OR a.status = :status) AND COALESCE(a.archived, false) = :archived " +
+           "AND (a.aiScore < :aiScore OR (a.aiScore = :aiScore AND a.id > :id)) " +
+           "ORDER BY a.aiScore DESC, a.id ASC")
+    List<ApplicationListItem> findShortlistPage(@Param("jobOfferId") Long jobOfferId,
+                                                @Param("status") Application.ApplicationStatus status,
+                                                @Param("archived") boolean archived,
+                                                @Param("aiScore") Integer aiScore,
+                                                @Param("id") Long id, Limit limit);
     
     @Query("SELECT a FROM Application a " +
            "LEFT JOIN FETCH a.candidate " +
@@ -68,36 +186,36 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
            "ORDER BY a.receivedAt DESC")
     List<Application> findByStatusWithCandidates(@Param("status") Application.ApplicationStatus status);
     
-    @Query("SELECT a FROM Application a " +
-           "LEFT JOIN FETCH a.candidate " +
-           "WHERE a.archived = true " +
-           "ORDER BY a.archivedAt DESC")
-    List<Application> findArchivedWithCandidates();
-    
     @Query("SELECT a FROM Application a " +
            "LEFT JOIN FETCH a.candidate " +
            "WHERE a.jobOffer.id = :jobOfferId AND a.status = :status " +
            "ORDER BY a.receivedAt DESC")
     List<Application> findByJobOfferIdAndStatus(@Param("jobOfferId") Long jobOfferId, @Param("status") Application.ApplicationStatus status);
     
-    @Query(value = "SELECT jo.id, jo.title, COUNT(a.id) as unread_count, MAX(a.received_at) as latest_date, " +
-           "CASE WHEN COUNT(a.id) = 1 THEN MIN(a.id) ELSE NULL END as single_application_id " +
-           "FROM applications a " +
-           "JOIN job_offers jo ON a.job_offer_id = jo.id " +
-           "WHERE (a.viewed_by_recruiter IS NULL OR a.viewed_by_recruiter = false) " +
-           "AND (a.archived IS NULL OR a.archived = false) " +
-           "GROUP BY jo.id, jo.title " +
-           "HAVING COUNT(a.id) > 0 " +
-           "ORDER BY latest_date DESC", nativeQuery = true)
-    List<Object[]> findUnreadNotificationsByJobOffer();
-    
+    /**
+     * Dernière candidature non lue de chaque offre (lien direct des offres qui n'en comptent qu'une).
+     */
+    @Query("SELECT a.jobOffer.id AS jobOfferId, MAX(a.id) AS applicationId FROM Application a " +
+           "WHERE a.jobOffer.id IN :jobOfferIds " +
+           "AND (a.viewedByRecruiter IS NULL OR a.viewedByRecruiter = false) " +
+           "AND (a.archived IS NULL OR a.archived = false) GROUP BY a.jobOffer.id")
+    List<LatestUnread> findLatestUnreadIds(@Param("jobOfferIds") Collection<Long> jobOfferIds);
+    
+    interface LatestUnread {
+        Long getJobOfferId();
+        Long getApplicationId();
+    }
+    
+    // Offres marquées comme lues : candidatures jusqu'au filigrane du compteur, pas celles reçues depuis
     @Modifying
     @Query("UPDATE Application a SET a.viewedByRecruiter = true, a.viewedAt = CURRENT_TIMESTAMP " +
-           "WHERE a.jobOffer.id = :jobOfferId AND (a.viewedByRecruiter IS NULL OR a.viewedByRecruiter = false)")
-    void markJobOfferApplicationsAsViewed(@Param("jobOfferId") Long jobOfferId);
+           "WHERE a.jobOffer.id IN :jobOfferIds AND (a.viewedByRecruiter IS NULL OR a.viewedByRecruiter = false) " +
+           "AND a.id <= (SELECT c.readWatermark FROM JobOfferUnreadCounter c WHERE c.jobOfferId = a.jobOffer.id)")
+    int markJobOfferApplicationsAsViewed(@Param("jobOfferIds") Collection<Long> jobOfferIds);
     
     @Modifying
     @Query("UPDATE Application a SET a.viewedByRecruiter = true, a.viewedAt = CURRENT_TIMESTAMP " +
-           "WHERE a.viewedByRecruiter IS NULL OR a.viewedByRecruiter = false")
-    void markAllApplicationsAsViewed();
+           "WHERE (a.viewedByRecruiter IS NULL OR a.viewedByRecruiter = false) " +
+           "AND a.id <= (SELECT c.readWatermark FROM JobOfferUnreadCounter c WHERE c.jobOfferId = a.jobOffer.id)")
+    int markAllApplicationsAsViewed();
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.recruitment.candidatemanagement.repository;
+
+import com.recruitment.candidatemanagement.entity.ApplicationScore;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ApplicationScoreRepository extends JpaRepository<ApplicationScore, Long> {
+    
+    List<ApplicationScore> findByApplicationIdIn(Collection<Long> applicationIds);
+    
+    /**
+     * Expérience et compétences relevées par l'analyse, une ligne par compétence (skill null si aucune).
+     */
+    @Query("SELECT a.candidate.id AS candidateId, s.experienceYears AS experienceYears, skill AS skill " +
+           "FROM ApplicationScore s JOIN Application a ON a.id = s.applicationId " +
+           "LEFT JOIN s.foundSkills skill WHERE a.candidate.id IN :candidateIds")
+    List<CandidateAnalysisFacet> findCandidateFacets(@Param("candidateIds") Collection<Long> candidateIds);
+    
+    /**
+     * Filtre les candidatures d'une offre sur leurs sous-scores ; chaque critère est ignoré s'il est null.
+     */
+    @Query("SELECT s FROM ApplicationScore s WHERE s.jobOfferId = :jobOfferId " +
+           "AND (:minPdf IS NULL OR s.pdfScore >= :minPdf) " +
+           "AND (:minLinkedin IS NULL OR s.linkedinScore >= :minLinkedin) " +
+           "AND (:minGithub IS NULL OR s.githubScore >= :minGithub) " +
+           "AND (:minCandidateInfo IS NULL OR s.candidateInfoScore >= :minCandidateInfo) " +
+           "AND (:minExperience IS NULL OR s.experienceYears >= :minExperience) " +
+           "AND (:aiSuspected IS NULL OR s.aiSuspected = :aiSuspected) " +
+           "AND (:skill IS NULL OR :skill MEMBER OF s.foundSkills)")
+    List<ApplicationScore> search(@Param("jobOfferId") Long jobOfferId,
+                                  @Param("minPdf") Integer minPdf,
+                                  @Param("minLinkedin") Integer minLinkedin,
+                                  @Param("minGithub") Integer minGithub,
+                                  @Param("minCandidateInfo") Integer minCandidateInfo,
+                                  @Param("minExperience") Integer minExperience,
+                                  @Param("aiSuspected") Boolean aiSuspected,
+                                  @Param("skill") String skill,
+                                  Sort sort);
+    
+    /**
+     * Suppression en masse des scores d'une offre : le DELETE JPQL ne touchant pas les
+     * collections d'éléments, compétences et documents sont retirés d'abord, en SQL.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM application_score_skills WHERE application_id IN " +
+                   "(SELECT application_id FROM application_scores WHERE job_offer_id = :jobOfferId)",
+           nativeQuery = true)
+    int deleteSkillsByJobOfferId(@Param("jobOfferId") Long jobOfferId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM application_score_documents WHERE application_id IN " +
+                   "(SELECT application_id FROM application_scores WHERE job_offer_id = :jobOfferId)",
+           nativeQuery = true)
+    int deleteDocumentsByJobOfferId(@Param("jobOfferId") Long jobOfferId);
+    
+    @Modifying
+    @Query("DELETE FROM ApplicationScore s WHERE s.jobOfferId = :jobOfferId")
+    int deleteByJobOfferId(@Param("jobOfferId") Long jobOfferId);
+    
+    interface CandidateAnalysisFacet {
+        Long getCandidateId();
+        Integer getExperienceYears();
+        String getSkill();
+    }
+}
@@ -1,8 +1,10 @@
 package com.recruitment.candidatemanagement.repository;
 
 import com.recruitment.candidatemanagement.entity.Candidate;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -12,9 +14,6 @@ public interface CandidateRepository extends JpaRepository<Candidate, Long> {
     
     Optional<Candidate> findByEmail(String email);
     
-    List<Candidate> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
-        String firstName, String lastName);
-    
     @Query("SELECT c FROM Candidate c WHERE c.skills LIKE %:skill%")
     List<Candidate> findBySkill(String skill);
     
@@ -24,4 +23,7 @@ public interface CandidateRepository extends JpaRepository<Candidate, Long> {
     List<Candidate> findByMinimumExperience(Integer minYears);
     
     boolean existsByEmail(String email);
+    
+    @Query("SELECT c.id FROM Candidate c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.recruitment.candidatemanagement.repository;
+
+import com.recruitment.candidatemanagement.dto.FunnelStats;
+import com.recruitment.candidatemanagement.entity.DailyApplicationRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailyApplicationRollupRepository extends JpaRepository<DailyApplicationRollup, DailyApplicationRollup.Key> {
+
+    String FUNNEL_SUMS = "SUM(r.received), SUM(r.validated), SUM(r.ambiguous), SUM(r.rejected), SUM(r.archived), " +
+                         "SUM(r.scored), SUM(r.scoreSum), SUM(r.viewed), SUM(r.viewDelaySeconds))";
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_application_rollups WHERE rollup_day >= :from AND rollup_day < :to",
+           nativeQuery = true)
+    int deleteDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Recalcule les agrégats des candidatures reçues entre from (inclus) et to (exclu),
+     * en une lecture de l'index (received_at, id).
+     * <p>
+     * TIMESTAMPDIFF et NOW() sont propres à MariaDB/MySQL (également acceptés par H2, sur
+     * lequel les tests l'exécutent) ; le jour est obtenu par CAST(... AS DATE), standard.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_application_rollups " +
+           "(rollup_day, job_offer_id, received, validated, ambiguous, rejected, archived, " +
+           "scored, score_sum, viewed, view_delay_seconds, refreshed_at) " +
+           "SELECT CAST(a.received_at AS DATE), a.job_offer_id, COUNT(*), " +
+           "SUM(CASE WHEN a.status = 'VALIDATED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN a.status = 'AMBIGUOUS' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN a.status = 'REJECTED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN a.archived = TRUE THEN 1 ELSE 0 END), " +
+           "COUNT(a.ai_score), COALESCE(SUM(a.ai_score), 0), COUNT(a.viewed_at), " +
+           "COALESCE(SUM(TIMESTAMPDIFF(SECOND, a.received_at, a.viewed_at)), 0), NOW() " +
+           "FROM applications a WHERE a.received_at >= :from AND a.received_at < :to " +
+           "GROUP BY CAST(a.received_at AS DATE), a.job_offer_id", nativeQuery = true)
+    int insertDays(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM DailyApplicationRollup r WHERE r.id.jobOfferId = :jobOfferId")
+    int deleteByJobOfferId(@Param("jobOfferId") Long jobOfferId);
+
+    @Query("SELECT new com.recruitment.candidatemanagement.dto.FunnelStats(r.id.day, " + FUNNEL_SUMS +
+           " FROM DailyApplicationRollup r WHERE r.id.day BETWEEN :from AND :to " +
+           "GROUP BY r.id.day ORDER BY r.id.day")
+    List<FunnelStats> findDailyFunnel(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.recruitment.candidatemanagement.dto.FunnelStats(r.id.day, " + FUNNEL_SUMS +
+           " FROM DailyApplicationRollup r WHERE r.id.jobOfferId = :jobOfferId AND r.id.day BETWEEN :from AND :to " +
+           "GROUP BY r.id.day ORDER BY r.id.day")
+    List<FunnelStats> findDailyFunnelByJobOffer(@Param("jobOfferId") Long jobOfferId,
+                                                @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.recruitment.candidatemanagement.dto.FunnelStats(r.id.jobOfferId, " + FUNNEL_SUMS +
+           " FROM DailyApplicationRollup r WHERE r.id.day BETWEEN :from AND :to " +
+           "GROUP BY r.id.jobOfferId ORDER BY SUM(r.received) DESC")
+    List<FunnelStats> findJobOfferFunnel(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -2,9 +2,12 @@ package com.recruitment.candidatemanagement.repository;
 
 import com.recruitment.candidatemanagement.entity.JobOffer;
 import com.recruitment.candidatemanagement.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,12 +17,28 @@ public interface JobOfferRepository extends JpaRepository<JobOffer, Long> {
     
     List<JobOffer> findByStatusOrderByCreatedAtDesc(JobOffer.JobStatus status);
     
-    @Query("SELECT j FROM JobOffer j WHERE j.title LIKE %:keyword% OR j.description LIKE %:keyword%")
-    List<JobOffer> findByKeyword(String keyword);
-    
     java.util.Optional<JobOffer> findByApplicationUrl(String applicationUrl);
     
     long countByStatus(JobOffer.JobStatus status);
     
     List<JobOffer> findByCreatedBy(User createdBy);
+    
+    @Query("SELECT j.id FROM JobOffer j WHERE j.id > :afterId ORDER BY j.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+    
+    @Query("SELECT u.username FROM JobOffer j JOIN j.createdBy u WHERE j.id = :id")
+    java.util.Optional<String> findCreatorUsername(@Param("id") Long id);
+    
+    @Query("SELECT j.id AS id, j.title AS title FROM JobOffer j WHERE j.id IN :ids")
+    List<JobOfferTitle> findTitles(@Param("ids") Collection<Long> ids);
+    
+    // Offres du recruteur et offres sans auteur
+    @Query("SELECT j.id AS id, j.title AS title FROM JobOffer j LEFT JOIN j.createdBy u " +
+           "WHERE j.id IN :ids AND (u.username = :username OR u.id IS NULL)")
+    List<JobOfferTitle> findTitlesVisibleTo(@Param("ids") Collection<Long> ids, @Param("username") String username);
+    
+    interface JobOfferTitle {
+        Long getId();
+        String getTitle();
+    }
 }
\ No newline at end of file
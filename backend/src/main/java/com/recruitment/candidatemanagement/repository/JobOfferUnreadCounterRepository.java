@@ -0,0 +1,61 @@
+package com.recruitment.candidatemanagement.repository;
+
+import com.recruitment.candidatemanagement.entity.JobOfferUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface JobOfferUnreadCounterRepository extends JpaRepository<JobOfferUnreadCounter, Long> {
+
+    /**
+     * Compte une nouvelle candidature, sauf si l'offre a été marquée comme lue après
+     * l'attribution de son identifiant.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO job_offer_unread_counters " +
+           "(job_offer_id, unread_count, latest_received_at, latest_application_id, read_watermark) " +
+           "VALUES (:jobOfferId, 1, :receivedAt, :applicationId, 0) " +
+           "ON DUPLICATE KEY UPDATE " +
+           "unread_count = unread_count + IF(VALUES(latest_application_id) > read_watermark, 1, 0), " +
+           "latest_received_at = GREATEST(COALESCE(latest_received_at, VALUES(latest_received_at)), VALUES(latest_received_at)), " +
+           "latest_application_id = GREATEST(latest_application_id, VALUES(latest_application_id))", nativeQuery = true)
+    int recordReceived(@Param("jobOfferId") Long jobOfferId, @Param("applicationId") Long applicationId,
+                       @Param("receivedAt") LocalDateTime receivedAt);
+
+    // 1 si la candidature était comptée comme non lue
+    @Modifying
+    @Query("UPDATE JobOfferUnreadCounter c SET c.unreadCount = c.unreadCount - 1 " +
+           "WHERE c.jobOfferId = :jobOfferId AND c.readWatermark < :applicationId AND c.unreadCount > 0")
+    int recordRead(@Param("jobOfferId") Long jobOfferId, @Param("applicationId") Long applicationId);
+
+    @Modifying
+    @Query("UPDATE JobOfferUnreadCounter c SET c.readWatermark = c.latestApplicationId, c.unreadCount = 0 " +
+           "WHERE c.jobOfferId IN :jobOfferIds")
+    int markRead(@Param("jobOfferIds") Collection<Long> jobOfferIds);
+
+    // Offres du recruteur et offres sans auteur ayant encore des candidatures à marquer comme lues
+    @Query("SELECT c.jobOfferId FROM JobOfferUnreadCounter c, JobOffer j LEFT JOIN j.createdBy u " +
+           "WHERE j.id = c.jobOfferId AND (c.unreadCount > 0 OR c.readWatermark < c.latestApplicationId) " +
+           "AND (u.username = :username OR u.id IS NULL)")
+    List<Long> findUnreadVisibleTo(@Param("username") String username);
+
+    /**
+     * Initialise les compteurs depuis les candidatures (une seule fois, table vide).
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO job_offer_unread_counters " +
+           "(job_offer_id, unread_count, latest_received_at, latest_application_id, read_watermark) " +
+           "SELECT a.job_offer_id, " +
+           "SUM(CASE WHEN (a.viewed_by_recruiter IS NULL OR a.viewed_by_recruiter = 0) " +
+           "AND (a.archived IS NULL OR a.archived = 0) THEN 1 ELSE 0 END), " +
+           "MAX(a.received_at), MAX(a.id), 0 " +
+           "FROM applications a GROUP BY a.job_offer_id", nativeQuery = true)
+    int initializeFromApplications();
+}
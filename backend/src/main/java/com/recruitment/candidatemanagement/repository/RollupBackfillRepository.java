@@ -0,0 +1,9 @@
+package com.recruitment.candidatemanagement.repository;
+
+import com.recruitment.candidatemanagement.entity.RollupBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RollupBackfillRepository extends JpaRepository<RollupBackfill, Long> {
+}
@@ -0,0 +1,70 @@
+package com.recruitment.candidatemanagement.repository;
+
+import com.recruitment.candidatemanagement.entity.StoredBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+    
+    /**
+     * Ajoute une référence au blob, en le créant s'il n'existe pas (ou plus).
+     * Le texte déjà extrait est conservé.
+     * <p>
+     * Upsert propre à MariaDB/MySQL (ON DUPLICATE KEY UPDATE, VALUES()) : une autre base
+     * demande un MERGE équivalent. Les tests l'exécutent sur H2 en mode MariaDB.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stored_blobs " +
+           "(content_hash, storage_path, size, ref_count, extracted_text, created_at, released_at) " +
+           "VALUES (:hash, :path, :size, 1, :text, NOW(), NULL) " +
+           "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, released_at = NULL, " +
+           "extracted_text = COALESCE(extracted_text, VALUES(extracted_text))", nativeQuery = true)
+    int addReference(@Param("hash") String hash, @Param("path") String path,
+                     @Param("size") long size, @Param("text") String text);
+    
+    /**
+     * Retire une référence ; la date de libération est posée quand la dernière disparaît.
+     * MariaDB évalue les affectations dans l'ordre, avec les valeurs déjà modifiées, là où le
+     * standard SQL lit les valeurs d'avant la mise à jour : released_at, placé en premier,
+     * est calculé sur l'ancien ref_count dans les deux cas.
+     */
+    @Modifying
+    @Query("UPDATE StoredBlob b SET " +
+           "b.releasedAt = CASE WHEN b.refCount = 1 THEN :now ELSE b.releasedAt END, " +
+           "b.refCount = b.refCount - 1 " +
+           "WHERE b.contentHash = :hash AND b.refCount > 0")
+    int removeReference(@Param("hash") String hash, @Param("now") LocalDateTime now);
+    
+    /**
+     * Verrouille la ligne d'un blob à supprimer, en la créant sans référence si elle n'existe
+     * pas (fichier d'un ajout annulé) : un ajout concurrent attend alors la fin de la suppression.
+     * Une ligne créée ici et restée faute de commit est reprise par le balayage.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stored_blobs " +
+           "(content_hash, storage_path, size, ref_count, created_at, released_at) " +
+           "VALUES (:hash, :path, 0, 0, NOW(), NOW()) " +
+           "ON DUPLICATE KEY UPDATE ref_count = ref_count", nativeQuery = true)
+    int lockForRemoval(@Param("hash") String hash, @Param("path") String path);
+    
+    // Attend le commit d'un ajout concurrent de référence, y compris la création de la ligne
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.contentHash = :hash")
+    Optional<StoredBlob> findForUpdate(@Param("hash") String hash);
+    
+    @Query("SELECT b.extractedText FROM StoredBlob b WHERE b.contentHash = :hash AND b.extractedText IS NOT NULL")
+    Optional<String> findExtractedText(@Param("hash") String hash);
+    
+    @Query("SELECT b.contentHash FROM StoredBlob b WHERE b.refCount = 0 AND b.releasedAt < :before")
+    List<String> findReleasedBefore(@Param("before") LocalDateTime before);
+}
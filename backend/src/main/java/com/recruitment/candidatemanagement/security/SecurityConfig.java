@@ -37,6 +37,7 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(req -> req
                 .requestMatchers("/auth/**", "/h2-console/**", "/error").permitAll()
+                .requestMatchers("/ws/**").permitAll() // Authentification à la trame STOMP CONNECT
                 .requestMatchers("/job-offers/apply/**").permitAll()
                 .requestMatchers("/applications/submit").permitAll()
                 .requestMatchers("/applications/documents/**").permitAll()
@@ -0,0 +1,329 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.AnalysisJob;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exécution des analyses IA à partir de la file persistée {@link AnalysisJobQueue}.
+ * Les demandes sont enregistrées dans la transaction de la candidature ; chaque instance
+ * dont le worker est activé réserve ensuite des jobs selon la place libre dans son pool
+ * (taille fixe, file locale priorisée : web, puis email, puis re-scoring).
+ * À l'arrêt, l'instance cesse de réserver, termine les analyses en cours et rend les autres.
+ */
+@Service
+@Slf4j
+public class AnalysisDispatcher {
+
+    public enum Priority {
+        WEB_SUBMISSION, // Candidature déposée sur le site : réponse attendue rapidement
+        EMAIL,          // Candidature reçue par email
+        RESCORE         // Re-scoring en masse
+    }
+
+    private final AIAnalysisService aiAnalysisService;
+    private final AnalysisJobQueue jobQueue;
+    private final AppProperties appProperties;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService pollTrigger;
+    private final String workerId;
+
+    private final Map<Long, AnalysisJobQueue.ClaimedJob> inFlight = new ConcurrentHashMap<>();
+    private final ReentrantLock pollLock = new ReentrantLock();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean accepting = true;
+    private volatile long backlog;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalWaitMillis = new LongAdder();
+    private final AtomicLong maxWaitMillis = new AtomicLong();
+
+    public AnalysisDispatcher(AIAnalysisService aiAnalysisService,
+                              AnalysisJobQueue jobQueue,
+                              AppProperties appProperties) {
+        this.aiAnalysisService = aiAnalysisService;
+        this.jobQueue = jobQueue;
+        this.appProperties = appProperties;
+        this.workerId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+        int poolSize = appProperties.getAi().getExecutor().getPoolSize();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "analysis-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.pollTrigger = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analysis-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Enregistre la demande d'analyse dans la transaction courante. Après le commit,
+     * les workers sont réveillés sans attendre le prochain cycle de scrutation.
+     * Retourne false si l'arriéré dépasse la capacité : la demande est conservée,
+     * mais le délai de traitement sera long.
+     */
+    public boolean submit(Long applicationId, Priority priority) {
+        if (jobQueue.enqueue(applicationId, priority)) {
+            submitted.increment();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    triggerPoll();
+                }
+            });
+        } else {
+            triggerPoll();
+        }
+        if (isSaturated()) {
+            deferred.increment();
+            log.warn("File d'analyse saturée ({} en attente), candidature {} différée", backlog, applicationId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Abandonne l'analyse d'une candidature supprimée, dans la transaction courante.
+     * Une analyse déjà en cours se termine, mais son job n'existe plus.
+     */
+    public void cancel(Long applicationId) {
+        jobQueue.remove(applicationId);
+    }
+
+    public boolean isSaturated() {
+        return backlog >= appProperties.getAi().getExecutor().getQueueCapacity();
+    }
+
+    public long getRetryAfterSeconds() {
+        return appProperties.getAi().getExecutor().getRetryAfterSeconds();
+    }
+
+    public QueueStats getStats() {
+        long done = completed.sum() + failed.sum();
+        return new QueueStats(
+            workerId,
+            isWorkerEnabled(),
+            executor.getQueue().size(),
+            inFlight.size(),
+            executor.getActiveCount(),
+            executor.getMaximumPoolSize(),
+            jobQueue.count(AnalysisJob.JobStatus.QUEUED),
+            jobQueue.count(AnalysisJob.JobStatus.RUNNING),
+            jobQueue.count(AnalysisJob.JobStatus.DEAD),
+            appProperties.getAi().getExecutor().getQueueCapacity(),
+            submitted.sum(),
+            deferred.sum(),
+            completed.sum(),
+            failed.sum(),
+            done > 0 ? totalWaitMillis.sum() / done : 0,
+            maxWaitMillis.get()
+        );
+    }
+
+    /**
+     * Au démarrage, rattache à la file les candidatures PENDING enregistrées sans job.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void enqueueOrphans() {
+        try {
+            int created = jobQueue.enqueueOrphans();
+            if (created > 0) {
+                log.info("{} candidature(s) PENDING sans job ajoutée(s) à la file d'analyse", created);
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.info("Candidatures PENDING sans job reprises en même temps par une autre instance");
+        } catch (RuntimeException e) {
+            log.error("Impossible de reprendre les candidatures PENDING sans job", e);
+        }
+    }
+
+    /**
+     * Réserve autant de jobs que le pool local peut en absorber (un lot d'avance par thread).
+     */
+    @Scheduled(fixedDelayString = "${app.ai.worker.poll-interval-ms:2000}")
+    public void poll() {
+        if (!accepting || !isWorkerEnabled() || !pollLock.tryLock()) {
+            return;
+        }
+        try {
+            backlog = jobQueue.count(AnalysisJob.JobStatus.QUEUED);
+            int free = 2 * executor.getMaximumPoolSize() - inFlight.size();
+            if (free <= 0 || backlog == 0) {
+                return;
+            }
+            List<AnalysisJobQueue.ClaimedJob> claimed = jobQueue.claim(workerId, free);
+            for (AnalysisJobQueue.ClaimedJob job : claimed) {
+                inFlight.put(job.jobId(), job);
+                dispatch(job);
+            }
+            if (!claimed.isEmpty()) {
+                log.debug("{} analyse(s) réservée(s) par {}", claimed.size(), workerId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Erreur lors de la réservation des analyses", e);
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    /**
+     * Relève l'arriéré de la file partagée, y compris sur une instance sans worker (API seule) :
+     * c'est lui qui déclenche la contre-pression de {@link #submit}.
+     */
+    @Scheduled(fixedDelayString = "${app.ai.worker.poll-interval-ms:2000}")
+    public void refreshBacklog() {
+        try {
+            backlog = jobQueue.count(AnalysisJob.JobStatus.QUEUED);
+        } catch (RuntimeException e) {
+            log.warn("Impossible de relever l'arriéré de la file d'analyse: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Prolonge le bail des jobs en cours pour qu'ils ne soient pas repris par un autre worker.
+     */
+    @Scheduled(fixedDelayString = "${app.ai.worker.lease-renew-interval-ms:60000}")
+    public void renewLeases() {
+        try {
+            jobQueue.renewLeases(inFlight.keySet(), workerId);
+        } catch (RuntimeException e) {
+            log.error("Impossible de prolonger les baux des analyses en cours", e);
+        }
+    }
+
+    /**
+     * Arrêt gracieux : plus aucune réservation, les analyses déjà réservées sont terminées
+     * dans la limite de drain-timeout-ms, les autres sont rendues à la file.
+     */
+    @PreDestroy
+    public void shutdown() {
+        accepting = false;
+        pollTrigger.shutdownNow();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(appProperties.getAi().getWorker().getDrainTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (!inFlight.isEmpty()) {
+            int released = jobQueue.release(inFlight.keySet(), workerId);
+            log.info("{} analyse(s) non terminée(s) rendue(s) à la file", released);
+        }
+    }
+
+    private boolean isWorkerEnabled() {
+        return appProperties.getAi().getWorker().isEnabled();
+    }
+
+    private void triggerPoll() {
+        if (accepting && isWorkerEnabled()) {
+            try {
+                pollTrigger.execute(this::poll);
+            } catch (RuntimeException e) {
+                log.debug("Réveil des workers ignoré: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void dispatch(AnalysisJobQueue.ClaimedJob job) {
+        AnalysisTask task = new AnalysisTask(job, sequence.incrementAndGet());
+        long delay = appProperties.getAi().getScoring().isMockMode()
+            ? appProperties.getAi().getExecutor().getMockDelayMs() : 0;
+        if (delay > 0) {
+            // Délai simulé sans bloquer de thread du pool
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() -> execute(task));
+        } else {
+            execute(task);
+        }
+    }
+
+    private void execute(AnalysisTask task) {
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            log.warn("Analyse de la candidature {} non démarrée, rendue à la file", task.job.applicationId());
+            inFlight.remove(task.job.jobId());
+            jobQueue.release(List.of(task.job.jobId()), workerId);
+        }
+    }
+
+    private void recordWait(long waitMillis) {
+        totalWaitMillis.add(waitMillis);
+        maxWaitMillis.accumulateAndGet(waitMillis, Math::max);
+    }
+
+    private final class AnalysisTask implements Runnable, Comparable<AnalysisTask> {
+        final AnalysisJobQueue.ClaimedJob job;
+        final long order;
+        final long dispatchedAt = System.nanoTime();
+
+        AnalysisTask(AnalysisJobQueue.ClaimedJob job, long order) {
+            this.job = job;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            recordWait(job.waitMillis() + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - dispatchedAt));
+            try {
+                aiAnalysisService.analyzeApplication(job.applicationId());
+                jobQueue.complete(job, workerId);
+                completed.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                jobQueue.fail(job, workerId, e);
+            } finally {
+                inFlight.remove(job.jobId());
+            }
+        }
+
+        @Override
+        public int compareTo(AnalysisTask other) {
+            int byPriority = job.priority().compareTo(other.job.priority());
+            return byPriority != 0 ? byPriority : Long.compare(order, other.order);
+        }
+    }
+
+    public record QueueStats(String workerId, boolean workerEnabled,
+                             int localQueueDepth, int inFlight, int activeWorkers, int poolSize,
+                             long queued, long running, long dead, int capacity,
+                             long submitted, long deferred, long completed, long failed,
+                             long averageWaitMillis, long maxWaitMillis) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.AnalysisJob;
+import com.recruitment.candidatemanagement.repository.AnalysisJobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * File d'analyses persistée dans la table analysis_jobs, partagée par toutes les instances.
+ * Un worker réserve des jobs pour une durée limitée (bail) ; si l'instance disparaît,
+ * le bail expire et un autre worker reprend le job.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalysisJobQueue {
+    
+    private final AnalysisJobRepository jobRepository;
+    private final AppProperties appProperties;
+    
+    /**
+     * Ajoute (ou remet en file) l'analyse d'une candidature, dans la transaction de l'appelant :
+     * le job n'existe que si la candidature est elle-même enregistrée.
+     * Retourne false si une analyse est déjà en file ou en cours.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public boolean enqueue(Long applicationId, AnalysisDispatcher.Priority priority) {
+        AnalysisJob job = jobRepository.findByApplicationId(applicationId).orElse(null);
+        if (job == null) {
+            job = new AnalysisJob();
+            job.setApplicationId(applicationId);
+        } else if (job.getStatus() == AnalysisJob.JobStatus.QUEUED) {
+            job.setPriority(Math.min(job.getPriority(), priority.ordinal()));
+            return false;
+        } else if (job.getStatus() == AnalysisJob.JobStatus.RUNNING) {
+            return false;
+        }
+        job.setPriority(priority.ordinal());
+        job.setStatus(AnalysisJob.JobStatus.QUEUED);
+        job.setAttempts(0);
+        job.setAvailableAt(LocalDateTime.now());
+        job.setLeaseOwner(null);
+        job.setLeaseExpiresAt(null);
+        job.setLastError(null);
+        jobRepository.save(job);
+        return true;
+    }
+    
+    /**
+     * Réserve jusqu'à {@code limit} jobs pour {@code owner}, les plus prioritaires d'abord.
+     */
+    @Transactional
+    public List<ClaimedJob> claim(String owner, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseExpiresAt = now.plus(Duration.ofMillis(appProperties.getAi().getWorker().getLeaseMs()));
+        List<AnalysisJob> jobs = jobRepository.lockNextAvailable(now, limit);
+        for (AnalysisJob job : jobs) {
+            if (job.getStatus() == AnalysisJob.JobStatus.RUNNING) {
+                log.warn("Bail expiré pour l'analyse de la candidature {} (worker {}), reprise par {}",
+                        job.getApplicationId(), job.getLeaseOwner(), owner);
+            }
+            job.setStatus(AnalysisJob.JobStatus.RUNNING);
+            job.setLeaseOwner(owner);
+            job.setLeaseExpiresAt(leaseExpiresAt);
+            job.setAttempts(job.getAttempts() + 1);
+        }
+        return jobs.stream()
+            .map(job -> new ClaimedJob(job.getId(), job.getApplicationId(),
+                    AnalysisDispatcher.Priority.values()[job.getPriority()], job.getAttempts(),
+                    Duration.between(job.getAvailableAt(), now).toMillis()))
+            .toList();
+    }
+    
+    @Transactional
+    public void complete(ClaimedJob claimed, String owner) {
+        jobRepository.findById(claimed.jobId())
+            .filter(job -> owner.equals(job.getLeaseOwner()))
+            .ifPresent(job -> {
+                job.setStatus(AnalysisJob.JobStatus.DONE);
+                job.setLeaseOwner(null);
+                job.setLeaseExpiresAt(null);
+                job.setLastError(null);
+            });
+    }
+    
+    /**
+     * Échec d'une tentative : nouvel essai après un délai exponentiel, ou état DEAD
+     * une fois le nombre maximal de tentatives atteint.
+     */
+    @Transactional
+    public void fail(ClaimedJob claimed, String owner, Throwable error) {
+        AppProperties.Ai.Worker config = appProperties.getAi().getWorker();
+        jobRepository.findById(claimed.jobId())
+            .filter(job -> owner.equals(job.getLeaseOwner()))
+            .ifPresent(job -> {
+                job.setLeaseOwner(null);
+                job.setLeaseExpiresAt(null);
+                job.setLastError(truncate(String.valueOf(error)));
+                if (job.getAttempts() >= config.getMaxAttempts()) {
+                    job.setStatus(AnalysisJob.JobStatus.DEAD);
+                    log.error("Analyse de la candidature {} abandonnée après {} tentative(s)",
+                            job.getApplicationId(), job.getAttempts());
+                    return;
+                }
+                long backoff = Math.min(config.getBackoffMaxMs(),
+                        config.getBackoffBaseMs() << Math.min(job.getAttempts() - 1, 20));
+                job.setStatus(AnalysisJob.JobStatus.QUEUED);
+                job.setAvailableAt(LocalDateTime.now().plus(Duration.ofMillis(backoff)));
+                log.warn("Analyse de la candidature {} en échec (tentative {}), nouvel essai dans {} ms",
+                        job.getApplicationId(), job.getAttempts(), backoff);
+            });
+    }
+    
+    @Transactional
+    public int renewLeases(Collection<Long> jobIds, String owner) {
+        if (jobIds.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime expiresAt = LocalDateTime.now().plus(Duration.ofMillis(appProperties.getAi().getWorker().getLeaseMs()));
+        return jobRepository.renewLeases(jobIds, owner, expiresAt);
+    }
+    
+    /**
+     * Rend immédiatement à la file les jobs réservés mais non terminés (arrêt de l'instance).
+     */
+    @Transactional
+    public int release(Collection<Long> jobIds, String owner) {
+        return jobIds.isEmpty() ? 0 : jobRepository.releaseLeases(jobIds, owner);
+    }
+    
+    /**
+     * Retire de la file les analyses des candidatures d'une offre, dans la transaction qui
+     * supprime l'offre : un job restant échouerait à chaque tentative jusqu'à l'état DEAD.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public int removeForJobOffer(Long jobOfferId) {
+        return jobRepository.deleteByJobOfferId(jobOfferId);
+    }
+    
+    @Transactional(propagation = Propagation.REQUIRED)
+    public int remove(Long applicationId) {
+        return jobRepository.deleteByApplicationId(applicationId);
+    }
+    
+    @Transactional
+    public int enqueueOrphans() {
+        return jobRepository.enqueueOrphanPendingApplications(AnalysisDispatcher.Priority.EMAIL.ordinal());
+    }
+    
+    @Transactional(readOnly = true)
+    public long count(AnalysisJob.JobStatus status) {
+        return jobRepository.countByStatus(status);
+    }
+    
+    private static String truncate(String message) {
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+    
+    public record ClaimedJob(Long jobId, Long applicationId, AnalysisDispatcher.Priority priority,
+                             int attempt, long waitMillis) {
+    }
+}
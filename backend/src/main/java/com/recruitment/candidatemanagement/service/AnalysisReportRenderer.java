@@ -0,0 +1,154 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.entity.ApplicationScore;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconstruit le rapport texte d'une analyse IA à partir de son détail structuré.
+ * Utilisé uniquement pour la fiche détaillée d'une candidature.
+ */
+@Component
+public class AnalysisReportRenderer {
+    
+    public String render(ApplicationScore score) {
+        if (Boolean.TRUE.equals(score.getMockMode())) {
+            return renderMock(score.getTotalScore());
+        }
+        
+        StringBuilder analysis = new StringBuilder();
+        analysis.append("Analyse IA complète de la candidature:\n\n");
+        analysis.append("📄 ANALYSE DES DOCUMENTS:\n").append(renderDocuments(score));
+        analysis.append("\n💼 ANALYSE PROFIL LINKEDIN:\n").append(renderLinkedIn(score));
+        analysis.append("\n💻 ANALYSE PROFIL GITHUB:\n").append(renderGitHub(score));
+        analysis.append("\n👤 ANALYSE MESSAGE CANDIDAT:\n").append(renderCandidateInfo(score));
+        
+        analysis.append("\n📊 SCORE FINAL: ").append(score.getTotalScore()).append("/20\n");
+        analysis.append("\nDétail des scores:\n");
+        analysis.append("• Documents PDF: ").append(score.getPdfScore()).append("/8\n");
+        analysis.append("• Profil LinkedIn: ").append(score.getLinkedinScore()).append("/6\n");
+        analysis.append("• Profil GitHub: ").append(score.getGithubScore()).append("/4\n");
+        analysis.append("• Informations candidat: ").append(score.getCandidateInfoScore()).append("/2\n");
+        
+        return analysis.toString();
+    }
+    
+    private String renderDocuments(ApplicationScore score) {
+        String interrupted = renderInterrupted(score.getPdfOutcome());
+        if (interrupted != null) {
+            return interrupted;
+        }
+        StringBuilder report = new StringBuilder();
+        for (ApplicationScore.DocumentScore document : score.getDocuments()) {
+            report.append("• ").append(document.getDocumentType()).append(": ");
+            if (document.getOutcome() == ApplicationScore.StageOutcome.TIMED_OUT) {
+                report.append("analyse interrompue (délai dépassé)\n");
+                continue;
+            }
+            if (document.getOutcome() == ApplicationScore.StageOutcome.FAILED) {
+                report.append("analyse impossible\n");
+                continue;
+            }
+            report.append(document.getSkillCount()).append(" compétences, ");
+            report.append(document.getExperienceYears()).append(" ans expérience");
+            
+            if (Boolean.TRUE.equals(document.getAiSuspected())) {
+                report.append(" ⚠️ Contenu suspect (IA détectée)");
+            }
+            
+            if (Boolean.TRUE.equals(document.getRelevantExperience())) {
+                report.append(" ✅ Expérience pertinente");
+            }
+            
+            report.append("\n");
+        }
+        return report.toString();
+    }
+    
+    private String renderLinkedIn(ApplicationScore score) {
+        if (score.getLinkedinOutcome() == ApplicationScore.StageOutcome.MISSING) {
+            return "• Aucun profil LinkedIn fourni\n";
+        }
+        String interrupted = renderInterrupted(score.getLinkedinOutcome());
+        if (interrupted != null) {
+            return interrupted;
+        }
+        return "• Profil trouvé: " + score.getLinkedinTitle() + "\n" +
+               "• Compétences LinkedIn: " + score.getLinkedinSkillCount() + "\n";
+    }
+    
+    private String renderGitHub(ApplicationScore score) {
+        if (score.getGithubOutcome() == ApplicationScore.StageOutcome.MISSING) {
+            return "• Aucun profil GitHub fourni\n";
+        }
+        String interrupted = renderInterrupted(score.getGithubOutcome());
+        if (interrupted != null) {
+            return interrupted;
+        }
+        return "• Repositories publics: " + score.getGithubPublicRepos() + "\n" +
+               "• Langages utilisés: " + score.getGithubLanguages() + "\n" +
+               "• Total stars: " + score.getGithubStars() + "\n";
+    }
+    
+    private String renderCandidateInfo(ApplicationScore score) {
+        if (score.getCandidateInfoOutcome() == ApplicationScore.StageOutcome.MISSING) {
+            return "• Aucun message fourni\n";
+        }
+        String interrupted = renderInterrupted(score.getCandidateInfoOutcome());
+        if (interrupted != null) {
+            return interrupted;
+        }
+        StringBuilder analysis = new StringBuilder();
+        if (Boolean.TRUE.equals(score.getMessageAuthentic())) {
+            analysis.append("• Message authentique détecté\n");
+        } else {
+            analysis.append("• ⚠️ Message suspect (possiblement généré par IA)\n");
+        }
+        
+        if (Boolean.TRUE.equals(score.getMessagePersonalized())) {
+            analysis.append("• Message personnalisé pour le poste\n");
+        } else {
+            analysis.append("• Message générique détecté\n");
+        }
+        return analysis.toString();
+    }
+    
+    private String renderInterrupted(ApplicationScore.StageOutcome outcome) {
+        if (outcome == ApplicationScore.StageOutcome.TIMED_OUT) {
+            return "• Analyse interrompue (délai dépassé)\n";
+        }
+        if (outcome == ApplicationScore.StageOutcome.FAILED) {
+            return "• Analyse indisponible\n";
+        }
+        return null;
+    }
+    
+    private String renderMock(int score) {
+        StringBuilder analysis = new StringBuilder();
+        analysis.append("Analyse automatique de la candidature (mode simulation):\n\n");
+        
+        if (score >= 15) {
+            analysis.append("✅ CANDIDATURE VALIDÉE\n");
+            analysis.append("- Profil correspondant aux critères recherchés\n");
+            analysis.append("- Expérience pertinente détectée\n");
+            analysis.append("- Compétences techniques alignées\n");
+        } else if (score >= 10) {
+            analysis.append("⚠️ CANDIDATURE AMBIGUË\n");
+            analysis.append("- Profil partiellement correspondant\n");
+            analysis.append("- Certaines compétences manquantes\n");
+            analysis.append("- Nécessite une évaluation manuelle\n");
+        } else {
+            analysis.append("❌ CANDIDATURE NON RETENUE\n");
+            analysis.append("- Profil ne correspondant pas aux critères\n");
+            analysis.append("- Expérience insuffisante\n");
+            analysis.append("- Compétences non alignées\n");
+        }
+        
+        analysis.append("\n⚠️ Mode simulation activé - Activez le mode réel dans la configuration\n");
+        analysis.append("\nScore détaillé (simulé):\n");
+        analysis.append("- Expérience: ").append(Math.min(score + 2, 20)).append("/20\n");
+        analysis.append("- Compétences: ").append(Math.max(score - 2, 0)).append("/20\n");
+        analysis.append("- Motivation: ").append(score).append("/20\n");
+        
+        return analysis.toString();
+    }
+}
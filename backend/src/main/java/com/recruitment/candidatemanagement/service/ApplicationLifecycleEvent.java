@@ -0,0 +1,63 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.entity.Application;
+
+import java.time.LocalDateTime;
+
+/**
+ * Changement d'état d'une candidature, publié dans la transaction qui l'effectue.
+ * before est null à la création, after à la suppression.
+ */
+public record ApplicationLifecycleEvent(Type type, Long applicationId, State before, State after) {
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        ARCHIVED,
+        ANALYSIS_COMPLETED,
+        VIEWED,
+        DELETED
+    }
+
+    /**
+     * Champs de la candidature dont dépendent les compteurs.
+     */
+    public record State(Long jobOfferId, Application.ApplicationStatus status, boolean archived,
+                        boolean viewed, Integer aiScore, LocalDateTime receivedAt) {
+
+        public static State of(Application application) {
+            return new State(
+                application.getJobOffer() != null ? application.getJobOffer().getId() : null,
+                application.getStatus(),
+                Boolean.TRUE.equals(application.getArchived()),
+                Boolean.TRUE.equals(application.getViewedByRecruiter()),
+                application.getAiScore(),
+                application.getReceivedAt());
+        }
+
+        // Compte dans les notifications non lues de son offre
+        public boolean unread() {
+            return !viewed && !archived;
+        }
+    }
+
+    public static ApplicationLifecycleEvent created(Application application) {
+        return new ApplicationLifecycleEvent(Type.CREATED, application.getId(), null, State.of(application));
+    }
+
+    public static ApplicationLifecycleEvent changed(Type type, State before, Application application) {
+        return new ApplicationLifecycleEvent(type, application.getId(), before, State.of(application));
+    }
+
+    // Consultation écrite directement en base : l'entité chargée reste non vue
+    public static ApplicationLifecycleEvent viewed(Application application) {
+        State before = State.of(application);
+        State after = new State(before.jobOfferId(), before.status(), before.archived(), true,
+            before.aiScore(), before.receivedAt());
+        return new ApplicationLifecycleEvent(Type.VIEWED, application.getId(), before, after);
+    }
+
+    public static ApplicationLifecycleEvent deleted(Application application) {
+        return new ApplicationLifecycleEvent(Type.DELETED, application.getId(), State.of(application), null);
+    }
+}
@@ -0,0 +1,177 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.dto.FunnelStats;
+import com.recruitment.candidatemanagement.entity.RollupBackfill;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.DailyApplicationRollupRepository;
+import com.recruitment.candidatemanagement.repository.RollupBackfillRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agrégats journaliers par offre (table daily_application_rollups) servant aux courbes
+ * de l'entonnoir de recrutement.
+ * <p>
+ * Les derniers jours sont recalculés périodiquement ; un jour plus ancien l'est dès qu'une
+ * de ses candidatures change. L'historique antérieur à la table est calculé par tranches,
+ * du plus récent au plus ancien, sans bloquer les autres tâches planifiées ; l'avancement
+ * est enregistré (table rollup_backfill) pour reprendre au même jour après un redémarrage.
+ */
+@Service
+@Slf4j
+public class ApplicationRollupService {
+
+    private final DailyApplicationRollupRepository rollupRepository;
+    private final ApplicationRepository applicationRepository;
+    private final RollupBackfillRepository backfillRepository;
+    private final AppProperties appProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<LocalDate> dirtyDays = ConcurrentHashMap.newKeySet();
+    private volatile LocalDate backfillBefore; // Jour (exclu) avant lequel l'historique reste à calculer
+    private volatile LocalDate oldestApplicationDay;
+    private volatile boolean backfillDone;
+
+    public ApplicationRollupService(DailyApplicationRollupRepository rollupRepository,
+                                    ApplicationRepository applicationRepository,
+                                    RollupBackfillRepository backfillRepository,
+                                    AppProperties appProperties, PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.applicationRepository = applicationRepository;
+        this.backfillRepository = backfillRepository;
+        this.appProperties = appProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onApplicationEvent(ApplicationLifecycleEvent event) {
+        markDirty(event.before());
+        markDirty(event.after());
+    }
+
+    private void markDirty(ApplicationLifecycleEvent.State state) {
+        if (state != null && state.receivedAt() != null) {
+            dirtyDays.add(state.receivedAt().toLocalDate());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobOfferDeleted(JobOfferDeletedEvent event) {
+        transactionTemplate.executeWithoutResult(status -> rollupRepository.deleteByJobOfferId(event.jobOfferId()));
+    }
+
+    /**
+     * Recalcule les derniers jours (le jour courant est encore incomplet) puis les jours
+     * plus anciens modifiés depuis le dernier passage.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.rollup-interval-ms:600000}")
+    public void refresh() {
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate recentFrom = today.minusDays(appProperties.getAnalytics().getRollupRecentDays() - 1L);
+            rebuild(recentFrom, today);
+
+            for (Iterator<LocalDate> it = dirtyDays.iterator(); it.hasNext(); ) {
+                LocalDate day = it.next();
+                it.remove();
+                if (day.isBefore(recentFrom)) {
+                    rebuild(day, day);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Erreur lors du calcul des agrégats journaliers", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.backfill-interval-ms:5000}")
+    public void backfillStep() {
+        if (backfillDone) {
+            return;
+        }
+        try {
+            if (backfillBefore == null) {
+                // Le plus ancien agrégat ne dit rien de l'avancement : un jour ancien a pu être
+                // recalculé isolément (candidature modifiée, recalcul explicite)
+                backfillBefore = backfillRepository.findById(RollupBackfill.ID)
+                    .map(RollupBackfill::getBackfillBefore)
+                    .orElseGet(() -> LocalDate.now().minusDays(appProperties.getAnalytics().getRollupRecentDays() - 1L));
+                oldestApplicationDay = applicationRepository.findOldestReceivedAt()
+                    .map(LocalDateTime::toLocalDate).orElse(backfillBefore);
+            }
+            if (!oldestApplicationDay.isBefore(backfillBefore)) {
+                backfillDone = true;
+                log.info("Agrégats journaliers calculés depuis le {}", oldestApplicationDay);
+                return;
+            }
+            LocalDate from = backfillBefore.minusDays(appProperties.getAnalytics().getRebuildChunkDays());
+            if (from.isBefore(oldestApplicationDay)) {
+                from = oldestApplicationDay;
+            }
+            rebuild(from, backfillBefore.minusDays(1));
+            LocalDate done = from;
+            transactionTemplate.executeWithoutResult(status ->
+                backfillRepository.save(new RollupBackfill(RollupBackfill.ID, done)));
+            backfillBefore = from;
+        } catch (RuntimeException e) {
+            log.error("Erreur lors du calcul de l'historique des agrégats journaliers", e);
+        }
+    }
+
+    /**
+     * Recalcule les agrégats des jours from à to inclus, une transaction par tranche.
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        int rows = 0;
+        int chunkDays = appProperties.getAnalytics().getRebuildChunkDays();
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(chunkDays)) {
+            LocalDate end = start.plusDays(chunkDays).isAfter(to.plusDays(1)) ? to.plusDays(1) : start.plusDays(chunkDays);
+            LocalDate chunkStart = start;
+            Integer inserted = transactionTemplate.execute(status -> {
+                rollupRepository.deleteDays(chunkStart, end);
+                return rollupRepository.insertDays(chunkStart.atStartOfDay(), end.atStartOfDay());
+            });
+            rows += inserted != null ? inserted : 0;
+        }
+        log.debug("Agrégats journaliers recalculés du {} au {}: {} ligne(s)", from, to, rows);
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
+    public List<FunnelStats> getDailyFunnel(LocalDate from, LocalDate to, Long jobOfferId) {
+        checkRange(from, to);
+        return jobOfferId == null
+            ? rollupRepository.findDailyFunnel(from, to)
+            : rollupRepository.findDailyFunnelByJobOffer(jobOfferId, from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public List<FunnelStats> getJobOfferFunnel(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return rollupRepository.findJobOfferFunnel(from, to);
+    }
+
+    public void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin");
+        }
+        if (from.plusDays(appProperties.getAnalytics().getMaxRangeDays()).isBefore(to)) {
+            throw new IllegalArgumentException("Période limitée à " + appProperties.getAnalytics().getMaxRangeDays() + " jours");
+        }
+    }
+}
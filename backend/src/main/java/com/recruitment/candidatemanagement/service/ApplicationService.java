@@ -1,25 +1,37 @@
 package com.recruitment.candidatemanagement.service;
 
 import com.recruitment.candidatemanagement.dto.ApplicationDTO;
+import com.recruitment.candidatemanagement.dto.ApplicationCursor;
 import com.recruitment.candidatemanagement.dto.ApplicationDetailDTO;
+import com.recruitment.candidatemanagement.dto.ApplicationListItem;
+import com.recruitment.candidatemanagement.dto.CursorPage;
+import com.recruitment.candidatemanagement.dto.ShortlistCursor;
 import com.recruitment.candidatemanagement.entity.Application;
-import com.recruitment.candidatemanagement.entity.ApplicationDocument;
+import com.recruitment.candidatemanagement.entity.ApplicationScore;
 import com.recruitment.candidatemanagement.entity.Candidate;
 import com.recruitment.candidatemanagement.entity.JobOffer;
 import com.recruitment.candidatemanagement.repository.ApplicationRepository;
 import com.recruitment.candidatemanagement.repository.CandidateRepository;
 import com.recruitment.candidatemanagement.repository.JobOfferRepository;
 import com.recruitment.candidatemanagement.repository.ApplicationDocumentRepository;
-import org.springframework.web.multipart.MultipartFile;
+import com.recruitment.candidatemanagement.repository.ApplicationScoreRepository;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -31,12 +43,99 @@ public class ApplicationService {
     private final CandidateRepository candidateRepository;
     private final JobOfferRepository jobOfferRepository;
     private final ApplicationDocumentRepository applicationDocumentRepository;
-    private final AIAnalysisService aiAnalysisService;
+    private final ApplicationScoreRepository applicationScoreRepository;
+    private final AnalysisReportRenderer analysisReportRenderer;
+    private final AnalysisDispatcher analysisDispatcher;
     private final FileUploadService fileUploadService;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UnreadCounterStore unreadCounterStore;
+    private final ViewMarkerBuffer viewMarkerBuffer;
     
-    public List<Application> getAllApplications() {
-        return applicationRepository.findAllWithCandidates();
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    
+    /**
+     * Candidatures non archivées (d'un statut donné si status n'est pas null),
+     * de la plus récente à la plus ancienne, après le curseur reçu.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ApplicationListItem> getApplicationPage(Application.ApplicationStatus status,
+                                                             String cursor, Integer limit) {
+        ApplicationCursor after = ApplicationCursor.decode(cursor);
+        int size = pageSize(limit);
+        List<ApplicationListItem> rows = status == null
+            ? readPage(after, size, applicationRepository::findActivePage, applicationRepository::findActiveUndatedPage)
+            : readPage(after, size,
+                (receivedAt, id, rowLimit) -> applicationRepository.findActivePageByStatus(status, receivedAt, id, rowLimit),
+                (id, rowLimit) -> applicationRepository.findActiveUndatedPageByStatus(status, id, rowLimit));
+        return toPage(rows, size);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<ApplicationListItem> getArchivedApplicationPage(String cursor, Integer limit) {
+        ApplicationCursor after = ApplicationCursor.decode(cursor);
+        int size = pageSize(limit);
+        return toPage(readPage(after, size, applicationRepository::findArchivedPage,
+            applicationRepository::findArchivedUndatedPage), size);
+    }
+    
+    /**
+     * Lit jusqu'à size + 1 lignes après le curseur : les candidatures datées dans l'ordre de l'index
+     * (received_at, id), puis celles sans date, par id décroissant, une fois les premières épuisées.
+     */
+    private static List<ApplicationListItem> readPage(ApplicationCursor after, int size, DatedPageQuery dated,
+                                                      BiFunction<Long, Limit, List<ApplicationListItem>> undated) {
+        List<ApplicationListItem> rows = new ArrayList<>();
+        if (after.receivedAt() != null) {
+            rows.addAll(dated.find(after.receivedAt(), after.id(), Limit.of(size + 1)));
+        }
+        if (rows.size() <= size) {
+            Long afterId = after.receivedAt() != null ? Long.valueOf(Long.MAX_VALUE) : after.id();
+            rows.addAll(undated.apply(afterId, Limit.of(size + 1 - rows.size())));
+        }
+        return rows;
+    }
+    
+    @FunctionalInterface
+    private interface DatedPageQuery {
+        List<ApplicationListItem> find(LocalDateTime receivedAt, Long id, Limit limit);
+    }
+    
+    /**
+     * Meilleures candidatures analysées d'une offre, par aiScore décroissant puis ordre d'arrivée,
+     * lues dans l'ordre de l'index (job_offer_id, ai_score, id) : le coût d'une page ne dépend pas
+     * du nombre de candidatures de l'offre.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ApplicationListItem> getShortlist(Long jobOfferId, Application.ApplicationStatus status,
+                                                       boolean archived, String cursor, Integer limit) {
+        ShortlistCursor after = ShortlistCursor.decode(cursor);
+        int size = pageSize(limit);
+        List<ApplicationListItem> rows = applicationRepository.findShortlistPage(
+            jobOfferId, status, archived, after.aiScore(), after.id(), Limit.of(size + 1));
+        return toPage(rows, size, item -> ShortlistCursor.after(item).encode());
+    }
+    
+    private static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+    
+    // Une ligne de plus que la page est lue pour savoir s'il en reste
+    private static CursorPage<ApplicationListItem> toPage(List<ApplicationListItem> rows, int size) {
+        return toPage(rows, size, item -> ApplicationCursor.after(item).encode());
+    }
+    
+    private static CursorPage<ApplicationListItem> toPage(List<ApplicationListItem> rows, int size,
+                                                          Function<ApplicationListItem, String> cursorAfter) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<ApplicationListItem> items = rows.subList(0, size);
+        return new CursorPage<>(items, cursorAfter.apply(items.get(size - 1)));
     }
     
     public List<Application> getApplicationsByStatus(Application.ApplicationStatus status) {
@@ -47,16 +146,17 @@ public class ApplicationService {
         return applicationRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public Optional<ApplicationDetailDTO> getApplicationDetailById(Long id) {
         return applicationRepository.findByIdWithDetails(id)
                 .map(application -> {
-                    // Marquer comme vue
+                    ApplicationDetailDTO dto = mapToApplicationDetailDTO(application);
+                    // Marquer comme vue : écrit en base par lot (ViewMarkerBuffer)
                     if (!Boolean.TRUE.equals(application.getViewedByRecruiter())) {
-                        application.setViewedByRecruiter(true);
-                        application.setViewedAt(LocalDateTime.now());
-                        applicationRepository.save(application);
+                        dto.setViewedByRecruiter(true);
+                        dto.setViewedAt(viewMarkerBuffer.markViewed(application.getId(), LocalDateTime.now()));
                     }
-                    return mapToApplicationDetailDTO(application);
+                    return dto;
                 });
     }
     
@@ -66,7 +166,10 @@ public class ApplicationService {
         dto.setReceivedAt(application.getReceivedAt());
         dto.setStatus(application.getStatus());
         dto.setAiScore(application.getAiScore());
-        dto.setAiAnalysis(application.getAiAnalysis());
+        // Rapport reconstruit depuis le détail structuré ; ancien texte pour les analyses antérieures
+        dto.setAiAnalysis(applicationScoreRepository.findById(application.getId())
+                .map(analysisReportRenderer::render)
+                .orElse(application.getAiAnalysis()));
         dto.setEmailSubject(application.getEmailSubject());
         dto.setEmailBody(application.getEmailBody());
         dto.setRecruiterNotes(application.getRecruiterNotes());
@@ -140,9 +243,10 @@ public class ApplicationService {
         
         // Sauvegarder la candidature
         application = applicationRepository.save(application);
+        eventPublisher.publishEvent(ApplicationLifecycleEvent.created(application));
         
-        // Lancer l'analyse IA en arrière-plan
-        aiAnalysisService.analyzeApplicationAsync(application.getId());
+        // Planifier l'analyse IA dans la même transaction (job persisté)
+        analysisDispatcher.submit(application.getId(), AnalysisDispatcher.Priority.EMAIL);
         
         log.info("Candidature créée avec l'ID: {}", application.getId());
         return application;
@@ -152,8 +256,12 @@ public class ApplicationService {
         Application application = applicationRepository.findById(applicationId)
             .orElseThrow(() -> new RuntimeException("Candidature non trouvée"));
         
+        ApplicationLifecycleEvent.State before = ApplicationLifecycleEvent.State.of(application);
         application.setStatus(status);
-        return applicationRepository.save(application);
+        application = applicationRepository.save(application);
+        eventPublisher.publishEvent(ApplicationLifecycleEvent.changed(
+            ApplicationLifecycleEvent.Type.STATUS_CHANGED, before, application));
+        return application;
     }
     
     public Application addRecruiterNotes(Long applicationId, String notes) {
@@ -193,8 +301,35 @@ public class ApplicationService {
                 .collect(java.util.stream.Collectors.toList());
     }
     
-    public List<Application> getArchivedApplications() {
-        return applicationRepository.findArchivedWithCandidates();
+    /**
+     * Candidatures analysées d'une offre filtrées et triées sur leurs sous-scores, en SQL.
+     */
+    @Transactional(readOnly = true)
+    public List<ApplicationDTO> searchApplicationsByScores(Long jobOfferId, ScoreFilter filter, Sort sort) {
+        List<ApplicationScore> scores = applicationScoreRepository.search(jobOfferId,
+                filter.minPdf(), filter.minLinkedin(), filter.minGithub(), filter.minCandidateInfo(),
+                filter.minExperience(), filter.aiSuspected(), filter.skill(), sort);
+        if (scores.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Application> applications = applicationRepository.findByIdInWithCandidates(
+                scores.stream().map(ApplicationScore::getApplicationId).toList()).stream()
+                .collect(java.util.stream.Collectors.toMap(Application::getId, application -> application));
+        return scores.stream()
+                .filter(score -> applications.containsKey(score.getApplicationId()))
+                .map(score -> {
+                    ApplicationDTO dto = ApplicationDTO.fromEntity(applications.get(score.getApplicationId()));
+                    dto.setScores(ApplicationDTO.ScoresDTO.fromEntity(score));
+                    return dto;
+                })
+                .collect(java.util.stream.Collectors.toList());
+    }
+    
+    /**
+     * Critères de filtrage sur les sous-scores ; un critère null est ignoré.
+     */
+    public record ScoreFilter(Integer minPdf, Integer minLinkedin, Integer minGithub, Integer minCandidateInfo,
+                              Integer minExperience, Boolean aiSuspected, String skill) {
     }
     
     public List<Application> getValidatedApplicationsByJobOffer(Long jobOfferId) {
@@ -212,20 +347,30 @@ public class ApplicationService {
         
         dto.setStatus(Application.ApplicationStatus.valueOf((String) row[2]));
         dto.setAiScore(row[3] != null ? ((Number) row[3]).intValue() : null);
-        dto.setAiAnalysis((String) row[4]);
         
         ApplicationDTO.CandidateDTO candidateDTO = new ApplicationDTO.CandidateDTO();
-        candidateDTO.setFirstName((String) row[5]);
-        candidateDTO.setLastName((String) row[6]);
-        candidateDTO.setEmail((String) row[7]);
-        candidateDTO.setPhone((String) row[8]);
-        candidateDTO.setLinkedinProfile((String) row[9]);
+        candidateDTO.setFirstName((String) row[4]);
+        candidateDTO.setLastName((String) row[5]);
+        candidateDTO.setEmail((String) row[6]);
+        candidateDTO.setPhone((String) row[7]);
+        candidateDTO.setLinkedinProfile((String) row[8]);
         dto.setCandidate(candidateDTO);
         
         // Ajouter les champs viewed depuis la requête SQL
-        dto.setViewedByRecruiter(row[10] != null ? (Boolean) row[10] : false);
-        if (row[11] instanceof java.sql.Timestamp) {
-            dto.setViewedAt(((java.sql.Timestamp) row[11]).toLocalDateTime());
+        dto.setViewedByRecruiter(row[9] != null ? (Boolean) row[9] : false);
+        if (row[10] instanceof java.sql.Timestamp) {
+            dto.setViewedAt(((java.sql.Timestamp) row[10]).toLocalDateTime());
+        }
+        
+        // Sous-scores (le rapport texte n'est servi que par la fiche détaillée)
+        if (row[11] != null) {
+            dto.setScores(new ApplicationDTO.ScoresDTO(
+                ((Number) row[11]).intValue(),
+                row[12] != null ? ((Number) row[12]).intValue() : null,
+                row[13] != null ? ((Number) row[13]).intValue() : null,
+                row[14] != null ? ((Number) row[14]).intValue() : null,
+                row[15] != null ? ((Number) row[15]).intValue() : null,
+                row[16] != null ? (Boolean) row[16] : false));
         }
         
         return dto;
@@ -247,14 +392,19 @@ public class ApplicationService {
             candidate.setLastName(emailParts[0]);
         }
         
-        return candidateRepository.save(candidate);
+        Candidate saved = candidateRepository.save(candidate);
+        eventPublisher.publishEvent(new CandidateChangedEvent(saved.getId()));
+        return saved;
     }
     
-    public Application createWebApplication(Long jobOfferId, String firstName, String lastName, 
+    /**
+     * Première étape d'une candidature web : transaction courte qui enregistre la candidature,
+     * sans ses documents (ingérés ensuite hors transaction par {@link WebSubmissionService}).
+     */
+    public WebApplication recordWebApplication(Long jobOfferId, String firstName, String lastName, 
                                           String email, String phone, String linkedinUrl, 
                                           String githubUrl, String currentPosition, String currentCompany, 
-                                          String location, String message, 
-                                          MultipartFile cv, MultipartFile coverLetter) {
+                                          String location, String message) {
         log.info("Création d'une candidature web pour: {} {}", firstName, lastName);
         
         // Récupérer l'offre d'emploi
@@ -267,7 +417,8 @@ public class ApplicationService {
         }
         
         // Rechercher ou créer le candidat
-        Candidate candidate = candidateRepository.findByEmail(email)
+        Optional<Candidate> existing = candidateRepository.findByEmail(email);
+        Candidate candidate = existing
             .orElseGet(() -> createWebCandidate(firstName, lastName, email, phone, linkedinUrl, githubUrl, currentPosition, currentCompany, location));
         
         // Créer la candidature
@@ -279,26 +430,89 @@ public class ApplicationService {
         application.setReceivedAt(LocalDateTime.now());
         application.setStatus(Application.ApplicationStatus.PENDING);
         
-        // Sauvegarder la candidature
         application = applicationRepository.save(application);
-        
-        // Gérer les fichiers
-        if (cv != null && !cv.isEmpty()) {
-            ApplicationDocument cvDoc = fileUploadService.saveFile(cv, application);
-            cvDoc.setDocumentType(ApplicationDocument.DocumentType.CV);
-            applicationDocumentRepository.save(cvDoc);
-        }
-        if (coverLetter != null && !coverLetter.isEmpty()) {
-            ApplicationDocument coverDoc = fileUploadService.saveFile(coverLetter, application);
-            coverDoc.setDocumentType(ApplicationDocument.DocumentType.COVER_LETTER);
-            applicationDocumentRepository.save(coverDoc);
+        eventPublisher.publishEvent(ApplicationLifecycleEvent.created(application));
+        return new WebApplication(application, existing.isEmpty());
+    }
+    
+    /**
+     * Dernière étape : transaction courte qui rattache les documents ingérés
+     * et planifie l'analyse IA (prioritaire sur les emails et re-scorings).
+     */
+    public WebSubmission attachWebDocuments(Application application, List<FileUploadService.StagedDocument> documents) {
+        Application managed = applicationRepository.getReferenceById(application.getId());
+        for (FileUploadService.StagedDocument staged : documents) {
+            applicationDocumentRepository.save(fileUploadService.attach(staged, managed));
         }
         
-        // Lancer l'analyse IA en arrière-plan
-        aiAnalysisService.analyzeApplicationAsync(application.getId());
+        boolean analysisScheduled = analysisDispatcher.submit(
+            application.getId(), AnalysisDispatcher.Priority.WEB_SUBMISSION);
         
         log.info("Candidature web créée avec l'ID: {}", application.getId());
-        return application;
+        return new WebSubmission(application, analysisScheduled);
+    }
+    
+    /**
+     * Annule une candidature web dont les documents n'ont pas pu être ingérés, ainsi que
+     * le candidat créé pour elle s'il n'a pas postulé ailleurs entre-temps.
+     */
+    public void discardWebApplication(WebApplication recorded) {
+        Long applicationId = recorded.application().getId();
+        applicationRepository.findById(applicationId).ifPresent(application -> {
+            analysisDispatcher.cancel(applicationId);
+            // Pas de clé étrangère : le score d'une analyse déjà passée resterait orphelin
+            applicationScoreRepository.deleteById(applicationId);
+            Candidate candidate = application.getCandidate();
+            // Compté en base : charger candidate.applications (cascade ALL) ferait
+            // re-persister la candidature supprimée au flush
+            if (recorded.newCandidate() && applicationRepository.countByCandidateId(candidate.getId()) == 1) {
+                // La candidature est supprimée avec lui (cascade)
+                candidateRepository.delete(candidate);
+                eventPublisher.publishEvent(new CandidateChangedEvent(candidate.getId()));
+            } else {
+                detach(application);
+                applicationRepository.delete(application);
+            }
+            eventPublisher.publishEvent(ApplicationLifecycleEvent.deleted(application));
+        });
+        log.warn("Candidature web {} annulée: documents non enregistrés", applicationId);
+    }
+    
+    // Retire la candidature des collections déjà chargées de son candidat et de son offre
+    private void detach(Application application) {
+        for (List<Application> loaded : Arrays.asList(application.getCandidate().getApplications(),
+                application.getJobOffer().getApplications())) {
+            if (loaded != null && Hibernate.isInitialized(loaded)) {
+                loaded.remove(application);
+            }
+        }
+    }
+    
+    public Map<String, Integer> rescoreJobOffer(Long jobOfferId) {
+        int accepted = 0;
+        int deferred = 0;
+        for (Long id : applicationRepository.findActiveIdsByJobOfferId(jobOfferId)) {
+            if (analysisDispatcher.submit(id, AnalysisDispatcher.Priority.RESCORE)) {
+                accepted++;
+            } else {
+                deferred++;
+            }
+        }
+        log.info("Re-scoring de l'offre {}: {} planifiée(s), {} différée(s)", jobOfferId, accepted, deferred);
+        return Map.of("scheduled", accepted, "deferred", deferred);
+    }
+    
+    /**
+     * Candidature web enregistrée ; analysisScheduled est faux si la file d'analyse était saturée
+     * (le job est tout de même persisté et sera traité dès que possible).
+     */
+    public record WebSubmission(Application application, boolean analysisScheduled) {
+    }
+    
+    /**
+     * Candidature web enregistrée sans ses documents ; newCandidate si son candidat vient d'être créé.
+     */
+    public record WebApplication(Application application, boolean newCandidate) {
     }
     
     private Candidate createWebCandidate(String firstName, String lastName, String email, 
@@ -317,7 +531,9 @@ public class ApplicationService {
         candidate.setCurrentCompany(currentCompany);
         candidate.setLocation(location);
         
-        return candidateRepository.save(candidate);
+        Candidate saved = candidateRepository.save(candidate);
+        eventPublisher.publishEvent(new CandidateChangedEvent(saved.getId()));
+        return saved;
     }
     
     private String capitalize(String str) {
@@ -329,9 +545,12 @@ public class ApplicationService {
         Application application = applicationRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Application non trouvée"));
         
+        ApplicationLifecycleEvent.State before = ApplicationLifecycleEvent.State.of(application);
         application.setStatus(Application.ApplicationStatus.VALIDATED);
         application.setResponseSent(true);
         applicationRepository.save(application);
+        eventPublisher.publishEvent(ApplicationLifecycleEvent.changed(
+            ApplicationLifecycleEvent.Type.STATUS_CHANGED, before, application));
         
         // Envoyer email de validation
         emailService.sendValidationEmail(
@@ -350,11 +569,14 @@ public class ApplicationService {
         Application application = applicationRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Application non trouvée"));
         
+        ApplicationLifecycleEvent.State before = ApplicationLifecycleEvent.State.of(application);
         application.setStatus(Application.ApplicationStatus.REJECTED);
         application.setResponseSent(true);
         application.setArchived(true);
         application.setArchivedAt(LocalDateTime.now());
         applicationRepository.save(application);
+        eventPublisher.publishEvent(ApplicationLifecycleEvent.changed(
+            ApplicationLifecycleEvent.Type.ARCHIVED, before, application));
         
         // Envoyer email de rejet
         emailService.sendRejectionEmail(
@@ -383,31 +605,28 @@ public class ApplicationService {
     }
     
     public List<Map<String, Object>> getUnreadNotifications() {
-        List<Object[]> results = applicationRepository.findUnreadNotificationsByJobOffer();
-        return results.stream()
-                .map(row -> {
-                    Map<String, Object> notification = new java.util.HashMap<>();
-                    notification.put("jobOfferId", row[0]);
-                    notification.put("jobOfferTitle", row[1]);
-                    notification.put("unreadCount", row[2]);
-                    notification.put("latestApplicationDate", row[3]);
-                    if (row[4] != null) {
-                        notification.put("singleApplicationId", row[4]);
-                    }
-                    return notification;
-                })
-                .collect(java.util.stream.Collectors.toList());
+        return unreadCounterStore.getUnreadNotifications(null);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getUnreadNotifications(String username) {
+        return unreadCounterStore.getUnreadNotifications(username);
     }
     
     @Transactional
     public void markJobOfferNotificationsAsRead(Long jobOfferId) {
-        applicationRepository.markJobOfferApplicationsAsViewed(jobOfferId);
+        unreadCounterStore.markRead(jobOfferId);
+        eventPublisher.publishEvent(new NotificationsReadEvent(List.of(jobOfferId)));
         log.info("Notifications de l'offre {} marquées comme lues", jobOfferId);
     }
     
+    // Offres visibles par le recruteur : les siennes et celles sans auteur
     @Transactional
-    public void markAllNotificationsAsRead() {
-        applicationRepository.markAllApplicationsAsViewed();
-        log.info("Toutes les notifications ont été marquées comme lues");
+    public void markAllNotificationsAsRead(String username) {
+        List<Long> jobOfferIds = unreadCounterStore.markAllRead(username);
+        if (!jobOfferIds.isEmpty()) {
+            eventPublisher.publishEvent(new NotificationsReadEvent(jobOfferIds));
+        }
+        log.info("Notifications de {} offre(s) marquées comme lues par {}", jobOfferIds.size(), username);
     }
 }
\ No newline at end of file
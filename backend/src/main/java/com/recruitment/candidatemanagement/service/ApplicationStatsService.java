@@ -0,0 +1,271 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs de candidatures du tableau de bord (par statut, par offre, par jour), tenus en mémoire.
+ * <p>
+ * Chaque {@link ApplicationLifecycleEvent} est appliqué après le commit de sa transaction ; les
+ * compteurs sont recalculés périodiquement depuis la base, ce qui corrige les écarts dus aux
+ * modifications faites hors de l'application. Les événements reçus pendant ce recalcul sont
+ * rejoués sur le résultat.
+ */
+@Service
+@Slf4j
+public class ApplicationStatsService {
+
+    private static final Application.ApplicationStatus[] STATUSES = Application.ApplicationStatus.values();
+
+    private final ApplicationRepository applicationRepository;
+    private final JobOfferRepository jobOfferRepository;
+    private final CandidateRepository candidateRepository;
+    private final AppProperties appProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Object lock = new Object();
+    private final Object reconcileLock = new Object();
+    private volatile Counters counters;
+    private List<ApplicationLifecycleEvent> replay;
+    private volatile CatalogCounts catalog;
+
+    public ApplicationStatsService(ApplicationRepository applicationRepository, JobOfferRepository jobOfferRepository,
+                                   CandidateRepository candidateRepository, AppProperties appProperties,
+                                   PlatformTransactionManager transactionManager) {
+        this.applicationRepository = applicationRepository;
+        this.jobOfferRepository = jobOfferRepository;
+        this.candidateRepository = candidateRepository;
+        this.appProperties = appProperties;
+        // Transaction propre : le recalcul peut être déclenché après le commit d'une autre
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onApplicationEvent(ApplicationLifecycleEvent event) {
+        synchronized (lock) {
+            if (counters != null) {
+                counters.apply(event);
+            }
+            if (replay != null) {
+                replay.add(event);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobOfferDeleted(JobOfferDeletedEvent event) {
+        // Les candidatures supprimées en cascade ne sont pas connues une à une
+        log.info("Offre {} supprimée: recalcul des statistiques", event.jobOfferId());
+        reconcile();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:300000}",
+               initialDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("Erreur lors du recalcul des statistiques", e);
+        }
+    }
+
+    /**
+     * Recalcule tous les compteurs depuis la base puis remplace ceux en mémoire.
+     */
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            List<ApplicationLifecycleEvent> received = new ArrayList<>();
+            synchronized (lock) {
+                replay = received;
+            }
+            Counters fresh;
+            try {
+                fresh = transactionTemplate.execute(status -> load());
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    replay = null;
+                }
+                throw e;
+            }
+            synchronized (lock) {
+                received.forEach(fresh::apply);
+                if (counters != null && counters.total() != fresh.total()) {
+                    log.info("Statistiques recalculées: {} candidatures en mémoire, {} en base",
+                        counters.total(), fresh.total());
+                }
+                counters = fresh;
+                replay = null;
+            }
+        }
+    }
+
+    private Counters load() {
+        LocalDate since = LocalDate.now().minusDays(appProperties.getStats().getDailyRetentionDays());
+        Counters loaded = new Counters(since);
+        applicationRepository.countGroupedByStatus().forEach(row ->
+            loaded.byStatus.addAndGet(slot(row.getStatus(), Boolean.TRUE.equals(row.getArchived())), row.getApplications()));
+        applicationRepository.countGroupedByJobOffer().forEach(row ->
+            loaded.counter(loaded.byJobOffer, row.getJobOfferId()).add(row.getApplications()));
+        applicationRepository.countGroupedByDaySince(since.atStartOfDay()).forEach(row ->
+            loaded.counter(loaded.byDay, row.getDay()).add(row.getApplications()));
+        return loaded;
+    }
+
+    public ApplicationStats getStats() {
+        Counters current = current();
+        Map<Application.ApplicationStatus, Long> byStatus = new EnumMap<>(Application.ApplicationStatus.class);
+        Map<Application.ApplicationStatus, Long> activeByStatus = new EnumMap<>(Application.ApplicationStatus.class);
+        long archived = 0;
+        for (Application.ApplicationStatus status : STATUSES) {
+            long active = current.byStatus.get(slot(status, false));
+            long archivedInStatus = current.byStatus.get(slot(status, true));
+            activeByStatus.put(status, active);
+            byStatus.put(status, active + archivedInStatus);
+            archived += archivedInStatus;
+        }
+        archived += current.byStatus.get(slot(null, true));
+        return new ApplicationStats(current.total(), current.count(current.byDay, LocalDate.now()),
+            byStatus, activeByStatus, archived, current.loadedAt);
+    }
+
+    public long getJobOfferApplicationsCount(Long jobOfferId) {
+        Counters current = current();
+        return current.count(current.byJobOffer, jobOfferId);
+    }
+
+    /**
+     * Candidatures reçues par jour entre from et to inclus, dans la limite de la rétention.
+     */
+    public Map<LocalDate, Long> getDailyCounts(LocalDate from, LocalDate to) {
+        Counters current = current();
+        Map<LocalDate, Long> days = new TreeMap<>();
+        for (LocalDate day = from.isBefore(current.since) ? current.since : from; !day.isAfter(to); day = day.plusDays(1)) {
+            days.put(day, current.count(current.byDay, day));
+        }
+        return days;
+    }
+
+    /**
+     * Nombre de candidats et d'offres : rarement modifiés, relus au plus une fois par intervalle.
+     */
+    public CatalogCounts getCatalogCounts() {
+        CatalogCounts cached = catalog;
+        long ttl = appProperties.getStats().getCatalogTtlMs();
+        if (cached != null && System.currentTimeMillis() - cached.loadedAtMillis() < ttl) {
+            return cached;
+        }
+        synchronized (this) {
+            cached = catalog;
+            if (cached == null || System.currentTimeMillis() - cached.loadedAtMillis() >= ttl) {
+                cached = new CatalogCounts(candidateRepository.count(), jobOfferRepository.count(),
+                    jobOfferRepository.countByStatus(JobOffer.JobStatus.PUBLISHED), System.currentTimeMillis());
+                catalog = cached;
+            }
+            return cached;
+        }
+    }
+
+    private Counters current() {
+        Counters current = counters;
+        if (current == null) {
+            // Lecture avant le premier calcul (démarrage)
+            reconcile();
+            current = counters;
+        }
+        return current;
+    }
+
+    // Un emplacement par statut et par état d'archivage, le premier couple pour un statut absent
+    private static int slot(Application.ApplicationStatus status, boolean archived) {
+        return (status == null ? 0 : status.ordinal() + 1) * 2 + (archived ? 1 : 0);
+    }
+
+    private static final class Counters {
+
+        private final AtomicLongArray byStatus = new AtomicLongArray((STATUSES.length + 1) * 2);
+        private final Map<Long, LongAdder> byJobOffer = new ConcurrentHashMap<>();
+        private final Map<LocalDate, LongAdder> byDay = new ConcurrentHashMap<>();
+        private final LocalDate since;
+        private final LocalDateTime loadedAt = LocalDateTime.now();
+
+        private Counters(LocalDate since) {
+            this.since = since;
+        }
+
+        void apply(ApplicationLifecycleEvent event) {
+            apply(event.before(), -1);
+            apply(event.after(), 1);
+        }
+
+        private void apply(ApplicationLifecycleEvent.State state, long delta) {
+            if (state == null) {
+                return;
+            }
+            byStatus.addAndGet(slot(state.status(), state.archived()), delta);
+            if (state.jobOfferId() != null) {
+                counter(byJobOffer, state.jobOfferId()).add(delta);
+            }
+            if (state.receivedAt() != null && !state.receivedAt().toLocalDate().isBefore(since)) {
+                counter(byDay, state.receivedAt().toLocalDate()).add(delta);
+            }
+        }
+
+        <K> LongAdder counter(Map<K, LongAdder> counters, K key) {
+            return counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+
+        <K> long count(Map<K, LongAdder> counters, K key) {
+            LongAdder counter = counters.get(key);
+            return counter != null ? counter.sum() : 0;
+        }
+
+        long total() {
+            long total = 0;
+            for (int i = 0; i < byStatus.length(); i++) {
+                total += byStatus.get(i);
+            }
+            return total;
+        }
+    }
+
+    public record ApplicationStats(long total, long today,
+                                   Map<Application.ApplicationStatus, Long> byStatus,
+                                   Map<Application.ApplicationStatus, Long> activeByStatus,
+                                   long archived, LocalDateTime reconciledAt) {
+    }
+
+    public record CatalogCounts(long candidates, long jobOffers, long publishedJobOffers, long loadedAtMillis) {
+    }
+}
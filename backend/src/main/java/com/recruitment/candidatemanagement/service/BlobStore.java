@@ -0,0 +1,229 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.StoredBlob;
+import com.recruitment.candidatemanagement.repository.StoredBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Stockage des fichiers déposés adressé par contenu : chaque fichier est rangé sous
+ * {@code blobs/ab/cd/<sha256>} (deux niveaux de 256 sous-dossiers), écrit et analysé
+ * une seule fois quel que soit le nombre de candidatures qui le référencent.
+ * <p>
+ * Les références sont comptées en base ; le fichier est supprimé après le commit qui retire
+ * la dernière, ou par le balayage périodique si cette suppression n'a pas eu lieu. Un fichier
+ * rangé par une transaction annulée est supprimé s'il n'est référencé par aucune autre.
+ * Ajout et suppression d'un même blob sont sérialisés par le verrou de sa ligne en base,
+ * seul verrou pris : un verrou local en plus, pris dans l'autre ordre par l'une des deux
+ * opérations, pourrait les bloquer mutuellement.
+ */
+@Service
+@Slf4j
+public class BlobStore {
+
+    private final AppProperties appProperties;
+    private final StoredBlobRepository blobRepository;
+    private final TeeUploadPipeline uploadPipeline;
+    private final TransactionTemplate transactionTemplate;
+
+    public BlobStore(AppProperties appProperties, StoredBlobRepository blobRepository,
+                     TeeUploadPipeline uploadPipeline, PlatformTransactionManager transactionManager) {
+        this.appProperties = appProperties;
+        this.blobRepository = blobRepository;
+        this.uploadPipeline = uploadPipeline;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Appelé après le commit ou l'annulation de la transaction de l'appelant
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Écrit le contenu dans un fichier temporaire en calculant son empreinte, hors transaction.
+     * Le texte n'est extrait que si le blob correspondant n'en a pas déjà un.
+     */
+    public StagedBlob stage(InputStream in) throws IOException {
+        Path tempDir = root().resolve("tmp");
+        Files.createDirectories(tempDir);
+        Path temp = tempDir.resolve(UUID.randomUUID() + ".part");
+        try {
+            TeeUploadPipeline.Result upload = uploadPipeline.process(in, temp,
+                hash -> blobRepository.findExtractedText(hash).isEmpty());
+            return new StagedBlob(upload.contentHash(), temp, upload.stats().bytes(), upload.extractedText());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Ajoute une référence au blob préparé par {@link #stage}, dans la transaction courante,
+     * et range son fichier s'il n'est pas déjà stocké. Le fichier est rangé avant le commit pour
+     * être lisible dès la référence visible ; si la transaction est annulée, il est supprimé
+     * faute d'autre référence. La ligne du blob reste verrouillée jusqu'au commit.
+     */
+    public Blob attach(StagedBlob staged) throws IOException {
+        String hash = staged.contentHash();
+        String relativePath = relativePath(hash);
+        Path target = blobsDir().resolve(relativePath);
+        try {
+            blobRepository.addReference(hash, relativePath, staged.size(), staged.extractedText());
+            if (Files.exists(target)) {
+                Files.delete(staged.tempPath());
+                log.info("Blob {} déjà stocké, contenu dédupliqué", hash);
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(staged.tempPath(), target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    Files.delete(staged.tempPath());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            discard(staged);
+            throw e;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        removeIfUnreferenced(hash);
+                    }
+                }
+            });
+        }
+
+        String text = staged.extractedText() != null
+            ? staged.extractedText()
+            : blobRepository.findExtractedText(hash).orElse("");
+        return new Blob(hash, target, staged.size(), text);
+    }
+
+    /**
+     * Abandonne un contenu préparé qui ne sera pas rattaché.
+     */
+    public void discard(StagedBlob staged) {
+        try {
+            Files.deleteIfExists(staged.tempPath());
+        } catch (IOException e) {
+            log.warn("Impossible de supprimer le fichier temporaire {}", staged.tempPath(), e);
+        }
+    }
+
+    /**
+     * Retire une référence dans la transaction courante ; le fichier est supprimé
+     * après le commit si c'était la dernière.
+     */
+    public void release(String contentHash) {
+        if (blobRepository.removeReference(contentHash, LocalDateTime.now()) == 0) {
+            log.warn("Blob {} inconnu ou déjà libéré", contentHash);
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeIfUnreferenced(contentHash);
+                }
+            });
+        } else {
+            removeIfUnreferenced(contentHash);
+        }
+    }
+
+    public Path resolve(String contentHash) {
+        return blobsDir().resolve(relativePath(contentHash));
+    }
+
+    /**
+     * Rattrapage des blobs libérés dont la suppression n'a pas abouti (arrêt, erreur disque).
+     */
+    @Scheduled(fixedDelayString = "${app.file-storage.blob-sweep-interval-ms:3600000}")
+    public void sweepReleasedBlobs() {
+        LocalDateTime before = LocalDateTime.now()
+            .minus(Duration.ofMillis(appProperties.getFileStorage().getBlobSweepIntervalMs()));
+        int removed = 0;
+        for (String hash : blobRepository.findReleasedBefore(before)) {
+            if (removeIfUnreferenced(hash)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.info("{} blob(s) non référencé(s) supprimé(s)", removed);
+        }
+    }
+
+    // Supprime le blob sans référence, ou le fichier d'un blob jamais enregistré (transaction annulée)
+    private boolean removeIfUnreferenced(String contentHash) {
+        try {
+            // Fichier supprimé sous le verrou de ligne : un ajout concurrent attend le commit,
+            // puis range de nouveau son fichier
+            Boolean removed = transactionTemplate.execute(status -> {
+                blobRepository.lockForRemoval(contentHash, relativePath(contentHash));
+                StoredBlob blob = blobRepository.findForUpdate(contentHash).orElseThrow();
+                if (blob.getRefCount() > 0) {
+                    return false;
+                }
+                blobRepository.delete(blob);
+                try {
+                    return Files.deleteIfExists(resolve(contentHash));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (!Boolean.TRUE.equals(removed)) {
+                return false;
+            }
+            log.info("Blob supprimé: {}", contentHash);
+            return true;
+        } catch (RuntimeException e) {
+            // Le balayage suivant réessaiera
+            log.error("Erreur lors de la suppression du blob: {}", contentHash, e);
+            return false;
+        }
+    }
+
+    private Path root() {
+        return Paths.get(appProperties.getFileStorage().getUploadDir());
+    }
+
+    private Path blobsDir() {
+        return root().resolve("blobs");
+    }
+
+    static String relativePath(String hash) {
+        return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+    }
+
+    /**
+     * Contenu écrit et analysé, pas encore référencé ; {@code extractedText} est {@code null}
+     * si le blob existant a déjà un texte.
+     */
+    public record StagedBlob(String contentHash, Path tempPath, long size, String extractedText) {
+    }
+
+    /**
+     * Blob référencé par un nouveau document ; {@code extractedText} est vide si le contenu
+     * n'a pas de texte exploitable.
+     */
+    public record Blob(String contentHash, Path path, long size, String extractedText) {
+    }
+}
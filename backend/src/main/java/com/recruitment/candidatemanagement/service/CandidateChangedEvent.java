@@ -0,0 +1,7 @@
+package com.recruitment.candidatemanagement.service;
+
+/**
+ * Candidat créé ou dont le profil a été modifié.
+ */
+public record CandidateChangedEvent(Long candidateId) {
+}
@@ -0,0 +1,423 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.dto.CandidateFacetPage;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationScoreRepository;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Index en mémoire des candidats par compétence, années d'expérience et localisation :
+ * un bitmap compressé d'identifiants par valeur. Une recherche combine les bitmaps des
+ * filtres (ET entre filtres, OU entre valeurs d'un même filtre) et compte chaque facette
+ * par intersection avec le résultat, sans requête en base.
+ * <p>
+ * Les compétences viennent du profil (champ libre, ramené au vocabulaire par
+ * {@link SkillNormalizer}) et des analyses de CV ; l'expérience déclarée dans le profil
+ * l'emporte sur celle relevée par l'analyse. L'index est chargé au démarrage, tenu à jour
+ * après chaque commit et relu entièrement toutes les app.facets.reload-interval-ms.
+ */
+@Service
+@Slf4j
+public class CandidateFacetIndex {
+
+    static final int MAX_YEARS = 20; // Dernière tranche : 20 ans et plus
+    private static final int BATCH_SIZE = 500;
+
+    private static final List<ExperienceRange> EXPERIENCE_RANGES = List.of(
+        new ExperienceRange("0-1", 0, 1),
+        new ExperienceRange("2-4", 2, 4),
+        new ExperienceRange("5-9", 5, 9),
+        new ExperienceRange("10+", 10, MAX_YEARS));
+
+    private final CandidateRepository candidateRepository;
+    private final ApplicationRepository applicationRepository;
+    private final ApplicationScoreRepository scoreRepository;
+    private final AppProperties appProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Facets facets = new Facets(); // Protégé par lock
+
+    // Candidats modifiés pendant une relecture complète, relus une fois celle-ci en place
+    private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+    private volatile boolean reloading;
+
+    public CandidateFacetIndex(CandidateRepository candidateRepository, ApplicationRepository applicationRepository,
+                               ApplicationScoreRepository scoreRepository, AppProperties appProperties,
+                               PlatformTransactionManager transactionManager) {
+        this.candidateRepository = candidateRepository;
+        this.applicationRepository = applicationRepository;
+        this.scoreRepository = scoreRepository;
+        this.appProperties = appProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        reload();
+    }
+
+    /**
+     * Relit tous les candidats dans un nouvel index puis le substitue à l'actuel, qui continue
+     * de servir les recherches pendant la relecture.
+     */
+    @Scheduled(fixedDelayString = "${app.facets.reload-interval-ms:3600000}",
+               initialDelayString = "${app.facets.reload-interval-ms:3600000}")
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        reloading = true;
+        touched.clear();
+        try {
+            Facets fresh = new Facets();
+            long afterId = 0;
+            List<Long> ids;
+            while (!(ids = idsAfter(afterId)).isEmpty()) {
+                load(ids).forEach(fresh::put);
+                afterId = ids.get(ids.size() - 1);
+            }
+            fresh.optimize();
+            lock.writeLock().lock();
+            try {
+                facets = fresh;
+                reloading = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Index des facettes candidats chargé: {} candidat(s) en {} ms",
+                fresh.all.getCardinality(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            reloading = false;
+            log.error("Erreur lors du chargement de l'index des facettes candidats", e);
+        }
+        if (!touched.isEmpty()) {
+            List<Long> replay = new ArrayList<>(touched);
+            touched.removeAll(replay);
+            update(replay);
+        }
+    }
+
+    private List<Long> idsAfter(long afterId) {
+        return transactionTemplate.execute(status -> candidateRepository.findIdsAfter(afterId, Limit.of(BATCH_SIZE)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCandidateChanged(CandidateChangedEvent event) {
+        if (event.candidateId() != null) {
+            update(List.of(event.candidateId()));
+        }
+    }
+
+    // Compétences et expérience relevées dans les CV de la candidature
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onApplicationEvent(ApplicationLifecycleEvent event) {
+        if (event.type() != ApplicationLifecycleEvent.Type.ANALYSIS_COMPLETED) {
+            return;
+        }
+        try {
+            update(transactionTemplate.execute(status ->
+                applicationRepository.findCandidateIds(List.of(event.applicationId()))));
+        } catch (RuntimeException e) {
+            log.warn("Facettes de la candidature {} non mises à jour, rattrapées au prochain rechargement: {}",
+                event.applicationId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Candidats ayant toutes les compétences de {@code skills}, au moins une de {@code anySkills},
+     * une expérience comprise entre les bornes et l'une des localisations ; chaque filtre vide ou
+     * null est ignoré. Les candidats sont renvoyés du plus récent au plus ancien, par pages de
+     * {@code size} : {@code before} reprend après le dernier identifiant de la page précédente.
+     *
+     * @throws IllegalArgumentException compétence hors vocabulaire, bornes ou taille de page invalides
+     */
+    public CandidateFacetPage search(Collection<String> skills, Collection<String> anySkills,
+                                     Integer minExperience, Integer maxExperience,
+                                     Collection<String> locations, Long before, int size) {
+        if (size < 1 || size > appProperties.getFacets().getMaxPageSize()) {
+            throw new IllegalArgumentException("Taille de page invalide: " + size);
+        }
+        int minYears = minExperience != null ? minExperience : 0;
+        int maxYears = maxExperience != null ? Math.min(maxExperience, MAX_YEARS) : MAX_YEARS;
+        if (minYears < 0 || (maxExperience != null && maxExperience < minYears)) {
+            throw new IllegalArgumentException("Bornes d'expérience invalides");
+        }
+        Set<String> allOf = canonicalSkills(skills);
+        Set<String> anyOf = canonicalSkills(anySkills);
+        Set<String> locationKeys = locations == null ? Set.of() : locations.stream()
+            .map(CandidateFacetIndex::locationKey)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        boolean experienceFilter = minExperience != null || maxExperience != null;
+
+        List<Long> ids = new ArrayList<>();
+        Long nextBefore;
+        RoaringBitmap result;
+        CandidateFacetPage.Facets counts;
+        lock.readLock().lock();
+        try {
+            result = facets.all.clone();
+            for (String skill : allOf) {
+                result.and(facets.skills.getOrDefault(skill, new RoaringBitmap()));
+            }
+            if (!anyOf.isEmpty()) {
+                result.and(facets.union(anyOf.stream().map(facets.skills::get).toList()));
+            }
+            if (experienceFilter) {
+                result.and(minYears > MAX_YEARS ? new RoaringBitmap() : facets.years(minYears, maxYears));
+            }
+            if (!locationKeys.isEmpty()) {
+                result.and(facets.union(locationKeys.stream().map(facets.locations::get).toList()));
+            }
+
+            // Identifiants croissants : la page part du rang de before et remonte
+            int end = before == null ? result.getCardinality()
+                : before <= 0 ? 0 : (int) result.rankLong((int) Math.min(before - 1, Integer.MAX_VALUE));
+            for (int i = end - 1; i >= 0 && ids.size() < size; i--) {
+                ids.add(Integer.toUnsignedLong(result.select(i)));
+            }
+            nextBefore = !ids.isEmpty() && end > ids.size() ? ids.get(ids.size() - 1) : null;
+            counts = facets.count(result, appProperties.getFacets().getLocationFacetLimit());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, Candidate> candidates = candidateRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Candidate::getId, Function.identity()));
+        return new CandidateFacetPage(result.getLongCardinality(),
+            ids.stream().map(candidates::get).filter(Objects::nonNull).toList(),
+            nextBefore, counts);
+    }
+
+    private void update(Collection<Long> candidateIds) {
+        if (candidateIds == null || candidateIds.isEmpty()) {
+            return;
+        }
+        if (reloading) {
+            touched.addAll(candidateIds);
+        }
+        try {
+            Map<Integer, Entry> entries = load(candidateIds);
+            lock.writeLock().lock();
+            try {
+                for (Long id : candidateIds) {
+                    Entry entry = entries.get(toIntId(id));
+                    if (entry != null) {
+                        facets.put(toIntId(id), entry);
+                    } else {
+                        facets.remove(toIntId(id));
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Facettes des candidats {} non mises à jour, rattrapées au prochain rechargement: {}",
+                candidateIds, e.getMessage());
+        }
+    }
+
+    // Facettes des candidats encore présents en base
+    private Map<Integer, Entry> load(Collection<Long> candidateIds) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, Set<String>> analysisSkills = new HashMap<>();
+            Map<Long, Integer> analysisYears = new HashMap<>();
+            for (ApplicationScoreRepository.CandidateAnalysisFacet row : scoreRepository.findCandidateFacets(candidateIds)) {
+                if (row.getSkill() != null) {
+                    SkillNormalizer.canonical(row.getSkill()).ifPresent(skill ->
+                        analysisSkills.computeIfAbsent(row.getCandidateId(), id -> new LinkedHashSet<>()).add(skill));
+                }
+                if (row.getExperienceYears() != null) {
+                    analysisYears.merge(row.getCandidateId(), row.getExperienceYears(), Math::max);
+                }
+            }
+            Map<Integer, Entry> entries = new HashMap<>();
+            for (Candidate candidate : candidateRepository.findAllById(candidateIds)) {
+                Set<String> skills = SkillNormalizer.normalize(candidate.getSkills());
+                skills.addAll(analysisSkills.getOrDefault(candidate.getId(), Set.of()));
+                Integer years = candidate.getYearsExperience() != null
+                    ? candidate.getYearsExperience() : analysisYears.get(candidate.getId());
+                String label = locationLabel(candidate.getLocation());
+                entries.put(toIntId(candidate.getId()), new Entry(skills, years, locationKey(label), label));
+            }
+            return entries;
+        });
+    }
+
+    private static Set<String> canonicalSkills(Collection<String> skills) {
+        Set<String> canonical = new LinkedHashSet<>();
+        if (skills != null) {
+            for (String skill : skills) {
+                canonical.add(SkillNormalizer.canonical(skill)
+                    .orElseThrow(() -> new IllegalArgumentException("Compétence inconnue: " + skill)));
+            }
+        }
+        return canonical;
+    }
+
+    // Ville seule : « Lyon, France » et « lyon » désignent la même localisation
+    private static String locationLabel(String location) {
+        if (location == null) {
+            return null;
+        }
+        int comma = location.indexOf(',');
+        String label = (comma >= 0 ? location.substring(0, comma) : location).trim();
+        return label.isEmpty() ? null : label;
+    }
+
+    private static String locationKey(String location) {
+        String label = locationLabel(location);
+        return label == null ? null : SkillNormalizer.fold(label);
+    }
+
+    private static int toIntId(long id) {
+        return Math.toIntExact(id);
+    }
+
+    private record ExperienceRange(String label, int from, int to) {
+    }
+
+    private record Entry(Set<String> skills, Integer years, String locationKey, String locationLabel) {
+    }
+
+    /**
+     * Bitmaps d'un état de l'index, avec les valeurs indexées de chaque candidat pour retirer
+     * ses anciens bits lors d'une mise à jour.
+     */
+    private static final class Facets {
+
+        final RoaringBitmap all = new RoaringBitmap();
+        final Map<String, RoaringBitmap> skills = new HashMap<>();
+        final RoaringBitmap[] years = new RoaringBitmap[MAX_YEARS + 1];
+        final Map<String, RoaringBitmap> locations = new HashMap<>();
+        final Map<String, String> locationLabels = new HashMap<>(); // Première graphie rencontrée
+        final Map<Integer, Entry> entries = new HashMap<>();
+
+        Facets() {
+            for (int i = 0; i < years.length; i++) {
+                years[i] = new RoaringBitmap();
+            }
+        }
+
+        void put(int id, Entry entry) {
+            remove(id);
+            all.add(id);
+            entry.skills().forEach(skill -> skills.computeIfAbsent(skill, key -> new RoaringBitmap()).add(id));
+            if (entry.years() != null && entry.years() >= 0) {
+                years[Math.min(entry.years(), MAX_YEARS)].add(id);
+            }
+            if (entry.locationKey() != null) {
+                locations.computeIfAbsent(entry.locationKey(), key -> new RoaringBitmap()).add(id);
+                locationLabels.putIfAbsent(entry.locationKey(), entry.locationLabel());
+            }
+            entries.put(id, entry);
+        }
+
+        void remove(int id) {
+            Entry old = entries.remove(id);
+            if (old == null) {
+                return;
+            }
+            all.remove(id);
+            old.skills().forEach(skill -> removeFrom(skills, skill, id));
+            if (old.years() != null && old.years() >= 0) {
+                years[Math.min(old.years(), MAX_YEARS)].remove(id);
+            }
+            if (old.locationKey() != null && removeFrom(locations, old.locationKey(), id)) {
+                locationLabels.remove(old.locationKey());
+            }
+        }
+
+        // Vrai si la valeur n'a plus aucun candidat
+        private static boolean removeFrom(Map<String, RoaringBitmap> bitmaps, String key, int id) {
+            RoaringBitmap bitmap = bitmaps.get(key);
+            if (bitmap == null) {
+                return false;
+            }
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+                return true;
+            }
+            return false;
+        }
+
+        RoaringBitmap union(List<RoaringBitmap> bitmaps) {
+            return RoaringBitmap.or(bitmaps.stream().filter(Objects::nonNull).iterator());
+        }
+
+        RoaringBitmap years(int from, int to) {
+            List<RoaringBitmap> range = new ArrayList<>();
+            for (int year = from; year <= to; year++) {
+                range.add(years[year]);
+            }
+            return union(range);
+        }
+
+        CandidateFacetPage.Facets count(RoaringBitmap result, int locationLimit) {
+            Map<String, Integer> skillCounts = top(skills, result, Integer.MAX_VALUE, Function.identity());
+            Map<String, Integer> experienceCounts = new LinkedHashMap<>();
+            for (ExperienceRange range : EXPERIENCE_RANGES) {
+                int count = 0;
+                for (int year = range.from(); year <= range.to(); year++) {
+                    count += RoaringBitmap.andCardinality(result, years[year]);
+                }
+                experienceCounts.put(range.label(), count);
+            }
+            Map<String, Integer> locationCounts = top(locations, result, locationLimit, locationLabels::get);
+            return new CandidateFacetPage.Facets(skillCounts, experienceCounts, locationCounts);
+        }
+
+        // Valeurs présentes dans le résultat, de la plus fréquente à la moins fréquente
+        private static Map<String, Integer> top(Map<String, RoaringBitmap> bitmaps, RoaringBitmap result,
+                                                int limit, Function<String, String> label) {
+            return bitmaps.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), RoaringBitmap.andCardinality(result, entry.getValue())))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .collect(Collectors.toMap(entry -> label.apply(entry.getKey()), Map.Entry::getValue,
+                    (first, second) -> first, LinkedHashMap::new));
+        }
+
+        void optimize() {
+            all.runOptimize();
+            skills.values().forEach(RoaringBitmap::runOptimize);
+            locations.values().forEach(RoaringBitmap::runOptimize);
+            for (RoaringBitmap bitmap : years) {
+                bitmap.runOptimize();
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.recruitment.candidatemanagement.service;
+
+/**
+ * Candidats du vivier rapprochés d'une offre publiée, disponibles par GET /job-offers/{id}/matches.
+ */
+public record CandidateMatchesReadyEvent(Long jobOfferId, int matches) {
+}
@@ -0,0 +1,363 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.dto.CandidateMatches;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.index.Fields;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermVectors;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Rapproche une offre des candidats existants : l'offre (compétences requises, titre,
+ * description) et chaque candidat (compétences, poste, texte des CV) sont des vecteurs
+ * TF-IDF creux sur les termes de l'index de recherche, comparés par similarité cosinus.
+ * <p>
+ * L'index inversé fournit d'abord les app.matching.candidate-pool-size candidats les mieux
+ * classés sur les termes principaux de l'offre, sans parcourir tout le vivier ; seuls
+ * ceux-ci sont notés exactement, à partir des vecteurs de termes conservés dans l'index.
+ * Le calcul est lancé à la publication d'une offre et son résultat gardé
+ * app.matching.cache-ttl-ms.
+ */
+@Service
+@Slf4j
+public class CandidateMatchingService {
+
+    // Poids des champs dans les vecteurs : les compétences comptent plus que le texte libre
+    private static final Map<String, Float> OFFER_FIELDS = Map.of(
+        "requiredSkills", 3f, "title", 2f, "description", 1f);
+    private static final Map<String, Float> CANDIDATE_FIELDS = Map.of(
+        "skills", 3f, "currentPosition", 2f, "cv", 1f);
+
+    static {
+        if (!SearchIndexService.CANDIDATE_VECTOR_FIELDS.equals(CANDIDATE_FIELDS.keySet())) {
+            throw new IllegalStateException("Champs des candidats sans vecteurs de termes dans l'index");
+        }
+    }
+
+    private final JobOfferRepository jobOfferRepository;
+    private final CandidateRepository candidateRepository;
+    private final SearchIndexService searchIndexService;
+    private final AppProperties appProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Analyzer analyzer = new SearchAnalyzer();
+    private final Map<Long, CandidateMatches> cache;
+    private final ExecutorService matcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "candidate-matching");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CandidateMatchingService(JobOfferRepository jobOfferRepository, CandidateRepository candidateRepository,
+                                    SearchIndexService searchIndexService, AppProperties appProperties,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager) {
+        this.jobOfferRepository = jobOfferRepository;
+        this.candidateRepository = candidateRepository;
+        this.searchIndexService = searchIndexService;
+        this.appProperties = appProperties;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        int maxEntries = appProperties.getMatching().getCacheMaxEntries();
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CandidateMatches> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobOfferPublished(JobOfferPublishedEvent event) {
+        try {
+            matcher.execute(() -> {
+                try {
+                    computeMatches(event.jobOfferId()).ifPresent(matches -> eventPublisher.publishEvent(
+                        new CandidateMatchesReadyEvent(event.jobOfferId(), matches.matches().size())));
+                } catch (RuntimeException e) {
+                    log.error("Erreur lors du rapprochement des candidats de l'offre {}", event.jobOfferId(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Rapprochement de l'offre {} ignoré pendant l'arrêt", event.jobOfferId());
+        }
+    }
+
+    // Compétences ou description modifiées : rapprochement recalculé à la prochaine demande
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobOfferChanged(JobOfferChangedEvent event) {
+        cache.remove(event.jobOfferId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobOfferDeleted(JobOfferDeletedEvent event) {
+        cache.remove(event.jobOfferId());
+    }
+
+    /**
+     * Au plus {@code limit} candidats les plus proches de l'offre, calculés à la publication
+     * ou à la demande si le résultat gardé a expiré ; vide si l'offre n'existe pas.
+     *
+     * @throws IllegalArgumentException limite hors de 1..app.matching.max-results
+     */
+    public Optional<CandidateMatches> getMatches(Long jobOfferId, int limit) {
+        AppProperties.Matching config = appProperties.getMatching();
+        if (limit < 1 || limit > config.getMaxResults()) {
+            throw new IllegalArgumentException("Nombre de candidats invalide: " + limit);
+        }
+        CandidateMatches cached = cache.get(jobOfferId);
+        Optional<CandidateMatches> matches = cached != null
+                && cached.computedAt().plus(Duration.ofMillis(config.getCacheTtlMs())).isAfter(LocalDateTime.now())
+            ? Optional.of(cached)
+            : computeMatches(jobOfferId);
+        return matches.map(result -> result.matches().size() <= limit ? result
+            : new CandidateMatches(result.jobOfferId(), result.computedAt(), result.matches().subList(0, limit)));
+    }
+
+    Optional<CandidateMatches> computeMatches(Long jobOfferId) {
+        long start = System.currentTimeMillis();
+        Optional<JobOffer> offer = transactionTemplate.execute(status -> jobOfferRepository.findById(jobOfferId));
+        if (offer.isEmpty()) {
+            cache.remove(jobOfferId);
+            return Optional.empty();
+        }
+        Map<String, Double> offerTerms = offerTerms(offer.get());
+        List<Scored> ranked = searchIndexService.withSearcher(searcher -> rank(searcher, offerTerms));
+
+        Map<Long, Candidate> candidates = transactionTemplate.execute(status ->
+            candidateRepository.findAllById(ranked.stream().map(Scored::candidateId).toList())).stream()
+            .collect(Collectors.toMap(Candidate::getId, Function.identity()));
+        Set<String> requiredSkills = SkillNormalizer.normalize(offer.get().getRequiredSkills());
+        List<CandidateMatches.Match> matches = new ArrayList<>();
+        for (Scored scored : ranked) {
+            Candidate candidate = candidates.get(scored.candidateId());
+            if (candidate != null) {
+                Set<String> matchedSkills = new LinkedHashSet<>(requiredSkills);
+                matchedSkills.retainAll(SkillNormalizer.normalize(candidate.getSkills()));
+                matches.add(new CandidateMatches.Match(candidate, scored.score(), matchedSkills));
+            }
+        }
+        CandidateMatches result = new CandidateMatches(jobOfferId, LocalDateTime.now(), List.copyOf(matches));
+        cache.put(jobOfferId, result);
+        log.info("Offre {} rapprochée de {} candidat(s) en {} ms", jobOfferId, matches.size(),
+            System.currentTimeMillis() - start);
+        return Optional.of(result);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        matcher.shutdown();
+        try {
+            if (!matcher.awaitTermination(10, TimeUnit.SECONDS)) {
+                matcher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            matcher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        analyzer.close();
+    }
+
+    private List<Scored> rank(IndexSearcher searcher, Map<String, Double> offerTerms) throws IOException {
+        AppProperties.Matching config = appProperties.getMatching();
+        int candidateCount = searcher.count(SearchIndexService.kindFilter(SearchIndexService.Kind.CANDIDATE));
+        if (candidateCount == 0 || offerTerms.isEmpty()) {
+            return List.of();
+        }
+        Idf idf = new Idf(searcher.getIndexReader(), candidateCount);
+
+        // Vecteur de l'offre ; les termes absents du vivier comptent dans sa norme seulement
+        Map<String, Double> offerVector = new HashMap<>();
+        Map<String, Double> matchable = new HashMap<>();
+        for (Map.Entry<String, Double> term : offerTerms.entrySet()) {
+            double weight = term.getValue() * idf.of(term.getKey());
+            offerVector.put(term.getKey(), weight);
+            if (idf.docFreq(term.getKey()) > 0) {
+                matchable.put(term.getKey(), weight);
+            }
+        }
+        double offerNorm = norm(offerVector.values());
+        List<Map.Entry<String, Double>> queryTerms = matchable.entrySet().stream()
+            .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+            .limit(config.getMaxQueryTerms())
+            .toList();
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        // Génération des candidats par l'index inversé (top-k sans parcours complet)
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (Map.Entry<String, Double> term : queryTerms) {
+            CANDIDATE_FIELDS.forEach((field, weight) -> query.add(new BoostQuery(
+                new TermQuery(new Term(field, term.getKey())), (float) (weight * term.getValue())),
+                BooleanClause.Occur.SHOULD));
+        }
+        query.add(SearchIndexService.kindFilter(SearchIndexService.Kind.CANDIDATE), BooleanClause.Occur.FILTER);
+        TopDocs pool = searcher.search(query.build(), config.getCandidatePoolSize());
+
+        // Note exacte de chaque candidat retenu à partir de ses vecteurs de termes
+        TermVectors termVectors = searcher.getIndexReader().termVectors();
+        StoredFields storedFields = searcher.storedFields();
+        List<Scored> scored = new ArrayList<>(pool.scoreDocs.length);
+        for (ScoreDoc hit : pool.scoreDocs) {
+            Map<String, Double> candidateVector = candidateTerms(termVectors.get(hit.doc));
+            for (Map.Entry<String, Double> term : candidateVector.entrySet()) {
+                term.setValue(term.getValue() * idf.of(term.getKey()));
+            }
+            double dot = 0;
+            for (Map.Entry<String, Double> term : offerVector.entrySet()) {
+                dot += term.getValue() * candidateVector.getOrDefault(term.getKey(), 0d);
+            }
+            double candidateNorm = norm(candidateVector.values());
+            if (dot > 0 && candidateNorm > 0) {
+                scored.add(new Scored(SearchIndexService.storedId(storedFields, hit.doc),
+                    dot / (offerNorm * candidateNorm)));
+            }
+        }
+        scored.sort(Comparator.comparingDouble(Scored::score).reversed().thenComparingLong(Scored::candidateId));
+        return scored.size() <= config.getMaxResults() ? scored : scored.subList(0, config.getMaxResults());
+    }
+
+    // Fréquences amorties (1 + ln tf) pondérées par champ
+    private Map<String, Double> offerTerms(JobOffer offer) {
+        Map<String, String> texts = new HashMap<>();
+        texts.put("requiredSkills", offer.getRequiredSkills());
+        texts.put("title", offer.getTitle());
+        texts.put("description", offer.getDescription());
+        Map<String, Double> weights = new HashMap<>();
+        OFFER_FIELDS.forEach((field, weight) -> {
+            String text = texts.get(field);
+            if (text == null || text.isBlank()) {
+                return;
+            }
+            Map<String, Integer> counts = new HashMap<>();
+            try (TokenStream stream = analyzer.tokenStream(field, text)) {
+                CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+                stream.reset();
+                while (stream.incrementToken()) {
+                    counts.merge(term.toString(), 1, Integer::sum);
+                }
+                stream.end();
+            } catch (IOException e) {
+                throw new RuntimeException("Erreur lors de l'analyse du texte de l'offre", e);
+            }
+            counts.forEach((term, count) -> weights.merge(term, weight * (1 + Math.log(count)), Double::sum));
+        });
+        return weights;
+    }
+
+    private static Map<String, Double> candidateTerms(Fields fields) throws IOException {
+        Map<String, Double> weights = new HashMap<>();
+        if (fields == null) {
+            return weights;
+        }
+        for (Map.Entry<String, Float> field : CANDIDATE_FIELDS.entrySet()) {
+            Terms terms = fields.terms(field.getKey());
+            if (terms == null) {
+                continue;
+            }
+            TermsEnum iterator = terms.iterator();
+            BytesRef term;
+            while ((term = iterator.next()) != null) {
+                // Fréquence du terme dans ce document
+                weights.merge(term.utf8ToString(), field.getValue() * (1 + Math.log(iterator.totalTermFreq())),
+                    Double::sum);
+            }
+        }
+        return weights;
+    }
+
+    private static double norm(Iterable<Double> values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value * value;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * IDF lissé sur les champs des candidats, mémorisé le temps d'un calcul.
+     */
+    private static final class Idf {
+
+        private final IndexReader reader;
+        private final int candidateCount;
+        private final Map<String, Integer> docFreqs = new HashMap<>();
+
+        Idf(IndexReader reader, int candidateCount) {
+            this.reader = reader;
+            this.candidateCount = candidateCount;
+        }
+
+        double of(String term) throws IOException {
+            return Math.log((candidateCount + 1.0) / (docFreq(term) + 1.0)) + 1;
+        }
+
+        // Candidats dont au moins un champ contient le terme (borne basse : le champ le plus fréquent)
+        int docFreq(String term) throws IOException {
+            Integer cached = docFreqs.get(term);
+            if (cached != null) {
+                return cached;
+            }
+            int docFreq = 0;
+            for (String field : CANDIDATE_FIELDS.keySet()) {
+                docFreq = Math.max(docFreq, reader.docFreq(new Term(field, term)));
+            }
+            docFreqs.put(term, docFreq);
+            return docFreq;
+        }
+    }
+
+    private record Scored(long candidateId, double score) {
+    }
+}
@@ -0,0 +1,196 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.dto.CandidateSuggestion;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Index de préfixes en mémoire pour l'autocomplétion des candidats : termes triés (prénom,
+ * nom, « prénom nom », « nom prénom », email) en minuscules sans accents ni ponctuation.
+ * Les termes commençant par la saisie forment une plage contiguë de l'ensemble trié, lue
+ * dans l'ordre alphabétique : « martin » passe avant « martinez ». Aucune requête en base
+ * à la recherche.
+ * <p>
+ * Chargé au démarrage puis mis à jour candidat par candidat après chaque commit.
+ */
+@Service
+@Slf4j
+public class CandidateNameIndex {
+
+    private static final int BATCH_SIZE = 500;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Key> ORDER = Comparator.comparing(Key::term).thenComparingLong(Key::candidateId);
+
+    private final CandidateRepository candidateRepository;
+    private final AppProperties appProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentSkipListSet<Key> keys = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Candidats modifiés pendant le chargement initial, relus une fois celui-ci terminé
+    private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    public CandidateNameIndex(CandidateRepository candidateRepository, AppProperties appProperties,
+                              PlatformTransactionManager transactionManager) {
+        this.candidateRepository = candidateRepository;
+        this.appProperties = appProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        load();
+    }
+
+    synchronized void load() {
+        long start = System.currentTimeMillis();
+        loading = true;
+        try {
+            long afterId = 0;
+            List<Long> ids;
+            while (!(ids = idsAfter(afterId)).isEmpty()) {
+                List<Long> batch = ids;
+                transactionTemplate.execute(status -> candidateRepository.findAllById(batch))
+                    .forEach(this::put);
+                afterId = ids.get(ids.size() - 1);
+            }
+            log.info("Index d'autocomplétion des candidats chargé: {} candidat(s) en {} ms",
+                entries.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Erreur lors du chargement de l'index d'autocomplétion des candidats", e);
+        } finally {
+            loading = false;
+        }
+        List<Long> replay = new ArrayList<>(touched);
+        touched.removeAll(replay);
+        replay.forEach(this::refresh);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCandidateChanged(CandidateChangedEvent event) {
+        if (event.candidateId() == null) {
+            return;
+        }
+        if (loading) {
+            touched.add(event.candidateId());
+        }
+        refresh(event.candidateId());
+    }
+
+    /**
+     * Au plus {@code limit} candidats dont un terme commence par la saisie, accents, casse et
+     * ponctuation ignorés (« lea m » trouve « Léa Martin », « l.martin@ » son email).
+     *
+     * @throws IllegalArgumentException limite hors de 1..app.autocomplete.max-results
+     */
+    public List<CandidateSuggestion> suggest(String text, int limit) {
+        if (limit < 1 || limit > appProperties.getAutocomplete().getMaxResults()) {
+            throw new IllegalArgumentException("Nombre de suggestions invalide: " + limit);
+        }
+        String prefix = normalize(text);
+        if (prefix.length() < appProperties.getAutocomplete().getMinPrefixLength()) {
+            return List.of();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Key key : keys.subSet(new Key(prefix, Long.MIN_VALUE), new Key(prefix + Character.MAX_VALUE, Long.MIN_VALUE))) {
+            if (ids.add(key.candidateId()) && ids.size() == limit) {
+                break;
+            }
+        }
+        return ids.stream()
+            .map(entries::get)
+            .filter(Objects::nonNull)
+            .map(Entry::suggestion)
+            .toList();
+    }
+
+    private void refresh(Long candidateId) {
+        try {
+            transactionTemplate.execute(status -> candidateRepository.findById(candidateId))
+                .ifPresentOrElse(this::put, () -> remove(candidateId));
+        } catch (RuntimeException e) {
+            log.warn("Autocomplétion du candidat {} non mise à jour: {}", candidateId, e.getMessage());
+        }
+    }
+
+    private List<Long> idsAfter(long afterId) {
+        return transactionTemplate.execute(status -> candidateRepository.findIdsAfter(afterId, Limit.of(BATCH_SIZE)));
+    }
+
+    // Remplace les termes précédents du candidat ; synchronisé avec ses autres mises à jour
+    private void put(Candidate candidate) {
+        Entry entry = new Entry(CandidateSuggestion.fromEntity(candidate), terms(candidate));
+        entries.compute(candidate.getId(), (id, old) -> {
+            if (old != null) {
+                old.terms().stream().filter(term -> !entry.terms().contains(term))
+                    .forEach(term -> keys.remove(new Key(term, id)));
+            }
+            entry.terms().forEach(term -> keys.add(new Key(term, id)));
+            return entry;
+        });
+    }
+
+    private void remove(Long candidateId) {
+        entries.computeIfPresent(candidateId, (id, old) -> {
+            old.terms().forEach(term -> keys.remove(new Key(term, id)));
+            return null;
+        });
+    }
+
+    private static Set<String> terms(Candidate candidate) {
+        String firstName = normalize(candidate.getFirstName());
+        String lastName = normalize(candidate.getLastName());
+        Set<String> terms = new LinkedHashSet<>();
+        // Chaque mot des noms composés : « Jean-Pierre » se trouve aussi par « pierre »
+        Stream.of(firstName, lastName)
+            .flatMap(name -> Stream.of(name.split(" ")))
+            .forEach(terms::add);
+        terms.add((firstName + " " + lastName).trim());
+        terms.add((lastName + " " + firstName).trim());
+        terms.add(normalize(candidate.getEmail()));
+        terms.remove("");
+        return terms;
+    }
+
+    // Minuscules sans accents, toute ponctuation ramenée à un espace
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return SEPARATORS.matcher(SkillNormalizer.fold(text)).replaceAll(" ").trim();
+    }
+
+    private record Key(String term, long candidateId) {
+    }
+
+    private record Entry(CandidateSuggestion suggestion, Set<String> terms) {
+    }
+}
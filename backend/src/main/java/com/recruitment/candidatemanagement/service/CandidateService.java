@@ -0,0 +1,41 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class CandidateService {
+
+    private final CandidateRepository candidateRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public Optional<Candidate> updateCandidate(Long id, Candidate candidateDetails) {
+        return candidateRepository.findById(id)
+            .map(candidate -> {
+                candidate.setFirstName(candidateDetails.getFirstName());
+                candidate.setLastName(candidateDetails.getLastName());
+                candidate.setPhone(candidateDetails.getPhone());
+                candidate.setLinkedinProfile(candidateDetails.getLinkedinProfile());
+                candidate.setCurrentPosition(candidateDetails.getCurrentPosition());
+                candidate.setCurrentCompany(candidateDetails.getCurrentCompany());
+                candidate.setLocation(candidateDetails.getLocation());
+                candidate.setYearsExperience(candidateDetails.getYearsExperience());
+                candidate.setSkills(candidateDetails.getSkills());
+
+                Candidate saved = candidateRepository.save(candidate);
+                eventPublisher.publishEvent(new CandidateChangedEvent(saved.getId()));
+                log.info("Candidat {} mis à jour", id);
+                return saved;
+            });
+    }
+}
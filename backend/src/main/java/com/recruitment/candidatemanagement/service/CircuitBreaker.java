@@ -0,0 +1,70 @@
+package com.recruitment.candidatemanagement.service;
+
+/**
+ * Disjoncteur minimal pour un service externe : après {@code failureThreshold} échecs
+ * consécutifs, les appels sont refusés immédiatement pendant {@code openMillis} ;
+ * un seul appel d'essai est ensuite autorisé pour décider de la réouverture.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInProgress;
+
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Réserve le droit d'appeler le service ; lève {@link OpenException} si le circuit est ouvert.
+     */
+    public synchronized void acquirePermission() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMillis) {
+                throw new OpenException(name);
+            }
+            state = State.HALF_OPEN;
+            trialInProgress = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInProgress) {
+                throw new OpenException(name);
+            }
+            trialInProgress = true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInProgress = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInProgress = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public static class OpenException extends RuntimeException {
+        public OpenException(String name) {
+            super("Circuit ouvert pour " + name + " : appel refusé");
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.ApplicationDocument;
+import com.recruitment.candidatemanagement.repository.ApplicationDocumentRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Téléchargement des documents déposés :
+ * <ul>
+ *   <li>ETag fort (empreinte SHA-256 du contenu) et Last-Modified, réponses 304 sur
+ *       If-None-Match / If-Modified-Since ;</li>
+ *   <li>requêtes Range simples (206) et multiples (multipart/byteranges), If-Range ;</li>
+ *   <li>envoi sans copie : sendfile de Tomcat quand il est disponible, sinon
+ *       {@link FileChannel#transferTo} vers le flux de réponse ;</li>
+ *   <li>métadonnées gardées en mémoire (LRU) : les requêtes successives d'un lecteur PDF
+ *       ne repassent pas par la base.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class DocumentDownloadService {
+
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = "private, max-age=0, must-revalidate";
+    private static final int MAX_RANGES = 16; // Au-delà, le fichier complet est renvoyé
+
+    private final ApplicationDocumentRepository documentRepository;
+    private final Map<Long, DocumentMetadata> metadataCache;
+
+    public DocumentDownloadService(ApplicationDocumentRepository documentRepository,
+                                   AppProperties appProperties) {
+        this.documentRepository = documentRepository;
+        int maxEntries = appProperties.getFileStorage().getDownloadMetadataCacheSize();
+        this.metadataCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, DocumentMetadata> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Écrit la réponse complète (statut, en-têtes, contenu) pour le document demandé.
+     */
+    public void serve(Long documentId, boolean inline, HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        DocumentMetadata metadata = metadata(documentId);
+        if (metadata == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ETAG, metadata.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, metadata.lastModified().toEpochMilli());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (notModified(request, metadata)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            (inline ? "inline" : "attachment") + "; filename=\"" + metadata.fileName() + "\"");
+        boolean head = "HEAD".equals(request.getMethod());
+
+        List<ByteRange> ranges = null;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request, metadata)) {
+            ranges = parseRanges(rangeHeader, metadata.size());
+            if (ranges != null && ranges.isEmpty()) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + metadata.size());
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        try {
+            if (ranges == null) {
+                response.setStatus(HttpServletResponse.SC_OK);
+                response.setContentType(metadata.contentType());
+                response.setContentLengthLong(metadata.size());
+                if (!head) {
+                    send(request, response, metadata, 0, metadata.size());
+                }
+            } else if (ranges.size() == 1) {
+                ByteRange range = ranges.get(0);
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setContentType(metadata.contentType());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(metadata.size()));
+                response.setContentLengthLong(range.length());
+                if (!head) {
+                    send(request, response, metadata, range.start(), range.length());
+                }
+            } else {
+                sendMultipart(response, metadata, ranges, head);
+            }
+        } catch (NoSuchFileException e) {
+            // Fichier supprimé depuis la mise en cache des métadonnées
+            evict(documentId);
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            }
+        }
+    }
+
+    public void evict(Long documentId) {
+        synchronized (metadataCache) {
+            metadataCache.remove(documentId);
+        }
+    }
+
+    private DocumentMetadata metadata(Long documentId) throws IOException {
+        synchronized (metadataCache) {
+            DocumentMetadata cached = metadataCache.get(documentId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ApplicationDocument document = documentRepository.findById(documentId).orElse(null);
+        if (document == null) {
+            return null;
+        }
+        Path path = Paths.get(document.getFilePath());
+        if (!Files.isReadable(path)) {
+            log.warn("Fichier du document {} introuvable: {}", documentId, path);
+            return null;
+        }
+        long size = Files.size(path);
+        Instant lastModified = Files.getLastModifiedTime(path).toInstant().truncatedTo(ChronoUnit.SECONDS);
+        // Le contenu d'un blob ne change jamais : son empreinte suffit comme validateur fort
+        String etag = document.getContentHash() != null
+            ? "\"" + document.getContentHash() + "\""
+            : "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified.getEpochSecond()) + "\"";
+        String contentType = document.getContentType() != null ? document.getContentType() : "application/octet-stream";
+
+        DocumentMetadata metadata = new DocumentMetadata(path, document.getFileName(), contentType,
+                                                         size, lastModified, etag);
+        synchronized (metadataCache) {
+            metadataCache.put(documentId, metadata);
+        }
+        return metadata;
+    }
+
+    private boolean notModified(HttpServletRequest request, DocumentMetadata metadata) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            // Comparaison faible, comme le prévoit la RFC 9110 pour If-None-Match
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || stripWeak(tag).equals(metadata.etag())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && metadata.lastModified().toEpochMilli() <= ifModifiedSince;
+    }
+
+    private boolean ifRangeMatches(HttpServletRequest request, DocumentMetadata metadata) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Comparaison forte : un ETag faible ne valide jamais une plage
+            return ifRange.equals(metadata.etag());
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && metadata.lastModified().toEpochMilli() == date;
+    }
+
+    /**
+     * Plages demandées, fusionnées et triées ; {@code null} si l'en-tête est invalide ou
+     * doit être ignoré (fichier complet), liste vide si aucune plage n'est satisfiable.
+     */
+    static List<ByteRange> parseRanges(String header, long size) {
+        if (!header.startsWith("bytes=")) {
+            return null;
+        }
+        String[] specs = header.substring("bytes=".length()).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        List<ByteRange> ranges = new ArrayList<>();
+        for (String spec : specs) {
+            String value = spec.trim();
+            int dash = value.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            try {
+                long start;
+                long end;
+                if (dash == 0) {
+                    long suffix = Long.parseLong(value.substring(1));
+                    if (suffix <= 0) {
+                        continue;
+                    }
+                    start = Math.max(0, size - suffix);
+                    end = size - 1;
+                } else {
+                    start = Long.parseLong(value.substring(0, dash));
+                    String endPart = value.substring(dash + 1);
+                    if (endPart.isEmpty()) {
+                        end = size - 1;
+                    } else {
+                        long requestedEnd = Long.parseLong(endPart);
+                        if (requestedEnd < start) {
+                            return null;
+                        }
+                        end = Math.min(requestedEnd, size - 1);
+                    }
+                }
+                if (start < size && start <= end) {
+                    ranges.add(new ByteRange(start, end));
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return merge(ranges);
+    }
+
+    private static List<ByteRange> merge(List<ByteRange> ranges) {
+        if (ranges.size() < 2) {
+            return ranges;
+        }
+        List<ByteRange> sorted = new ArrayList<>(ranges);
+        sorted.sort((a, b) -> Long.compare(a.start(), b.start()));
+        List<ByteRange> merged = new ArrayList<>();
+        ByteRange current = sorted.get(0);
+        for (ByteRange next : sorted.subList(1, sorted.size())) {
+            if (next.start() <= current.end() + 1) {
+                current = new ByteRange(current.start(), Math.max(current.end(), next.end()));
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+
+    private void send(HttpServletRequest request, HttpServletResponse response, DocumentMetadata metadata,
+                      long start, long length) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Le connecteur envoie le fichier directement depuis le noyau
+            request.setAttribute(SENDFILE_FILENAME, metadata.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(metadata.path(), StandardOpenOption.READ)) {
+            transfer(file, start, length, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    private void sendMultipart(HttpServletResponse response, DocumentMetadata metadata,
+                               List<ByteRange> ranges, boolean head) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        List<byte[]> partHeaders = new ArrayList<>();
+        long contentLength = 0;
+        for (ByteRange range : ranges) {
+            byte[] header = ("\r\n--" + boundary + "\r\n"
+                + HttpHeaders.CONTENT_TYPE + ": " + metadata.contentType() + "\r\n"
+                + HttpHeaders.CONTENT_RANGE + ": " + range.contentRange(metadata.size()) + "\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(header);
+            contentLength += header.length + range.length();
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (head) {
+            return;
+        }
+
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel file = FileChannel.open(metadata.path(), StandardOpenOption.READ)) {
+            for (int i = 0; i < ranges.size(); i++) {
+                out.write(partHeaders.get(i));
+                transfer(file, ranges.get(i).start(), ranges.get(i).length(), target);
+            }
+        }
+        out.write(closing);
+    }
+
+    private static void transfer(FileChannel file, long start, long length, WritableByteChannel target)
+            throws IOException {
+        long position = start;
+        long remaining = length;
+        while (remaining > 0) {
+            long sent = file.transferTo(position, remaining, target);
+            if (sent <= 0) {
+                break; // Fichier tronqué depuis le calcul des en-têtes
+            }
+            position += sent;
+            remaining -= sent;
+        }
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        String value = request.getHeader(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME)
+                .withZoneSameInstant(ZoneOffset.UTC).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    record ByteRange(long start, long end) {
+
+        long length() {
+            return end - start + 1;
+        }
+
+        String contentRange(long size) {
+            return "bytes " + start + "-" + end + "/" + size;
+        }
+    }
+
+    private record DocumentMetadata(Path path, String fileName, String contentType,
+                                    long size, Instant lastModified, String etag) {
+    }
+}
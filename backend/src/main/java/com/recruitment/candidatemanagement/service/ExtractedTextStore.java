@@ -0,0 +1,93 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.ApplicationDocument;
+import com.recruitment.candidatemanagement.repository.ApplicationDocumentRepository;
+import com.recruitment.candidatemanagement.repository.StoredBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Texte extrait des documents, normalisé et indexé par empreinte SHA-256 du contenu.
+ * Le texte produit à l'upload est réutilisé par l'analyse, le re-scoring et la recherche ;
+ * en son absence (anciens documents), l'analyse lit le fichier en flux via PdfAnalysisService.
+ */
+@Service
+@Slf4j
+public class ExtractedTextStore {
+
+    private static final Pattern HORIZONTAL_SPACES = Pattern.compile("[\\t\\x0B\\f\\r ]+");
+
+    private final ApplicationDocumentRepository documentRepository;
+    private final StoredBlobRepository blobRepository;
+    private final Map<String, String> cache;
+
+    public ExtractedTextStore(ApplicationDocumentRepository documentRepository,
+                              StoredBlobRepository blobRepository,
+                              AppProperties appProperties) {
+        this.documentRepository = documentRepository;
+        this.blobRepository = blobRepository;
+        int maxEntries = appProperties.getAi().getTextCache().getMaxEntries();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Enregistre le texte extrait à l'upload pour une empreinte donnée.
+     */
+    public String put(String contentHash, String rawText) {
+        String normalized = normalize(rawText);
+        if (contentHash != null) {
+            synchronized (cache) {
+                cache.put(contentHash, normalized);
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * Texte normalisé du document : cache mémoire, puis texte persisté (du blob, de ce document
+     * ou d'un document identique antérieur au stockage par contenu).
+     * Vide si le texte n'a jamais été extrait.
+     */
+    public Optional<String> findText(ApplicationDocument document) {
+        String hash = document.getContentHash();
+        if (hash != null) {
+            synchronized (cache) {
+                String cached = cache.get(hash);
+                if (cached != null) {
+                    return Optional.of(cached);
+                }
+            }
+        }
+
+        String stored = document.getExtractedText();
+        if ((stored == null || stored.isBlank()) && hash != null) {
+            stored = blobRepository.findExtractedText(hash).orElse(null);
+        }
+        if ((stored == null || stored.isBlank()) && hash != null) {
+            stored = documentRepository.findFirstByContentHashAndExtractedTextIsNotNull(hash)
+                .map(ApplicationDocument::getExtractedText)
+                .orElse(null);
+        }
+        if (stored != null && !stored.isBlank()) {
+            return Optional.of(put(hash, stored));
+        }
+        return Optional.empty();
+    }
+
+    static String normalize(String text) {
+        if (text == null) return "";
+        return HORIZONTAL_SPACES.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
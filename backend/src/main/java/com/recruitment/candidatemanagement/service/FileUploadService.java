@@ -1,60 +1,71 @@
 package com.recruitment.candidatemanagement.service;
 
-import com.recruitment.candidatemanagement.config.AppProperties;
 import com.recruitment.candidatemanagement.entity.Application;
 import com.recruitment.candidatemanagement.entity.ApplicationDocument;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.tika.Tika;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FileUploadService {
     
-    private final AppProperties appProperties;
-    private final Tika tika = new Tika();
+    private final ExtractedTextStore extractedTextStore;
+    private final BlobStore blobStore;
+    private final ExecutorService documentIngestExecutor;
     
-    public ApplicationDocument saveFile(MultipartFile file, Application application) {
+    /**
+     * Ingère le fichier hors transaction : écriture, empreinte et extraction du texte.
+     * Le document n'existe qu'après {@link #attach}.
+     */
+    public StagedDocument stage(MultipartFile file, ApplicationDocument.DocumentType documentType) {
         try {
-            // Créer le dossier s'il n'existe pas
-            Path uploadPath = Paths.get(appProperties.getFileStorage().getUploadDir());
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
+            // Contenu stocké et analysé une seule fois, partagé entre documents identiques
+            BlobStore.StagedBlob blob = blobStore.stage(file.getInputStream());
+            if (blob.extractedText() != null) {
+                extractedTextStore.put(blob.contentHash(), blob.extractedText());
             }
+            return new StagedDocument(file.getOriginalFilename(), file.getContentType(),
+                documentType != null ? documentType : determineDocumentType(file.getOriginalFilename()), blob);
+        } catch (IOException e) {
+            log.error("Erreur lors de la sauvegarde du fichier", e);
+            throw new RuntimeException("Erreur lors de la sauvegarde du fichier", e);
+        }
+    }
+    
+    public CompletableFuture<StagedDocument> stageAsync(MultipartFile file, ApplicationDocument.DocumentType documentType) {
+        return CompletableFuture.supplyAsync(() -> stage(file, documentType), documentIngestExecutor);
+    }
+    
+    /**
+     * Rattache un fichier ingéré à la candidature, dans la transaction courante.
+     * Le document retourné reste à enregistrer.
+     */
+    public ApplicationDocument attach(StagedDocument staged, Application application) {
+        try {
+            BlobStore.Blob blob = blobStore.attach(staged.blob());
             
-            // Générer un nom unique
-            String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            Path filePath = uploadPath.resolve(fileName);
-            
-            // Sauvegarder le fichier
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-            
-            // Extraire le texte
-            String extractedText = extractText(file);
-            
-            // Créer l'entité document
+            // Créer l'entité document (le texte extrait est conservé sur le blob)
             ApplicationDocument document = new ApplicationDocument();
             document.setApplication(application);
-            document.setFileName(fileName);
-            document.setOriginalFileName(file.getOriginalFilename());
-            document.setFilePath(filePath.toString());
-            document.setContentType(file.getContentType());
-            document.setFileSize(file.getSize());
-            document.setDocumentType(determineDocumentType(file.getOriginalFilename()));
-            document.setExtractedText(extractedText);
+            document.setFileName(staged.originalFileName());
+            document.setOriginalFileName(staged.originalFileName());
+            document.setFilePath(blob.path().toString());
+            document.setContentType(staged.contentType());
+            document.setFileSize(blob.size());
+            document.setDocumentType(staged.documentType());
+            document.setContentHash(blob.contentHash());
             
-            log.info("Fichier sauvegardé: {} pour la candidature {}", 
-                fileName, application.getId());
+            log.info("Fichier sauvegardé: {} ({}) pour la candidature {}", 
+                staged.originalFileName(), blob.contentHash(), application.getId());
             
             return document;
             
@@ -64,13 +75,8 @@ public class FileUploadService {
         }
     }
     
-    private String extractText(MultipartFile file) {
-        try {
-            return tika.parseToString(file.getInputStream());
-        } catch (Exception e) {
-            log.warn("Impossible d'extraire le texte du fichier: {}", file.getOriginalFilename());
-            return "";
-        }
+    public void discard(StagedDocument staged) {
+        blobStore.discard(staged.blob());
     }
     
     private ApplicationDocument.DocumentType determineDocumentType(String filename) {
@@ -88,7 +94,17 @@ public class FileUploadService {
         return ApplicationDocument.DocumentType.OTHER;
     }
     
-    public void deleteFile(String filePath) {
+    /**
+     * Retire le fichier du document : le blob partagé n'est supprimé qu'avec sa dernière
+     * référence ; les fichiers déposés avant le stockage par contenu sont supprimés directement.
+     */
+    public void deleteFile(ApplicationDocument document) {
+        String filePath = document.getFilePath();
+        if (document.getContentHash() != null
+                && blobStore.resolve(document.getContentHash()).toString().equals(filePath)) {
+            blobStore.release(document.getContentHash());
+            return;
+        }
         try {
             Files.deleteIfExists(Paths.get(filePath));
             log.info("Fichier supprimé: {}", filePath);
@@ -96,4 +112,11 @@ public class FileUploadService {
             log.error("Erreur lors de la suppression du fichier: {}", filePath, e);
         }
     }
+    
+    /**
+     * Fichier déposé, écrit et analysé, en attente de rattachement à sa candidature.
+     */
+    public record StagedDocument(String originalFileName, String contentType,
+                                 ApplicationDocument.DocumentType documentType, BlobStore.StagedBlob blob) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,248 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recruitment.candidatemanagement.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Accès à l'API publique GitHub :
+ * <ul>
+ *   <li>client HTTP asynchrone à connexions persistantes, délais de connexion et de réponse explicites ;</li>
+ *   <li>profil et première page de repositories demandés en parallèle, pages suivantes via l'en-tête Link ;</li>
+ *   <li>requêtes conditionnelles (If-None-Match / ETag) : une réponse 304 ne consomme pas le quota ;</li>
+ *   <li>bulkhead limitant les appels sortants simultanés et disjoncteur qui fait échouer
+ *       immédiatement les appels tant que GitHub est en erreur.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class GitHubApiClient {
+
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>;\\s*rel=\"next\"");
+    private static final int CALLS_PER_FETCH = 2; // Profil + repositories en parallèle
+
+    private final AppProperties appProperties;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public GitHubApiClient(AppProperties appProperties) {
+        AppProperties.Github config = appProperties.getGithub();
+        this.appProperties = appProperties;
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMs()))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        this.bulkhead = new Semaphore(Math.max(config.getMaxConcurrentCalls(), CALLS_PER_FETCH));
+        this.circuitBreaker = new CircuitBreaker("api.github.com",
+            config.getCircuitFailureThreshold(), config.getCircuitOpenMs());
+    }
+
+    /**
+     * Récupère le profil et les repositories d'un utilisateur. Les parties inchangées
+     * depuis {@code previous} (réponse 304) sont reprises telles quelles.
+     */
+    public GitHubSnapshot fetch(String username, GitHubSnapshot previous) {
+        try {
+            return fetchAsync(username, previous).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            // Délai dépassé ou connexion impossible
+            throw new GitHubApiException("Appel GitHub en échec pour " + username, e.getCause());
+        }
+    }
+
+    public CompletableFuture<GitHubSnapshot> fetchAsync(String username, GitHubSnapshot previous) {
+        AppProperties.Github config = appProperties.getGithub();
+        acquireBulkhead(config);
+        try {
+            circuitBreaker.acquirePermission();
+        } catch (CircuitBreaker.OpenException e) {
+            bulkhead.release(CALLS_PER_FETCH);
+            throw e;
+        }
+
+        try {
+            String userUrl = config.getApiUrl() + "/users/" + URLEncoder.encode(username, StandardCharsets.UTF_8);
+            // L'ETag des repositories n'est fiable que si l'ancienne liste tenait sur une seule page
+            String reposEtag = previous != null && previous.reposPages() <= 1 ? previous.reposEtag() : null;
+
+            CompletableFuture<HttpResponse<byte[]>> user = send(userUrl, previous != null ? previous.userEtag() : null);
+            CompletableFuture<RepoPages> repos = send(userUrl + "/repos?per_page=100", reposEtag)
+                .thenCompose(first -> collectRepos(first, new RepoPages(), config.getMaxRepoPages()));
+
+            return user.thenCombine(repos, (userResponse, repoPages) -> toSnapshot(userResponse, repoPages, previous))
+                .whenComplete((snapshot, error) -> release(username, error));
+        } catch (RuntimeException e) {
+            release(username, e);
+            throw e;
+        }
+    }
+
+    private void release(String username, Throwable error) {
+        bulkhead.release(CALLS_PER_FETCH);
+        if (error == null) {
+            circuitBreaker.onSuccess();
+        } else {
+            circuitBreaker.onFailure();
+            log.warn("Appel à l'API GitHub en échec pour {}: {}", username, error.getMessage());
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private void acquireBulkhead(AppProperties.Github config) {
+        try {
+            if (!bulkhead.tryAcquire(CALLS_PER_FETCH, config.getBulkheadWaitMs(), TimeUnit.MILLISECONDS)) {
+                throw new GitHubApiException("Trop d'appels GitHub simultanés");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitHubApiException("Attente du bulkhead GitHub interrompue");
+        }
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> send(String url, String etag) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofMillis(appProperties.getGithub().getRequestTimeoutMs()))
+            .header("Accept", "application/vnd.github+json")
+            .GET();
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private CompletableFuture<RepoPages> collectRepos(HttpResponse<byte[]> response, RepoPages pages, int remaining) {
+        int status = response.statusCode();
+        if (status == 304) {
+            pages.notModified = true;
+            pages.etag = response.headers().firstValue("ETag").orElse(null);
+            return CompletableFuture.completedFuture(pages);
+        }
+        if (status == 404) {
+            pages.notFound = true;
+            return CompletableFuture.completedFuture(pages);
+        }
+        checkStatus(response);
+        if (pages.count == 0) {
+            pages.etag = response.headers().firstValue("ETag").orElse(null);
+        }
+        pages.count++;
+        for (JsonNode repo : readJson(response)) {
+            JsonNode language = repo.get("language");
+            if (language != null && language.isTextual()) {
+                pages.languages.add(language.asText());
+            }
+            pages.totalStars += repo.path("stargazers_count").asInt(0);
+        }
+
+        String next = response.headers().firstValue("Link").map(GitHubApiClient::nextLink).orElse(null);
+        if (next == null || remaining <= 1) {
+            return CompletableFuture.completedFuture(pages);
+        }
+        return send(next, null).thenCompose(page -> collectRepos(page, pages, remaining - 1));
+    }
+
+    private GitHubSnapshot toSnapshot(HttpResponse<byte[]> user, RepoPages repos, GitHubSnapshot previous) {
+        if (user.statusCode() == 404 || repos.notFound) {
+            // Utilisateur inexistant : mis en cache comme profil vide
+            return GitHubSnapshot.empty();
+        }
+
+        int publicRepos;
+        String userEtag;
+        if (user.statusCode() == 304 && previous != null) {
+            publicRepos = previous.publicRepos();
+            userEtag = previous.userEtag();
+        } else {
+            checkStatus(user);
+            publicRepos = readJson(user).path("public_repos").asInt(0);
+            userEtag = user.headers().firstValue("ETag").orElse(null);
+        }
+
+        if (repos.notModified && previous != null) {
+            return new GitHubSnapshot(publicRepos, previous.languages(), previous.totalStars(),
+                                      userEtag, previous.reposEtag(), previous.reposPages());
+        }
+        return new GitHubSnapshot(publicRepos, new ArrayList<>(repos.languages), repos.totalStars,
+                                  userEtag, repos.etag, repos.count);
+    }
+
+    private void checkStatus(HttpResponse<byte[]> response) {
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) {
+            throw new GitHubApiException("Réponse GitHub inattendue: HTTP " + status + " pour " + response.uri());
+        }
+    }
+
+    private JsonNode readJson(HttpResponse<byte[]> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String nextLink(String header) {
+        Matcher matcher = NEXT_LINK.matcher(header);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static final class RepoPages {
+        final Set<String> languages = new LinkedHashSet<>();
+        int totalStars;
+        int count;
+        String etag;
+        boolean notModified;
+        boolean notFound;
+    }
+
+    public static class GitHubApiException extends RuntimeException {
+        public GitHubApiException(String message) {
+            super(message);
+        }
+
+        public GitHubApiException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Données GitHub utiles au scoring, avec les ETags permettant de les revalider.
+     */
+    public record GitHubSnapshot(int publicRepos, List<String> languages, int totalStars,
+                                 String userEtag, String reposEtag, int reposPages) {
+
+        static GitHubSnapshot empty() {
+            return new GitHubSnapshot(0, List.of(), 0, null, null, 0);
+        }
+    }
+}
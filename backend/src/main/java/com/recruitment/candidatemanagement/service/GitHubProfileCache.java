@@ -0,0 +1,144 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cache borné des profils GitHub, par nom d'utilisateur :
+ * <ul>
+ *   <li>éviction LRU au-delà de {@code cacheMaxEntries} ;</li>
+ *   <li>entrée fraîche pendant {@code cacheTtlMs}, puis servie périmée pendant
+ *       {@code staleWhileRevalidateMs} tandis qu'une revalidation tourne en arrière-plan ;</li>
+ *   <li>revalidation par requêtes conditionnelles (ETag) ;</li>
+ *   <li>un seul appel en cours par utilisateur, partagé par toutes les analyses concurrentes.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class GitHubProfileCache {
+
+    private final GitHubApiClient gitHubApiClient;
+    private final AppProperties appProperties;
+    private final Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "github-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GitHubProfileCache(GitHubApiClient gitHubApiClient, AppProperties appProperties) {
+        this.gitHubApiClient = gitHubApiClient;
+        this.appProperties = appProperties;
+        int maxEntries = appProperties.getGithub().getCacheMaxEntries();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public GitHubApiClient.GitHubSnapshot get(String username) {
+        String key = username.toLowerCase(Locale.ROOT);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        long now = System.currentTimeMillis();
+        AppProperties.Github config = appProperties.getGithub();
+        if (entry != null) {
+            long age = now - entry.fetchedAt;
+            if (age < config.getCacheTtlMs()) {
+                return entry.snapshot;
+            }
+            if (age < config.getCacheTtlMs() + config.getStaleWhileRevalidateMs()) {
+                // Périmé mais utilisable : on répond tout de suite et on revalide en arrière-plan
+                load(key, entry, true);
+                return entry.snapshot;
+            }
+        }
+
+        try {
+            return load(key, entry, false).join().snapshot;
+        } catch (CompletionException e) {
+            if (entry != null) {
+                // GitHub indisponible : mieux vaut un profil ancien que pas de profil
+                log.warn("Profil GitHub {} non revalidé, utilisation de la version en cache", key);
+                return entry.snapshot;
+            }
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    public void invalidate(String username) {
+        synchronized (entries) {
+            entries.remove(username.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private CompletableFuture<Entry> load(String key, Entry previous, boolean background) {
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing; // Un appel est déjà en cours pour cet utilisateur
+        }
+        Runnable task = () -> {
+            try {
+                created.complete(fetch(key, previous));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, created);
+            }
+        };
+        if (background) {
+            created.whenComplete((result, error) -> {
+                if (error != null) {
+                    log.warn("Revalidation du profil GitHub {} en échec: {}", key, error.getMessage());
+                }
+            });
+            refreshExecutor.execute(task);
+        } else {
+            task.run();
+        }
+        return created;
+    }
+
+    private Entry fetch(String key, Entry previous) {
+        GitHubApiClient.GitHubSnapshot snapshot =
+            gitHubApiClient.fetch(key, previous != null ? previous.snapshot : null);
+        Entry entry = new Entry(snapshot, System.currentTimeMillis());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private static final class Entry {
+        final GitHubApiClient.GitHubSnapshot snapshot;
+        final long fetchedAt;
+
+        Entry(GitHubApiClient.GitHubSnapshot snapshot, long fetchedAt) {
+            this.snapshot = snapshot;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.recruitment.candidatemanagement.service;
+
+/**
+ * Offre créée ou modifiée (contenu ou statut).
+ */
+public record JobOfferChangedEvent(Long jobOfferId) {
+}
@@ -0,0 +1,7 @@
+package com.recruitment.candidatemanagement.service;
+
+/**
+ * Suppression d'une offre, et en cascade de toutes ses candidatures.
+ */
+public record JobOfferDeletedEvent(Long jobOfferId) {
+}
@@ -0,0 +1,7 @@
+package com.recruitment.candidatemanagement.service;
+
+/**
+ * Offre passée au statut PUBLISHED.
+ */
+public record JobOfferPublishedEvent(Long jobOfferId) {
+}
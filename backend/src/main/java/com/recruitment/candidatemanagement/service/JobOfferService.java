@@ -1,20 +1,27 @@
 package com.recruitment.candidatemanagement.service;
 
+import com.recruitment.candidatemanagement.dto.JobOfferDTO;
 import com.recruitment.candidatemanagement.entity.JobOffer;
 import com.recruitment.candidatemanagement.entity.User;
 import com.recruitment.candidatemanagement.repository.JobOfferRepository;
 import com.recruitment.candidatemanagement.repository.UserRepository;
 import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationDocumentRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationScoreRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +32,11 @@ public class JobOfferService {
     private final JobOfferRepository jobOfferRepository;
     private final UserRepository userRepository;
     private final ApplicationRepository applicationRepository;
+    private final ApplicationDocumentRepository applicationDocumentRepository;
+    private final ApplicationScoreRepository applicationScoreRepository;
+    private final FileUploadService fileUploadService;
+    private final AnalysisJobQueue analysisJobQueue;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<JobOffer> getAllJobOffers() {
         // Récupérer l'utilisateur connecté
@@ -58,7 +70,7 @@ public class JobOfferService {
             user.ifPresent(jobOffer::setCreatedBy);
         }
         
-        return jobOfferRepository.save(jobOffer);
+        return saveAndPublish(jobOffer);
     }
     
     public JobOffer updateJobOffer(Long id, JobOffer jobOfferDetails) {
@@ -97,7 +109,7 @@ public class JobOfferService {
         jobOffer.setContactEmail(jobOfferDetails.getContactEmail());
         jobOffer.setContactPhone(jobOfferDetails.getContactPhone());
         
-        return jobOfferRepository.save(jobOffer);
+        return saveAndPublish(jobOffer);
     }
     
     public JobOffer publishJobOffer(Long id) {
@@ -107,7 +119,10 @@ public class JobOfferService {
         jobOffer.setStatus(JobOffer.JobStatus.PUBLISHED);
         jobOffer.setPublishedAt(LocalDateTime.now());
         
-        return jobOfferRepository.save(jobOffer);
+        JobOffer saved = saveAndPublish(jobOffer);
+        // Rapprochement des candidats existants (CandidateMatchingService)
+        eventPublisher.publishEvent(new JobOfferPublishedEvent(saved.getId()));
+        return saved;
     }
     
     public JobOffer closeJobOffer(Long id) {
@@ -116,15 +131,26 @@ public class JobOfferService {
         
         jobOffer.setStatus(JobOffer.JobStatus.CLOSED);
         
-        return jobOfferRepository.save(jobOffer);
+        return saveAndPublish(jobOffer);
     }
     
     public void deleteJobOffer(Long id) {
+        // Les documents partent en cascade avec les candidatures : libérer leurs fichiers
+        applicationDocumentRepository.findByApplicationJobOfferId(id)
+            .forEach(fileUploadService::deleteFile);
+        // Sans clé étrangère : à retirer tant que les candidatures existent
+        analysisJobQueue.removeForJobOffer(id);
+        applicationScoreRepository.deleteSkillsByJobOfferId(id);
+        applicationScoreRepository.deleteDocumentsByJobOfferId(id);
+        applicationScoreRepository.deleteByJobOfferId(id);
         jobOfferRepository.deleteById(id);
+        eventPublisher.publishEvent(new JobOfferDeletedEvent(id));
     }
     
-    public List<JobOffer> searchJobOffers(String keyword) {
-        return jobOfferRepository.findByKeyword(keyword);
+    private JobOffer saveAndPublish(JobOffer jobOffer) {
+        JobOffer saved = jobOfferRepository.save(jobOffer);
+        eventPublisher.publishEvent(new JobOfferChangedEvent(saved.getId()));
+        return saved;
     }
     
     public Optional<JobOffer> getJobOfferByApplicationUrl(String applicationUrl) {
@@ -132,6 +158,32 @@ public class JobOfferService {
     }
     
     public long getApplicationsCount(Long jobOfferId) {
-        return applicationRepository.findByJobOfferId(jobOfferId).size();
+        return applicationRepository.countByJobOfferId(jobOfferId);
+    }
+    
+    public Map<Long, Long> getApplicationsCounts(Collection<Long> jobOfferIds) {
+        if (jobOfferIds.isEmpty()) {
+            return Map.of();
+        }
+        return applicationRepository.countByJobOfferIds(jobOfferIds).stream()
+            .collect(Collectors.toMap(ApplicationRepository.JobOfferApplicationCount::getJobOfferId,
+                                      ApplicationRepository.JobOfferApplicationCount::getApplications));
+    }
+    
+    /**
+     * Offres visibles par l'utilisateur avec leur nombre de candidatures : deux requêtes
+     * quel que soit le nombre d'offres.
+     */
+    @Transactional(readOnly = true)
+    public List<JobOfferDTO> getJobOfferListing() {
+        List<JobOffer> jobOffers = getAllJobOffers();
+        Map<Long, Long> counts = getApplicationsCounts(jobOffers.stream().map(JobOffer::getId).toList());
+        return jobOffers.stream()
+            .map(jobOffer -> {
+                JobOfferDTO dto = JobOfferDTO.fromEntity(jobOffer);
+                dto.setApplicationsCount(counts.getOrDefault(jobOffer.getId(), 0L));
+                return dto;
+            })
+            .collect(Collectors.toList());
     }
 }
\ No newline at end of file
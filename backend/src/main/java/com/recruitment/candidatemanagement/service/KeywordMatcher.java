@@ -0,0 +1,191 @@
+package com.recruitment.candidatemanagement.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Automate Aho-Corasick compilé une seule fois pour un vocabulaire de mots-clés.
+ * Une seule passe linéaire sur le texte retourne tous les mots-clés présents,
+ * sans copie en minuscules du texte (la casse est normalisée caractère par caractère).
+ * Sémantique identique à {@code text.toLowerCase().contains(keyword)}.
+ * L'automate est immuable et partageable entre threads.
+ */
+public final class KeywordMatcher {
+
+    private static final int ROOT = 0;
+
+    private final String[] keywords;
+    // Transitions compactes : pour chaque état, caractères triés et états cibles
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    // Mots-clés reconnus dans chaque état (y compris via les liens de suffixe)
+    private final int[][] outputs;
+
+    public KeywordMatcher(Collection<String> vocabulary) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String keyword : vocabulary) {
+            if (keyword != null && !keyword.isEmpty()) {
+                distinct.add(lower(keyword));
+            }
+        }
+        this.keywords = distinct.toArray(new String[0]);
+
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> terminal = new ArrayList<>();
+        trie.add(new HashMap<>());
+        terminal.add(new ArrayList<>());
+
+        for (int k = 0; k < keywords.length; k++) {
+            int state = ROOT;
+            for (char c : keywords[k].toCharArray()) {
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new HashMap<>());
+                    terminal.add(new ArrayList<>());
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            terminal.get(state).add(k);
+        }
+
+        int size = trie.size();
+        this.edgeChars = new char[size][];
+        this.edgeTargets = new int[size][];
+        for (int s = 0; s < size; s++) {
+            Map<Character, Integer> edges = trie.get(s);
+            char[] chars = new char[edges.size()];
+            int i = 0;
+            for (char c : edges.keySet()) {
+                chars[i++] = c;
+            }
+            Arrays.sort(chars);
+            int[] targets = new int[chars.length];
+            for (int j = 0; j < chars.length; j++) {
+                targets[j] = edges.get(chars[j]);
+            }
+            edgeChars[s] = chars;
+            edgeTargets[s] = targets;
+        }
+
+        // Construction des liens d'échec en largeur
+        this.failure = new int[size];
+        this.outputs = new int[size][];
+        outputs[ROOT] = toArray(terminal.get(ROOT));
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int target : edgeTargets[ROOT]) {
+            failure[target] = ROOT;
+            outputs[target] = toArray(terminal.get(target));
+            queue.add(target);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int j = 0; j < edgeChars[state].length; j++) {
+                char c = edgeChars[state][j];
+                int target = edgeTargets[state][j];
+                int fallback = failure[state];
+                while (fallback != ROOT && transition(fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int candidate = transition(fallback, c);
+                failure[target] = candidate >= 0 && candidate != target ? candidate : ROOT;
+                outputs[target] = merge(toArray(terminal.get(target)), outputs[failure[target]]);
+                queue.add(target);
+            }
+        }
+    }
+
+    /**
+     * Retourne, dans l'ordre de première apparition, les mots-clés présents dans le texte.
+     */
+    public Set<String> findAll(CharSequence text) {
+        Scan scan = newScan();
+        scan.feed(text);
+        return scan.matches();
+    }
+
+    /**
+     * Démarre un parcours incrémental : le texte peut être fourni par morceaux
+     * (pages, lignes...) sans jamais être matérialisé en une seule chaîne.
+     */
+    public Scan newScan() {
+        return new Scan();
+    }
+
+    private int transition(int state, char c) {
+        char[] chars = edgeChars[state];
+        int index = Arrays.binarySearch(chars, c);
+        return index >= 0 ? edgeTargets[state][index] : -1;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    private static int[] merge(int[] own, int[] inherited) {
+        if (inherited.length == 0) return own;
+        if (own.length == 0) return inherited;
+        int[] result = Arrays.copyOf(own, own.length + inherited.length);
+        System.arraycopy(inherited, 0, result, own.length, inherited.length);
+        return result;
+    }
+
+    private static String lower(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            sb.append(Character.toLowerCase(value.charAt(i)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parcours en cours sur l'automate. Non thread-safe : un parcours par document.
+     */
+    public final class Scan {
+
+        private int state = ROOT;
+        private final BitSet seen = new BitSet(keywords.length);
+        private final List<String> ordered = new ArrayList<>();
+
+        public Scan feed(CharSequence chunk) {
+            if (chunk == null) return this;
+            int current = state;
+            for (int i = 0, n = chunk.length(); i < n; i++) {
+                char c = Character.toLowerCase(chunk.charAt(i));
+                int next = transition(current, c);
+                while (next < 0 && current != ROOT) {
+                    current = failure[current];
+                    next = transition(current, c);
+                }
+                current = next < 0 ? ROOT : next;
+                for (int k : outputs[current]) {
+                    if (!seen.get(k)) {
+                        seen.set(k);
+                        ordered.add(keywords[k]);
+                    }
+                }
+            }
+            state = current;
+            return this;
+        }
+
+        public Set<String> matches() {
+            return new LinkedHashSet<>(ordered);
+        }
+    }
+}
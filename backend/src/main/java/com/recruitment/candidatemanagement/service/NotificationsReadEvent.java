@@ -0,0 +1,9 @@
+package com.recruitment.candidatemanagement.service;
+
+import java.util.List;
+
+/**
+ * Candidatures des offres jobOfferIds marquées comme lues en masse.
+ */
+public record NotificationsReadEvent(List<Long> jobOfferIds) {
+}
@@ -1,20 +1,31 @@
 package com.recruitment.candidatemanagement.service;
 
+import com.recruitment.candidatemanagement.config.AppProperties;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class PdfAnalysisService {
     
+    private final AppProperties appProperties;
+    
     private static final Set<String> TECHNICAL_SKILLS = Set.of(
         "java", "python", "javascript", "typescript", "react", "angular", "vue", "spring", "nodejs",
         "docker", "kubernetes", "aws", "azure", "gcp", "mysql", "postgresql", "mongodb", "redis",
@@ -31,39 +42,146 @@ public class PdfAnalysisService {
         "master", "bachelor", "licence", "ingénieur", "doctorat", "phd", "bts", "dut", "iut",
         "université", "école", "formation", "diplôme", "certification"
     );
+    
+    private static final List<String> JOB_KEYWORDS = List.of(
+        "développeur", "developer", "ingénieur", "engineer",
+        "programmeur", "programmer", "analyste", "analyst"
+    );
+    
+    private static final List<String> AI_INDICATORS = List.of(
+        "en tant qu'intelligence artificielle", "je suis un modèle de langage",
+        "generated by ai", "créé par ia", "assistant virtuel",
+        "je ne peux pas", "je ne suis pas capable", "en tant qu'ia"
+    );
+    
+    private static final List<String> SUSPICIOUS_PATTERNS = List.of(
+        "fort de mes compétences", "grâce à mon expertise", "mes compétences me permettent",
+        "je serais ravi de contribuer", "n'hésitez pas à me contacter"
+    );
+    
+    private static final Pattern EXPERIENCE_PATTERN =
+        Pattern.compile("(\\d+)\\s*(ans?|years?)\\s*(d'expérience|experience|exp)");
+    
+    // Automate unique couvrant tout le vocabulaire : un seul parcours linéaire par texte
+    private static final KeywordMatcher MATCHER = new KeywordMatcher(vocabulary());
+    
+    // Compétences reconnues par l'analyse, reprises par l'index des candidats (SkillNormalizer)
+    static Set<String> skillVocabulary() {
+        Set<String> skills = new LinkedHashSet<>(TECHNICAL_SKILLS);
+        skills.addAll(SOFT_SKILLS);
+        return skills;
+    }
+    
+    private static List<String> vocabulary() {
+        List<String> all = new ArrayList<>();
+        all.addAll(TECHNICAL_SKILLS);
+        all.addAll(SOFT_SKILLS);
+        all.addAll(EDUCATION_KEYWORDS);
+        all.addAll(JOB_KEYWORDS);
+        all.addAll(AI_INDICATORS);
+        all.addAll(SUSPICIOUS_PATTERNS);
+        return all;
+    }
 
+    /**
+     * Analyse un PDF sans matérialiser son texte : les pages sont extraites une à une
+     * (tampons sur fichier temporaire) et passées directement à l'automate de mots-clés,
+     * dans la limite des budgets de pages et de caractères.
+     */
     public PdfAnalysisResult analyzePdf(String filePath, String jobRequirements) {
         try {
-            String text = extractTextFromPdf(filePath);
-            return analyzeText(text, jobRequirements);
+            KeywordMatcher.Scan scan = MATCHER.newScan();
+            ExperienceCounter experience = new ExperienceCounter();
+            streamPages(filePath, page -> {
+                scan.feed(page).feed("\n");
+                experience.accept(page);
+            });
+            return analyzeHits(scan.matches(), experience.years(), jobRequirements);
         } catch (Exception e) {
             log.error("Erreur lors de l'analyse du PDF: {}", filePath, e);
             return new PdfAnalysisResult(0, new ArrayList<>(), 0, "", 0, false, 0);
         }
     }
     
-    private String extractTextFromPdf(String filePath) throws IOException {
-        try (PDDocument document = PDDocument.load(new File(filePath))) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document).toLowerCase();
+    /**
+     * Texte du PDF en minuscules, tronqué aux budgets de pages et de caractères.
+     */
+    public String extractTextFromPdf(String filePath) throws IOException {
+        StringBuilder text = new StringBuilder();
+        streamPages(filePath, text::append);
+        return text.toString();
+    }
+    
+    public PdfAnalysisResult analyzeText(String text, String jobRequirements) {
+        // Une seule passe sur le CV
+        return analyzeHits(MATCHER.findAll(text), extractExperienceYears(text), jobRequirements);
+    }
+    
+    static Set<String> findKeywords(CharSequence text) {
+        return MATCHER.findAll(text);
+    }
+    
+    static int extractExperienceYears(String text) {
+        ExperienceCounter experience = new ExperienceCounter();
+        experience.accept(text);
+        return experience.years();
+    }
+    
+    /**
+     * Extrait les pages une à une vers {@code pageSink}, en minuscules, et journalise
+     * le coût de l'extraction (pages, caractères, mémoire allouée par le thread).
+     */
+    private ParseStats streamPages(String filePath, Consumer<String> pageSink) throws IOException {
+        AppProperties.Ai.Pdf limits = appProperties.getAi().getPdf();
+        long startNanos = System.nanoTime();
+        long allocatedBefore = allocatedBytes();
+        PageStreamingStripper stripper = new PageStreamingStripper(pageSink, limits.getMaxChars());
+        int totalPages;
+        try (PDDocument document = PDDocument.load(new File(filePath), MemoryUsageSetting.setupTempFileOnly())) {
+            totalPages = document.getNumberOfPages();
+            stripper.setEndPage(limits.getMaxPages());
+            try {
+                stripper.writeText(document, stripper.pageBuffer);
+            } catch (BudgetReachedException e) {
+                // Budget de caractères atteint : le reste du document est ignoré
+            }
+        }
+        
+        ParseStats stats = new ParseStats(stripper.pages, totalPages, stripper.chars,
+            stripper.truncated || stripper.pages < totalPages, allocatedBytes() - allocatedBefore,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        log.info("Extraction PDF {}: {}/{} page(s), {} caractères{}, {} Ko alloués, {} ms",
+            filePath, stats.pages(), stats.totalPages(), stats.chars(), stats.truncated() ? " (tronqué)" : "",
+            stats.allocatedBytes() / 1024, stats.millis());
+        return stats;
+    }
+    
+    private static long allocatedBytes() {
+        // Octets alloués par le thread courant (JVM HotSpot) ; -1 si non supporté
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
         }
+        return -1;
     }
     
-    private PdfAnalysisResult analyzeText(String text, String jobRequirements) {
+    private PdfAnalysisResult analyzeHits(Set<String> textHits, int experienceYears, String jobRequirements) {
+        // Une seule passe sur les exigences du poste
+        Set<String> requirementHits = jobRequirements != null ? MATCHER.findAll(jobRequirements) : Set.of();
+        
         // Analyse des compétences par rapport aux exigences du poste
         List<String> foundSkills = new ArrayList<>();
-        int skillsScore = analyzeSkillsMatch(text, jobRequirements, foundSkills);
+        int skillsScore = analyzeSkillsMatch(textHits, requirementHits, foundSkills);
         
         // Analyse de l'expérience professionnelle pertinente
-        int experienceYears = extractExperienceYears(text);
-        boolean hasRelevantExperience = checkRelevantExperience(text, jobRequirements);
+        boolean hasRelevantExperience = jobRequirements != null && checkRelevantExperience(textHits, requirementHits);
         
         // Analyse de la formation
-        String education = extractEducation(text);
+        String education = extractEducation(textHits);
         int educationScore = calculateEducationScore(education);
         
         // Détection de contenu généré par IA
-        boolean isAiGenerated = detectAiContent(text);
+        boolean isAiGenerated = detectAiContent(textHits);
         int aiPenalty = isAiGenerated ? -2 : 0;
         
         int totalScore = skillsScore + (hasRelevantExperience ? 3 : 0) + educationScore + aiPenalty;
@@ -73,21 +191,21 @@ public class PdfAnalysisService {
                                    hasRelevantExperience ? 1 : 0);
     }
     
-    private int analyzeSkillsMatch(String text, String jobRequirements, List<String> foundSkills) {
+    private int analyzeSkillsMatch(Set<String> textHits, Set<String> requirementHits, List<String> foundSkills) {
         int score = 0;
-        String[] requiredSkills = extractRequiredSkills(jobRequirements);
+        List<String> requiredSkills = extractRequiredSkills(requirementHits);
         
         // Vérifier les compétences requises (priorité haute)
         for (String skill : requiredSkills) {
-            if (text.toLowerCase().contains(skill.toLowerCase())) {
+            if (textHits.contains(skill)) {
                 foundSkills.add(skill);
                 score += 3; // 3 points par compétence requise trouvée
             }
         }
         
         // Vérifier les compétences techniques générales
-        for (String skill : TECHNICAL_SKILLS) {
-            if (text.contains(skill.toLowerCase()) && !foundSkills.contains(skill)) {
+        for (String skill : textHits) {
+            if (TECHNICAL_SKILLS.contains(skill) && !foundSkills.contains(skill)) {
                 foundSkills.add(skill);
                 score += 1; // 1 point par compétence technique supplémentaire
             }
@@ -96,32 +214,21 @@ public class PdfAnalysisService {
         return Math.min(score, 8); // Max 8 points pour les compétences
     }
     
-    private String[] extractRequiredSkills(String jobRequirements) {
-        if (jobRequirements == null) return new String[0];
-        
+    private List<String> extractRequiredSkills(Set<String> requirementHits) {
         // Extraire les compétences mentionnées dans les exigences du poste
         List<String> required = new ArrayList<>();
-        String lower = jobRequirements.toLowerCase();
-        
-        for (String skill : TECHNICAL_SKILLS) {
-            if (lower.contains(skill)) {
+        for (String skill : requirementHits) {
+            if (TECHNICAL_SKILLS.contains(skill)) {
                 required.add(skill);
             }
         }
-        
-        return required.toArray(new String[0]);
+        return required;
     }
     
-    private boolean checkRelevantExperience(String text, String jobRequirements) {
-        if (jobRequirements == null) return false;
-        
+    private boolean checkRelevantExperience(Set<String> textHits, Set<String> requirementHits) {
         // Vérifier si le candidat a une expérience dans le domaine requis
-        String[] jobKeywords = {"développeur", "developer", "ingénieur", "engineer", 
-                               "programmeur", "programmer", "analyste", "analyst"};
-        
-        for (String keyword : jobKeywords) {
-            if (text.toLowerCase().contains(keyword) && 
-                jobRequirements.toLowerCase().contains(keyword)) {
+        for (String keyword : JOB_KEYWORDS) {
+            if (textHits.contains(keyword) && requirementHits.contains(keyword)) {
                 return true;
             }
         }
@@ -129,30 +236,18 @@ public class PdfAnalysisService {
         return false;
     }
     
-    private boolean detectAiContent(String text) {
+    boolean detectAiContent(Set<String> textHits) {
         // Indicateurs de contenu généré par IA
-        String[] aiIndicators = {
-            "en tant qu'intelligence artificielle", "je suis un modèle de langage",
-            "generated by ai", "créé par ia", "assistant virtuel",
-            "je ne peux pas", "je ne suis pas capable", "en tant qu'ia"
-        };
-        
-        String lower = text.toLowerCase();
-        for (String indicator : aiIndicators) {
-            if (lower.contains(indicator)) {
+        for (String indicator : AI_INDICATORS) {
+            if (textHits.contains(indicator)) {
                 return true;
             }
         }
         
         // Vérifier les patterns suspects (phrases trop parfaites/répétitives)
-        String[] suspiciousPatterns = {
-            "fort de mes compétences", "grâce à mon expertise", "mes compétences me permettent",
-            "je serais ravi de contribuer", "n'hésitez pas à me contacter"
-        };
-        
         int suspiciousCount = 0;
-        for (String pattern : suspiciousPatterns) {
-            if (lower.contains(pattern)) {
+        for (String pattern : SUSPICIOUS_PATTERNS) {
+            if (textHits.contains(pattern)) {
                 suspiciousCount++;
             }
         }
@@ -160,38 +255,11 @@ public class PdfAnalysisService {
         return suspiciousCount >= 2; // Si 2+ phrases suspectes
     }
     
-    private int extractExperienceYears(String text) {
-        // Recherche de patterns d'expérience
-        Pattern pattern = Pattern.compile("(\\d+)\\s*(ans?|years?)\\s*(d'expérience|experience|exp)");
-        Matcher matcher = pattern.matcher(text);
-        
-        int maxYears = 0;
-        while (matcher.find()) {
-            try {
-                int years = Integer.parseInt(matcher.group(1));
-                maxYears = Math.max(maxYears, years);
-            } catch (NumberFormatException e) {
-                // Ignorer les erreurs de parsing
-            }
-        }
-        
-        // Si pas trouvé, estimer par le nombre d'entreprises/postes
-        if (maxYears == 0) {
-            long jobCount = Arrays.stream(text.split("\\n"))
-                .filter(line -> line.contains("2020") || line.contains("2021") || 
-                               line.contains("2022") || line.contains("2023") || line.contains("2024"))
-                .count();
-            maxYears = (int) Math.min(jobCount * 2, 15); // Estimation
-        }
-        
-        return maxYears;
-    }
-    
-    private String extractEducation(String text) {
+    private String extractEducation(Set<String> textHits) {
         StringBuilder education = new StringBuilder();
         
-        for (String keyword : EDUCATION_KEYWORDS) {
-            if (text.contains(keyword)) {
+        for (String keyword : textHits) {
+            if (EDUCATION_KEYWORDS.contains(keyword)) {
                 education.append(keyword).append(" ");
             }
         }
@@ -227,4 +295,110 @@ public class PdfAnalysisService {
             this.relevanceScore = relevanceScore;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Années d'expérience déclarées (« 5 ans d'expérience »), ou à défaut estimées
+     * d'après le nombre de lignes citant une année récente. Alimenté page par page.
+     */
+    private static final class ExperienceCounter {
+        private int maxYears;
+        private long recentYearLines;
+        
+        void accept(String text) {
+            Matcher matcher = EXPERIENCE_PATTERN.matcher(text);
+            while (matcher.find()) {
+                try {
+                    maxYears = Math.max(maxYears, Integer.parseInt(matcher.group(1)));
+                } catch (NumberFormatException e) {
+                    // Ignorer les erreurs de parsing
+                }
+            }
+            
+            for (String line : text.split("\\n")) {
+                if (line.contains("2020") || line.contains("2021") || line.contains("2022")
+                        || line.contains("2023") || line.contains("2024")) {
+                    recentYearLines++;
+                }
+            }
+        }
+        
+        int years() {
+            // Si pas trouvé, estimer par le nombre d'entreprises/postes
+            return maxYears > 0 ? maxYears : (int) Math.min(recentYearLines * 2, 15);
+        }
+    }
+    
+    /**
+     * Extracteur émettant chaque page dès qu'elle est terminée, sans accumuler le document.
+     * Le tampon de page est borné par le budget de caractères restant.
+     */
+    private static final class PageStreamingStripper extends PDFTextStripper {
+        private final Consumer<String> pageSink;
+        private final long maxChars;
+        private final BoundedWriter pageBuffer = new BoundedWriter();
+        private int pages;
+        private long chars;
+        private boolean truncated;
+        
+        PageStreamingStripper(Consumer<String> pageSink, long maxChars) throws IOException {
+            this.pageSink = pageSink;
+            this.maxChars = maxChars;
+        }
+        
+        @Override
+        protected void startPage(PDPage page) throws IOException {
+            super.startPage(page);
+            pageBuffer.reset(maxChars - chars);
+        }
+        
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            super.endPage(page);
+            pages++;
+            chars += pageBuffer.text.length();
+            pageSink.accept(pageBuffer.text.toString().toLowerCase(Locale.ROOT));
+            if (pageBuffer.overflow || chars >= maxChars) {
+                truncated = true;
+                throw new BudgetReachedException();
+            }
+        }
+        
+        private static final class BoundedWriter extends Writer {
+            private final StringBuilder text = new StringBuilder();
+            private long capacity;
+            private boolean overflow;
+            
+            void reset(long capacity) {
+                text.setLength(0);
+                this.capacity = capacity;
+                this.overflow = false;
+            }
+            
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                int accepted = (int) Math.min(length, capacity - text.length());
+                if (accepted < length) {
+                    overflow = true;
+                }
+                if (accepted > 0) {
+                    text.append(buffer, offset, accepted);
+                }
+            }
+            
+            @Override
+            public void flush() {
+            }
+            
+            @Override
+            public void close() {
+            }
+        }
+    }
+    
+    private static final class BudgetReachedException extends IOException {
+    }
+    
+    private record ParseStats(int pages, int totalPages, long chars, boolean truncated,
+                              long allocatedBytes, long millis) {
+    }
+}
@@ -1,16 +1,17 @@
 package com.recruitment.candidatemanagement.service;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class ProfileScrapingService {
     
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final GitHubProfileCache gitHubProfileCache;
     
     public ProfileAnalysisResult analyzeLinkedInProfile(String linkedinUrl) {
         try {
@@ -27,23 +28,21 @@ public class ProfileScrapingService {
         }
     }
     
+    /**
+     * Les échecs de l'API (circuit ouvert, bulkhead saturé, erreur HTTP ou délai dépassé)
+     * remontent à l'appelant : un score de 0 les confondrait avec un profil vide.
+     */
     public GitHubAnalysisResult analyzeGitHubProfile(String githubUrl) {
-        try {
-            if (githubUrl == null || githubUrl.isEmpty()) {
-                return new GitHubAnalysisResult(0, new ArrayList<>(), 0, 0);
-            }
-            
-            String username = extractGitHubUsername(githubUrl);
-            if (username != null) {
-                return analyzeGitHubAPI(username);
-            }
-            
-            return new GitHubAnalysisResult(0, new ArrayList<>(), 0, 0);
-            
-        } catch (Exception e) {
-            log.error("Erreur lors de l'analyse du profil GitHub: {}", githubUrl, e);
+        if (githubUrl == null || githubUrl.isEmpty()) {
             return new GitHubAnalysisResult(0, new ArrayList<>(), 0, 0);
         }
+        
+        String username = extractGitHubUsername(githubUrl);
+        if (username != null) {
+            return analyzeGitHubAPI(username);
+        }
+        
+        return new GitHubAnalysisResult(0, new ArrayList<>(), 0, 0);
     }
     
     private ProfileAnalysisResult simulateLinkedInAnalysis(String linkedinUrl) {
@@ -66,45 +65,15 @@ public class ProfileScrapingService {
         }
     }
     
-    @SuppressWarnings("unchecked")
     private GitHubAnalysisResult analyzeGitHubAPI(String username) {
-        try {
-            // Utiliser l'API publique GitHub
-            String userUrl = "https://api.github.com/users/" + username;
-            String reposUrl = "https://api.github.com/users/" + username + "/repos";
-            
-            // Récupérer les informations utilisateur
-            Map<String, Object> userInfo = restTemplate.getForObject(userUrl, Map.class);
-            List<Map<String, Object>> repos = restTemplate.getForObject(reposUrl, List.class);
-            
-            if (userInfo == null || repos == null) {
-                return new GitHubAnalysisResult(0, new ArrayList<>(), 0, 0);
-            }
-            
-            // Analyser les repositories
-            Set<String> languages = new HashSet<>();
-            int totalStars = 0;
-            int publicRepos = (Integer) userInfo.getOrDefault("public_repos", 0);
-            
-            for (Map<String, Object> repo : repos) {
-                String language = (String) repo.get("language");
-                if (language != null) {
-                    languages.add(language);
-                }
-                
-                Integer stars = (Integer) repo.getOrDefault("stargazers_count", 0);
-                totalStars += stars;
-            }
-            
-            // Calculer le score GitHub
-            int score = calculateGitHubScore(publicRepos, totalStars, languages.size());
-            
-            return new GitHubAnalysisResult(score, new ArrayList<>(languages), publicRepos, totalStars);
-            
-        } catch (Exception e) {
-            log.error("Erreur lors de l'appel à l'API GitHub pour: {}", username, e);
-            return new GitHubAnalysisResult(0, new ArrayList<>(), 0, 0);
-        }
+        // Profil servi par le cache (TTL, ETag, appels partagés entre analyses)
+        GitHubApiClient.GitHubSnapshot snapshot = gitHubProfileCache.get(username);
+        
+        // Calculer le score GitHub
+        int score = calculateGitHubScore(snapshot.publicRepos(), snapshot.totalStars(), snapshot.languages().size());
+        
+        return new GitHubAnalysisResult(score, new ArrayList<>(snapshot.languages()),
+                                        snapshot.publicRepos(), snapshot.totalStars());
     }
     
     private int calculateGitHubScore(int publicRepos, int totalStars, int languageCount) {
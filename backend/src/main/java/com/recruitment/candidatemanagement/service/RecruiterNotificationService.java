@@ -0,0 +1,117 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.dto.RecruiterNotification;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pousse aux recruteurs connectés en WebSocket les nouvelles candidatures, les analyses
+ * terminées et les variations des compteurs de non-lus, à partir des événements des
+ * candidatures. Chaque message va à l'auteur de l'offre ; ceux des offres sans auteur
+ * sont diffusés à tous.
+ * <p>
+ * Le broker STOMP est en mémoire : un recruteur ne reçoit que les événements produits
+ * par l'instance à laquelle il est connecté.
+ */
+@Service
+@Slf4j
+public class RecruiterNotificationService {
+
+    public static final String USER_DESTINATION = "/queue/notifications";
+    public static final String BROADCAST_DESTINATION = "/topic/notifications";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final JobOfferRepository jobOfferRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Auteur de chaque offre (il ne change pas après la création)
+    private final Map<Long, Optional<String>> owners = new ConcurrentHashMap<>();
+
+    public RecruiterNotificationService(SimpMessagingTemplate messagingTemplate, JobOfferRepository jobOfferRepository,
+                                        PlatformTransactionManager transactionManager) {
+        this.messagingTemplate = messagingTemplate;
+        this.jobOfferRepository = jobOfferRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onApplicationEvent(ApplicationLifecycleEvent event) {
+        ApplicationLifecycleEvent.State before = event.before();
+        ApplicationLifecycleEvent.State after = event.after();
+        Long jobOfferId = after != null ? after.jobOfferId() : before.jobOfferId();
+        if (jobOfferId == null) {
+            return;
+        }
+
+        List<RecruiterNotification> notifications = new ArrayList<>(1);
+        if (event.type() == ApplicationLifecycleEvent.Type.CREATED) {
+            notifications.add(RecruiterNotification.applicationReceived(jobOfferId, event.applicationId()));
+        } else if (event.type() == ApplicationLifecycleEvent.Type.ANALYSIS_COMPLETED) {
+            notifications.add(RecruiterNotification.analysisCompleted(
+                jobOfferId, event.applicationId(), after.status(), after.aiScore()));
+        }
+        notifications.forEach(notification -> send(jobOfferId, notification));
+    }
+
+    // Variation effectivement appliquée au compteur de l'offre (voir UnreadCounterStore)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUnreadCountChanged(UnreadCountChangedEvent event) {
+        send(event.jobOfferId(), RecruiterNotification.unreadDelta(event.jobOfferId(), event.delta()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationsRead(NotificationsReadEvent event) {
+        // Une remise à zéro par offre, routée comme les autres messages de l'offre
+        for (Long jobOfferId : event.jobOfferIds()) {
+            send(jobOfferId, RecruiterNotification.unreadReset(jobOfferId));
+        }
+    }
+
+    // Publié hors transaction par le thread de rapprochement
+    @EventListener
+    public void onCandidateMatchesReady(CandidateMatchesReadyEvent event) {
+        if (event.matches() > 0) {
+            send(event.jobOfferId(), RecruiterNotification.candidateMatches(event.jobOfferId()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobOfferDeleted(JobOfferDeletedEvent event) {
+        owners.remove(event.jobOfferId());
+    }
+
+    // Une notification perdue est rattrapée à la prochaine resynchronisation du client
+    private void send(Long jobOfferId, RecruiterNotification notification) {
+        try {
+            Optional<String> owner = jobOfferId != null ? ownerOf(jobOfferId) : Optional.empty();
+            if (owner.isPresent()) {
+                messagingTemplate.convertAndSendToUser(owner.get(), USER_DESTINATION, notification);
+            } else {
+                messagingTemplate.convertAndSend(BROADCAST_DESTINATION, notification);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Notification {} non envoyée pour l'offre {}", notification.type(), jobOfferId, e);
+        }
+    }
+
+    private Optional<String> ownerOf(Long jobOfferId) {
+        return owners.computeIfAbsent(jobOfferId, id ->
+            transactionTemplate.execute(status -> jobOfferRepository.findCreatorUsername(id)));
+    }
+}
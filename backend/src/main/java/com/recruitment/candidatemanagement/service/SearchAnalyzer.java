@@ -0,0 +1,45 @@
+package com.recruitment.candidatemanagement.service;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.analysis.fr.FrenchMinimalStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.util.ElisionFilter;
+
+/**
+ * Analyse commune aux textes français et anglais : élisions (l', d'...), minuscules,
+ * mots vides des deux langues, accents retirés (« ingénieur » = « ingenieur ») et
+ * pluriels ramenés au singulier.
+ */
+public class SearchAnalyzer extends Analyzer {
+
+    private static final CharArraySet STOP_WORDS = new CharArraySet(FrenchAnalyzer.getDefaultStopSet(), true);
+
+    static {
+        STOP_WORDS.addAll(EnglishAnalyzer.ENGLISH_STOP_WORDS_SET);
+    }
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        Tokenizer source = new StandardTokenizer();
+        TokenStream result = new ElisionFilter(source, FrenchAnalyzer.DEFAULT_ARTICLES);
+        result = new LowerCaseFilter(result);
+        result = new StopFilter(result, STOP_WORDS);
+        result = new ASCIIFoldingFilter(result);
+        result = new FrenchMinimalStemFilter(result);
+        return new TokenStreamComponents(source, result);
+    }
+
+    // Termes des requêtes par préfixe (java*), qui ne passent pas par le tokenizer
+    @Override
+    protected TokenStream normalize(String fieldName, TokenStream in) {
+        return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+    }
+}
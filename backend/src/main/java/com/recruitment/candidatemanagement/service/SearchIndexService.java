@@ -0,0 +1,578 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.dto.SearchPage;
+import com.recruitment.candidatemanagement.entity.ApplicationDocument;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.repository.ApplicationDocumentRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Index plein texte embarqué (Lucene) des offres et des candidats, texte des CV compris,
+ * dans le dossier app.search.index-dir.
+ * <p>
+ * Les offres et candidats modifiés sont réindexés après le commit, par lots, sur un thread
+ * dédié qui effectue aussi les écritures durables (toutes les commit-interval-ms et à l'arrêt).
+ * Un index absent au démarrage est reconstruit depuis la base.
+ */
+@Service
+@Slf4j
+public class SearchIndexService {
+
+    enum Kind {
+        JOB_OFFER,
+        CANDIDATE
+    }
+
+    private static final String KEY = "key";
+    private static final String KIND = "kind";
+    private static final String ID = "id";
+    private static final int BATCH_SIZE = 200;
+
+    // Version du contenu de l'index, enregistrée à chaque écriture : un index plus ancien est reconstruit
+    private static final String FORMAT_KEY = "format";
+    private static final String FORMAT = "2"; // 2 : vecteurs de termes des candidats (CandidateMatchingService)
+
+    // Champs des candidats dont les fréquences de termes sont conservées par document
+    static final Set<String> CANDIDATE_VECTOR_FIELDS = Set.of("skills", "currentPosition", "cv");
+    private static final FieldType TEXT_WITH_VECTORS = new FieldType(TextField.TYPE_NOT_STORED);
+
+    static {
+        TEXT_WITH_VECTORS.setStoreTermVectors(true);
+        TEXT_WITH_VECTORS.freeze();
+    }
+
+    // Champs interrogés et leur poids dans le classement
+    private static final Map<String, Float> JOB_OFFER_FIELDS = Map.of(
+        "title", 4f, "requiredSkills", 3f, "company", 2f, "location", 1f, "description", 1f);
+    private static final Map<String, Float> CANDIDATE_FIELDS = Map.of(
+        "name", 4f, "skills", 3f, "currentPosition", 3f, "currentCompany", 2f, "location", 1f, "cv", 1f);
+
+    private final JobOfferRepository jobOfferRepository;
+    private final CandidateRepository candidateRepository;
+    private final ApplicationRepository applicationRepository;
+    private final ApplicationDocumentRepository documentRepository;
+    private final ExtractedTextStore extractedTextStore;
+    private final AppProperties appProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Analyzer analyzer = new SearchAnalyzer();
+    private final Directory directory;
+    // Rouverts après l'abandon d'une reconstruction (écrits par le seul thread d'indexation)
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private final boolean rebuildNeeded;
+    private volatile boolean rebuildPending;
+    private volatile boolean rebuilding;
+
+    private final Set<Ref> pending = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingApplications = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SearchIndexService(JobOfferRepository jobOfferRepository, CandidateRepository candidateRepository,
+                              ApplicationRepository applicationRepository,
+                              ApplicationDocumentRepository documentRepository,
+                              ExtractedTextStore extractedTextStore, AppProperties appProperties,
+                              PlatformTransactionManager transactionManager) {
+        this.jobOfferRepository = jobOfferRepository;
+        this.candidateRepository = candidateRepository;
+        this.applicationRepository = applicationRepository;
+        this.documentRepository = documentRepository;
+        this.extractedTextStore = extractedTextStore;
+        this.appProperties = appProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+
+        Path path = Paths.get(appProperties.getSearch().getIndexDir());
+        try {
+            Files.createDirectories(path);
+            this.directory = FSDirectory.open(path);
+            this.rebuildNeeded = !DirectoryReader.indexExists(directory) || !FORMAT.equals(formatOf(directory));
+            openWriter();
+            if (!rebuildNeeded) {
+                writer.setLiveCommitData(Map.of(FORMAT_KEY, FORMAT).entrySet());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Impossible d'ouvrir l'index de recherche " + path, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (rebuildNeeded) {
+            log.info("Index de recherche absent ou d'un format antérieur, reconstruction depuis la base");
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobOfferChanged(JobOfferChangedEvent event) {
+        enqueue(new Ref(Kind.JOB_OFFER, event.jobOfferId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobOfferDeleted(JobOfferDeletedEvent event) {
+        enqueue(new Ref(Kind.JOB_OFFER, event.jobOfferId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCandidateChanged(CandidateChangedEvent event) {
+        enqueue(new Ref(Kind.CANDIDATE, event.candidateId()));
+    }
+
+    // Documents de la candidature rattachés et leur texte extrait : le CV du candidat est à réindexer
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onApplicationEvent(ApplicationLifecycleEvent event) {
+        if (event.type() == ApplicationLifecycleEvent.Type.ANALYSIS_COMPLETED) {
+            pendingApplications.add(event.applicationId());
+            scheduleDrain();
+        }
+    }
+
+    public SearchPage<JobOffer> searchJobOffers(String text, int page, int size) {
+        Hits hits = search(Kind.JOB_OFFER, JOB_OFFER_FIELDS, text, page, size);
+        return hits.toPage(jobOfferRepository.findAllById(hits.ids()), JobOffer::getId, page, size);
+    }
+
+    public SearchPage<Candidate> searchCandidates(String text, int page, int size) {
+        Hits hits = search(Kind.CANDIDATE, CANDIDATE_FIELDS, text, page, size);
+        return hits.toPage(candidateRepository.findAllById(hits.ids()), Candidate::getId, page, size);
+    }
+
+    /**
+     * Reconstruit tout l'index depuis la base, en arrière-plan ; les recherches utilisent
+     * l'ancien index jusqu'à la fin.
+     */
+    public void rebuild() {
+        indexer.execute(this::rebuildNow);
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.commit-interval-ms:10000}")
+    public void commit() {
+        if (!pending.isEmpty() || !pendingApplications.isEmpty()) {
+            // Lot en échec lors d'un passage précédent
+            scheduleDrain();
+        }
+        try {
+            indexer.execute(this::commitNow);
+        } catch (RuntimeException e) {
+            log.debug("Écriture de l'index ignorée: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Exécute une lecture sur l'état courant de l'index (CandidateMatchingService).
+     */
+    <T> T withSearcher(SearcherFunction<T> function) {
+        SearcherManager manager = searcherManager;
+        try {
+            IndexSearcher searcher = manager.acquire();
+            try {
+                return function.apply(searcher);
+            } finally {
+                manager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erreur lors de la lecture de l'index de recherche", e);
+        }
+    }
+
+    static Query kindFilter(Kind kind) {
+        return new TermQuery(new Term(KIND, kind.name()));
+    }
+
+    static long storedId(StoredFields storedFields, int doc) throws IOException {
+        return storedFields.document(doc, Set.of(ID)).getField(ID).numericValue().longValue();
+    }
+
+    // Attend la fin des mises à jour déjà planifiées
+    void awaitIndexing() throws InterruptedException, ExecutionException {
+        indexer.submit(() -> { }).get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexer.shutdown();
+        try {
+            if (!indexer.awaitTermination(30, TimeUnit.SECONDS)) {
+                indexer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            indexer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        try {
+            searcherManager.close();
+            if (rebuilding) {
+                // Reconstruction interrompue : l'index partiel n'est pas écrit, le dernier commit reste en place
+                writer.rollback();
+            } else {
+                writer.close(); // Écrit les dernières modifications
+            }
+            directory.close();
+        } catch (IOException e) {
+            log.error("Erreur lors de la fermeture de l'index de recherche", e);
+        }
+    }
+
+    private void enqueue(Ref ref) {
+        if (ref.id() != null) {
+            pending.add(ref);
+            scheduleDrain();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainQueued.compareAndSet(false, true)) {
+            try {
+                indexer.execute(this::drain);
+            } catch (RuntimeException e) {
+                // Arrêt en cours : l'index sera rattrapé par une reconstruction
+                drainQueued.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        drainQueued.set(false);
+        List<Long> applicationIds = take(pendingApplications, Integer.MAX_VALUE);
+        List<Ref> batch = List.of();
+        try {
+            if (!applicationIds.isEmpty()) {
+                List<Long> candidateIds = transactionTemplate.execute(status ->
+                    applicationRepository.findCandidateIds(applicationIds));
+                candidateIds.forEach(id -> pending.add(new Ref(Kind.CANDIDATE, id)));
+                applicationIds.clear();
+            }
+            while (!(batch = take(pending, BATCH_SIZE)).isEmpty()) {
+                List<Long> jobOfferIds = new ArrayList<>();
+                List<Long> candidateIds = new ArrayList<>();
+                batch.forEach(ref -> (ref.kind() == Kind.JOB_OFFER ? jobOfferIds : candidateIds).add(ref.id()));
+                index(Kind.JOB_OFFER, jobOfferIds);
+                index(Kind.CANDIDATE, candidateIds);
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            pendingApplications.addAll(applicationIds);
+            pending.addAll(batch);
+            log.error("Erreur lors de la mise à jour de l'index de recherche", e);
+        }
+    }
+
+    private void rebuildNow() {
+        long start = System.currentTimeMillis();
+        rebuildPending = true;
+        rebuilding = true;
+        try {
+            pending.clear();
+            pendingApplications.clear();
+            writer.deleteAll();
+            int jobOffers = indexAll(Kind.JOB_OFFER);
+            int candidates = indexAll(Kind.CANDIDATE);
+            writer.setLiveCommitData(Map.of(FORMAT_KEY, FORMAT).entrySet());
+            writer.commit();
+            rebuildPending = false;
+            searcherManager.maybeRefresh();
+            log.info("Index de recherche reconstruit: {} offre(s), {} candidat(s) en {} ms",
+                jobOffers, candidates, System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            // Nouvelle tentative au prochain passage de commit()
+            log.error("Erreur lors de la reconstruction de l'index de recherche", e);
+            discardRebuild();
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    /**
+     * Abandonne les écritures depuis le dernier commit (index vidé et partiellement rempli) :
+     * sans cela, le prochain rafraîchissement le servirait aux recherches et l'arrêt l'écrirait.
+     */
+    private void discardRebuild() {
+        SearcherManager previous = searcherManager;
+        try {
+            writer.rollback();
+            openWriter();
+            previous.close();
+        } catch (IOException | RuntimeException e) {
+            log.error("Impossible de rouvrir l'index de recherche", e);
+        }
+    }
+
+    private void openWriter() throws IOException {
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    private void commitNow() {
+        if (rebuildPending) {
+            rebuildNow();
+            return;
+        }
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Erreur lors de l'écriture de l'index de recherche", e);
+        }
+    }
+
+    private int indexAll(Kind kind) throws IOException {
+        int count = 0;
+        long afterId = 0;
+        while (true) {
+            long after = afterId;
+            List<Long> ids = transactionTemplate.execute(status -> kind == Kind.JOB_OFFER
+                ? jobOfferRepository.findIdsAfter(after, Limit.of(BATCH_SIZE))
+                : candidateRepository.findIdsAfter(after, Limit.of(BATCH_SIZE)));
+            if (ids.isEmpty()) {
+                return count;
+            }
+            index(kind, ids);
+            count += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    /**
+     * Remplace les documents de ces offres ou candidats ; ceux qui n'existent plus en base
+     * sont retirés de l'index.
+     */
+    private void index(Kind kind, List<Long> ids) throws IOException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, Document> documents = transactionTemplate.execute(status ->
+            kind == Kind.JOB_OFFER ? jobOfferDocuments(ids) : candidateDocuments(ids));
+        for (Long id : ids) {
+            Document document = documents.get(id);
+            if (document != null) {
+                writer.updateDocument(keyTerm(kind, id), document);
+            } else {
+                writer.deleteDocuments(keyTerm(kind, id));
+            }
+        }
+    }
+
+    private Map<Long, Document> jobOfferDocuments(Collection<Long> ids) {
+        Map<Long, Document> documents = new HashMap<>();
+        for (JobOffer offer : jobOfferRepository.findAllById(ids)) {
+            Document document = newDocument(Kind.JOB_OFFER, offer.getId());
+            addText(document, "title", offer.getTitle());
+            addText(document, "company", offer.getCompany());
+            addText(document, "location", offer.getLocation());
+            addText(document, "requiredSkills", offer.getRequiredSkills());
+            addText(document, "description", offer.getDescription());
+            documents.put(offer.getId(), document);
+        }
+        return documents;
+    }
+
+    private Map<Long, Document> candidateDocuments(Collection<Long> ids) {
+        Map<Long, String> cvTexts = cvTexts(ids);
+        Map<Long, Document> documents = new HashMap<>();
+        for (Candidate candidate : candidateRepository.findAllById(ids)) {
+            Document document = newDocument(Kind.CANDIDATE, candidate.getId());
+            addText(document, "name", candidate.getFirstName() + " " + candidate.getLastName());
+            addVectorText(document, "currentPosition", candidate.getCurrentPosition());
+            addText(document, "currentCompany", candidate.getCurrentCompany());
+            addText(document, "location", candidate.getLocation());
+            addVectorText(document, "skills", candidate.getSkills());
+            addVectorText(document, "cv", cvTexts.get(candidate.getId()));
+            documents.put(candidate.getId(), document);
+        }
+        return documents;
+    }
+
+    // Texte extrait de tous les documents déposés par chaque candidat (une fois par contenu)
+    private Map<Long, String> cvTexts(Collection<Long> candidateIds) {
+        Map<Long, StringBuilder> texts = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (ApplicationDocument document : documentRepository.findByCandidateIds(candidateIds)) {
+            Long candidateId = document.getApplication().getCandidate().getId();
+            Object content = document.getContentHash() != null ? document.getContentHash() : document.getId();
+            if (seen.add(candidateId + ":" + content)) {
+                extractedTextStore.findText(document).ifPresent(text ->
+                    texts.computeIfAbsent(candidateId, id -> new StringBuilder()).append(text).append('\n'));
+            }
+        }
+        Map<Long, String> result = new HashMap<>();
+        texts.forEach((id, text) -> result.put(id, text.toString()));
+        return result;
+    }
+
+    private Hits search(Kind kind, Map<String, Float> fields, String text, int page, int size) {
+        AppProperties.Search config = appProperties.getSearch();
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Texte de recherche vide");
+        }
+        if (page < 0 || size < 1 || size > config.getMaxPageSize()) {
+            throw new IllegalArgumentException("Pagination invalide");
+        }
+        if ((long) (page + 1) * size > config.getMaxResults()) {
+            throw new IllegalArgumentException("Au-delà de " + config.getMaxResults() + " résultats, affinez la recherche");
+        }
+
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, fields);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = new BooleanQuery.Builder()
+            .add(parser.parse(text), BooleanClause.Occur.MUST)
+            .add(kindFilter(kind), BooleanClause.Occur.FILTER)
+            .build();
+
+        SearcherManager manager = searcherManager;
+        try {
+            IndexSearcher searcher = manager.acquire();
+            try {
+                TopDocs top = searcher.search(query, (page + 1) * size);
+                StoredFields storedFields = searcher.storedFields();
+                List<Long> ids = new ArrayList<>();
+                List<Float> scores = new ArrayList<>();
+                for (int i = page * size; i < top.scoreDocs.length; i++) {
+                    ScoreDoc hit = top.scoreDocs[i];
+                    ids.add(storedId(storedFields, hit.doc));
+                    scores.add(hit.score);
+                }
+                return new Hits(ids, scores, searcher.count(query));
+            } finally {
+                manager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erreur lors de la recherche", e);
+        }
+    }
+
+    private static Document newDocument(Kind kind, Long id) {
+        Document document = new Document();
+        document.add(new StringField(KEY, key(kind, id), Field.Store.NO));
+        document.add(new StringField(KIND, kind.name(), Field.Store.NO));
+        document.add(new StoredField(ID, id));
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static void addVectorText(Document document, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new Field(field, value, TEXT_WITH_VECTORS));
+        }
+    }
+
+    private static String formatOf(Directory directory) throws IOException {
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            return reader.getIndexCommit().getUserData().get(FORMAT_KEY);
+        }
+    }
+
+    private static Term keyTerm(Kind kind, Long id) {
+        return new Term(KEY, key(kind, id));
+    }
+
+    private static String key(Kind kind, Long id) {
+        return kind.name() + ":" + id;
+    }
+
+    private static <T> List<T> take(Set<T> source, int max) {
+        List<T> taken = new ArrayList<>();
+        for (Iterator<T> it = source.iterator(); it.hasNext() && taken.size() < max; ) {
+            taken.add(it.next());
+            it.remove();
+        }
+        return taken;
+    }
+
+    @FunctionalInterface
+    interface SearcherFunction<T> {
+        T apply(IndexSearcher searcher) throws IOException;
+    }
+
+    private record Ref(Kind kind, Long id) {
+    }
+
+    private record Hits(List<Long> ids, List<Float> scores, long total) {
+
+        // Entités dans l'ordre du classement ; celles supprimées depuis l'indexation sont ignorées
+        <T> SearchPage<T> toPage(List<T> entities, Function<T, Long> idOf, int page, int size) {
+            Map<Long, T> byId = new HashMap<>();
+            entities.forEach(entity -> byId.put(idOf.apply(entity), entity));
+            List<SearchPage.Hit<T>> hits = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                T entity = byId.get(ids.get(i));
+                if (entity != null) {
+                    hits.add(new SearchPage.Hit<>(entity, scores.get(i)));
+                }
+            }
+            return new SearchPage<>(hits, total, page, size);
+        }
+    }
+}
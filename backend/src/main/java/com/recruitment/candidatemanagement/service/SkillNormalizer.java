@@ -0,0 +1,94 @@
+package com.recruitment.candidatemanagement.service;
+
+import java.text.Normalizer;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Ramène un texte libre de compétences (« Java 17, Spring-Boot, Node.js ») aux compétences
+ * du vocabulaire de l'analyse des CV. Les termes sont reconnus en mots entiers :
+ * « javascript » ne compte pas comme « java », ni « github » comme « git ».
+ */
+public final class SkillNormalizer {
+
+    // Utilisés par fold() lors de l'initialisation des motifs ci-dessous
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    // Variantes courantes, ramenées au terme du vocabulaire
+    private static final Map<String, String> ALIASES = Map.ofEntries(
+        Map.entry("node.js", "nodejs"),
+        Map.entry("node", "nodejs"),
+        Map.entry("js", "javascript"),
+        Map.entry("ts", "typescript"),
+        Map.entry("vue.js", "vue"),
+        Map.entry("vuejs", "vue"),
+        Map.entry("reactjs", "react"),
+        Map.entry("react.js", "react"),
+        Map.entry("postgres", "postgresql"),
+        Map.entry("k8s", "kubernetes"),
+        Map.entry("google cloud", "gcp"),
+        Map.entry("spring boot", "spring"),
+        Map.entry("micro-services", "microservices"),
+        Map.entry("rest api", "rest"),
+        Map.entry("ci-cd", "ci/cd"),
+        Map.entry("travail en équipe", "teamwork"),
+        Map.entry("gestion de projet", "project management"),
+        Map.entry("résolution de problèmes", "problem solving")
+    );
+
+    private static final Set<String> VOCABULARY = PdfAnalysisService.skillVocabulary();
+
+    // Un seul motif, termes les plus longs d'abord : « spring boot » avant « spring »
+    private static final Pattern SKILL = Pattern.compile(
+        Stream.concat(VOCABULARY.stream(), ALIASES.keySet().stream())
+            .map(SkillNormalizer::fold)
+            .distinct()
+            .sorted(Comparator.comparingInt(String::length).reversed())
+            .map(Pattern::quote)
+            .collect(Collectors.joining("|", "(?<![\\p{L}\\p{N}])(", ")(?![\\p{L}\\p{N}])")));
+
+    private static final Map<String, String> CANONICAL = Stream.concat(
+            VOCABULARY.stream().map(skill -> Map.entry(fold(skill), skill)),
+            ALIASES.entrySet().stream().map(alias -> Map.entry(fold(alias.getKey()), alias.getValue())))
+        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first));
+
+    private SkillNormalizer() {
+    }
+
+    /**
+     * Compétences du vocabulaire présentes dans le texte, dans leur ordre d'apparition.
+     */
+    public static Set<String> normalize(String text) {
+        Set<String> skills = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return skills;
+        }
+        Matcher matcher = SKILL.matcher(fold(text));
+        while (matcher.find()) {
+            skills.add(CANONICAL.get(matcher.group(1)));
+        }
+        return skills;
+    }
+
+    /**
+     * Terme du vocabulaire correspondant exactement à une compétence saisie (« Node.js » → « nodejs »).
+     */
+    public static Optional<String> canonical(String skill) {
+        return skill == null ? Optional.empty() : Optional.ofNullable(CANONICAL.get(fold(skill)));
+    }
+
+    // Minuscules sans accents, espaces réduits
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return SPACES.matcher(MARKS.matcher(decomposed).replaceAll("")).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,449 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.Tika;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Traitement d'un fichier déposé en une seule lecture : chaque bloc lu est transmis
+ * en parallèle à trois consommateurs (empreinte SHA-256, écriture sur disque, extraction
+ * du texte par Tika), chacun avec sa propre file bornée.
+ * Un extracteur qui s'arrête avant la fin du flux ne bloque pas les autres consommateurs.
+ * <p>
+ * Les trois consommateurs d'un upload doivent tourner ensemble : le nombre d'uploads
+ * simultanés est limité (pipeline.max-concurrent-uploads) et le pool compte trois threads
+ * par upload admis, si bien qu'aucun consommateur n'attend dans la file du pool.
+ */
+@Service
+@Slf4j
+public class TeeUploadPipeline {
+
+    private static final byte[] END = new byte[0];
+    private static final byte[] ABORT = new byte[0];
+    private static final int CONSUMERS = 3;
+
+    private final AppProperties appProperties;
+    private final Tika tika = new Tika();
+    private final Semaphore admissions;
+    private final ExecutorService executor;
+
+    private final LongAdder uploads = new LongAdder();
+    private final LongAdder totalBytes = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder digestNanos = new LongAdder();
+    private final LongAdder writeNanos = new LongAdder();
+    private final LongAdder extractNanos = new LongAdder();
+
+    public TeeUploadPipeline(AppProperties appProperties) {
+        this.appProperties = appProperties;
+        int uploads = appProperties.getFileStorage().getPipeline().getMaxConcurrentUploads();
+        this.admissions = new Semaphore(uploads);
+        AtomicInteger threadIndex = new AtomicInteger();
+        // File de la même taille : un thread qui vient de rendre son résultat n'a pas encore
+        // repris de tâche quand l'upload suivant est admis
+        this.executor = new ThreadPoolExecutor(CONSUMERS * uploads, CONSUMERS * uploads, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(CONSUMERS * uploads),
+            runnable -> {
+                Thread thread = new Thread(runnable, "upload-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Lit {@code in} une seule fois, l'écrit dans {@code destination} et retourne son empreinte
+     * et son texte (vide si l'extraction échoue). En cas d'erreur de lecture ou d'écriture,
+     * le fichier partiel est supprimé.
+     */
+    public Result process(InputStream in, Path destination) throws IOException {
+        return process(in, destination, hash -> true);
+    }
+
+    /**
+     * Comme {@link #process(InputStream, Path)}, mais l'extraction est annulée si
+     * {@code extractionNeeded} refuse l'empreinte (texte déjà connu) : Tika n'analyse un PDF
+     * qu'une fois le flux complet reçu, l'annulation évite donc l'essentiel du coût.
+     * Le texte retourné est alors {@code null}.
+     */
+    public Result process(InputStream in, Path destination, Predicate<String> extractionNeeded) throws IOException {
+        AppProperties.FileStorage.Pipeline config = appProperties.getFileStorage().getPipeline();
+        try {
+            if (!admissions.tryAcquire(config.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                in.close();
+                throw new IOException("Trop d'uploads en cours, réessayez plus tard");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            in.close();
+            throw new InterruptedIOException("Upload interrompu");
+        }
+        try {
+            return tee(in, destination, extractionNeeded, config);
+        } finally {
+            admissions.release();
+        }
+    }
+
+    // Appelé avec une place réservée : les trois tâches sont terminées au retour
+    private Result tee(InputStream in, Path destination, Predicate<String> extractionNeeded,
+                       AppProperties.FileStorage.Pipeline config) throws IOException {
+        long start = System.nanoTime();
+        Channel digestChannel = new Channel(config.getQueueChunks());
+        Channel writeChannel = new Channel(config.getQueueChunks());
+        Channel extractChannel = new Channel(config.getQueueChunks());
+
+        Future<Stage<String>> digestTask = null;
+        Future<Stage<Void>> writeTask = null;
+        Future<Stage<String>> extractTask = null;
+
+        long bytes = 0;
+        Stage<String> digest;
+        Stage<Void> write;
+        try {
+            digestTask = executor.submit(() -> digest(digestChannel));
+            writeTask = executor.submit(() -> write(writeChannel, destination));
+            extractTask = executor.submit(() -> extract(extractChannel));
+            try (in) {
+                byte[] chunk;
+                while ((chunk = in.readNBytes(config.getChunkSize())).length > 0) {
+                    bytes += chunk.length;
+                    // Le même bloc (jamais modifié ensuite) est partagé par les trois consommateurs
+                    digestChannel.put(chunk);
+                    writeChannel.put(chunk);
+                    extractChannel.put(chunk);
+                }
+            }
+            digestChannel.finish();
+            writeChannel.finish();
+            digest = await(digestTask);
+            if (extractionNeeded.test(digest.value)) {
+                extractChannel.finish();
+            } else {
+                extractChannel.abort();
+            }
+            write = await(writeTask);
+        } catch (IOException | RuntimeException e) {
+            digestChannel.abort();
+            writeChannel.abort();
+            extractChannel.abort();
+            awaitQuietly(digestTask, writeTask, extractTask);
+            Files.deleteIfExists(destination);
+            throw e;
+        }
+        Stage<String> extraction = awaitExtraction(extractTask);
+
+        Stats stats = new Stats(bytes, System.nanoTime() - start, digest.nanos, write.nanos, extraction.nanos);
+        record(stats);
+        log.info("Upload {}: {} octets en {} ms ({} Ko/s) - empreinte {} ms, écriture {} ms, extraction {} ms",
+            destination.getFileName(), bytes, stats.totalMillis(), stats.bytesPerSecond() / 1024,
+            stats.digestMillis(), stats.writeMillis(), stats.extractMillis());
+        return new Result(digest.value, extraction.value, stats);
+    }
+
+    /**
+     * Extraction seule, sur un flux déjà disponible.
+     */
+    String extractText(InputStream in) throws IOException {
+        try {
+            return tika.parseToString(in);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Extraction du texte impossible", e);
+        }
+    }
+
+    public PipelineStats getStats() {
+        long count = uploads.sum();
+        long nanos = totalNanos.sum();
+        return new PipelineStats(
+            count,
+            totalBytes.sum(),
+            nanos > 0 ? totalBytes.sum() * 1_000_000_000L / nanos : 0,
+            count > 0 ? TimeUnit.NANOSECONDS.toMillis(nanos) / count : 0,
+            count > 0 ? TimeUnit.NANOSECONDS.toMillis(digestNanos.sum()) / count : 0,
+            count > 0 ? TimeUnit.NANOSECONDS.toMillis(writeNanos.sum()) / count : 0,
+            count > 0 ? TimeUnit.NANOSECONDS.toMillis(extractNanos.sum()) / count : 0
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Stage<String> digest(Channel channel) throws InterruptedException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        long busy = 0;
+        byte[] chunk;
+        while ((chunk = channel.take()) != END && chunk != ABORT) {
+            long start = System.nanoTime();
+            digest.update(chunk);
+            busy += System.nanoTime() - start;
+        }
+        return new Stage<>(HexFormat.of().formatHex(digest.digest()), busy);
+    }
+
+    private Stage<Void> write(Channel channel, Path destination) throws IOException, InterruptedException {
+        long busy = 0;
+        try (FileChannel file = FileChannel.open(destination, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            byte[] chunk;
+            while ((chunk = channel.take()) != END && chunk != ABORT) {
+                long start = System.nanoTime();
+                ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                while (buffer.hasRemaining()) {
+                    file.write(buffer);
+                }
+                busy += System.nanoTime() - start;
+            }
+        } finally {
+            channel.close();
+        }
+        return new Stage<>(null, busy);
+    }
+
+    private Stage<String> extract(Channel channel) throws IOException {
+        long start = System.nanoTime();
+        try (InputStream in = new ChannelInputStream(channel)) {
+            String text = extractText(in);
+            if (channel.isAborted()) {
+                throw new ExtractionCancelledException();
+            }
+            return new Stage<>(text, System.nanoTime() - start);
+        } catch (IOException e) {
+            // Tika peut envelopper l'annulation dans sa propre exception
+            if (channel.isAborted()) {
+                throw new ExtractionCancelledException();
+            }
+            throw e;
+        } finally {
+            // Tika peut s'arrêter avant la fin du flux (limite de texte atteinte)
+            channel.close();
+        }
+    }
+
+    private static <T> T await(Future<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload interrompu");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Étape d'upload en échec", e.getCause());
+        }
+    }
+
+    private Stage<String> awaitExtraction(Future<Stage<String>> task) throws IOException {
+        try {
+            return await(task);
+        } catch (ExtractionCancelledException e) {
+            return new Stage<>(null, 0);
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException e) {
+            log.warn("Impossible d'extraire le texte du fichier: {}", e.getMessage());
+            return new Stage<>("", 0);
+        }
+    }
+
+    private static void awaitQuietly(Future<?>... tasks) {
+        for (Future<?> task : tasks) {
+            if (task == null) {
+                continue; // Pas soumise
+            }
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // L'erreur d'origine est déjà remontée par l'appelant
+            }
+        }
+    }
+
+    private void record(Stats stats) {
+        uploads.increment();
+        totalBytes.add(stats.bytes());
+        totalNanos.add(stats.totalNanos());
+        digestNanos.add(stats.digestNanos());
+        writeNanos.add(stats.writeNanos());
+        extractNanos.add(stats.extractNanos());
+    }
+
+    /**
+     * File bornée vers un consommateur. Une fois fermée par celui-ci, les blocs sont ignorés
+     * pour que le lecteur ne reste pas bloqué.
+     */
+    private static final class Channel {
+        private final BlockingQueue<byte[]> queue;
+        private volatile boolean closed;
+        private volatile boolean aborted;
+
+        Channel(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void put(byte[] chunk) throws InterruptedIOException {
+            try {
+                while (!closed) {
+                    if (queue.offer(chunk, 50, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Upload interrompu");
+            }
+        }
+
+        void finish() throws InterruptedIOException {
+            put(END);
+        }
+
+        byte[] take() throws InterruptedException {
+            return queue.take();
+        }
+
+        boolean isAborted() {
+            return aborted;
+        }
+
+        /**
+         * Fermeture par le consommateur : les blocs suivants sont ignorés.
+         */
+        void close() {
+            closed = true;
+            queue.clear();
+        }
+
+        /**
+         * Interruption par le lecteur : le consommateur s'arrête sans traiter la suite.
+         */
+        void abort() {
+            aborted = true;
+            closed = true;
+            queue.clear();
+            queue.offer(ABORT);
+        }
+    }
+
+    private static final class ChannelInputStream extends InputStream {
+        private final Channel channel;
+        private byte[] current = new byte[0];
+        private int position;
+        private boolean ended;
+
+        ChannelInputStream(Channel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (position == current.length) {
+                if (ended) {
+                    return -1;
+                }
+                try {
+                    current = channel.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Extraction interrompue");
+                }
+                position = 0;
+                if (current == ABORT) {
+                    throw new ExtractionCancelledException();
+                }
+                if (current == END) {
+                    ended = true;
+                }
+            }
+            int count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+    }
+
+    private record Stage<T>(T value, long nanos) {
+    }
+
+    private static final class ExtractionCancelledException extends InterruptedIOException {
+        ExtractionCancelledException() {
+            super("Extraction annulée");
+        }
+    }
+
+    /**
+     * {@code extractedText} vaut {@code null} si l'extraction a été annulée.
+     */
+    public record Result(String contentHash, String extractedText, Stats stats) {
+    }
+
+    public record Stats(long bytes, long totalNanos, long digestNanos, long writeNanos, long extractNanos) {
+
+        public long totalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+        }
+
+        public long digestMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(digestNanos);
+        }
+
+        public long writeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(writeNanos);
+        }
+
+        public long extractMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(extractNanos);
+        }
+
+        public long bytesPerSecond() {
+            return totalNanos > 0 ? bytes * 1_000_000_000L / totalNanos : 0;
+        }
+    }
+
+    public record PipelineStats(long uploads, long bytes, long bytesPerSecond, long averageTotalMillis,
+                                long averageDigestMillis, long averageWriteMillis, long averageExtractMillis) {
+    }
+}
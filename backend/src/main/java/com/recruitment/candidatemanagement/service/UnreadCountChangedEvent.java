@@ -0,0 +1,9 @@
+package com.recruitment.candidatemanagement.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Variation du nombre de candidatures non lues d'une offre (+1 à la réception, -1 à la lecture).
+ */
+public record UnreadCountChangedEvent(Long jobOfferId, Long applicationId, LocalDateTime receivedAt, int delta) {
+}
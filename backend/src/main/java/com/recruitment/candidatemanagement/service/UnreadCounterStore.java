@@ -0,0 +1,238 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.entity.JobOfferUnreadCounter;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferUnreadCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Candidatures non lues par offre : une ligne par offre (job_offer_unread_counters),
+ * mise à jour dans la transaction qui crée, consulte ou archive la candidature, et
+ * une copie en mémoire qui sert les notifications sans agréger les candidatures.
+ * <p>
+ * La copie en mémoire est modifiée après chaque commit et relue périodiquement depuis
+ * la table, ce qui reporte les changements faits par les autres instances.
+ * <p>
+ * Marquer une offre comme lue avance son filigrane puis marque vues les candidatures
+ * jusqu'à celui-ci : fiche, listes et statistiques lisent toujours viewed_by_recruiter.
+ */
+@Service
+@Slf4j
+public class UnreadCounterStore {
+
+    private final JobOfferUnreadCounterRepository counterRepository;
+    private final ApplicationRepository applicationRepository;
+    private final JobOfferRepository jobOfferRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    public UnreadCounterStore(JobOfferUnreadCounterRepository counterRepository,
+                              ApplicationRepository applicationRepository, JobOfferRepository jobOfferRepository,
+                              ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.applicationRepository = applicationRepository;
+        this.jobOfferRepository = jobOfferRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Exécuté dans la transaction de la candidature : compteur et candidature sont
+     * validés ou annulés ensemble.
+     */
+    @EventListener
+    public void onApplicationEvent(ApplicationLifecycleEvent event) {
+        ApplicationLifecycleEvent.State before = event.before();
+        ApplicationLifecycleEvent.State after = event.after();
+        if (before == null && after != null && after.unread() && after.jobOfferId() != null) {
+            counterRepository.recordReceived(after.jobOfferId(), event.applicationId(), after.receivedAt());
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(
+                after.jobOfferId(), event.applicationId(), after.receivedAt(), 1));
+        } else if (before != null && before.unread() && (after == null || !after.unread())
+                && before.jobOfferId() != null) {
+            // Sans effet si l'offre a été marquée comme lue depuis la réception
+            if (counterRepository.recordRead(before.jobOfferId(), event.applicationId()) > 0) {
+                eventPublisher.publishEvent(new UnreadCountChangedEvent(
+                    before.jobOfferId(), event.applicationId(), before.receivedAt(), -1));
+            }
+        }
+    }
+
+    @EventListener
+    public void onJobOfferDeleted(JobOfferDeletedEvent event) {
+        counterRepository.deleteById(event.jobOfferId());
+    }
+
+    public void markRead(Long jobOfferId) {
+        counterRepository.markRead(List.of(jobOfferId));
+        applicationRepository.markJobOfferApplicationsAsViewed(List.of(jobOfferId));
+    }
+
+    /**
+     * Marque comme lues les offres du recruteur et celles sans auteur ; retourne leurs identifiants.
+     */
+    public List<Long> markAllRead(String username) {
+        List<Long> jobOfferIds = counterRepository.findUnreadVisibleTo(username);
+        if (!jobOfferIds.isEmpty()) {
+            counterRepository.markRead(jobOfferIds);
+            applicationRepository.markJobOfferApplicationsAsViewed(jobOfferIds);
+        }
+        return jobOfferIds;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void afterUnreadCountChanged(UnreadCountChangedEvent event) {
+        counters.compute(event.jobOfferId(), (id, counter) -> {
+            if (counter == null) {
+                return event.delta() > 0
+                    ? new Counter(1, event.receivedAt(), event.applicationId(), 0)
+                    : null;
+            }
+            return counter.apply(event);
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void afterNotificationsRead(NotificationsReadEvent event) {
+        for (Long jobOfferId : event.jobOfferIds()) {
+            counters.computeIfPresent(jobOfferId, (id, counter) -> counter.read());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void afterJobOfferDeleted(JobOfferDeletedEvent event) {
+        counters.remove(event.jobOfferId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (counterRepository.count() == 0) {
+                // Premier démarrage : dernière agrégation complète des candidatures
+                int offers = counterRepository.initializeFromApplications();
+                log.info("Compteurs de non-lus initialisés pour {} offre(s)", offers);
+            }
+            // Offres marquées comme lues sans mise à jour des candidatures (versions précédentes)
+            int viewed = applicationRepository.markAllApplicationsAsViewed();
+            if (viewed > 0) {
+                log.info("{} candidature(s) couvertes par un filigrane marquées comme vues", viewed);
+            }
+        });
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.unread-refresh-ms:60000}",
+               initialDelayString = "${app.notifications.unread-refresh-ms:60000}")
+    public void reload() {
+        try {
+            Map<Long, Counter> fresh = new HashMap<>();
+            for (JobOfferUnreadCounter row : counterRepository.findAll()) {
+                fresh.put(row.getJobOfferId(), new Counter(row.getUnreadCount(), row.getLatestReceivedAt(),
+                    row.getLatestApplicationId(), row.getReadWatermark()));
+            }
+            counters.keySet().retainAll(fresh.keySet());
+            counters.putAll(fresh);
+        } catch (RuntimeException e) {
+            log.error("Erreur lors du rechargement des compteurs de non-lus", e);
+        }
+    }
+
+    /**
+     * Offres ayant des candidatures non lues, de la plus récemment reçue à la plus ancienne ;
+     * limité aux offres du recruteur (et à celles sans auteur) si username n'est pas null.
+     */
+    public List<Map<String, Object>> getUnreadNotifications(String username) {
+        Map<Long, Counter> unread = new HashMap<>();
+        counters.forEach((id, counter) -> {
+            if (counter.unread() > 0) {
+                unread.put(id, counter);
+            }
+        });
+        if (unread.isEmpty()) {
+            return List.of();
+        }
+
+        List<JobOfferRepository.JobOfferTitle> offers = username == null
+            ? jobOfferRepository.findTitles(unread.keySet())
+            : jobOfferRepository.findTitlesVisibleTo(unread.keySet(), username);
+        Map<Long, Long> singleApplicationIds = findSingleApplicationIds(unread);
+        List<Map<String, Object>> notifications = new ArrayList<>(offers.size());
+        for (JobOfferRepository.JobOfferTitle offer : offers) {
+            Counter counter = unread.get(offer.getId());
+            Map<String, Object> notification = new HashMap<>();
+            notification.put("jobOfferId", offer.getId());
+            notification.put("jobOfferTitle", offer.getTitle());
+            notification.put("unreadCount", counter.unread());
+            notification.put("latestApplicationDate", counter.latestReceivedAt());
+            Long singleApplicationId = singleApplicationIds.get(offer.getId());
+            if (singleApplicationId != null) {
+                notification.put("singleApplicationId", singleApplicationId);
+            }
+            notifications.add(notification);
+        }
+        notifications.sort(Comparator.comparing(
+            (Map<String, Object> notification) -> (LocalDateTime) notification.get("latestApplicationDate"),
+            Comparator.nullsLast(Comparator.reverseOrder())));
+        return notifications;
+    }
+
+    // Une seule requête pour toutes les offres qui ne comptent qu'une candidature non lue
+    private Map<Long, Long> findSingleApplicationIds(Map<Long, Counter> unread) {
+        List<Long> single = new ArrayList<>();
+        unread.forEach((id, counter) -> {
+            if (counter.unread() == 1) {
+                single.add(id);
+            }
+        });
+        if (single.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Long> applicationIds = new HashMap<>();
+        for (ApplicationRepository.LatestUnread latest : applicationRepository.findLatestUnreadIds(single)) {
+            applicationIds.put(latest.getJobOfferId(), latest.getApplicationId());
+        }
+        return applicationIds;
+    }
+
+    private record Counter(int unread, LocalDateTime latestReceivedAt, long latestApplicationId, long readWatermark) {
+
+        Counter apply(UnreadCountChangedEvent event) {
+            if (event.applicationId() <= readWatermark) {
+                return this;
+            }
+            if (event.delta() > 0) {
+                LocalDateTime latest = event.receivedAt() != null
+                    && (latestReceivedAt == null || event.receivedAt().isAfter(latestReceivedAt))
+                    ? event.receivedAt() : latestReceivedAt;
+                return new Counter(unread + 1, latest, Math.max(latestApplicationId, event.applicationId()), readWatermark);
+            }
+            return new Counter(Math.max(0, unread - 1), latestReceivedAt, latestApplicationId, readWatermark);
+        }
+
+        Counter read() {
+            return new Counter(0, latestReceivedAt, latestApplicationId, latestApplicationId);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Consultations des candidatures par les recruteurs, écrites en base par lots au lieu
+ * d'un UPDATE à chaque affichage du détail.
+ * <p>
+ * Une candidature consultée plusieurs fois avant l'écriture ne l'est qu'une fois, à
+ * l'heure de la première consultation. Les lots partent toutes les flush-interval-ms,
+ * ou dès que batch-size consultations attendent. Le dernier lot est écrit à l'arrêt,
+ * après celui du serveur web (plus aucune requête en cours).
+ */
+@Service
+@Slf4j
+public class ViewMarkerBuffer implements SmartLifecycle {
+
+    private static final String MARK_VIEWED =
+        "UPDATE applications SET viewed_by_recruiter = 1, viewed_at = ? WHERE id = ?";
+
+    private final ApplicationRepository applicationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AppProperties appProperties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ExecutorService flushTrigger = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "view-marker-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running;
+
+    public ViewMarkerBuffer(ApplicationRepository applicationRepository, JdbcTemplate jdbcTemplate,
+                            ApplicationEventPublisher eventPublisher, AppProperties appProperties,
+                            PlatformTransactionManager transactionManager) {
+        this.applicationRepository = applicationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.appProperties = appProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Enregistre la consultation et renvoie son heure (celle de la première consultation
+     * encore en attente, le cas échéant).
+     */
+    public LocalDateTime markViewed(Long applicationId, LocalDateTime viewedAt) {
+        LocalDateTime first = pending.putIfAbsent(applicationId, viewedAt);
+        if (first != null) {
+            return first;
+        }
+        if (pending.size() >= appProperties.getViewMarkers().getBatchSize() && flushQueued.compareAndSet(false, true)) {
+            try {
+                flushTrigger.execute(() -> {
+                    flushQueued.set(false);
+                    flush();
+                });
+            } catch (RuntimeException e) {
+                // Arrêt en cours : le lot part avec l'écriture finale
+                flushQueued.set(false);
+            }
+        }
+        return viewedAt;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.view-markers.flush-interval-ms:2000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            int batchSize = appProperties.getViewMarkers().getBatchSize();
+            while (!pending.isEmpty()) {
+                Map<Long, LocalDateTime> batch = drain(batchSize);
+                try {
+                    write(batch);
+                } catch (RuntimeException e) {
+                    // Remises en attente (sans écraser une consultation plus récente) pour le prochain passage
+                    batch.forEach(pending::putIfAbsent);
+                    log.error("Erreur lors de l'enregistrement de {} consultation(s) de candidatures", batch.size(), e);
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Map<Long, LocalDateTime> drain(int batchSize) {
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        for (Iterator<Map.Entry<Long, LocalDateTime>> it = pending.entrySet().iterator();
+             it.hasNext() && batch.size() < batchSize; ) {
+            Map.Entry<Long, LocalDateTime> entry = it.next();
+            batch.put(entry.getKey(), entry.getValue());
+            it.remove();
+        }
+        return batch;
+    }
+
+    /**
+     * Un seul lot d'UPDATE pour les candidatures encore non vues, verrouillées jusqu'au commit ;
+     * l'événement VIEWED est publié dans la même transaction (compteurs de non-lus).
+     */
+    private void write(Map<Long, LocalDateTime> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Application> applications = applicationRepository.findNotViewedForUpdate(batch.keySet());
+            if (applications.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(MARK_VIEWED, applications, applications.size(), (statement, application) -> {
+                statement.setTimestamp(1, Timestamp.valueOf(batch.get(application.getId())));
+                statement.setLong(2, application.getId());
+            });
+            applications.forEach(application ->
+                eventPublisher.publishEvent(ApplicationLifecycleEvent.viewed(application)));
+            log.debug("{} consultation(s) de candidatures enregistrée(s)", applications.size());
+        });
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flushTrigger.shutdownNow();
+        flush();
+        if (!pending.isEmpty()) {
+            log.warn("{} consultation(s) de candidatures non enregistrée(s) à l'arrêt", pending.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Arrêté après le serveur web, qui termine d'abord les requêtes en cours
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
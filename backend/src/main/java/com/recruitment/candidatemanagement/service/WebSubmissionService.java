@@ -0,0 +1,108 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.ApplicationDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Dépôt d'une candidature web en trois étapes, pour ne pas garder de connexion à la base
+ * pendant les écritures disque et l'extraction du texte :
+ * <ol>
+ *   <li>transaction courte : enregistrement de la candidature ;</li>
+ *   <li>hors transaction : ingestion des documents, en parallèle sur le pool dédié ;</li>
+ *   <li>transaction courte : rattachement des documents et planification de l'analyse.</li>
+ * </ol>
+ * Si l'ingestion échoue, dépasse app.file-storage.ingest-timeout-ms ou ne trouve pas de place
+ * dans le pool, ou si le rattachement échoue, la candidature est supprimée.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WebSubmissionService {
+
+    private final ApplicationService applicationService;
+    private final FileUploadService fileUploadService;
+    private final AppProperties appProperties;
+
+    public ApplicationService.WebSubmission submit(Long jobOfferId, String firstName, String lastName,
+                                                   String email, String phone, String linkedinUrl,
+                                                   String githubUrl, String currentPosition, String currentCompany,
+                                                   String location, String message,
+                                                   MultipartFile cv, MultipartFile coverLetter) {
+        ApplicationService.WebApplication recorded = applicationService.recordWebApplication(jobOfferId,
+            firstName, lastName, email, phone, linkedinUrl, githubUrl, currentPosition, currentCompany,
+            location, message);
+
+        List<CompletableFuture<FileUploadService.StagedDocument>> ingests = new ArrayList<>();
+        try {
+            if (cv != null && !cv.isEmpty()) {
+                ingests.add(fileUploadService.stageAsync(cv, ApplicationDocument.DocumentType.CV));
+            }
+            if (coverLetter != null && !coverLetter.isEmpty()) {
+                ingests.add(fileUploadService.stageAsync(coverLetter, ApplicationDocument.DocumentType.COVER_LETTER));
+            }
+            return applicationService.attachWebDocuments(recorded.application(), awaitIngests(ingests));
+        } catch (RejectedExecutionException e) {
+            discard(recorded, ingests, e);
+            throw new IngestUnavailableException("Trop de dépôts en cours, réessayez plus tard", e);
+        } catch (RuntimeException e) {
+            discard(recorded, ingests, e);
+            throw e;
+        }
+    }
+
+    // Les fichiers temporaires de la requête doivent être lus avant de répondre
+    private List<FileUploadService.StagedDocument> awaitIngests(
+            List<CompletableFuture<FileUploadService.StagedDocument>> ingests) {
+        try {
+            CompletableFuture.allOf(ingests.toArray(CompletableFuture[]::new))
+                .get(appProperties.getFileStorage().getIngestTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Cause relevée ci-dessous, document par document
+        } catch (TimeoutException e) {
+            throw new IngestUnavailableException("Délai d'enregistrement des documents dépassé", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Enregistrement des documents interrompu", e);
+        }
+
+        List<FileUploadService.StagedDocument> staged = new ArrayList<>();
+        for (CompletableFuture<FileUploadService.StagedDocument> ingest : ingests) {
+            try {
+                staged.add(ingest.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+        return staged;
+    }
+
+    private void discard(ApplicationService.WebApplication recorded,
+                         List<CompletableFuture<FileUploadService.StagedDocument>> ingests, RuntimeException cause) {
+        log.error("Échec de l'enregistrement des documents de la candidature {}", recorded.application().getId(), cause);
+        // Fichiers déjà ingérés, ou dès la fin de leur ingestion s'ils sont encore en cours
+        ingests.forEach(ingest -> ingest.thenAccept(fileUploadService::discard));
+        applicationService.discardWebApplication(recorded);
+    }
+
+    /**
+     * Ingestion impossible pour l'instant (pool saturé ou trop lent) : à réessayer plus tard.
+     */
+    public static class IngestUnavailableException extends RuntimeException {
+        public IngestUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.recruitment.candidatemanagement.security;
+
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StompAuthenticationInterceptorTest {
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final UserDetails lea = User.withUsername("lea").password("secret").roles("RECRUITER").build();
+
+    private JwtService jwtService;
+    private UserDetailsService userDetailsService;
+    private StompAuthenticationInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = mock(JwtService.class);
+        userDetailsService = mock(UserDetailsService.class);
+        interceptor = new StompAuthenticationInterceptor(jwtService, userDetailsService);
+        when(userDetailsService.loadUserByUsername("lea")).thenReturn(lea);
+    }
+
+    @Test
+    void authenticatesTheConnectFrameWithTheBearerToken() {
+        when(jwtService.extractUsername("jeton")).thenReturn("lea");
+        when(jwtService.isTokenValid("jeton", lea)).thenReturn(true);
+
+        Message<?> result = interceptor.preSend(connect("Bearer jeton"), channel);
+
+        Principal user = MessageHeaderAccessor.getAccessor(result, StompHeaderAccessor.class).getUser();
+        assertThat(user).isInstanceOf(UsernamePasswordAuthenticationToken.class);
+        assertThat(user.getName()).isEqualTo("lea");
+        assertThat(((UsernamePasswordAuthenticationToken) user).getAuthorities())
+            .extracting(Object::toString).containsExactly("ROLE_RECRUITER");
+    }
+
+    @Test
+    void rejectsAConnectFrameWithoutBearerToken() {
+        assertThatThrownBy(() -> interceptor.preSend(connect(null), channel))
+            .isInstanceOf(MessageDeliveryException.class)
+            .hasMessageContaining("manquant");
+        assertThatThrownBy(() -> interceptor.preSend(connect("Basic bGVhOnNlY3JldA=="), channel))
+            .isInstanceOf(MessageDeliveryException.class);
+    }
+
+    @Test
+    void rejectsExpiredMalformedOrUnknownTokens() {
+        when(jwtService.extractUsername("expire")).thenReturn("lea");
+        when(jwtService.isTokenValid("expire", lea)).thenReturn(false);
+        when(jwtService.extractUsername("illisible")).thenThrow(new MalformedJwtException("illisible"));
+        when(jwtService.extractUsername("inconnu")).thenReturn("paul");
+        when(userDetailsService.loadUserByUsername("paul")).thenThrow(new UsernameNotFoundException("paul"));
+
+        for (String token : new String[] {"expire", "illisible", "inconnu"}) {
+            assertThatThrownBy(() -> interceptor.preSend(connect("Bearer " + token), channel))
+                .isInstanceOf(MessageDeliveryException.class)
+                .hasMessageContaining("invalide");
+        }
+    }
+
+    @Test
+    void refusesSubscriptionsAndSendsOfAnUnauthenticatedSession() {
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, null), channel))
+            .isInstanceOf(MessageDeliveryException.class);
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SEND, null), channel))
+            .isInstanceOf(MessageDeliveryException.class);
+
+        UsernamePasswordAuthenticationToken user =
+            new UsernamePasswordAuthenticationToken(lea, null, lea.getAuthorities());
+        Message<?> subscribe = frame(StompCommand.SUBSCRIBE, user);
+        assertThat(interceptor.preSend(subscribe, channel)).isSameAs(subscribe);
+        Message<?> disconnect = frame(StompCommand.DISCONNECT, null);
+        assertThat(interceptor.preSend(disconnect, channel)).isSameAs(disconnect);
+    }
+
+    private static Message<byte[]> connect(String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) {
+            accessor.addNativeHeader("Authorization", authorization);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> frame(StompCommand command, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setUser(user);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
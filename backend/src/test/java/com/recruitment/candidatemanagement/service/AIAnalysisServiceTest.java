@@ -0,0 +1,169 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.ApplicationScore;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.repository.ApplicationDocumentRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationScoreRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.http.HttpTimeoutException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AIAnalysisServiceTest {
+
+    private static final String LINKEDIN = "https://www.linkedin.com/in/lea-martin";
+    private static final String GITHUB = "https://github.com/lea-martin";
+
+    private ApplicationRepository applicationRepository;
+    private ApplicationScoreRepository applicationScoreRepository;
+    private ProfileScrapingService profileScrapingService;
+    private AppProperties appProperties;
+    private ExecutorService stageExecutor;
+    private AIAnalysisService service;
+
+    @BeforeEach
+    void setUp() {
+        applicationRepository = mock(ApplicationRepository.class);
+        ApplicationDocumentRepository documentRepository = mock(ApplicationDocumentRepository.class);
+        applicationScoreRepository = mock(ApplicationScoreRepository.class);
+        profileScrapingService = mock(ProfileScrapingService.class);
+        appProperties = new AppProperties();
+        appProperties.getAi().getScoring().setMockMode(false);
+        appProperties.getAi().getStages().setLinkedinTimeoutMs(100);
+        // Un seul thread : une étape restée bloquée empêcherait l'analyse suivante
+        stageExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        service = new AIAnalysisService(applicationRepository, documentRepository, applicationScoreRepository,
+            appProperties, mock(PdfAnalysisService.class), profileScrapingService, mock(ExtractedTextStore.class),
+            stageExecutor, event -> { });
+
+        when(applicationRepository.findById(1L)).thenReturn(Optional.of(application(1L)));
+        when(applicationRepository.findById(2L)).thenReturn(Optional.of(application(2L)));
+        when(documentRepository.findByApplicationId(1L)).thenReturn(List.of());
+        when(documentRepository.findByApplicationId(2L)).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stageExecutor.shutdownNow();
+    }
+
+    @Test
+    void interruptsATimedOutStageAndFreesItsThread() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(profileScrapingService.analyzeLinkedInProfile(anyString()))
+            .thenAnswer(invocation -> {
+                try {
+                    Thread.sleep(60_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return null;
+            })
+            .thenReturn(new ProfileScrapingService.ProfileAnalysisResult(4, "Développeuse", List.of("Java")));
+
+        service.analyzeApplication(1L);
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Le thread libéré par l'interruption sert l'analyse suivante
+        service.analyzeApplication(2L);
+
+        ArgumentCaptor<ApplicationScore> scores = ArgumentCaptor.forClass(ApplicationScore.class);
+        verify(applicationScoreRepository, times(2)).save(scores.capture());
+        assertThat(scores.getAllValues().get(0).getLinkedinOutcome()).isEqualTo(ApplicationScore.StageOutcome.TIMED_OUT);
+        assertThat(scores.getAllValues().get(0).getLinkedinScore()).isZero();
+        assertThat(scores.getAllValues().get(1).getLinkedinOutcome()).isEqualTo(ApplicationScore.StageOutcome.OK);
+        assertThat(scores.getAllValues().get(1).getLinkedinScore()).isEqualTo(4);
+    }
+
+    @Test
+    void recordsAStageInterruptedBeforeItsTimeoutAsFailed() {
+        appProperties.getAi().getStages().setLinkedinTimeoutMs(5_000);
+        when(profileScrapingService.analyzeLinkedInProfile(anyString()))
+            .thenThrow(new IllegalStateException("Requête interrompue", new InterruptedException()));
+
+        service.analyzeApplication(1L);
+
+        ArgumentCaptor<ApplicationScore> score = ArgumentCaptor.forClass(ApplicationScore.class);
+        verify(applicationScoreRepository).save(score.capture());
+        assertThat(score.getValue().getLinkedinOutcome()).isEqualTo(ApplicationScore.StageOutcome.FAILED);
+        assertThat(score.getValue().getGithubOutcome()).isEqualTo(ApplicationScore.StageOutcome.MISSING);
+        assertThat(score.getValue().getPdfOutcome()).isEqualTo(ApplicationScore.StageOutcome.OK);
+    }
+
+    @Test
+    void recordsAGitHubOutageAsAFailedOrTimedOutStageRatherThanAnEmptyProfile() {
+        for (long id = 1; id <= 3; id++) {
+            Application application = application(id);
+            application.getCandidate().setSkills("Java Spring " + GITHUB);
+            when(applicationRepository.findById(id)).thenReturn(Optional.of(application));
+        }
+        when(profileScrapingService.analyzeLinkedInProfile(anyString()))
+            .thenReturn(new ProfileScrapingService.ProfileAnalysisResult(4, "Développeuse", List.of("Java")));
+        when(profileScrapingService.analyzeGitHubProfile(GITHUB))
+            .thenThrow(new CircuitBreaker.OpenException("api.github.com"))
+            .thenThrow(new GitHubApiClient.GitHubApiException("Trop d'appels GitHub simultanés"))
+            .thenThrow(new GitHubApiClient.GitHubApiException("Appel GitHub en échec pour lea",
+                new HttpTimeoutException("request timed out")));
+
+        service.analyzeApplication(1L);
+        service.analyzeApplication(2L);
+        service.analyzeApplication(3L);
+
+        ArgumentCaptor<ApplicationScore> scores = ArgumentCaptor.forClass(ApplicationScore.class);
+        verify(applicationScoreRepository, times(3)).save(scores.capture());
+        assertThat(scores.getAllValues()).extracting(ApplicationScore::getGithubOutcome).containsExactly(
+            ApplicationScore.StageOutcome.FAILED,
+            ApplicationScore.StageOutcome.FAILED,
+            ApplicationScore.StageOutcome.TIMED_OUT);
+        assertThat(scores.getAllValues()).extracting(ApplicationScore::getGithubScore).containsOnly(0);
+        assertThat(scores.getAllValues()).extracting(ApplicationScore::getLinkedinOutcome)
+            .containsOnly(ApplicationScore.StageOutcome.OK);
+    }
+
+    @Test
+    void flagsCandidateMessagesMadeOfStockPhrases() {
+        String closing = "N'hésitez pas à me contacter. Je reste à votre disposition.";
+
+        assertThat(AIAnalysisService.detectAiInMessage("Bonjour, votre offre Java m'intéresse. " + closing))
+            .isFalse();
+        assertThat(AIAnalysisService.detectAiInMessage(
+            "Je suis ravi de postuler. " + closing + " Dans l'attente de votre retour.")).isTrue();
+        // Deux formules suffisent dans un message long
+        assertThat(AIAnalysisService.detectAiInMessage("J'ai développé des API Spring. ".repeat(20) + closing))
+            .isTrue();
+    }
+
+    private static Application application(Long id) {
+        JobOffer offer = new JobOffer();
+        offer.setId(10L);
+        offer.setTitle("Développeur Java");
+        Candidate candidate = new Candidate();
+        candidate.setLinkedinProfile(LINKEDIN);
+        Application application = new Application();
+        application.setId(id);
+        application.setJobOffer(offer);
+        application.setCandidate(candidate);
+        return application;
+    }
+}
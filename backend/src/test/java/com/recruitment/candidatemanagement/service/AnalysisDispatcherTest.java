@@ -0,0 +1,116 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.AnalysisJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalysisDispatcherTest {
+
+    private AIAnalysisService aiAnalysisService;
+    private AnalysisJobQueue jobQueue;
+    private AppProperties appProperties;
+    private AnalysisDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        aiAnalysisService = mock(AIAnalysisService.class);
+        jobQueue = mock(AnalysisJobQueue.class);
+        appProperties = new AppProperties();
+        appProperties.getAi().getScoring().setMockMode(false);
+        appProperties.getAi().getExecutor().setPoolSize(1);
+        appProperties.getAi().getExecutor().setQueueCapacity(3);
+        appProperties.getAi().getWorker().setDrainTimeoutMs(1_000);
+        dispatcher = new AnalysisDispatcher(aiAnalysisService, jobQueue, appProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void runsWaitingAnalysesByPriorityThenInClaimOrder() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> analysed = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            Long applicationId = invocation.getArgument(0);
+            if (applicationId == 1L) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            analysed.add(applicationId);
+            return null;
+        }).when(aiAnalysisService).analyzeApplication(anyLong());
+        when(jobQueue.count(AnalysisJob.JobStatus.QUEUED)).thenReturn(4L);
+        // Le premier job occupe l'unique thread, les suivants attendent dans la file locale
+        when(jobQueue.claim(anyString(), anyInt())).thenReturn(List.of(
+            job(1L, AnalysisDispatcher.Priority.RESCORE),
+            job(2L, AnalysisDispatcher.Priority.RESCORE),
+            job(3L, AnalysisDispatcher.Priority.EMAIL),
+            job(4L, AnalysisDispatcher.Priority.WEB_SUBMISSION)));
+
+        dispatcher.poll();
+        release.countDown();
+
+        verify(jobQueue, timeout(5_000).times(4)).complete(any(), anyString());
+        assertThat(analysed).containsExactly(1L, 4L, 3L, 2L);
+    }
+
+    @Test
+    void recordsAFailedAnalysisForRetry() {
+        IllegalStateException error = new IllegalStateException("Service IA indisponible");
+        doThrow(error).when(aiAnalysisService).analyzeApplication(1L);
+        AnalysisJobQueue.ClaimedJob claimed = job(1L, AnalysisDispatcher.Priority.EMAIL);
+        when(jobQueue.count(AnalysisJob.JobStatus.QUEUED)).thenReturn(1L);
+        when(jobQueue.claim(anyString(), anyInt())).thenReturn(List.of(claimed));
+
+        dispatcher.poll();
+
+        verify(jobQueue, timeout(5_000)).fail(eq(claimed), anyString(), eq(error));
+        assertThat(dispatcher.getStats().failed()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheRequestButReportsSaturationOnceTheBacklogReachesCapacity() {
+        // Instance API seule : aucune réservation, la contre-pression doit tout de même s'appliquer
+        appProperties.getAi().getWorker().setEnabled(false);
+        when(jobQueue.enqueue(10L, AnalysisDispatcher.Priority.WEB_SUBMISSION)).thenReturn(true);
+        assertThat(dispatcher.submit(10L, AnalysisDispatcher.Priority.WEB_SUBMISSION)).isTrue();
+
+        when(jobQueue.count(AnalysisJob.JobStatus.QUEUED)).thenReturn(3L);
+        dispatcher.refreshBacklog();
+
+        when(jobQueue.enqueue(11L, AnalysisDispatcher.Priority.WEB_SUBMISSION)).thenReturn(true);
+        assertThat(dispatcher.submit(11L, AnalysisDispatcher.Priority.WEB_SUBMISSION)).isFalse();
+        verify(jobQueue).enqueue(11L, AnalysisDispatcher.Priority.WEB_SUBMISSION);
+        assertThat(dispatcher.getStats().submitted()).isEqualTo(2);
+        assertThat(dispatcher.getStats().deferred()).isEqualTo(1);
+
+        when(jobQueue.count(AnalysisJob.JobStatus.QUEUED)).thenReturn(2L);
+        dispatcher.refreshBacklog();
+        assertThat(dispatcher.isSaturated()).isFalse();
+    }
+
+    private static AnalysisJobQueue.ClaimedJob job(Long applicationId, AnalysisDispatcher.Priority priority) {
+        return new AnalysisJobQueue.ClaimedJob(applicationId + 100, applicationId, priority, 1, 0);
+    }
+}
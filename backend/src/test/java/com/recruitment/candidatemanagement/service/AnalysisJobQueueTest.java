@@ -0,0 +1,244 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.AnalysisJob;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.repository.AnalysisJobRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// Requêtes natives MariaDB (LIMIT ... FOR UPDATE SKIP LOCKED) : H2 en mode MariaDB ; transactions validées pour de vrai
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:analysisjobs;MODE=MariaDB",
+    "spring.datasource.driver-class-name=org.h2.Driver"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AnalysisJobQueueTest {
+
+    @Autowired
+    private AnalysisJobRepository jobRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AppProperties appProperties;
+    private AnalysisJobQueue queue;
+    private TransactionTemplate transaction;
+    private JobOffer jobOffer;
+    private int candidates;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getAi().getWorker().setMaxAttempts(3);
+        appProperties.getAi().getWorker().setBackoffBaseMs(60_000);
+        appProperties.getAi().getWorker().setBackoffMaxMs(90_000);
+        queue = new AnalysisJobQueue(jobRepository, appProperties);
+        transaction = new TransactionTemplate(transactionManager);
+        JobOffer offer = new JobOffer();
+        offer.setTitle("Développeur Java");
+        offer.setCompany("Entreprise");
+        jobOffer = jobOfferRepository.save(offer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobRepository.deleteAll();
+        applicationRepository.deleteAll();
+        candidateRepository.deleteAll();
+        jobOfferRepository.deleteAll();
+    }
+
+    @Test
+    void claimsTheMostUrgentJobsAndLeasesThemToTheWorker() {
+        enqueue(100L, AnalysisDispatcher.Priority.RESCORE);
+        enqueue(101L, AnalysisDispatcher.Priority.WEB_SUBMISSION);
+        enqueue(102L, AnalysisDispatcher.Priority.EMAIL);
+
+        List<AnalysisJobQueue.ClaimedJob> claimed = claim("worker-a", 2);
+
+        assertThat(claimed).extracting(AnalysisJobQueue.ClaimedJob::applicationId).containsExactly(101L, 102L);
+        assertThat(claimed).extracting(AnalysisJobQueue.ClaimedJob::attempt).containsOnly(1);
+        AnalysisJob running = job(101L);
+        assertThat(running.getStatus()).isEqualTo(AnalysisJob.JobStatus.RUNNING);
+        assertThat(running.getLeaseOwner()).isEqualTo("worker-a");
+        assertThat(running.getLeaseExpiresAt()).isAfter(LocalDateTime.now());
+        // Jobs sous bail : seul le dernier reste à prendre
+        assertThat(claim("worker-b", 5)).extracting(AnalysisJobQueue.ClaimedJob::applicationId).containsExactly(100L);
+        assertThat(claim("worker-b", 5)).isEmpty();
+    }
+
+    @Test
+    void anotherWorkerTakesOverAJobWhoseLeaseExpired() {
+        enqueue(100L, AnalysisDispatcher.Priority.EMAIL);
+        AnalysisJobQueue.ClaimedJob lost = claim("worker-a", 1).get(0);
+        update(100L, job -> job.setLeaseExpiresAt(LocalDateTime.now().minusMinutes(1)));
+
+        List<AnalysisJobQueue.ClaimedJob> resumed = claim("worker-b", 1);
+
+        assertThat(resumed).singleElement().satisfies(job -> assertThat(job.attempt()).isEqualTo(2));
+        // Le worker d'origine ne peut plus ni terminer ni prolonger le job
+        transaction.executeWithoutResult(status -> queue.complete(lost, "worker-a"));
+        assertThat(modified(() -> queue.renewLeases(List.of(lost.jobId()), "worker-a"))).isZero();
+        assertThat(job(100L).getStatus()).isEqualTo(AnalysisJob.JobStatus.RUNNING);
+        assertThat(job(100L).getLeaseOwner()).isEqualTo("worker-b");
+
+        transaction.executeWithoutResult(status -> queue.complete(resumed.get(0), "worker-b"));
+        assertThat(job(100L).getStatus()).isEqualTo(AnalysisJob.JobStatus.DONE);
+        assertThat(job(100L).getLeaseOwner()).isNull();
+    }
+
+    @Test
+    void retriesAFailedJobAfterAnExponentialBackoffThenGivesUp() {
+        enqueue(100L, AnalysisDispatcher.Priority.EMAIL);
+
+        fail(claim("worker-a", 1).get(0));
+        assertThat(job(100L).getStatus()).isEqualTo(AnalysisJob.JobStatus.QUEUED);
+        assertThat(job(100L).getAvailableAt())
+            .isCloseTo(LocalDateTime.now().plusSeconds(60), within(5, ChronoUnit.SECONDS));
+        assertThat(claim("worker-a", 1)).isEmpty();
+
+        makeAvailable(100L);
+        fail(claim("worker-a", 1).get(0));
+        // Doublé puis plafonné par backoffMaxMs
+        assertThat(job(100L).getAvailableAt())
+            .isCloseTo(LocalDateTime.now().plusSeconds(90), within(5, ChronoUnit.SECONDS));
+
+        makeAvailable(100L);
+        fail(claim("worker-a", 1).get(0));
+        AnalysisJob dead = job(100L);
+        assertThat(dead.getStatus()).isEqualTo(AnalysisJob.JobStatus.DEAD);
+        assertThat(dead.getAttempts()).isEqualTo(3);
+        assertThat(dead.getLastError()).contains("Service IA indisponible");
+        makeAvailable(100L);
+        assertThat(claim("worker-a", 1)).isEmpty();
+
+        // Une nouvelle demande repart de zéro
+        enqueue(100L, AnalysisDispatcher.Priority.WEB_SUBMISSION);
+        assertThat(claim("worker-a", 1)).singleElement().satisfies(job -> assertThat(job.attempt()).isEqualTo(1));
+    }
+
+    @Test
+    void releasedJobsGoBackToTheQueueWithoutCountingTheAttempt() {
+        enqueue(100L, AnalysisDispatcher.Priority.EMAIL);
+        AnalysisJobQueue.ClaimedJob claimed = claim("worker-a", 1).get(0);
+
+        assertThat(modified(() -> queue.release(List.of(claimed.jobId()), "worker-b"))).isZero();
+        assertThat(modified(() -> queue.release(List.of(claimed.jobId()), "worker-a"))).isEqualTo(1);
+
+        assertThat(claim("worker-b", 1)).singleElement().satisfies(job -> assertThat(job.attempt()).isEqualTo(1));
+    }
+
+    @Test
+    void enqueuesPendingApplicationsThatHaveNoJob() {
+        Long orphan = apply(Application.ApplicationStatus.PENDING);
+        Long queued = apply(Application.ApplicationStatus.PENDING);
+        apply(Application.ApplicationStatus.VALIDATED);
+        enqueue(queued, AnalysisDispatcher.Priority.WEB_SUBMISSION);
+
+        assertThat(modified(() -> queue.enqueueOrphans())).isEqualTo(1);
+        assertThat(modified(() -> queue.enqueueOrphans())).isZero();
+
+        assertThat(job(orphan).getStatus()).isEqualTo(AnalysisJob.JobStatus.QUEUED);
+        assertThat(job(orphan).getPriority()).isEqualTo(AnalysisDispatcher.Priority.EMAIL.ordinal());
+        assertThat(job(queued).getPriority()).isEqualTo(AnalysisDispatcher.Priority.WEB_SUBMISSION.ordinal());
+        assertThat(jobRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void removesTheJobsOfAnOfferBeingDeletedOrOfADiscardedApplication() {
+        Long ofDeletedOffer = apply(Application.ApplicationStatus.PENDING);
+        JobOffer deletedOffer = jobOffer;
+        JobOffer other = new JobOffer();
+        other.setTitle("Data engineer");
+        other.setCompany("Entreprise");
+        jobOffer = jobOfferRepository.save(other);
+        Long discarded = apply(Application.ApplicationStatus.PENDING);
+        Long kept = apply(Application.ApplicationStatus.PENDING);
+        enqueue(ofDeletedOffer, AnalysisDispatcher.Priority.EMAIL);
+        enqueue(discarded, AnalysisDispatcher.Priority.EMAIL);
+        enqueue(kept, AnalysisDispatcher.Priority.EMAIL);
+        claim("worker-a", 1);
+
+        assertThat(modified(() -> queue.removeForJobOffer(deletedOffer.getId()))).isEqualTo(1);
+        assertThat(modified(() -> queue.remove(discarded))).isEqualTo(1);
+
+        assertThat(jobRepository.findAll()).extracting(AnalysisJob::getApplicationId).containsExactly(kept);
+    }
+
+    private void enqueue(Long applicationId, AnalysisDispatcher.Priority priority) {
+        transaction.executeWithoutResult(status -> queue.enqueue(applicationId, priority));
+    }
+
+    private List<AnalysisJobQueue.ClaimedJob> claim(String owner, int limit) {
+        return transaction.execute(status -> queue.claim(owner, limit));
+    }
+
+    // Lignes modifiées par une opération de la file, dans sa propre transaction
+    private int modified(IntSupplier operation) {
+        return transaction.execute(status -> operation.getAsInt());
+    }
+
+    private void fail(AnalysisJobQueue.ClaimedJob claimed) {
+        transaction.executeWithoutResult(status ->
+            queue.fail(claimed, "worker-a", new IllegalStateException("Service IA indisponible")));
+    }
+
+    private void makeAvailable(Long applicationId) {
+        update(applicationId, job -> job.setAvailableAt(LocalDateTime.now().minusSeconds(1)));
+    }
+
+    private void update(Long applicationId, Consumer<AnalysisJob> change) {
+        AnalysisJob job = job(applicationId);
+        change.accept(job);
+        jobRepository.save(job);
+    }
+
+    private AnalysisJob job(Long applicationId) {
+        return jobRepository.findByApplicationId(applicationId).orElseThrow();
+    }
+
+    private Long apply(Application.ApplicationStatus status) {
+        Candidate candidate = new Candidate();
+        candidate.setFirstName("Prénom");
+        candidate.setLastName("Nom" + candidates);
+        candidate.setEmail("candidat" + candidates++ + "@example.com");
+
+        Application application = new Application();
+        application.setJobOffer(jobOffer);
+        application.setCandidate(candidateRepository.save(candidate));
+        application.setStatus(status);
+        return applicationRepository.save(application).getId();
+    }
+}
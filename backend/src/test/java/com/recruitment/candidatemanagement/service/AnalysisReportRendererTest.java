@@ -0,0 +1,58 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.entity.ApplicationDocument;
+import com.recruitment.candidatemanagement.entity.ApplicationScore;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisReportRendererTest {
+
+    private final AnalysisReportRenderer renderer = new AnalysisReportRenderer();
+
+    @Test
+    void rendersEachStageOfTheBreakdown() {
+        ApplicationScore score = new ApplicationScore();
+        score.setTotalScore(16);
+        score.setPdfScore(7);
+        score.setLinkedinScore(5);
+        score.setGithubScore(3);
+        score.setCandidateInfoScore(1);
+        score.setPdfOutcome(ApplicationScore.StageOutcome.OK);
+        score.setDocuments(List.of(
+            new ApplicationScore.DocumentScore(ApplicationDocument.DocumentType.CV,
+                ApplicationScore.StageOutcome.OK, 12, 6, true, true)));
+        score.setLinkedinOutcome(ApplicationScore.StageOutcome.OK);
+        score.setLinkedinTitle("Développeuse Java");
+        score.setLinkedinSkillCount(9);
+        score.setGithubOutcome(ApplicationScore.StageOutcome.TIMED_OUT);
+        score.setCandidateInfoOutcome(ApplicationScore.StageOutcome.MISSING);
+
+        String report = renderer.render(score);
+
+        assertThat(report)
+            .contains("• CV: 12 compétences, 6 ans expérience ⚠️ Contenu suspect (IA détectée) ✅ Expérience pertinente\n")
+            .contains("💼 ANALYSE PROFIL LINKEDIN:\n• Profil trouvé: Développeuse Java\n• Compétences LinkedIn: 9\n")
+            .contains("💻 ANALYSE PROFIL GITHUB:\n• Analyse interrompue (délai dépassé)\n")
+            .contains("👤 ANALYSE MESSAGE CANDIDAT:\n• Aucun message fourni\n")
+            .contains("📊 SCORE FINAL: 16/20\n")
+            .contains("• Documents PDF: 7/8\n• Profil LinkedIn: 5/6\n• Profil GitHub: 3/4\n• Informations candidat: 1/2\n");
+    }
+
+    @Test
+    void rendersTheSimulatedReportWithRealLineBreaks() {
+        ApplicationScore score = new ApplicationScore();
+        score.setMockMode(true);
+        score.setTotalScore(12);
+
+        String report = renderer.render(score);
+
+        assertThat(report)
+            .doesNotContain("\\n")
+            .startsWith("Analyse automatique de la candidature (mode simulation):\n\n⚠️ CANDIDATURE AMBIGUË\n")
+            .contains("- Expérience: 14/20\n- Compétences: 10/20\n- Motivation: 12/20\n");
+        assertThat(report.lines()).hasSize(13);
+    }
+}
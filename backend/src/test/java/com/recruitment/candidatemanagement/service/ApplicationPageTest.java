@@ -0,0 +1,153 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.dto.ApplicationCursor;
+import com.recruitment.candidatemanagement.dto.ApplicationListItem;
+import com.recruitment.candidatemanagement.dto.CursorPage;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class ApplicationPageTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    private ApplicationService applicationService;
+    private JobOffer jobOffer;
+    private int candidates;
+
+    @BeforeEach
+    void setUp() {
+        applicationService = new ApplicationService(applicationRepository, null, null, null, null, null, null,
+            null, null, null, null, null);
+        JobOffer offer = new JobOffer();
+        offer.setTitle("Développeur Java");
+        offer.setCompany("Entreprise");
+        jobOffer = entityManager.persist(offer);
+    }
+
+    @Test
+    void pagesNewestFirstAcrossIdenticalDatesAndUndatedRows() {
+        Long oldest = apply(MONDAY.minusDays(1), Application.ApplicationStatus.VALIDATED, false);
+        Long first = apply(MONDAY, Application.ApplicationStatus.VALIDATED, false);
+        Long second = apply(MONDAY, Application.ApplicationStatus.REJECTED, false);
+        Long third = apply(MONDAY, Application.ApplicationStatus.VALIDATED, false);
+        Long newest = apply(MONDAY.plusHours(1), Application.ApplicationStatus.VALIDATED, false);
+        Long undated = apply(null, Application.ApplicationStatus.VALIDATED, false);
+        Long undatedLater = apply(null, Application.ApplicationStatus.VALIDATED, false);
+        apply(MONDAY, Application.ApplicationStatus.VALIDATED, true);
+        flush();
+
+        // Même date de part et d'autre d'une fin de page : départagées par id décroissant
+        assertThat(allPages(null, 2)).containsExactly(newest, third, second, first, oldest, undatedLater, undated);
+        assertThat(allPages(Application.ApplicationStatus.VALIDATED, 3))
+            .containsExactly(newest, third, first, oldest, undatedLater, undated);
+    }
+
+    @Test
+    void readsOneExtraRowToDecideWhetherAnotherPageExists() {
+        apply(MONDAY, Application.ApplicationStatus.VALIDATED, false);
+        apply(MONDAY.plusHours(1), Application.ApplicationStatus.VALIDATED, false);
+        flush();
+
+        CursorPage<ApplicationListItem> exact = applicationService.getApplicationPage(null, null, 2);
+        assertThat(exact.items()).hasSize(2);
+        assertThat(exact.nextCursor()).isNull();
+
+        CursorPage<ApplicationListItem> shorter = applicationService.getApplicationPage(null, null, 1);
+        assertThat(shorter.items()).hasSize(1);
+        assertThat(ApplicationCursor.decode(shorter.nextCursor()))
+            .isEqualTo(ApplicationCursor.after(shorter.items().get(0)));
+
+        CursorPage<ApplicationListItem> last = applicationService.getApplicationPage(null, shorter.nextCursor(), 1);
+        assertThat(last.items()).hasSize(1);
+        assertThat(last.nextCursor()).isNull();
+    }
+
+    @Test
+    void pagesArchivedApplicationsAndClampsTheLimit() {
+        for (int i = 0; i < 3; i++) {
+            apply(MONDAY.plusMinutes(i), Application.ApplicationStatus.VALIDATED, true);
+        }
+        apply(MONDAY, Application.ApplicationStatus.VALIDATED, false);
+        flush();
+
+        assertThat(applicationService.getArchivedApplicationPage(null, 0).items()).hasSize(1);
+        assertThat(applicationService.getArchivedApplicationPage(null, 500).items()).hasSize(3);
+        assertThat(applicationService.getArchivedApplicationPage(null, null).nextCursor()).isNull();
+    }
+
+    @Test
+    void encodesCursorsOpaquelyAndRejectsMalformedOnes() {
+        ApplicationCursor dated = new ApplicationCursor(MONDAY.plusNanos(123_000), 42L);
+        ApplicationCursor undated = new ApplicationCursor(null, 7L);
+
+        assertThat(dated.encode()).doesNotContain("|", "=");
+        assertThat(ApplicationCursor.decode(dated.encode())).isEqualTo(dated);
+        assertThat(ApplicationCursor.decode(undated.encode())).isEqualTo(undated);
+        assertThat(ApplicationCursor.decode(" ")).isEqualTo(ApplicationCursor.FIRST);
+        assertThatThrownBy(() -> ApplicationCursor.decode("pas-un-curseur"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> applicationService.getApplicationPage(null, "pas-un-curseur", 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Long> allPages(Application.ApplicationStatus status, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ApplicationListItem> page = applicationService.getApplicationPage(status, cursor, size);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(size);
+            page.items().stream().map(ApplicationListItem::id).forEach(ids::add);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private void flush() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Long apply(LocalDateTime receivedAt, Application.ApplicationStatus status, boolean archived) {
+        Candidate candidate = new Candidate();
+        candidate.setFirstName("Prénom");
+        candidate.setLastName("Nom" + candidates);
+        candidate.setEmail("candidat" + candidates++ + "@example.com");
+        entityManager.persist(candidate);
+
+        Application application = new Application();
+        application.setJobOffer(jobOffer);
+        application.setCandidate(candidate);
+        application.setReceivedAt(receivedAt);
+        application.setStatus(status);
+        application.setArchived(archived);
+        Long id = entityManager.persistAndFlush(application).getId();
+        if (receivedAt == null) {
+            // Ligne écrite hors de l'application : @PrePersist n'a pas fixé la date
+            entityManager.getEntityManager().createNativeQuery("UPDATE applications SET received_at = NULL WHERE id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+        }
+        return id;
+    }
+}
@@ -0,0 +1,159 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.dto.FunnelStats;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.entity.RollupBackfill;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import com.recruitment.candidatemanagement.repository.DailyApplicationRollupRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import com.recruitment.candidatemanagement.repository.RollupBackfillRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Requête native INSERT ... SELECT (TIMESTAMPDIFF, NOW()) : H2 en mode MariaDB ; transactions validées pour de vrai
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:rollups;MODE=MariaDB",
+    "spring.datasource.driver-class-name=org.h2.Driver"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ApplicationRollupServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private DailyApplicationRollupRepository rollupRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private RollupBackfillRepository backfillRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AppProperties appProperties;
+    private JobOffer jobOffer;
+    private int candidates;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getAnalytics().setRollupRecentDays(1);
+        appProperties.getAnalytics().setRebuildChunkDays(2);
+        JobOffer offer = new JobOffer();
+        offer.setTitle("Développeur Java");
+        offer.setCompany("Entreprise");
+        jobOffer = jobOfferRepository.save(offer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rollupRepository.deleteAll();
+        backfillRepository.deleteAll();
+        applicationRepository.deleteAll();
+        candidateRepository.deleteAll();
+        jobOfferRepository.deleteAll();
+    }
+
+    @Test
+    void aggregatesEachDayOfAnOffer() {
+        LocalDateTime monday = LocalDateTime.of(2026, 3, 2, 9, 0);
+        apply(monday, Application.ApplicationStatus.VALIDATED, 16, false, monday.plusHours(2));
+        apply(monday.plusHours(5), Application.ApplicationStatus.REJECTED, 6, true, monday.plusHours(9));
+        apply(monday.plusHours(6), Application.ApplicationStatus.PENDING, null, false, null);
+        apply(monday.plusDays(1), Application.ApplicationStatus.AMBIGUOUS, 12, false, null);
+        ApplicationRollupService service = newService();
+
+        assertThat(service.rebuild(monday.toLocalDate(), monday.toLocalDate().plusDays(1))).isEqualTo(2);
+        // Un second recalcul remplace les lignes au lieu de les dupliquer
+        assertThat(service.rebuild(monday.toLocalDate(), monday.toLocalDate().plusDays(1))).isEqualTo(2);
+
+        List<FunnelStats> daily = service.getDailyFunnel(monday.toLocalDate(), monday.toLocalDate().plusDays(1),
+            jobOffer.getId());
+        assertThat(daily).hasSize(2);
+        FunnelStats first = daily.get(0);
+        assertThat(first.day()).isEqualTo(monday.toLocalDate());
+        assertThat(first.received()).isEqualTo(3);
+        assertThat(first.validated()).isEqualTo(1);
+        assertThat(first.rejected()).isEqualTo(1);
+        assertThat(first.archived()).isEqualTo(1);
+        assertThat(first.averageAiScore()).isEqualTo(11.0);
+        assertThat(first.averageHoursToFirstView()).isEqualTo(3.0);
+        assertThat(daily.get(1).ambiguous()).isEqualTo(1);
+        assertThat(daily.get(1).averageHoursToFirstView()).isNull();
+    }
+
+    @Test
+    void resumesTheBackfillWhereItStoppedAfterARestart() {
+        for (int daysAgo = 1; daysAgo <= 8; daysAgo++) {
+            apply(TODAY.minusDays(daysAgo).atTime(10, 0), Application.ApplicationStatus.VALIDATED, 15, false, null);
+        }
+
+        ApplicationRollupService beforeRestart = newService();
+        beforeRestart.backfillStep();
+        assertThat(backfillRepository.findById(RollupBackfill.ID)).map(RollupBackfill::getBackfillBefore)
+            .contains(TODAY.minusDays(2));
+        // Jour ancien recalculé isolément (candidature modifiée) avant l'arrêt
+        beforeRestart.rebuild(TODAY.minusDays(8), TODAY.minusDays(8));
+
+        ApplicationRollupService afterRestart = newService();
+        for (int step = 0; step < 10; step++) {
+            afterRestart.backfillStep();
+        }
+
+        List<FunnelStats> daily = afterRestart.getDailyFunnel(TODAY.minusDays(8), TODAY.minusDays(1), null);
+        assertThat(daily).extracting(FunnelStats::day)
+            .containsExactly(TODAY.minusDays(8), TODAY.minusDays(7), TODAY.minusDays(6), TODAY.minusDays(5),
+                TODAY.minusDays(4), TODAY.minusDays(3), TODAY.minusDays(2), TODAY.minusDays(1));
+        assertThat(backfillRepository.findById(RollupBackfill.ID)).map(RollupBackfill::getBackfillBefore)
+            .contains(TODAY.minusDays(8));
+    }
+
+    private ApplicationRollupService newService() {
+        return new ApplicationRollupService(rollupRepository, applicationRepository, backfillRepository,
+            appProperties, transactionManager);
+    }
+
+    private void apply(LocalDateTime receivedAt, Application.ApplicationStatus status, Integer aiScore,
+                       boolean archived, LocalDateTime viewedAt) {
+        Candidate candidate = new Candidate();
+        candidate.setFirstName("Prénom");
+        candidate.setLastName("Nom" + candidates);
+        candidate.setEmail("candidat" + candidates++ + "@example.com");
+
+        Application application = new Application();
+        application.setJobOffer(jobOffer);
+        application.setCandidate(candidateRepository.save(candidate));
+        application.setReceivedAt(receivedAt);
+        application.setStatus(status);
+        application.setAiScore(aiScore);
+        application.setArchived(archived);
+        application.setViewedByRecruiter(viewedAt != null);
+        application.setViewedAt(viewedAt);
+        applicationRepository.save(application);
+    }
+}
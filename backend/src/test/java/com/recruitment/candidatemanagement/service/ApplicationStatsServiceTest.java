@@ -0,0 +1,137 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ApplicationStatsServiceTest {
+
+    private static final Long JOB_OFFER_ID = 3L;
+
+    private ApplicationRepository applicationRepository;
+    private ApplicationStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        applicationRepository = mock(ApplicationRepository.class);
+        statsService = new ApplicationStatsService(applicationRepository, mock(JobOfferRepository.class),
+            mock(CandidateRepository.class), new AppProperties(), mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void loadsCountersFromTheDatabase() {
+        databaseHolds(statusCount(Application.ApplicationStatus.PENDING, false, 4),
+                      statusCount(Application.ApplicationStatus.REJECTED, true, 2));
+
+        ApplicationStatsService.ApplicationStats stats = statsService.getStats();
+
+        assertThat(stats.total()).isEqualTo(6);
+        assertThat(stats.archived()).isEqualTo(2);
+        assertThat(stats.byStatus().get(Application.ApplicationStatus.REJECTED)).isEqualTo(2);
+        assertThat(stats.activeByStatus().get(Application.ApplicationStatus.REJECTED)).isZero();
+        assertThat(statsService.getJobOfferApplicationsCount(JOB_OFFER_ID)).isEqualTo(6);
+    }
+
+    @Test
+    void appliesLifecycleEventsWithoutQueryingTheDatabase() {
+        databaseHolds();
+        statsService.reconcile();
+        LocalDateTime now = LocalDateTime.now();
+
+        statsService.onApplicationEvent(event(ApplicationLifecycleEvent.Type.CREATED, null,
+            state(Application.ApplicationStatus.PENDING, false, now)));
+        statsService.onApplicationEvent(event(ApplicationLifecycleEvent.Type.CREATED, null,
+            state(Application.ApplicationStatus.PENDING, false, now)));
+        statsService.onApplicationEvent(event(ApplicationLifecycleEvent.Type.ANALYSIS_COMPLETED,
+            state(Application.ApplicationStatus.PENDING, false, now),
+            state(Application.ApplicationStatus.VALIDATED, false, now)));
+        statsService.onApplicationEvent(event(ApplicationLifecycleEvent.Type.ARCHIVED,
+            state(Application.ApplicationStatus.PENDING, false, now),
+            state(Application.ApplicationStatus.REJECTED, true, now)));
+
+        ApplicationStatsService.ApplicationStats stats = statsService.getStats();
+        assertThat(stats.total()).isEqualTo(2);
+        assertThat(stats.today()).isEqualTo(2);
+        assertThat(stats.byStatus().get(Application.ApplicationStatus.PENDING)).isZero();
+        assertThat(stats.byStatus().get(Application.ApplicationStatus.VALIDATED)).isEqualTo(1);
+        assertThat(stats.activeByStatus().get(Application.ApplicationStatus.REJECTED)).isZero();
+        assertThat(stats.archived()).isEqualTo(1);
+        assertThat(statsService.getJobOfferApplicationsCount(JOB_OFFER_ID)).isEqualTo(2);
+
+        statsService.onApplicationEvent(event(ApplicationLifecycleEvent.Type.DELETED,
+            state(Application.ApplicationStatus.VALIDATED, false, now), null));
+        assertThat(statsService.getStats().total()).isEqualTo(1);
+        assertThat(statsService.getDailyCounts(LocalDate.now(), LocalDate.now()))
+            .containsEntry(LocalDate.now(), 1L);
+    }
+
+    @Test
+    void replaysEventsReceivedWhileReconciling() {
+        ApplicationRepository.StatusCount pending = statusCount(Application.ApplicationStatus.PENDING, false, 5);
+        when(applicationRepository.countGroupedByStatus()).thenAnswer(invocation -> {
+            // Candidature validée pendant la lecture des compteurs
+            statsService.onApplicationEvent(event(ApplicationLifecycleEvent.Type.STATUS_CHANGED,
+                state(Application.ApplicationStatus.PENDING, false, LocalDateTime.now()),
+                state(Application.ApplicationStatus.VALIDATED, false, LocalDateTime.now())));
+            return List.of(pending);
+        });
+        when(applicationRepository.countGroupedByJobOffer()).thenReturn(List.of());
+        when(applicationRepository.countGroupedByDaySince(any())).thenReturn(List.of());
+
+        statsService.reconcile();
+
+        ApplicationStatsService.ApplicationStats stats = statsService.getStats();
+        assertThat(stats.total()).isEqualTo(5);
+        assertThat(stats.byStatus().get(Application.ApplicationStatus.PENDING)).isEqualTo(4);
+        assertThat(stats.byStatus().get(Application.ApplicationStatus.VALIDATED)).isEqualTo(1);
+    }
+
+    private void databaseHolds(ApplicationRepository.StatusCount... rows) {
+        long total = 0;
+        for (ApplicationRepository.StatusCount row : rows) {
+            total += row.getApplications();
+        }
+        long perOffer = total;
+        when(applicationRepository.countGroupedByStatus()).thenReturn(List.of(rows));
+        when(applicationRepository.countGroupedByJobOffer()).thenReturn(total == 0 ? List.of() : List.of(
+            new ApplicationRepository.JobOfferApplicationCount() {
+                public Long getJobOfferId() { return JOB_OFFER_ID; }
+                public Long getApplications() { return perOffer; }
+            }));
+        when(applicationRepository.countGroupedByDaySince(any())).thenReturn(List.of());
+    }
+
+    private static ApplicationRepository.StatusCount statusCount(Application.ApplicationStatus status,
+                                                                  boolean archived, long applications) {
+        return new ApplicationRepository.StatusCount() {
+            public Application.ApplicationStatus getStatus() { return status; }
+            public Boolean getArchived() { return archived; }
+            public Long getApplications() { return applications; }
+        };
+    }
+
+    private static ApplicationLifecycleEvent event(ApplicationLifecycleEvent.Type type,
+                                                   ApplicationLifecycleEvent.State before,
+                                                   ApplicationLifecycleEvent.State after) {
+        return new ApplicationLifecycleEvent(type, 1L, before, after);
+    }
+
+    private static ApplicationLifecycleEvent.State state(Application.ApplicationStatus status, boolean archived,
+                                                         LocalDateTime receivedAt) {
+        return new ApplicationLifecycleEvent.State(JOB_OFFER_ID, status, archived, false, null, receivedAt);
+    }
+}
@@ -0,0 +1,189 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.StoredBlob;
+import com.recruitment.candidatemanagement.repository.StoredBlobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// Requêtes natives MariaDB (ON DUPLICATE KEY UPDATE) : H2 en mode MariaDB ; transactions validées pour de vrai
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:blobstore;MODE=MariaDB",
+    "spring.datasource.driver-class-name=org.h2.Driver"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BlobStoreTest {
+
+    private static final String HASH = "ab" + "c".repeat(62);
+    private static final String OTHER_HASH = "de" + "f".repeat(62);
+
+    @TempDir
+    Path uploadDir;
+
+    @Autowired
+    private StoredBlobRepository blobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AppProperties appProperties;
+    private BlobStore blobStore;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        appProperties.getFileStorage().setUploadDir(uploadDir.toString());
+        blobStore = new BlobStore(appProperties, blobRepository, mock(TeeUploadPipeline.class), transactionManager);
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        blobRepository.deleteAll();
+    }
+
+    @Test
+    void storesIdenticalContentOnceAndRemovesItAfterTheLastRelease() {
+        transaction.executeWithoutResult(status -> attach(HASH));
+        transaction.executeWithoutResult(status -> attach(HASH));
+
+        assertThat(refCount(HASH)).isEqualTo(2);
+        assertThat(blobStore.resolve(HASH)).hasContent("contenu");
+        assertThat(uploadDir.resolve("tmp")).isEmptyDirectory();
+
+        transaction.executeWithoutResult(status -> blobStore.release(HASH));
+        assertThat(refCount(HASH)).isEqualTo(1);
+        assertThat(blobStore.resolve(HASH)).exists();
+
+        transaction.executeWithoutResult(status -> blobStore.release(HASH));
+        assertThat(blobRepository.findById(HASH)).isEmpty();
+        assertThat(blobStore.resolve(HASH)).doesNotExist();
+
+        // Déjà libéré : sans effet
+        transaction.executeWithoutResult(status -> blobStore.release(HASH));
+    }
+
+    @Test
+    void removesTheFileOfARolledBackAttach() {
+        transaction.executeWithoutResult(status -> {
+            attach(HASH);
+            status.setRollbackOnly();
+        });
+
+        assertThat(blobRepository.findById(HASH)).isEmpty();
+        assertThat(blobStore.resolve(HASH)).doesNotExist();
+    }
+
+    @Test
+    void keepsAFileReferencedByAnotherDocumentWhenAnAttachRollsBack() {
+        transaction.executeWithoutResult(status -> attach(HASH));
+        transaction.executeWithoutResult(status -> {
+            attach(HASH);
+            status.setRollbackOnly();
+        });
+
+        assertThat(refCount(HASH)).isEqualTo(1);
+        assertThat(blobStore.resolve(HASH)).exists();
+    }
+
+    @Test
+    void sweepsOnlyBlobsReleasedForLongerThanTheSweepInterval() {
+        appProperties.getFileStorage().setBlobSweepIntervalMs(60_000);
+        transaction.executeWithoutResult(status -> {
+            attach(HASH);
+            attach(OTHER_HASH);
+        });
+        // Libérations dont la suppression après commit n'a pas eu lieu
+        transaction.executeWithoutResult(status -> {
+            blobRepository.removeReference(HASH, LocalDateTime.now().minusHours(1));
+            blobRepository.removeReference(OTHER_HASH, LocalDateTime.now());
+        });
+
+        blobStore.sweepReleasedBlobs();
+
+        assertThat(blobRepository.findById(HASH)).isEmpty();
+        assertThat(blobStore.resolve(HASH)).doesNotExist();
+        assertThat(blobRepository.findById(OTHER_HASH)).map(StoredBlob::getRefCount).contains(0);
+        assertThat(blobStore.resolve(OTHER_HASH)).exists();
+    }
+
+    @Test
+    void keepsABlobReattachedWhileTheSweepWaitsForItsRow() throws Exception {
+        appProperties.getFileStorage().setBlobSweepIntervalMs(60_000);
+        transaction.executeWithoutResult(status -> attach(HASH));
+        transaction.executeWithoutResult(status ->
+            blobRepository.removeReference(HASH, LocalDateTime.now().minusHours(1)));
+        CountDownLatch attached = new CountDownLatch(1);
+        ExecutorService sweeper = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> sweep = sweeper.submit(() -> {
+                attached.await();
+                blobStore.sweepReleasedBlobs();
+                return null;
+            });
+            transaction.executeWithoutResult(status -> {
+                attach(HASH);
+                attached.countDown();
+                // Le balayage attend le verrou de ligne pendant que la transaction continue
+                pause();
+                assertThat(sweep).isNotDone();
+                attach(OTHER_HASH);
+            });
+            sweep.get(10, TimeUnit.SECONDS);
+        } finally {
+            sweeper.shutdownNow();
+        }
+
+        assertThat(refCount(HASH)).isEqualTo(1);
+        assertThat(blobStore.resolve(HASH)).hasContent("contenu");
+        assertThat(refCount(OTHER_HASH)).isEqualTo(1);
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(300);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void attach(String hash) {
+        try {
+            Path temp = Files.createDirectories(uploadDir.resolve("tmp")).resolve(UUID.randomUUID() + ".part");
+            Files.writeString(temp, "contenu", StandardCharsets.UTF_8);
+            blobStore.attach(new BlobStore.StagedBlob(hash, temp, Files.size(temp), "texte"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int refCount(String hash) {
+        return blobRepository.findById(hash).orElseThrow().getRefCount();
+    }
+}
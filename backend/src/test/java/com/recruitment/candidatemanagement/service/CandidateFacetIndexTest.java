@@ -0,0 +1,151 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.dto.CandidateFacetPage;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationScoreRepository;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CandidateFacetIndexTest {
+
+    private final List<Candidate> candidates = new ArrayList<>();
+    private final List<ApplicationScoreRepository.CandidateAnalysisFacet> analyses = new ArrayList<>();
+    private CandidateFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        CandidateRepository candidateRepository = mock(CandidateRepository.class);
+        ApplicationScoreRepository scoreRepository = mock(ApplicationScoreRepository.class);
+        when(candidateRepository.findIdsAfter(eq(0L), any(Limit.class))).thenAnswer(invocation ->
+            candidates.stream().map(Candidate::getId).toList());
+        when(candidateRepository.findIdsAfter(eq(4L), any(Limit.class))).thenReturn(List.of());
+        when(candidateRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return candidates.stream().filter(candidate -> ids.contains(candidate.getId())).toList();
+        });
+        when(scoreRepository.findCandidateFacets(anyCollection())).thenAnswer(invocation -> analyses);
+        index = new CandidateFacetIndex(candidateRepository, mock(ApplicationRepository.class), scoreRepository,
+            new AppProperties(), mock(PlatformTransactionManager.class));
+
+        candidates.add(candidate(1L, "Java, Spring Boot, PostgreSQL", 3, "Lyon, France"));
+        candidates.add(candidate(2L, "JavaScript / React / Node.js", 7, "Paris"));
+        candidates.add(candidate(3L, "java, docker, k8s", null, "lyon"));
+        candidates.add(candidate(4L, null, 12, "Montréal"));
+        analyses.add(analysis(3L, 5, "kubernetes"));
+        analyses.add(analysis(4L, 2, "java"));
+        index.reload();
+    }
+
+    @Test
+    void normalizesSkillsOnWholeWords() {
+        assertThat(SkillNormalizer.normalize("JavaScript, Node.js et Spring-Boot ; travail en équipe"))
+            .containsExactly("javascript", "nodejs", "spring", "teamwork");
+        assertThat(SkillNormalizer.canonical("K8s")).contains("kubernetes");
+        assertThat(SkillNormalizer.canonical("cobol")).isEmpty();
+    }
+
+    @Test
+    void combinesFiltersAndCountsFacetsWithinResult() {
+        CandidateFacetPage page = index.search(List.of("java"), null, null, null, null, null, 20);
+
+        // « JavaScript » ne compte pas comme Java ; l'analyse du CV complète le profil
+        assertThat(ids(page)).containsExactly(4L, 3L, 1L);
+        assertThat(page.facets().skills()).containsEntry("java", 3).containsEntry("kubernetes", 1)
+            .doesNotContainKey("javascript");
+        assertThat(page.facets().experience()).containsExactly(
+            entry("0-1", 0), entry("2-4", 1), entry("5-9", 1), entry("10+", 1));
+        assertThat(page.facets().locations()).containsExactly(entry("Lyon", 2), entry("Montréal", 1));
+
+        // L'expérience déclarée l'emporte sur celle de l'analyse (12 ans et non 2)
+        assertThat(ids(index.search(List.of("java"), null, 2, 9, List.of("LYON", "montreal"), null, 20)))
+            .containsExactly(3L, 1L);
+        assertThat(ids(index.search(null, List.of("react", "docker"), null, null, null, null, 20)))
+            .containsExactly(3L, 2L);
+    }
+
+    @Test
+    void pagesFromNewestWithCursor() {
+        CandidateFacetPage first = index.search(null, null, null, null, null, null, 3);
+        assertThat(first.total()).isEqualTo(4);
+        assertThat(ids(first)).containsExactly(4L, 3L, 2L);
+        assertThat(first.nextBefore()).isEqualTo(2L);
+
+        CandidateFacetPage last = index.search(null, null, null, null, null, first.nextBefore(), 3);
+        assertThat(ids(last)).containsExactly(1L);
+        assertThat(last.nextBefore()).isNull();
+    }
+
+    @Test
+    void updatesAndRemovesCandidatesAfterCommit() {
+        candidates.get(0).setSkills("Python");
+        index.onCandidateChanged(new CandidateChangedEvent(1L));
+        candidates.remove(3);
+        index.onCandidateChanged(new CandidateChangedEvent(4L));
+
+        assertThat(ids(index.search(List.of("java"), null, null, null, null, null, 20))).containsExactly(3L);
+        assertThat(ids(index.search(List.of("python"), null, null, null, null, null, 20))).containsExactly(1L);
+        assertThat(index.search(null, null, null, null, null, null, 20).facets().locations())
+            .doesNotContainKey("Montréal");
+    }
+
+    @Test
+    void rejectsUnknownSkillsAndInvalidBounds() {
+        assertThatThrownBy(() -> index.search(List.of("cobol"), null, null, null, null, null, 20))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.search(null, null, 5, 2, null, null, 20))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.search(null, null, null, null, null, null, 500))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Long> ids(CandidateFacetPage page) {
+        return page.candidates().stream().map(Candidate::getId).toList();
+    }
+
+    private static Candidate candidate(Long id, String skills, Integer years, String location) {
+        Candidate candidate = new Candidate();
+        candidate.setId(id);
+        candidate.setSkills(skills);
+        candidate.setYearsExperience(years);
+        candidate.setLocation(location);
+        return candidate;
+    }
+
+    private static ApplicationScoreRepository.CandidateAnalysisFacet analysis(Long candidateId, Integer years,
+                                                                             String skill) {
+        return new ApplicationScoreRepository.CandidateAnalysisFacet() {
+            @Override
+            public Long getCandidateId() {
+                return candidateId;
+            }
+
+            @Override
+            public Integer getExperienceYears() {
+                return years;
+            }
+
+            @Override
+            public String getSkill() {
+                return skill;
+            }
+        };
+    }
+}
@@ -0,0 +1,131 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.dto.CandidateMatches;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.ApplicationDocument;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.repository.ApplicationDocumentRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CandidateMatchingServiceTest {
+
+    @TempDir
+    Path indexDir;
+
+    private JobOfferRepository jobOfferRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private SearchIndexService searchIndexService;
+    private CandidateMatchingService matchingService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jobOfferRepository = mock(JobOfferRepository.class);
+        CandidateRepository candidateRepository = mock(CandidateRepository.class);
+        ApplicationDocumentRepository documentRepository = mock(ApplicationDocumentRepository.class);
+        ExtractedTextStore extractedTextStore = mock(ExtractedTextStore.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        AppProperties appProperties = new AppProperties();
+        appProperties.getSearch().setIndexDir(indexDir.toString());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        searchIndexService = new SearchIndexService(jobOfferRepository, candidateRepository,
+            mock(ApplicationRepository.class), documentRepository, extractedTextStore, appProperties,
+            transactionManager);
+        matchingService = new CandidateMatchingService(jobOfferRepository, candidateRepository,
+            searchIndexService, appProperties, eventPublisher, transactionManager);
+
+        List<Candidate> candidates = List.of(
+            candidate(1L, "Java, Spring, Docker", "Développeur backend"),
+            candidate(2L, "React, TypeScript", "Développeur frontend"),
+            candidate(3L, "Java, Kubernetes", null),
+            candidate(4L, "Excel", "Comptable"));
+        when(candidateRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return candidates.stream().filter(candidate -> ids.contains(candidate.getId())).toList();
+        });
+        ApplicationDocument cv = document(candidates.get(2));
+        when(documentRepository.findByCandidateIds(anyCollection())).thenReturn(List.of(cv));
+        when(extractedTextStore.findText(cv)).thenReturn(
+            Optional.of("Cinq ans de microservices Java avec Spring Boot, déploiements Kubernetes"));
+        candidates.forEach(candidate -> searchIndexService.onCandidateChanged(new CandidateChangedEvent(candidate.getId())));
+        searchIndexService.awaitIndexing();
+
+        JobOffer offer = new JobOffer();
+        offer.setId(10L);
+        offer.setTitle("Développeur Java");
+        offer.setRequiredSkills("Java, Spring, microservices");
+        offer.setDescription("Conception de services backend");
+        when(jobOfferRepository.findById(10L)).thenReturn(Optional.of(offer));
+    }
+
+    @AfterEach
+    void tearDown() {
+        matchingService.shutdown();
+        searchIndexService.shutdown();
+    }
+
+    @Test
+    void ranksCandidatesByTfIdfSimilarityUsingCvText() {
+        CandidateMatches result = matchingService.getMatches(10L, 10).orElseThrow();
+
+        List<Long> ids = result.matches().stream().map(match -> match.candidate().getId()).toList();
+        assertThat(ids).startsWith(1L, 3L).doesNotContain(4L);
+        assertThat(result.matches()).allSatisfy(match -> assertThat(match.score()).isBetween(0d, 1d));
+        assertThat(result.matches()).extracting(CandidateMatches.Match::score).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+        assertThat(result.matches().get(0).matchedSkills()).containsExactly("java", "spring");
+
+        assertThat(matchingService.getMatches(10L, 1).orElseThrow().matches()).hasSize(1);
+        assertThat(matchingService.getMatches(99L, 10)).isEmpty();
+        assertThatThrownBy(() -> matchingService.getMatches(10L, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void matchesOnPublishAndAnnouncesTheResult() {
+        matchingService.onJobOfferPublished(new JobOfferPublishedEvent(10L));
+        matchingService.shutdown();
+
+        verify(eventPublisher).publishEvent(any(CandidateMatchesReadyEvent.class));
+    }
+
+    private static Candidate candidate(Long id, String skills, String position) {
+        Candidate candidate = new Candidate();
+        candidate.setId(id);
+        candidate.setFirstName("Prénom");
+        candidate.setLastName("Nom" + id);
+        candidate.setSkills(skills);
+        candidate.setCurrentPosition(position);
+        return candidate;
+    }
+
+    private static ApplicationDocument document(Candidate candidate) {
+        Application application = new Application();
+        application.setCandidate(candidate);
+        ApplicationDocument document = new ApplicationDocument();
+        document.setId(9L);
+        document.setContentHash("abc");
+        document.setApplication(application);
+        return document;
+    }
+}
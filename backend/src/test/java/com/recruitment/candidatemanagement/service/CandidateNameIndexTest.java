@@ -0,0 +1,96 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.dto.CandidateSuggestion;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CandidateNameIndexTest {
+
+    private final List<Candidate> candidates = new ArrayList<>();
+    private CandidateNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        CandidateRepository candidateRepository = mock(CandidateRepository.class);
+        when(candidateRepository.findIdsAfter(eq(0L), any(Limit.class))).thenAnswer(invocation ->
+            candidates.stream().map(Candidate::getId).toList());
+        when(candidateRepository.findIdsAfter(eq(3L), any(Limit.class))).thenReturn(List.of());
+        when(candidateRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return candidates.stream().filter(candidate -> ids.contains(candidate.getId())).toList();
+        });
+        when(candidateRepository.findById(anyLong())).thenAnswer(invocation -> candidates.stream()
+            .filter(candidate -> candidate.getId().equals(invocation.getArgument(0))).findFirst());
+        index = new CandidateNameIndex(candidateRepository, new AppProperties(), mock(PlatformTransactionManager.class));
+
+        candidates.add(candidate(1L, "Léa", "Martinez", "lea.martinez@example.com"));
+        candidates.add(candidate(2L, "Jean-Pierre", "Martin", "jp.martin@example.com"));
+        candidates.add(candidate(3L, "Hélène", "O'Brien", "helene@example.com"));
+        index.load();
+    }
+
+    @Test
+    void matchesPrefixesIgnoringAccentsCaseAndPunctuation() {
+        assertThat(ids(index.suggest("MART", 10))).containsExactly(2L, 1L);
+        assertThat(ids(index.suggest("lea mar", 10))).containsExactly(1L);
+        assertThat(ids(index.suggest("martin jean", 10))).containsExactly(2L);
+        assertThat(ids(index.suggest("pierre", 10))).containsExactly(2L);
+        assertThat(ids(index.suggest("helene@ex", 10))).containsExactly(3L);
+        assertThat(ids(index.suggest("obrien", 10))).isEmpty();
+        assertThat(ids(index.suggest("o'bri", 10))).containsExactly(3L);
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void returnsTopNInAlphabeticalOrder() {
+        assertThat(ids(index.suggest("e", 10))).isEmpty();
+        assertThat(ids(index.suggest("m", 1))).containsExactly(2L);
+        assertThatThrownBy(() -> index.suggest("m", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.suggest("m", 500)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void replacesTermsOfChangedCandidatesAndDropsDeletedOnes() {
+        candidates.get(0).setLastName("Dupont");
+        index.onCandidateChanged(new CandidateChangedEvent(1L));
+        candidates.remove(2);
+        index.onCandidateChanged(new CandidateChangedEvent(3L));
+
+        assertThat(ids(index.suggest("mart", 10))).containsExactly(2L);
+        assertThat(index.suggest("dup", 10)).extracting(CandidateSuggestion::lastName).containsExactly("Dupont");
+        // L'email n'a pas changé
+        assertThat(ids(index.suggest("lea martinez", 10))).containsExactly(1L);
+        assertThat(index.suggest("hel", 10)).isEmpty();
+    }
+
+    private static List<Long> ids(List<CandidateSuggestion> suggestions) {
+        return suggestions.stream().map(CandidateSuggestion::id).toList();
+    }
+
+    private static Candidate candidate(Long id, String firstName, String lastName, String email) {
+        Candidate candidate = new Candidate();
+        candidate.setId(id);
+        candidate.setFirstName(firstName);
+        candidate.setLastName(lastName);
+        candidate.setEmail(email);
+        return candidate;
+    }
+}
@@ -0,0 +1,211 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.ApplicationDocument;
+import com.recruitment.candidatemanagement.repository.ApplicationDocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentDownloadServiceTest {
+
+    private static final long DOCUMENT_ID = 7L;
+    private static final String HASH = "ab".repeat(32);
+    private static final int SIZE = 24 * 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private byte[] content;
+    private ApplicationDocumentRepository repository;
+    private DocumentDownloadService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        content = new byte[SIZE];
+        new Random(42).nextBytes(content);
+        Path file = tempDir.resolve(HASH);
+        Files.write(file, content);
+
+        ApplicationDocument document = new ApplicationDocument();
+        document.setId(DOCUMENT_ID);
+        document.setFileName("cv.pdf");
+        document.setFilePath(file.toString());
+        document.setContentType("application/pdf");
+        document.setContentHash(HASH);
+
+        repository = mock(ApplicationDocumentRepository.class);
+        when(repository.findById(DOCUMENT_ID)).thenReturn(Optional.of(document));
+        service = new DocumentDownloadService(repository, new AppProperties());
+    }
+
+    @Test
+    void servesTheWholeFileWithValidators() throws Exception {
+        MockHttpServletResponse response = download(request());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("ETag")).isEqualTo("\"" + HASH + "\"");
+        assertThat(response.getHeader("Last-Modified")).isNotNull();
+        assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(response.getContentLengthLong()).isEqualTo(SIZE);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void answersNotModifiedWhenTheETagMatches() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader("If-None-Match", "\"other\", W/\"" + HASH + "\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader("ETag")).isEqualTo("\"" + HASH + "\"");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void servesASingleRange() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=1000-1999");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 1000-1999/" + SIZE);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 1000, 2000));
+    }
+
+    @Test
+    void servesASuffixRange() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=-500");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes " + (SIZE - 500) + "-" + (SIZE - 1) + "/" + SIZE);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, SIZE - 500, SIZE));
+    }
+
+    @Test
+    void servesMultipleRangesAsMultipartByteranges() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=0-9, 5000000-5000009");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+        byte[] body = response.getContentAsByteArray();
+        assertThat(response.getContentLengthLong()).isEqualTo(body.length);
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        assertThat(text).contains("Content-Range: bytes 0-9/" + SIZE);
+        assertThat(text).contains("Content-Range: bytes 5000000-5000009/" + SIZE);
+        assertThat(text).contains(new String(Arrays.copyOfRange(content, 0, 10), StandardCharsets.ISO_8859_1));
+        assertThat(text).contains(new String(Arrays.copyOfRange(content, 5000000, 5000010), StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRanges() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=" + SIZE + "-");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */" + SIZE);
+    }
+
+    @Test
+    void ignoresTheRangeWhenIfRangeDoesNotMatch() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader("Range", "bytes=0-99");
+        request.addHeader("If-Range", "\"stale\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentLengthLong()).isEqualTo(SIZE);
+    }
+
+    @Test
+    void delegatesToSendfileWhenTheConnectorSupportsIt() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setAttribute(DocumentDownloadService.SENDFILE_SUPPORT, Boolean.TRUE);
+        request.addHeader("Range", "bytes=100-199");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(request.getAttribute(DocumentDownloadService.SENDFILE_START)).isEqualTo(100L);
+        assertThat(request.getAttribute(DocumentDownloadService.SENDFILE_END)).isEqualTo(200L);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void servesConcurrentRangedDownloads() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        int chunk = SIZE / 32;
+        for (int i = 0; i < 32; i++) {
+            int start = i * chunk;
+            results.add(clients.submit((Callable<Boolean>) () -> {
+                MockHttpServletRequest request = request();
+                request.addHeader("Range", "bytes=" + start + "-" + (start + chunk - 1));
+                MockHttpServletResponse response = download(request);
+                return response.getStatus() == 206 && Arrays.equals(
+                    response.getContentAsByteArray(), Arrays.copyOfRange(content, start, start + chunk));
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            assertThat(result.get(30, TimeUnit.SECONDS)).isTrue();
+        }
+        clients.shutdown();
+
+        // Seuls les premiers accès concurrents peuvent manquer le cache : au plus un par client
+        verify(repository, atMost(8)).findById(DOCUMENT_ID);
+    }
+
+    @Test
+    void looksTheDocumentUpOnceForSuccessiveRequests() throws Exception {
+        download(request());
+        MockHttpServletRequest ranged = request();
+        ranged.addHeader("Range", "bytes=0-99");
+        download(ranged);
+
+        verify(repository, times(1)).findById(DOCUMENT_ID);
+    }
+
+    private MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/applications/documents/" + DOCUMENT_ID + "/download");
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.serve(DOCUMENT_ID, false, request, response);
+        return response;
+    }
+}
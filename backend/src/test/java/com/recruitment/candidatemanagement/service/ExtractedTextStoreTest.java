@@ -0,0 +1,87 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.ApplicationDocument;
+import com.recruitment.candidatemanagement.repository.ApplicationDocumentRepository;
+import com.recruitment.candidatemanagement.repository.StoredBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExtractedTextStoreTest {
+
+    private ApplicationDocumentRepository documentRepository;
+    private StoredBlobRepository blobRepository;
+    private ExtractedTextStore store;
+
+    @BeforeEach
+    void setUp() {
+        documentRepository = mock(ApplicationDocumentRepository.class);
+        blobRepository = mock(StoredBlobRepository.class);
+        AppProperties appProperties = new AppProperties();
+        appProperties.getAi().getTextCache().setMaxEntries(2);
+        store = new ExtractedTextStore(documentRepository, blobRepository, appProperties);
+        when(blobRepository.findExtractedText(anyString())).thenReturn(Optional.empty());
+        when(documentRepository.findFirstByContentHashAndExtractedTextIsNotNull(anyString()))
+            .thenReturn(Optional.empty());
+    }
+
+    @Test
+    void servesTheUploadTextWithoutReadingTheDatabase() {
+        assertThat(store.put("a", "  Développeur\tJAVA \r\n Spring  ")).isEqualTo("développeur java \n spring");
+
+        assertThat(store.findText(document("a", null))).contains("développeur java \n spring");
+        verify(blobRepository, never()).findExtractedText(anyString());
+        verify(documentRepository, never()).findFirstByContentHashAndExtractedTextIsNotNull(anyString());
+    }
+
+    @Test
+    void fallsBackToTheDocumentThenTheBlobThenAnIdenticalDocument() {
+        assertThat(store.findText(document("a", "Texte du DOCUMENT"))).contains("texte du document");
+
+        when(blobRepository.findExtractedText("b")).thenReturn(Optional.of("Texte du BLOB"));
+        assertThat(store.findText(document("b", " "))).contains("texte du blob");
+
+        ApplicationDocument identical = document("c", "Texte d'un DOUBLON");
+        when(documentRepository.findFirstByContentHashAndExtractedTextIsNotNull("c")).thenReturn(Optional.of(identical));
+        assertThat(store.findText(document("c", null))).contains("texte d'un doublon");
+        // Mis en cache : la lecture suivante ne touche plus la base
+        assertThat(store.findText(document("c", null))).contains("texte d'un doublon");
+        verify(documentRepository, times(1)).findFirstByContentHashAndExtractedTextIsNotNull("c");
+    }
+
+    @Test
+    void returnsNothingForATextNeverExtracted() {
+        assertThat(store.findText(document("a", null))).isEmpty();
+        assertThat(store.findText(document(null, null))).isEmpty();
+        verify(blobRepository, times(1)).findExtractedText(anyString());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedText() {
+        store.put("a", "premier");
+        store.put("b", "deuxième");
+        store.findText(document("a", null));
+        store.put("c", "troisième");
+
+        assertThat(store.findText(document("a", null))).contains("premier");
+        assertThat(store.findText(document("b", null))).isEmpty();
+        assertThat(store.findText(document("c", null))).contains("troisième");
+    }
+
+    private static ApplicationDocument document(String contentHash, String extractedText) {
+        ApplicationDocument document = new ApplicationDocument();
+        document.setContentHash(contentHash);
+        document.setExtractedText(extractedText);
+        return document;
+    }
+}
@@ -0,0 +1,126 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubApiClientTest {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile long latencyMs;
+    private AppProperties appProperties;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/users/octo", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getQuery();
+            if (path.endsWith("/repos") && query != null && query.contains("page=2")) {
+                respond(exchange, "[{\"language\":\"Rust\",\"stargazers_count\":5}]", null);
+            } else if (path.endsWith("/repos")) {
+                String next = "<http://127.0.0.1:" + server.getAddress().getPort()
+                    + "/users/octo/repos?per_page=100&page=2>; rel=\"next\"";
+                respond(exchange, "[{\"language\":\"Java\",\"stargazers_count\":1}]", next);
+            } else {
+                respond(exchange, "{\"public_repos\":101}", null);
+            }
+        });
+        server.start();
+
+        appProperties = new AppProperties();
+        appProperties.getGithub().setApiUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        appProperties.getGithub().setRequestTimeoutMs(2000);
+        appProperties.getGithub().setCircuitFailureThreshold(2);
+        appProperties.getGithub().setCircuitOpenMs(60000);
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void followsRepositoryPagination() {
+        GitHubApiClient.GitHubSnapshot snapshot = new GitHubApiClient(appProperties).fetch("octo", null);
+
+        assertThat(snapshot.publicRepos()).isEqualTo(101);
+        assertThat(snapshot.languages()).containsExactly("Java", "Rust");
+        assertThat(snapshot.totalStars()).isEqualTo(6);
+        assertThat(snapshot.reposPages()).isEqualTo(2);
+    }
+
+    @Test
+    void issuesProfileAndRepositoryRequestsInParallel() {
+        latencyMs = 300;
+        GitHubApiClient client = new GitHubApiClient(appProperties);
+
+        long start = System.nanoTime();
+        client.fetch("octo", null);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Profil et page 1 en parallèle, puis page 2 : deux allers-retours au lieu de trois
+        assertThat(elapsedMs).isLessThan(3 * latencyMs);
+    }
+
+    @Test
+    void timesOutAndOpensTheCircuitWhenGitHubIsSlow() {
+        latencyMs = 1000;
+        appProperties.getGithub().setRequestTimeoutMs(200);
+        GitHubApiClient client = new GitHubApiClient(appProperties);
+
+        assertThatThrownBy(() -> client.fetch("octo", null))
+            .isInstanceOf(GitHubApiClient.GitHubApiException.class)
+            .hasCauseInstanceOf(HttpTimeoutException.class);
+        assertThatThrownBy(() -> client.fetch("octo", null))
+            .isInstanceOf(GitHubApiClient.GitHubApiException.class)
+            .hasCauseInstanceOf(HttpTimeoutException.class);
+        assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int before = requests.get();
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> client.fetch("octo", null)).isInstanceOf(CircuitBreaker.OpenException.class);
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(100);
+        assertThat(requests.get()).isEqualTo(before);
+    }
+
+    private void respond(HttpExchange exchange, String body, String link) throws IOException {
+        requests.incrementAndGet();
+        try {
+            if (latencyMs > 0) {
+                Thread.sleep(latencyMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (link != null) {
+            exchange.getResponseHeaders().set("Link", link);
+        }
+        try {
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            // Client déjà parti après son délai d'attente
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitHubProfileCacheTest {
+
+    private static final String USER_JSON = "{\"login\":\"octo\",\"public_repos\":3}";
+    private static final String REPOS_JSON = "[{\"language\":\"Java\",\"stargazers_count\":4},"
+        + "{\"language\":\"Go\",\"stargazers_count\":6}]";
+
+    private HttpServer server;
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private volatile long latencyMs;
+    private AppProperties appProperties;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/users/octo", exchange -> {
+            boolean repos = exchange.getRequestURI().getPath().endsWith("/repos");
+            respond(exchange, repos ? "\"repos-v1\"" : "\"user-v1\"", repos ? REPOS_JSON : USER_JSON);
+        });
+        server.start();
+
+        appProperties = new AppProperties();
+        appProperties.getGithub().setApiUrl("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void servesFreshEntriesWithoutCallingGitHub() {
+        GitHubProfileCache cache = newCache();
+
+        GitHubApiClient.GitHubSnapshot first = cache.get("octo");
+        GitHubApiClient.GitHubSnapshot second = cache.get("OCTO");
+
+        assertThat(first.publicRepos()).isEqualTo(3);
+        assertThat(first.totalStars()).isEqualTo(10);
+        assertThat(first.languages()).containsExactlyInAnyOrder("Java", "Go");
+        assertThat(second).isSameAs(first);
+        assertThat(fullResponses.get()).isEqualTo(2); // /users/octo + /users/octo/repos
+    }
+
+    @Test
+    void revalidatesStaleEntriesWithETags() throws Exception {
+        appProperties.getGithub().setCacheTtlMs(0);
+        GitHubProfileCache cache = newCache();
+
+        cache.get("octo");
+        GitHubApiClient.GitHubSnapshot stale = cache.get("octo");
+
+        assertThat(stale.publicRepos()).isEqualTo(3);
+        waitUntil(() -> notModifiedResponses.get() == 2);
+        assertThat(fullResponses.get()).isEqualTo(2);
+    }
+
+    @Test
+    void coalescesConcurrentLoadsOfTheSameUser() throws Exception {
+        latencyMs = 300;
+        GitHubProfileCache cache = newCache();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<GitHubApiClient.GitHubSnapshot>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return cache.get("octo");
+            }));
+        }
+        start.countDown();
+
+        for (Future<GitHubApiClient.GitHubSnapshot> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).publicRepos()).isEqualTo(3);
+        }
+        callers.shutdown();
+        assertThat(fullResponses.get()).isEqualTo(2);
+    }
+
+    private GitHubProfileCache newCache() {
+        return new GitHubProfileCache(new GitHubApiClient(appProperties), appProperties);
+    }
+
+    private void respond(HttpExchange exchange, String etag, String body) throws IOException {
+        try {
+            if (latencyMs > 0) {
+                Thread.sleep(latencyMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModifiedResponses.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        fullResponses.incrementAndGet();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
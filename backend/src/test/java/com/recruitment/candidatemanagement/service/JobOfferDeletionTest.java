@@ -0,0 +1,128 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.ApplicationScore;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.repository.AnalysisJobRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationDocumentRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationScoreRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import com.recruitment.candidatemanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+class JobOfferDeletionTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private ApplicationDocumentRepository applicationDocumentRepository;
+
+    @Autowired
+    private ApplicationScoreRepository applicationScoreRepository;
+
+    @Autowired
+    private AnalysisJobRepository analysisJobRepository;
+
+    private final List<Object> events = new ArrayList<>();
+    private AnalysisJobQueue analysisJobQueue;
+    private JobOfferService jobOfferService;
+    private int candidates;
+
+    @BeforeEach
+    void setUp() {
+        analysisJobQueue = new AnalysisJobQueue(analysisJobRepository, new AppProperties());
+        jobOfferService = new JobOfferService(jobOfferRepository, userRepository, applicationRepository,
+            applicationDocumentRepository, applicationScoreRepository, mock(FileUploadService.class), analysisJobQueue, events::add);
+    }
+
+    @Test
+    void removesTheScoresAndJobsOfTheDeletedOfferOnly() {
+        JobOffer deleted = offer("Développeur Java");
+        JobOffer kept = offer("Data engineer");
+        Long scored = apply(deleted);
+        Long queued = apply(deleted);
+        Long other = apply(kept);
+        score(scored, deleted);
+        score(other, kept);
+        analysisJobQueue.enqueue(queued, AnalysisDispatcher.Priority.EMAIL);
+        analysisJobQueue.enqueue(other, AnalysisDispatcher.Priority.EMAIL);
+        entityManager.flush();
+        entityManager.clear();
+
+        jobOfferService.deleteJobOffer(deleted.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(applicationScoreRepository.findAll()).extracting(ApplicationScore::getApplicationId)
+            .containsExactly(other);
+        assertThat(applicationScoreRepository.findById(other)).get()
+            .satisfies(score -> {
+                assertThat(score.getFoundSkills()).containsExactly("java");
+                assertThat(score.getDocuments()).hasSize(1);
+            });
+        assertThat(rows("application_score_skills")).isEqualTo(1);
+        assertThat(rows("application_score_documents")).isEqualTo(1);
+        assertThat(analysisJobRepository.findByApplicationId(queued)).isEmpty();
+        assertThat(analysisJobRepository.findByApplicationId(other)).isPresent();
+        assertThat(events).contains(new JobOfferDeletedEvent(deleted.getId()));
+    }
+
+    private long rows(String table) {
+        return ((Number) entityManager.getEntityManager()
+            .createNativeQuery("SELECT COUNT(*) FROM " + table).getSingleResult()).longValue();
+    }
+
+    private JobOffer offer(String title) {
+        JobOffer jobOffer = new JobOffer();
+        jobOffer.setTitle(title);
+        jobOffer.setCompany("Entreprise");
+        return entityManager.persist(jobOffer);
+    }
+
+    private Long apply(JobOffer jobOffer) {
+        Candidate candidate = new Candidate();
+        candidate.setFirstName("Prénom");
+        candidate.setLastName("Nom" + candidates);
+        candidate.setEmail("candidat" + candidates++ + "@example.com");
+        entityManager.persist(candidate);
+
+        Application application = new Application();
+        application.setJobOffer(jobOffer);
+        application.setCandidate(candidate);
+        return entityManager.persist(application).getId();
+    }
+
+    private void score(Long applicationId, JobOffer jobOffer) {
+        ApplicationScore score = new ApplicationScore();
+        score.setApplicationId(applicationId);
+        score.setJobOfferId(jobOffer.getId());
+        score.getFoundSkills().add("java");
+        score.getDocuments().add(new ApplicationScore.DocumentScore(
+            null, ApplicationScore.StageOutcome.OK, 1, 2, false, true));
+        entityManager.persist(score);
+    }
+}
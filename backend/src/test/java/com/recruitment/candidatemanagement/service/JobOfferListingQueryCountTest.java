@@ -0,0 +1,128 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.dto.JobOfferDTO;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.repository.ApplicationDocumentRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import com.recruitment.candidatemanagement.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class JobOfferListingQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private ApplicationDocumentRepository applicationDocumentRepository;
+
+    private JobOfferService jobOfferService;
+    private int candidates;
+
+    @BeforeEach
+    void setUp() {
+        jobOfferService = new JobOfferService(jobOfferRepository, userRepository,
+            applicationRepository, applicationDocumentRepository, null, null, null, event -> { });
+    }
+
+    @Test
+    void listsOffersWithTheirCountsInAConstantNumberOfQueries() {
+        seedOffers(2);
+        long fewOffers = statementsForListing(2);
+
+        seedOffers(18);
+        long manyOffers = statementsForListing(20);
+
+        // Une requête pour les offres, une pour les compteurs groupés
+        assertThat(fewOffers).isEqualTo(2L);
+        assertThat(manyOffers).isEqualTo(fewOffers);
+    }
+
+    @Test
+    void countsApplicationsPerOffer() {
+        JobOffer withApplications = offer("Avec candidatures");
+        JobOffer withoutApplications = offer("Sans candidature");
+        apply(withApplications);
+        apply(withApplications);
+        apply(withApplications);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<JobOfferDTO> listing = jobOfferService.getJobOfferListing();
+
+        assertThat(listing)
+            .extracting(JobOfferDTO::getId, JobOfferDTO::getApplicationsCount)
+            .containsExactlyInAnyOrder(
+                tuple(withApplications.getId(), 3L),
+                tuple(withoutApplications.getId(), 0L));
+        assertThat(jobOfferService.getApplicationsCount(withApplications.getId())).isEqualTo(3L);
+    }
+
+    private long statementsForListing(int expectedOffers) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<JobOfferDTO> listing = jobOfferService.getJobOfferListing();
+
+        assertThat(listing).hasSize(expectedOffers);
+        assertThat(listing).allSatisfy(dto -> assertThat(dto.getApplicationsCount()).isEqualTo(2L));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedOffers(int count) {
+        for (int i = 0; i < count; i++) {
+            JobOffer jobOffer = offer("Offre " + i);
+            apply(jobOffer);
+            apply(jobOffer);
+        }
+    }
+
+    private JobOffer offer(String title) {
+        JobOffer jobOffer = new JobOffer();
+        jobOffer.setTitle(title);
+        jobOffer.setCompany("Entreprise");
+        return entityManager.persist(jobOffer);
+    }
+
+    private void apply(JobOffer jobOffer) {
+        Candidate candidate = new Candidate();
+        candidate.setFirstName("Prénom");
+        candidate.setLastName("Nom" + candidates);
+        candidate.setEmail("candidat" + candidates++ + "@example.com");
+        entityManager.persist(candidate);
+
+        Application application = new Application();
+        application.setJobOffer(jobOffer);
+        application.setCandidate(candidate);
+        entityManager.persist(application);
+    }
+}
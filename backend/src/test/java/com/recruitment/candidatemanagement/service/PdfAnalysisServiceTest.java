@@ -0,0 +1,132 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfAnalysisServiceTest {
+
+    private static final String JOB_REQUIREMENTS = "Java, Spring et Docker requis";
+
+    @TempDir
+    Path dir;
+
+    private AppProperties appProperties;
+    private PdfAnalysisService service;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        service = new PdfAnalysisService(appProperties);
+    }
+
+    @Test
+    void analysesTheDocumentPageByPageLikeTheWholeText() throws IOException {
+        Path cv = pdf("cv.pdf",
+            List.of("Lea MARTIN", "Developpeuse JAVA"),
+            List.of("7 ans d'expérience en Spring", "Master informatique"),
+            List.of("Docker et Kubernetes", "Leadership"));
+
+        PdfAnalysisService.PdfAnalysisResult streamed = service.analyzePdf(cv.toString(), JOB_REQUIREMENTS);
+        PdfAnalysisService.PdfAnalysisResult whole =
+            service.analyzeText(service.extractTextFromPdf(cv.toString()), JOB_REQUIREMENTS);
+
+        assertThat(streamed.foundSkills).containsExactlyInAnyOrderElementsOf(whole.foundSkills)
+            .contains("java", "spring", "docker", "kubernetes");
+        assertThat(streamed.experienceYears).isEqualTo(7).isEqualTo(whole.experienceYears);
+        assertThat(streamed.skillsScore).isEqualTo(whole.skillsScore);
+        assertThat(streamed.educationScore).isEqualTo(whole.educationScore).isPositive();
+    }
+
+    @Test
+    void stopsAtThePageBudget() throws IOException {
+        appProperties.getAi().getPdf().setMaxPages(2);
+        Path cv = pdf("cv.pdf", List.of("page un java"), List.of("page deux spring"), List.of("page trois docker"));
+
+        String text = service.extractTextFromPdf(cv.toString());
+
+        assertThat(text).contains("page un java", "page deux spring").doesNotContain("docker");
+        assertThat(service.analyzePdf(cv.toString(), JOB_REQUIREMENTS).foundSkills).doesNotContain("docker");
+    }
+
+    @Test
+    void stopsAtTheCharacterBudgetEvenWithinAPage() throws IOException {
+        appProperties.getAi().getPdf().setMaxChars(30);
+        Path cv = pdf("cv.pdf", List.of("Java Spring", "Une longue ligne qui depasse le budget docker"),
+            List.of("Kubernetes"));
+
+        String text = service.extractTextFromPdf(cv.toString());
+
+        assertThat(text).startsWith("java spring").hasSizeLessThanOrEqualTo(30).doesNotContain("kubernetes");
+    }
+
+    @Test
+    void returnsAnEmptyResultForAnUnreadableFile() {
+        PdfAnalysisService.PdfAnalysisResult result =
+            service.analyzePdf(dir.resolve("absent.pdf").toString(), JOB_REQUIREMENTS);
+
+        assertThat(result.foundSkills).isEmpty();
+        assertThat(result.skillsScore).isZero();
+    }
+
+    @Test
+    void extractsDeclaredExperienceOrEstimatesItFromRecentYears() {
+        assertThat(PdfAnalysisService.extractExperienceYears("3 ans d'expérience puis 12 years experience"))
+            .isEqualTo(12);
+        assertThat(PdfAnalysisService.extractExperienceYears("2021 - acme\n2023 - globex\nstage 2019"))
+            .isEqualTo(4);
+        assertThat(PdfAnalysisService.extractExperienceYears("aucune date")).isZero();
+    }
+
+    @Test
+    void findsKeywordsRegardlessOfCaseInASinglePass() {
+        assertThat(PdfAnalysisService.findKeywords("Développeur JavaScript, Docker et PostgreSQL ; Team LEADERSHIP"))
+            .contains("développeur", "javascript", "java", "docker", "postgresql", "leadership")
+            .doesNotContain("python");
+    }
+
+    @Test
+    void flagsTextWithAnAiIndicatorOrSeveralStockPhrases() {
+        assertThat(service.detectAiContent(PdfAnalysisService.findKeywords(
+            "En tant qu'IA, je ne peux pas rédiger de CV"))).isTrue();
+        assertThat(service.detectAiContent(PdfAnalysisService.findKeywords(
+            "Fort de mes compétences en Java, je serais ravi de contribuer à vos projets"))).isTrue();
+        assertThat(service.detectAiContent(PdfAnalysisService.findKeywords(
+            "Fort de mes compétences en Java, j'ai livré trois applications"))).isFalse();
+    }
+
+    @SafeVarargs
+    private Path pdf(String name, List<String>... pages) throws IOException {
+        Path file = dir.resolve(name);
+        try (PDDocument document = new PDDocument()) {
+            for (List<String> lines : pages) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 11);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 700);
+                    for (String line : lines) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+}
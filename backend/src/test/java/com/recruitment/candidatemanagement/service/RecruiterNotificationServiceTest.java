@@ -0,0 +1,87 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.dto.RecruiterNotification;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecruiterNotificationServiceTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private JobOfferRepository jobOfferRepository;
+    private RecruiterNotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        jobOfferRepository = mock(JobOfferRepository.class);
+        service = new RecruiterNotificationService(messagingTemplate, jobOfferRepository,
+            mock(PlatformTransactionManager.class));
+        when(jobOfferRepository.findCreatorUsername(1L)).thenReturn(Optional.of("lea"));
+        when(jobOfferRepository.findCreatorUsername(2L)).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void sendsToTheAuthorOfTheOfferAndBroadcastsOffersWithoutAuthor() {
+        service.onUnreadCountChanged(new UnreadCountChangedEvent(1L, 11L, null, 1));
+        service.onUnreadCountChanged(new UnreadCountChangedEvent(2L, 21L, null, 1));
+        service.onUnreadCountChanged(new UnreadCountChangedEvent(1L, 12L, null, 1));
+
+        verify(messagingTemplate, times(2)).convertAndSendToUser(eq("lea"),
+            eq(RecruiterNotificationService.USER_DESTINATION), any(Object.class));
+        verify(messagingTemplate).convertAndSend(eq(RecruiterNotificationService.BROADCAST_DESTINATION),
+            any(Object.class));
+        // Auteur mis en cache : une seule lecture par offre
+        verify(jobOfferRepository).findCreatorUsername(1L);
+    }
+
+    @Test
+    void resetsEachOfferReadByARecruiterThroughItsOwnRoute() {
+        service.onNotificationsRead(new NotificationsReadEvent(List.of(1L, 2L)));
+
+        ArgumentCaptor<Object> toLea = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSendToUser(eq("lea"), eq(RecruiterNotificationService.USER_DESTINATION),
+            toLea.capture());
+        assertReset(toLea.getValue(), 1L);
+
+        ArgumentCaptor<Object> broadcast = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq(RecruiterNotificationService.BROADCAST_DESTINATION),
+            broadcast.capture());
+        assertReset(broadcast.getValue(), 2L);
+    }
+
+    @Test
+    void keepsGoingWhenAMessageCannotBeSent() {
+        when(jobOfferRepository.findCreatorUsername(3L)).thenReturn(Optional.of("paul"));
+        doThrow(new IllegalStateException("Session fermée")).when(messagingTemplate)
+            .convertAndSendToUser(eq("paul"), anyString(), any(Object.class));
+
+        service.onNotificationsRead(new NotificationsReadEvent(List.of(3L, 1L)));
+
+        verify(messagingTemplate).convertAndSendToUser(eq("lea"), eq(RecruiterNotificationService.USER_DESTINATION),
+            any(Object.class));
+    }
+
+    private static void assertReset(Object sent, Long jobOfferId) {
+        assertThat(sent).isInstanceOfSatisfying(RecruiterNotification.class, notification -> {
+            assertThat(notification.type()).isEqualTo(RecruiterNotification.Type.UNREAD_RESET);
+            assertThat(notification.jobOfferId()).isEqualTo(jobOfferId);
+        });
+    }
+}
@@ -0,0 +1,170 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.dto.SearchPage;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.ApplicationDocument;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.repository.ApplicationDocumentRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchIndexServiceTest {
+
+    @TempDir
+    Path indexDir;
+
+    private JobOfferRepository jobOfferRepository;
+    private CandidateRepository candidateRepository;
+    private ApplicationDocumentRepository documentRepository;
+    private ExtractedTextStore extractedTextStore;
+    private AppProperties appProperties;
+    private SearchIndexService searchIndexService;
+
+    @BeforeEach
+    void setUp() {
+        jobOfferRepository = mock(JobOfferRepository.class);
+        candidateRepository = mock(CandidateRepository.class);
+        documentRepository = mock(ApplicationDocumentRepository.class);
+        extractedTextStore = mock(ExtractedTextStore.class);
+        appProperties = new AppProperties();
+        appProperties.getSearch().setIndexDir(indexDir.toString());
+        searchIndexService = newService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchIndexService.shutdown();
+    }
+
+    @Test
+    void matchesAccentsAndPluralsAndRanksTitlesFirst() throws Exception {
+        List<JobOffer> offers = List.of(
+            offer(1L, "Développeur Java", "Équipe produit, déploiements continus"),
+            offer(2L, "Chef de projet", "Vous encadrez des développeurs Java et des ingénieurs"),
+            offer(3L, "Ingénieur d'études", "Conception de l'architecture"));
+        when(jobOfferRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return offers.stream().filter(offer -> ids.contains(offer.getId())).toList();
+        });
+        offers.forEach(offer -> searchIndexService.onJobOfferChanged(new JobOfferChangedEvent(offer.getId())));
+        searchIndexService.awaitIndexing();
+
+        assertThat(ids(searchIndexService.searchJobOffers("developpeur java", 0, 10))).containsExactly(1L, 2L);
+        assertThat(ids(searchIndexService.searchJobOffers("ingenieurs", 0, 10))).containsExactly(3L, 2L);
+        assertThat(ids(searchIndexService.searchJobOffers("l'architecture", 0, 10))).containsExactly(3L);
+
+        SearchPage<JobOffer> secondPage = searchIndexService.searchJobOffers("java", 1, 1);
+        assertThat(secondPage.total()).isEqualTo(2);
+        assertThat(ids(secondPage)).containsExactly(2L);
+    }
+
+    @Test
+    void findsCandidatesByCvTextAndForgetsDeletedOnes() throws Exception {
+        Candidate candidate = new Candidate();
+        candidate.setId(5L);
+        candidate.setFirstName("Léa");
+        candidate.setLastName("Martin");
+        when(candidateRepository.findAllById(any())).thenReturn(List.of(candidate));
+        ApplicationDocument cv = document(candidate);
+        when(documentRepository.findByCandidateIds(anyCollection())).thenReturn(List.of(cv));
+        when(extractedTextStore.findText(cv)).thenReturn(Optional.of("expérience kubernetes en production"));
+
+        searchIndexService.onCandidateChanged(new CandidateChangedEvent(5L));
+        searchIndexService.awaitIndexing();
+        assertThat(ids(searchIndexService.searchCandidates("Kubernetes lea", 0, 10))).containsExactly(5L);
+
+        when(candidateRepository.findAllById(any())).thenReturn(List.of());
+        searchIndexService.onCandidateChanged(new CandidateChangedEvent(5L));
+        searchIndexService.awaitIndexing();
+        assertThat(searchIndexService.searchCandidates("kubernetes", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void keepsTheCommittedIndexWhenARebuildFailsHalfway() throws Exception {
+        Candidate candidate = new Candidate();
+        candidate.setId(5L);
+        candidate.setFirstName("Léa");
+        candidate.setLastName("Martin");
+        when(candidateRepository.findAllById(any())).thenReturn(List.of(candidate));
+        searchIndexService.onCandidateChanged(new CandidateChangedEvent(5L));
+        searchIndexService.commit();
+        searchIndexService.awaitIndexing();
+
+        // Index vidé, puis échec au moment de réindexer les candidats
+        when(jobOfferRepository.findIdsAfter(anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(candidateRepository.findIdsAfter(anyLong(), any(Limit.class)))
+            .thenThrow(new IllegalStateException("Base indisponible"));
+        searchIndexService.rebuild();
+        // Mise à jour suivante : rafraîchit les recherches
+        searchIndexService.onJobOfferChanged(new JobOfferChangedEvent(1L));
+        searchIndexService.awaitIndexing();
+        assertThat(ids(searchIndexService.searchCandidates("lea", 0, 10))).containsExactly(5L);
+
+        // L'arrêt n'écrit pas non plus l'index vidé
+        searchIndexService.shutdown();
+        searchIndexService = newService();
+        assertThat(ids(searchIndexService.searchCandidates("lea", 0, 10))).containsExactly(5L);
+    }
+
+    @Test
+    void rejectsEmptyQueriesAndDeepPages() {
+        assertThatThrownBy(() -> searchIndexService.searchJobOffers(" ", 0, 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchIndexService.searchJobOffers("java", 0, 500))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> searchIndexService.searchJobOffers("java", 200, 100))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private SearchIndexService newService() {
+        return new SearchIndexService(jobOfferRepository, candidateRepository,
+            mock(ApplicationRepository.class), documentRepository, extractedTextStore, appProperties,
+            mock(PlatformTransactionManager.class));
+    }
+
+    private static <T> List<Long> ids(SearchPage<T> page) {
+        return page.hits().stream().map(hit -> hit.item() instanceof JobOffer offer
+            ? offer.getId() : ((Candidate) hit.item()).getId()).toList();
+    }
+
+    private static JobOffer offer(Long id, String title, String description) {
+        JobOffer offer = new JobOffer();
+        offer.setId(id);
+        offer.setTitle(title);
+        offer.setCompany("Acme");
+        offer.setDescription(description);
+        return offer;
+    }
+
+    private static ApplicationDocument document(Candidate candidate) {
+        Application application = new Application();
+        application.setCandidate(candidate);
+        ApplicationDocument document = new ApplicationDocument();
+        document.setId(9L);
+        document.setContentHash("abc");
+        document.setApplication(application);
+        return document;
+    }
+}
@@ -0,0 +1,117 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.dto.ApplicationListItem;
+import com.recruitment.candidatemanagement.dto.ShortlistCursor;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class ShortlistQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    private JobOffer jobOffer;
+    private int candidates;
+
+    @BeforeEach
+    void setUp() {
+        jobOffer = offer("Développeur Java");
+    }
+
+    @Test
+    void ranksByScoreThenArrivalAndPagesWithoutOffset() {
+        Long a = apply(jobOffer, 14, Application.ApplicationStatus.AMBIGUOUS, false);
+        Long b = apply(jobOffer, 18, Application.ApplicationStatus.VALIDATED, false);
+        Long c = apply(jobOffer, 14, Application.ApplicationStatus.AMBIGUOUS, false);
+        Long d = apply(jobOffer, 16, Application.ApplicationStatus.VALIDATED, false);
+        apply(jobOffer, null, Application.ApplicationStatus.PENDING, false); // Non analysée
+        apply(offer("Autre offre"), 20, Application.ApplicationStatus.VALIDATED, false);
+        flush();
+
+        List<Long> pages = new ArrayList<>();
+        ShortlistCursor cursor = ShortlistCursor.FIRST;
+        List<ApplicationListItem> page;
+        while (!(page = page(null, false, cursor, 3)).isEmpty()) {
+            page.stream().map(ApplicationListItem::id).forEach(pages::add);
+            // Curseur opaque transmis au client et relu
+            cursor = ShortlistCursor.decode(ShortlistCursor.after(page.get(page.size() - 1)).encode());
+            if (page.size() < 3) {
+                break;
+            }
+        }
+
+        assertThat(pages).containsExactly(b, d, a, c);
+    }
+
+    @Test
+    void filtersOnStatusAndArchive() {
+        Long validated = apply(jobOffer, 17, Application.ApplicationStatus.VALIDATED, false);
+        apply(jobOffer, 12, Application.ApplicationStatus.AMBIGUOUS, false);
+        Long archived = apply(jobOffer, 19, Application.ApplicationStatus.VALIDATED, true);
+        flush();
+
+        assertThat(page(Application.ApplicationStatus.VALIDATED, false, ShortlistCursor.FIRST, 10))
+            .extracting(ApplicationListItem::id).containsExactly(validated);
+        assertThat(page(null, true, ShortlistCursor.FIRST, 10))
+            .extracting(ApplicationListItem::id).containsExactly(archived);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThat(ShortlistCursor.decode(null)).isEqualTo(ShortlistCursor.FIRST);
+        assertThatThrownBy(() -> ShortlistCursor.decode("pas-un-curseur"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<ApplicationListItem> page(Application.ApplicationStatus status, boolean archived,
+                                           ShortlistCursor after, int size) {
+        return applicationRepository.findShortlistPage(jobOffer.getId(), status, archived,
+            after.aiScore(), after.id(), Limit.of(size));
+    }
+
+    private void flush() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private JobOffer offer(String title) {
+        JobOffer offer = new JobOffer();
+        offer.setTitle(title);
+        offer.setCompany("Entreprise");
+        return entityManager.persist(offer);
+    }
+
+    private Long apply(JobOffer offer, Integer aiScore, Application.ApplicationStatus status, boolean archived) {
+        Candidate candidate = new Candidate();
+        candidate.setFirstName("Prénom");
+        candidate.setLastName("Nom" + candidates);
+        candidate.setEmail("candidat" + candidates++ + "@example.com");
+        entityManager.persist(candidate);
+
+        Application application = new Application();
+        application.setJobOffer(offer);
+        application.setCandidate(candidate);
+        application.setAiScore(aiScore);
+        application.setStatus(status);
+        application.setArchived(archived);
+        return entityManager.persist(application).getId();
+    }
+}
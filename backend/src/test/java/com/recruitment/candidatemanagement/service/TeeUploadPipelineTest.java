@@ -0,0 +1,155 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TeeUploadPipelineTest {
+
+    private static final String CONTENT = "Développeur Java, dix ans d'expérience.\n".repeat(200);
+
+    @TempDir
+    Path dir;
+
+    private AppProperties appProperties;
+    private TeeUploadPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        appProperties = new AppProperties();
+        // Petits blocs et files courtes : le texte traverse plusieurs blocs
+        appProperties.getFileStorage().getPipeline().setChunkSize(512);
+        appProperties.getFileStorage().getPipeline().setQueueChunks(2);
+        pipeline = new TeeUploadPipeline(appProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void hashesWritesAndExtractsInASingleRead() throws Exception {
+        Path destination = dir.resolve("cv.txt");
+
+        TeeUploadPipeline.Result result = pipeline.process(stream(CONTENT), destination);
+
+        assertThat(result.contentHash()).isEqualTo(sha256(CONTENT));
+        assertThat(Files.readString(destination)).isEqualTo(CONTENT);
+        assertThat(result.extractedText()).contains("dix ans d'expérience");
+        assertThat(result.stats().bytes()).isEqualTo(CONTENT.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(pipeline.getStats().uploads()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsExtractionOfKnownContentButStillWritesTheFile() throws Exception {
+        Path destination = dir.resolve("cv.txt");
+
+        TeeUploadPipeline.Result result = pipeline.process(stream(CONTENT), destination,
+            hash -> !hash.equals(sha256(CONTENT)));
+
+        assertThat(result.extractedText()).isNull();
+        assertThat(result.contentHash()).isEqualTo(sha256(CONTENT));
+        assertThat(Files.readString(destination)).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void deletesThePartialFileWhenReadingFails() {
+        Path destination = dir.resolve("cv.txt");
+        InputStream failing = new InputStream() {
+            private int read;
+
+            @Override
+            public int read() throws IOException {
+                if (read++ > 2048) {
+                    throw new IOException("Connexion interrompue");
+                }
+                return 'a';
+            }
+        };
+
+        assertThatThrownBy(() -> pipeline.process(failing, destination))
+            .isInstanceOf(IOException.class)
+            .hasMessage("Connexion interrompue");
+        assertThat(destination).doesNotExist();
+    }
+
+    @Test
+    void refusesUploadsBeyondTheConcurrencyLimit() throws Exception {
+        appProperties.getFileStorage().getPipeline().setMaxConcurrentUploads(1);
+        appProperties.getFileStorage().getPipeline().setAcquireTimeoutMs(50);
+        pipeline.shutdown();
+        pipeline = new TeeUploadPipeline(appProperties);
+
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream slow = new InputStream() {
+            private boolean waited;
+
+            @Override
+            public int read() throws IOException {
+                if (!waited) {
+                    waited = true;
+                    reading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return -1;
+            }
+        };
+        CompletableFuture<TeeUploadPipeline.Result> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pipeline.process(slow, dir.resolve("lent.txt"));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> pipeline.process(stream(CONTENT), dir.resolve("refuse.txt")))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Trop d'uploads");
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).stats().bytes()).isZero();
+        // Place rendue : les uploads suivants passent
+        for (int i = 0; i < 5; i++) {
+            assertThat(pipeline.process(stream(CONTENT), dir.resolve(i + ".txt")).contentHash())
+                .isEqualTo(sha256(CONTENT));
+        }
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.entity.JobOfferUnreadCounter;
+import com.recruitment.candidatemanagement.entity.User;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferUnreadCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+class UnreadApplicationsQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private JobOfferUnreadCounterRepository counterRepository;
+
+    private int candidates;
+
+    @Test
+    void marksOnlyTheApplicationsUpToTheWatermarkAsViewed() {
+        JobOffer offer = offer();
+        Long first = apply(offer);
+        Long second = apply(offer);
+        Long receivedSince = apply(offer);
+        entityManager.persist(new JobOfferUnreadCounter(offer.getId(), 0, null, second, second));
+        flush();
+
+        assertThat(applicationRepository.markJobOfferApplicationsAsViewed(List.of(offer.getId()))).isEqualTo(2);
+        flush();
+
+        assertThat(viewed(first)).isTrue();
+        assertThat(viewed(second)).isTrue();
+        assertThat(applicationRepository.findById(first)).get()
+            .satisfies(application -> assertThat(application.getViewedAt()).isNotNull());
+        assertThat(viewed(receivedSince)).isFalse();
+    }
+
+    @Test
+    void marksEveryOfferUpToItsOwnWatermark() {
+        JobOffer read = offer();
+        Long readApplication = apply(read);
+        Long unreadApplication = apply(read);
+        JobOffer withoutCounter = offer();
+        Long uncounted = apply(withoutCounter);
+        entityManager.persist(new JobOfferUnreadCounter(read.getId(), 1, null, unreadApplication, readApplication));
+        flush();
+
+        assertThat(applicationRepository.markAllApplicationsAsViewed()).isEqualTo(1);
+        flush();
+
+        assertThat(viewed(readApplication)).isTrue();
+        assertThat(viewed(unreadApplication)).isFalse();
+        assertThat(viewed(uncounted)).isFalse();
+    }
+
+    @Test
+    void findsTheLatestUnreadApplicationOfEachOfferInOneQuery() {
+        JobOffer single = offer();
+        Long viewedApplication = apply(single);
+        Long singleUnread = apply(single);
+        JobOffer several = offer();
+        apply(several);
+        Long latest = apply(several);
+        JobOffer archived = offer();
+        Long archivedApplication = apply(archived);
+        flush();
+        applicationRepository.findById(viewedApplication).ifPresent(application -> application.setViewedByRecruiter(true));
+        applicationRepository.findById(archivedApplication).ifPresent(application -> application.setArchived(true));
+        flush();
+
+        List<ApplicationRepository.LatestUnread> found = applicationRepository.findLatestUnreadIds(
+            List.of(single.getId(), several.getId(), archived.getId()));
+
+        assertThat(found).extracting(ApplicationRepository.LatestUnread::getJobOfferId,
+                ApplicationRepository.LatestUnread::getApplicationId)
+            .containsExactlyInAnyOrder(
+                tuple(single.getId(), singleUnread),
+                tuple(several.getId(), latest));
+    }
+
+    @Test
+    void findsTheUnreadOffersOfARecruiterAndThoseWithoutAuthor() {
+        User lea = user("lea");
+        User paul = user("paul");
+        JobOffer own = offer(lea);
+        JobOffer others = offer(paul);
+        JobOffer shared = offer(null);
+        JobOffer read = offer(lea);
+        entityManager.persist(new JobOfferUnreadCounter(own.getId(), 2, null, 12L, 0L));
+        entityManager.persist(new JobOfferUnreadCounter(others.getId(), 1, null, 13L, 0L));
+        entityManager.persist(new JobOfferUnreadCounter(shared.getId(), 1, null, 14L, 0L));
+        entityManager.persist(new JobOfferUnreadCounter(read.getId(), 0, null, 15L, 15L));
+        flush();
+
+        assertThat(counterRepository.findUnreadVisibleTo("lea")).containsExactlyInAnyOrder(own.getId(), shared.getId());
+    }
+
+    private boolean viewed(Long applicationId) {
+        return Boolean.TRUE.equals(applicationRepository.findById(applicationId).orElseThrow().getViewedByRecruiter());
+    }
+
+    private JobOffer offer() {
+        return offer(null);
+    }
+
+    private JobOffer offer(User author) {
+        JobOffer offer = new JobOffer();
+        offer.setTitle("Développeur Java");
+        offer.setCompany("Entreprise");
+        offer.setCreatedBy(author);
+        return entityManager.persist(offer);
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setRole(User.Role.RECRUITER);
+        return entityManager.persist(user);
+    }
+
+    private Long apply(JobOffer offer) {
+        Candidate candidate = new Candidate();
+        candidate.setFirstName("Prénom");
+        candidate.setLastName("Nom" + candidates);
+        candidate.setEmail("candidat" + candidates++ + "@example.com");
+        entityManager.persist(candidate);
+
+        Application application = new Application();
+        application.setJobOffer(offer);
+        application.setCandidate(candidate);
+        return entityManager.persistAndFlush(application).getId();
+    }
+
+    private void flush() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,175 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.entity.JobOfferUnreadCounter;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferUnreadCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadCounterStoreTest {
+
+    private static final LocalDateTime RECEIVED_AT = LocalDateTime.of(2026, 3, 2, 9, 30);
+
+    private JobOfferUnreadCounterRepository counterRepository;
+    private ApplicationRepository applicationRepository;
+    private JobOfferRepository jobOfferRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private UnreadCounterStore store;
+
+    @BeforeEach
+    void setUp() {
+        counterRepository = mock(JobOfferUnreadCounterRepository.class);
+        applicationRepository = mock(ApplicationRepository.class);
+        jobOfferRepository = mock(JobOfferRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        store = new UnreadCounterStore(counterRepository, applicationRepository, jobOfferRepository,
+            eventPublisher, mock(PlatformTransactionManager.class));
+        when(jobOfferRepository.findTitles(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<JobOfferRepository.JobOfferTitle> titles = new ArrayList<>();
+            ids.forEach(id -> titles.add(new Title(id, "Offre " + id)));
+            return titles;
+        });
+    }
+
+    @Test
+    void servesNotificationsFromReloadedCounters() {
+        when(counterRepository.findAll()).thenReturn(List.of(
+            new JobOfferUnreadCounter(1L, 3, RECEIVED_AT, 30L, 10L),
+            new JobOfferUnreadCounter(2L, 1, RECEIVED_AT.plusDays(1), 42L, 0L),
+            new JobOfferUnreadCounter(3L, 0, RECEIVED_AT, 50L, 50L)));
+        when(applicationRepository.findLatestUnreadIds(List.of(2L))).thenReturn(List.of(new Latest(2L, 42L)));
+
+        store.reload();
+        List<Map<String, Object>> notifications = store.getUnreadNotifications(null);
+
+        assertThat(notifications).extracting(notification -> notification.get("jobOfferId"))
+            .containsExactly(2L, 1L);
+        assertThat(notifications.get(0).get("singleApplicationId")).isEqualTo(42L);
+        assertThat(notifications.get(1).get("unreadCount")).isEqualTo(3);
+        assertThat(notifications.get(1)).doesNotContainKey("singleApplicationId");
+        verify(applicationRepository).findLatestUnreadIds(any());
+    }
+
+    @Test
+    void marksTheApplicationsCoveredByTheWatermarkAsViewed() {
+        store.markRead(1L);
+
+        verify(counterRepository).markRead(List.of(1L));
+        verify(applicationRepository).markJobOfferApplicationsAsViewed(List.of(1L));
+    }
+
+    @Test
+    void marksAllOnlyTheOffersVisibleToTheRecruiter() {
+        when(counterRepository.findUnreadVisibleTo("lea")).thenReturn(List.of(1L, 3L));
+        store.afterUnreadCountChanged(new UnreadCountChangedEvent(1L, 11L, RECEIVED_AT, 1));
+        store.afterUnreadCountChanged(new UnreadCountChangedEvent(2L, 21L, RECEIVED_AT, 1));
+
+        assertThat(store.markAllRead("lea")).containsExactly(1L, 3L);
+        verify(counterRepository).markRead(List.of(1L, 3L));
+        verify(applicationRepository).markJobOfferApplicationsAsViewed(List.of(1L, 3L));
+
+        store.afterNotificationsRead(new NotificationsReadEvent(List.of(1L, 3L)));
+        // L'offre d'un autre recruteur reste non lue
+        assertThat(store.getUnreadNotifications(null)).singleElement()
+            .satisfies(notification -> assertThat(notification.get("jobOfferId")).isEqualTo(2L));
+    }
+
+    @Test
+    void marksNothingWhenTheRecruiterHasNoUnreadOffer() {
+        when(counterRepository.findUnreadVisibleTo("lea")).thenReturn(List.of());
+
+        assertThat(store.markAllRead("lea")).isEmpty();
+        verify(counterRepository, never()).markRead(any());
+    }
+
+    @Test
+    void appliesCommittedChangesUntilTheOfferIsRead() {
+        store.afterUnreadCountChanged(new UnreadCountChangedEvent(1L, 11L, RECEIVED_AT, 1));
+        store.afterUnreadCountChanged(new UnreadCountChangedEvent(1L, 12L, RECEIVED_AT.plusHours(1), 1));
+        store.afterUnreadCountChanged(new UnreadCountChangedEvent(1L, 11L, RECEIVED_AT, -1));
+
+        assertThat(store.getUnreadNotifications(null)).singleElement()
+            .satisfies(notification -> {
+                assertThat(notification.get("unreadCount")).isEqualTo(1);
+                assertThat(notification.get("latestApplicationDate")).isEqualTo(RECEIVED_AT.plusHours(1));
+            });
+
+        store.afterNotificationsRead(new NotificationsReadEvent(List.of(1L)));
+        // Consultation d'une candidature déjà couverte par le filigrane
+        store.afterUnreadCountChanged(new UnreadCountChangedEvent(1L, 12L, RECEIVED_AT, -1));
+        assertThat(store.getUnreadNotifications(null)).isEmpty();
+
+        store.afterUnreadCountChanged(new UnreadCountChangedEvent(1L, 13L, RECEIVED_AT.plusHours(2), 1));
+        assertThat(store.getUnreadNotifications(null)).singleElement()
+            .satisfies(notification -> assertThat(notification.get("unreadCount")).isEqualTo(1));
+    }
+
+    @Test
+    void decrementsOnlyApplicationsStillCounted() {
+        when(counterRepository.recordRead(1L, 11L)).thenReturn(0);
+
+        store.onApplicationEvent(new ApplicationLifecycleEvent(ApplicationLifecycleEvent.Type.VIEWED, 11L,
+            state(false), state(true)));
+
+        verify(counterRepository).recordRead(1L, 11L);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void countsNewUnreadApplicationsInTheSameTransaction() {
+        store.onApplicationEvent(new ApplicationLifecycleEvent(ApplicationLifecycleEvent.Type.CREATED, 11L,
+            null, state(false)));
+
+        verify(counterRepository).recordReceived(1L, 11L, RECEIVED_AT);
+        verify(eventPublisher).publishEvent(new UnreadCountChangedEvent(1L, 11L, RECEIVED_AT, 1));
+        verify(counterRepository, never()).recordRead(eq(1L), anyLong());
+    }
+
+    private static ApplicationLifecycleEvent.State state(boolean viewed) {
+        return new ApplicationLifecycleEvent.State(1L, null, false, viewed, null, RECEIVED_AT);
+    }
+
+    private record Latest(Long jobOfferId, Long applicationId) implements ApplicationRepository.LatestUnread {
+
+        @Override
+        public Long getJobOfferId() {
+            return jobOfferId;
+        }
+
+        @Override
+        public Long getApplicationId() {
+            return applicationId;
+        }
+    }
+
+    private record Title(Long id, String title) implements JobOfferRepository.JobOfferTitle {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getTitle() {
+            return title;
+        }
+    }
+}
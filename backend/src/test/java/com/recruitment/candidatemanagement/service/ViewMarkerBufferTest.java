@@ -0,0 +1,122 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ViewMarkerBufferTest {
+
+    private static final LocalDateTime VIEWED_AT = LocalDateTime.of(2026, 3, 2, 9, 30);
+
+    private ApplicationRepository applicationRepository;
+    private JdbcTemplate jdbcTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private ViewMarkerBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        applicationRepository = mock(ApplicationRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        buffer = new ViewMarkerBuffer(applicationRepository, jdbcTemplate, eventPublisher,
+            new AppProperties(), mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void keepsTheFirstViewOfAnApplication() {
+        assertThat(buffer.markViewed(1L, VIEWED_AT)).isEqualTo(VIEWED_AT);
+        assertThat(buffer.markViewed(1L, VIEWED_AT.plusMinutes(5))).isEqualTo(VIEWED_AT);
+        buffer.markViewed(2L, VIEWED_AT);
+
+        assertThat(buffer.getPendingCount()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesOneBatchForApplicationsStillNotViewed() {
+        buffer.markViewed(1L, VIEWED_AT);
+        buffer.markViewed(2L, VIEWED_AT);
+        buffer.markViewed(3L, VIEWED_AT);
+        // La candidature 3 a été vue entre-temps (autre instance)
+        when(applicationRepository.findNotViewedForUpdate(anyCollection()))
+            .thenReturn(List.of(application(1L), application(2L)));
+
+        buffer.flush();
+
+        ArgumentCaptor<Collection<Application>> written = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), written.capture(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+        assertThat(written.getValue()).extracting(Application::getId).containsExactly(1L, 2L);
+
+        ArgumentCaptor<ApplicationLifecycleEvent> events = ArgumentCaptor.forClass(ApplicationLifecycleEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).allSatisfy(event -> {
+            assertThat(event.type()).isEqualTo(ApplicationLifecycleEvent.Type.VIEWED);
+            assertThat(event.before().unread()).isTrue();
+            assertThat(event.after().unread()).isFalse();
+        });
+        assertThat(buffer.getPendingCount()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void keepsViewsPendingWhenTheWriteFails() {
+        buffer.markViewed(1L, VIEWED_AT);
+        when(applicationRepository.findNotViewedForUpdate(anyCollection()))
+            .thenThrow(new QueryTimeoutException("verrou"));
+
+        buffer.flush();
+
+        assertThat(buffer.getPendingCount()).isEqualTo(1);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void writesRemainingViewsOnShutdown() {
+        buffer.start();
+        buffer.markViewed(1L, VIEWED_AT);
+        when(applicationRepository.findNotViewedForUpdate(anyCollection())).thenReturn(List.of());
+
+        buffer.stop();
+
+        verify(applicationRepository).findNotViewedForUpdate(anyCollection());
+        assertThat(buffer.isRunning()).isFalse();
+        assertThat(buffer.getPendingCount()).isZero();
+    }
+
+    private static Application application(Long id) {
+        JobOffer jobOffer = new JobOffer();
+        jobOffer.setId(7L);
+        Application application = new Application();
+        application.setId(id);
+        application.setJobOffer(jobOffer);
+        application.setStatus(Application.ApplicationStatus.PENDING);
+        application.setReceivedAt(VIEWED_AT.minusDays(1));
+        return application;
+    }
+}
@@ -0,0 +1,141 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.ApplicationScore;
+import com.recruitment.candidatemanagement.entity.Candidate;
+import com.recruitment.candidatemanagement.entity.JobOffer;
+import com.recruitment.candidatemanagement.repository.ApplicationRepository;
+import com.recruitment.candidatemanagement.repository.ApplicationScoreRepository;
+import com.recruitment.candidatemanagement.repository.CandidateRepository;
+import com.recruitment.candidatemanagement.repository.JobOfferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+class WebApplicationDiscardTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+
+    @Autowired
+    private ApplicationScoreRepository applicationScoreRepository;
+
+    private final List<Object> events = new ArrayList<>();
+    private final AnalysisDispatcher analysisDispatcher = mock(AnalysisDispatcher.class);
+    private ApplicationService applicationService;
+    private JobOffer jobOffer;
+
+    @BeforeEach
+    void setUp() {
+        applicationService = new ApplicationService(applicationRepository, candidateRepository, jobOfferRepository,
+            null, applicationScoreRepository, null, analysisDispatcher, null, null, events::add, null, null);
+        JobOffer offer = new JobOffer();
+        offer.setTitle("Développeur Java");
+        offer.setCompany("Entreprise");
+        offer.setStatus(JobOffer.JobStatus.PUBLISHED);
+        jobOffer = entityManager.persist(offer);
+    }
+
+    @Test
+    void removesTheCandidateCreatedForADiscardedApplication() {
+        ApplicationService.WebApplication recorded = record("lea@example.com");
+        assertThat(recorded.newCandidate()).isTrue();
+        Long candidateId = recorded.application().getCandidate().getId();
+        flush();
+
+        applicationService.discardWebApplication(recorded);
+        flush();
+
+        assertThat(applicationRepository.findById(recorded.application().getId())).isEmpty();
+        assertThat(candidateRepository.findById(candidateId)).isEmpty();
+        assertThat(events).contains(new CandidateChangedEvent(candidateId))
+            .hasAtLeastOneElementOfType(ApplicationLifecycleEvent.class);
+        verify(analysisDispatcher).cancel(recorded.application().getId());
+    }
+
+    @Test
+    void keepsAnExistingCandidate() {
+        Candidate candidate = new Candidate();
+        candidate.setFirstName("Léa");
+        candidate.setLastName("Martin");
+        candidate.setEmail("lea@example.com");
+        Long candidateId = entityManager.persist(candidate).getId();
+        flush();
+
+        ApplicationService.WebApplication recorded = record("lea@example.com");
+        assertThat(recorded.newCandidate()).isFalse();
+        // Analyse passée entre l'enregistrement et l'échec des documents
+        ApplicationScore score = new ApplicationScore();
+        score.setApplicationId(recorded.application().getId());
+        score.setJobOfferId(jobOffer.getId());
+        score.getFoundSkills().add("java");
+        entityManager.persist(score);
+        flush();
+
+        applicationService.discardWebApplication(recorded);
+        flush();
+
+        assertThat(applicationRepository.findById(recorded.application().getId())).isEmpty();
+        assertThat(applicationScoreRepository.findById(recorded.application().getId())).isEmpty();
+        assertThat(candidateRepository.findById(candidateId)).isPresent();
+    }
+
+    @Test
+    void keepsANewCandidateWhoAppliedAgainMeanwhile() {
+        ApplicationService.WebApplication recorded = record("lea@example.com");
+        ApplicationService.WebApplication other = record("lea@example.com");
+        flush();
+
+        applicationService.discardWebApplication(recorded);
+        flush();
+
+        assertThat(applicationRepository.findById(recorded.application().getId())).isEmpty();
+        assertThat(applicationRepository.findById(other.application().getId())).isPresent();
+        assertThat(candidateRepository.findByEmail("lea@example.com")).isPresent();
+    }
+
+    @Test
+    void deletesTheApplicationEvenWhenItsCandidateApplicationsAreLoaded() {
+        ApplicationService.WebApplication recorded = record("lea@example.com");
+        ApplicationService.WebApplication other = record("lea@example.com");
+        flush();
+        // Collection en cascade ALL déjà chargée dans le contexte de persistance
+        assertThat(candidateRepository.findByEmail("lea@example.com")).get()
+            .satisfies(candidate -> assertThat(candidate.getApplications()).hasSize(2));
+
+        applicationService.discardWebApplication(recorded);
+        flush();
+
+        assertThat(applicationRepository.findById(recorded.application().getId())).isEmpty();
+        assertThat(applicationRepository.findById(other.application().getId())).isPresent();
+    }
+
+    private ApplicationService.WebApplication record(String email) {
+        return applicationService.recordWebApplication(jobOffer.getId(), "Léa", "Martin", email, null, null,
+            null, null, null, null, "Bonjour");
+    }
+
+    private void flush() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
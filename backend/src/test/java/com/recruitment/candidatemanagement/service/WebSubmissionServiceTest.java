@@ -0,0 +1,131 @@
+package com.recruitment.candidatemanagement.service;
+
+import com.recruitment.candidatemanagement.config.AppProperties;
+import com.recruitment.candidatemanagement.entity.Application;
+import com.recruitment.candidatemanagement.entity.ApplicationDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WebSubmissionServiceTest {
+
+    private final MultipartFile cv = new MockMultipartFile("cv", "cv.pdf", "application/pdf", new byte[]{1});
+    private final MultipartFile coverLetter = new MockMultipartFile("coverLetter", "lettre.pdf", "application/pdf", new byte[]{2});
+    private final FileUploadService.StagedDocument stagedCv = staged("cv.pdf", ApplicationDocument.DocumentType.CV);
+    private final FileUploadService.StagedDocument stagedLetter =
+        staged("lettre.pdf", ApplicationDocument.DocumentType.COVER_LETTER);
+
+    private ApplicationService applicationService;
+    private FileUploadService fileUploadService;
+    private AppProperties appProperties;
+    private WebSubmissionService webSubmissionService;
+    private ApplicationService.WebApplication recorded;
+
+    @BeforeEach
+    void setUp() {
+        applicationService = mock(ApplicationService.class);
+        fileUploadService = mock(FileUploadService.class);
+        appProperties = new AppProperties();
+        webSubmissionService = new WebSubmissionService(applicationService, fileUploadService, appProperties);
+
+        Application application = new Application();
+        application.setId(3L);
+        recorded = new ApplicationService.WebApplication(application, true);
+        when(applicationService.recordWebApplication(any(), any(), any(), any(), any(), any(), any(), any(), any(),
+            any(), any())).thenReturn(recorded);
+    }
+
+    @Test
+    void recordsIngestsThenAttachesTheDocuments() {
+        when(fileUploadService.stageAsync(cv, ApplicationDocument.DocumentType.CV))
+            .thenReturn(CompletableFuture.completedFuture(stagedCv));
+        when(fileUploadService.stageAsync(coverLetter, ApplicationDocument.DocumentType.COVER_LETTER))
+            .thenReturn(CompletableFuture.completedFuture(stagedLetter));
+        ApplicationService.WebSubmission submission = new ApplicationService.WebSubmission(recorded.application(), true);
+        when(applicationService.attachWebDocuments(recorded.application(), List.of(stagedCv, stagedLetter)))
+            .thenReturn(submission);
+
+        assertThat(submit(cv, coverLetter)).isSameAs(submission);
+        verify(applicationService, never()).discardWebApplication(any());
+        verify(fileUploadService, never()).discard(any());
+    }
+
+    @Test
+    void discardsTheApplicationAndStagedFilesWhenAnIngestFails() {
+        when(fileUploadService.stageAsync(cv, ApplicationDocument.DocumentType.CV))
+            .thenReturn(CompletableFuture.completedFuture(stagedCv));
+        when(fileUploadService.stageAsync(coverLetter, ApplicationDocument.DocumentType.COVER_LETTER))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Disque plein")));
+
+        assertThatThrownBy(() -> submit(cv, coverLetter)).isInstanceOf(IllegalStateException.class)
+            .hasMessage("Disque plein");
+        verify(fileUploadService).discard(stagedCv);
+        verify(applicationService).discardWebApplication(recorded);
+        verify(applicationService, never()).attachWebDocuments(any(), anyList());
+    }
+
+    @Test
+    void discardsStagedFilesWhenAttachingFails() {
+        when(fileUploadService.stageAsync(cv, ApplicationDocument.DocumentType.CV))
+            .thenReturn(CompletableFuture.completedFuture(stagedCv));
+        when(applicationService.attachWebDocuments(eq(recorded.application()), anyList()))
+            .thenThrow(new IllegalStateException("Transaction annulée"));
+
+        assertThatThrownBy(() -> submit(cv, null)).isInstanceOf(IllegalStateException.class);
+        verify(fileUploadService).discard(stagedCv);
+        verify(applicationService).discardWebApplication(recorded);
+    }
+
+    @Test
+    void givesUpAfterTheIngestTimeoutAndDiscardsLateFiles() {
+        appProperties.getFileStorage().setIngestTimeoutMs(50);
+        CompletableFuture<FileUploadService.StagedDocument> slow = new CompletableFuture<>();
+        when(fileUploadService.stageAsync(cv, ApplicationDocument.DocumentType.CV)).thenReturn(slow);
+
+        assertThatThrownBy(() -> submit(cv, null))
+            .isInstanceOf(WebSubmissionService.IngestUnavailableException.class);
+        verify(applicationService).discardWebApplication(recorded);
+        verify(fileUploadService, never()).discard(any());
+
+        // Ingestion terminée après l'abandon du dépôt : fichier supprimé aussitôt
+        slow.complete(stagedCv);
+        verify(fileUploadService).discard(stagedCv);
+    }
+
+    @Test
+    void rejectsTheSubmissionWhenTheIngestPoolIsFull() {
+        when(fileUploadService.stageAsync(cv, ApplicationDocument.DocumentType.CV))
+            .thenReturn(CompletableFuture.completedFuture(stagedCv));
+        when(fileUploadService.stageAsync(coverLetter, ApplicationDocument.DocumentType.COVER_LETTER))
+            .thenThrow(new RejectedExecutionException("File pleine"));
+
+        assertThatThrownBy(() -> submit(cv, coverLetter))
+            .isInstanceOf(WebSubmissionService.IngestUnavailableException.class);
+        verify(fileUploadService).discard(stagedCv);
+        verify(applicationService).discardWebApplication(recorded);
+    }
+
+    private ApplicationService.WebSubmission submit(MultipartFile cv, MultipartFile coverLetter) {
+        return webSubmissionService.submit(1L, "Léa", "Martin", "lea@example.com", null, null, null,
+            null, null, null, "Bonjour", cv, coverLetter);
+    }
+
+    private static FileUploadService.StagedDocument staged(String fileName, ApplicationDocument.DocumentType type) {
+        return new FileUploadService.StagedDocument(fileName, "application/pdf", type, null);
+    }
+}